@@ -0,0 +1,118 @@
+/*
+ * Invokers.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.invoke.MethodHandle;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Utility methods for invoking the method handles of generated row mappers and parameter binders.
+ * On Java 21 and up, each method handle is stored as a constant in a hidden class, so the JIT compiler can inline it.
+ * On other Java versions, each method handle is invoked through a final instance field.
+ *
+ * @author Rob Spoor
+ */
+final class Invokers {
+
+    private Invokers() {
+    }
+
+    /**
+     * Returns a row mapper that invokes a method handle.
+     *
+     * @param plan The method handle to invoke, of type {@code (ResultSet)Object}.
+     * @return A row mapper that invokes the given method handle.
+     */
+    static SQLFunction<ResultSet, Object> mapper(MethodHandle plan) {
+        return fieldMapper(plan);
+    }
+
+    /**
+     * Returns a parameter binder that invokes a method handle.
+     *
+     * @param plan The method handle to invoke, of type {@code (PreparedStatement, Object)void}.
+     * @return A parameter binder that invokes the given method handle.
+     */
+    static SQLBiConsumer<PreparedStatement, Object> binder(MethodHandle plan) {
+        return fieldBinder(plan);
+    }
+
+    /**
+     * Returns a row mapper that invokes a method handle through a final instance field.
+     * Unlike {@link #mapper(MethodHandle)} this never defines a class, so it should be used for method handles that are not cached.
+     *
+     * @param plan The method handle to invoke, of type {@code (ResultSet)Object}.
+     * @return A row mapper that invokes the given method handle.
+     */
+    static SQLFunction<ResultSet, Object> fieldMapper(MethodHandle plan) {
+        return new FieldMapper(plan);
+    }
+
+    /**
+     * Returns a parameter binder that invokes a method handle through a final instance field.
+     * Unlike {@link #binder(MethodHandle)} this never defines a class, so it should be used for method handles that are not cached.
+     *
+     * @param plan The method handle to invoke, of type {@code (PreparedStatement, Object)void}.
+     * @return A parameter binder that invokes the given method handle.
+     */
+    static SQLBiConsumer<PreparedStatement, Object> fieldBinder(MethodHandle plan) {
+        return new FieldBinder(plan);
+    }
+
+    private static final class FieldMapper implements SQLFunction<ResultSet, Object> {
+
+        private final MethodHandle plan;
+
+        private FieldMapper(MethodHandle plan) {
+            this.plan = plan;
+        }
+
+        @Override
+        public Object apply(ResultSet resultSet) throws SQLException {
+            try {
+                return (Object) plan.invokeExact(resultSet);
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    private static final class FieldBinder implements SQLBiConsumer<PreparedStatement, Object> {
+
+        private final MethodHandle plan;
+
+        private FieldBinder(MethodHandle plan) {
+            this.plan = plan;
+        }
+
+        @Override
+        public void accept(PreparedStatement statement, Object value) throws SQLException {
+            try {
+                plan.invokeExact(statement, value);
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+}
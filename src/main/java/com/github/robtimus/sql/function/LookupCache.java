@@ -0,0 +1,57 @@
+/*
+ * LookupCache.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A cache for a value that is derived from a class using a lookup, such as the analysis of a class for generated row mappers.
+ * Values are cached per class, lookup class and lookup modes. Values for lookups without {@link MethodHandles.Lookup#MODULE module} access
+ * are not cached, because on Java 14 and up such lookups can have a previous lookup class that further limits their access.
+ * Instances of this class are thread-safe.
+ *
+ * @author Rob Spoor
+ * @param <V> The type of cached value.
+ */
+final class LookupCache<V> {
+
+    private final BiFunction<Class<?>, MethodHandles.Lookup, ? extends V> factory;
+
+    private final ClassValue<Map<List<Object>, V>> values = new ClassValue<Map<List<Object>, V>>() {
+        @Override
+        protected Map<List<Object>, V> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    LookupCache(BiFunction<Class<?>, MethodHandles.Lookup, ? extends V> factory) {
+        this.factory = factory;
+    }
+
+    V get(Class<?> type, MethodHandles.Lookup lookup) {
+        if ((lookup.lookupModes() & MethodHandles.Lookup.MODULE) == 0) {
+            return factory.apply(type, lookup);
+        }
+        List<Object> key = List.of(lookup.lookupClass(), lookup.lookupModes());
+        return values.get(type).computeIfAbsent(key, k -> factory.apply(type, lookup));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * MetaDataCache.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * A cache for a value that is derived from the meta data of a result set, for row mappers that are called for many rows.
+ * The value is only derived again when the cache is used with a different result set that has different meta data.
+ * Instances of this class are thread-safe, and do not prevent result sets that they were used with from being garbage collected.
+ *
+ * @author Rob Spoor
+ * @param <V> The type of cached value.
+ */
+final class MetaDataCache<V> {
+
+    private final SQLFunction<? super ResultSetMetaData, ? extends V> factory;
+
+    private volatile Entry<V> entry;
+
+    MetaDataCache(SQLFunction<? super ResultSetMetaData, ? extends V> factory) {
+        this.factory = factory;
+    }
+
+    V get(ResultSet resultSet) throws SQLException {
+        Entry<V> current = entry;
+        if (current == null || current.resultSet.get() != resultSet) {
+            current = resolve(resultSet, current);
+            entry = current;
+        }
+        return current.value;
+    }
+
+    private Entry<V> resolve(ResultSet resultSet, Entry<V> previous) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        V value = previous != null && previous.metaData.get() == metaData
+                ? previous.value
+                : factory.apply(metaData);
+        return new Entry<>(resultSet, metaData, value);
+    }
+
+    private static final class Entry<V> {
+
+        // Row mappers are often long-lived; weak references prevent them from keeping closed result sets and their statements reachable
+        private final WeakReference<ResultSet> resultSet;
+        private final WeakReference<ResultSetMetaData> metaData;
+        private final V value;
+
+        private Entry(ResultSet resultSet, ResultSetMetaData metaData, V value) {
+            this.resultSet = new WeakReference<>(resultSet);
+            this.metaData = new WeakReference<>(metaData);
+            this.value = value;
+        }
+    }
+}
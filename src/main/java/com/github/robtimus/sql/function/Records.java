@@ -0,0 +1,141 @@
+/*
+ * Records.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Utility methods for inspecting record classes.
+ * On Java versions that support records, record classes are inspected using reflection. On other Java versions, no class is a record class.
+ *
+ * @author Rob Spoor
+ */
+final class Records {
+
+    private static final Method IS_RECORD;
+    private static final Method GET_RECORD_COMPONENTS;
+    private static final Method GET_NAME;
+    private static final Method GET_TYPE;
+    private static final Method GET_ACCESSOR;
+
+    static {
+        Method isRecord = null;
+        Method getRecordComponents = null;
+        Method getName = null;
+        Method getType = null;
+        Method getAccessor = null;
+        try {
+            isRecord = Class.class.getMethod("isRecord"); //$NON-NLS-1$
+            getRecordComponents = Class.class.getMethod("getRecordComponents"); //$NON-NLS-1$
+            Class<?> componentClass = Class.forName("java.lang.reflect.RecordComponent"); //$NON-NLS-1$
+            getName = componentClass.getMethod("getName"); //$NON-NLS-1$
+            getType = componentClass.getMethod("getType"); //$NON-NLS-1$
+            getAccessor = componentClass.getMethod("getAccessor"); //$NON-NLS-1$
+        } catch (ReflectiveOperationException e) {
+            isRecord = null;
+        }
+        IS_RECORD = isRecord;
+        GET_RECORD_COMPONENTS = getRecordComponents;
+        GET_NAME = getName;
+        GET_TYPE = getType;
+        GET_ACCESSOR = getAccessor;
+    }
+
+    private Records() {
+    }
+
+    /**
+     * Returns whether or not a class is a record class.
+     *
+     * @param type The class to check.
+     * @return {@code true} if the given class is a record class, or {@code false} otherwise.
+     */
+    static boolean isRecord(Class<?> type) {
+        return IS_RECORD != null && (boolean) invoke(IS_RECORD, type);
+    }
+
+    /**
+     * Returns the names of the components of a record class.
+     *
+     * @param type The record class.
+     * @return The names of the components of the given record class, in declaration order.
+     */
+    static String[] componentNames(Class<?> type) {
+        Object[] components = components(type);
+        String[] names = new String[components.length];
+        for (int i = 0; i < components.length; i++) {
+            names[i] = (String) invoke(GET_NAME, components[i]);
+        }
+        return names;
+    }
+
+    /**
+     * Returns the types of the components of a record class.
+     *
+     * @param type The record class.
+     * @return The types of the components of the given record class, in declaration order.
+     */
+    static Class<?>[] componentTypes(Class<?> type) {
+        Object[] components = components(type);
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = (Class<?>) invoke(GET_TYPE, components[i]);
+        }
+        return types;
+    }
+
+    /**
+     * Returns the accessor methods of the components of a record class.
+     *
+     * @param type The record class.
+     * @return The accessor methods of the components of the given record class, in declaration order.
+     */
+    static Method[] accessors(Class<?> type) {
+        Object[] components = components(type);
+        Method[] accessors = new Method[components.length];
+        for (int i = 0; i < components.length; i++) {
+            accessors[i] = (Method) invoke(GET_ACCESSOR, components[i]);
+        }
+        return accessors;
+    }
+
+    private static Object[] components(Class<?> type) {
+        if (!isRecord(type)) {
+            throw new IllegalArgumentException(type + " is not a record class"); //$NON-NLS-1$
+        }
+        return (Object[]) invoke(GET_RECORD_COMPONENTS, type);
+    }
+
+    private static Object invoke(Method method, Object target) {
+        try {
+            return method.invoke(target);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
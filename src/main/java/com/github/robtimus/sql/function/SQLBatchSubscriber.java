@@ -0,0 +1,240 @@
+/*
+ * SQLBatchSubscriber.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * A {@link Flow.Subscriber} that writes items to a database in batches.
+ * <p>
+ * A batch subscriber requests items in chunks of its batch size. Once a full batch has been received, it is written as one batch, and only
+ * after the write has completed the next chunk is requested. As a result, the demand that a publisher sees reflects how fast items are
+ * actually written, and at most one batch of items is kept in memory. When the publisher completes, any remaining items are written as a final
+ * smaller batch.
+ * <p>
+ * Batches are written on the thread that calls {@link #onNext(Object)} or {@link #onComplete()}. The outcome of the subscription is available
+ * through {@link #result()}: it completes with the number of written items once the publisher has completed and all batches have been
+ * written, or exceptionally if the publisher fails or writing a batch fails. If writing a batch fails, the subscription is cancelled.
+ * If the publisher fails, items that have not been written yet are discarded.
+ *
+ * @author Rob Spoor
+ * @param <T> The type of items.
+ * @since 3.0
+ */
+public final class SQLBatchSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final int batchSize;
+    private final SQLConsumer<? super List<T>> batchWriter;
+
+    private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+    private List<T> batch;
+    private long written;
+
+    private SQLBatchSubscriber(int batchSize, SQLConsumer<? super List<T>> batchWriter) {
+        this.batchSize = batchSize;
+        this.batchWriter = batchWriter;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Returns a new batch subscriber that writes batches using a batch writer.
+     * The batch writer should write all items of a batch, and commit them if needed, before it returns.
+     *
+     * @param <T> The type of items.
+     * @param batchSize The maximum number of items per batch.
+     * @param batchWriter The function that writes a batch of items.
+     * @return The created batch subscriber.
+     * @throws NullPointerException If {@code batchWriter} is {@code null}.
+     * @throws IllegalArgumentException If {@code batchSize} is not positive.
+     */
+    public static <T> SQLBatchSubscriber<T> create(int batchSize, SQLConsumer<? super List<T>> batchWriter) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(batchSize + " <= 0"); //$NON-NLS-1$
+        }
+        Objects.requireNonNull(batchWriter);
+        return new SQLBatchSubscriber<>(batchSize, batchWriter);
+    }
+
+    /**
+     * Returns a new batch subscriber that writes batches using a prepared statement.
+     * <p>
+     * For each item in a batch, the binder is called to set the parameters of the prepared statement, after which the parameters are added to
+     * the statement's batch. The batch is then {@link PreparedStatement#executeBatch() executed}. Transactions are left to the caller; if the
+     * statement's connection is not in auto-commit mode, the caller is responsible for committing or rolling back the written batches.
+     * <p>
+     * The prepared statement is not closed by the returned batch subscriber.
+     *
+     * @param <T> The type of items.
+     * @param batchSize The maximum number of items per batch.
+     * @param statement The prepared statement to write batches with.
+     * @param binder The function that sets the parameters of the prepared statement for an item.
+     * @return The created batch subscriber.
+     * @throws NullPointerException If {@code statement} or {@code binder} is {@code null}.
+     * @throws IllegalArgumentException If {@code batchSize} is not positive.
+     */
+    public static <T> SQLBatchSubscriber<T> create(int batchSize, PreparedStatement statement,
+            SQLBiConsumer<? super PreparedStatement, ? super T> binder) {
+
+        return create(batchSize, statement, binder, false);
+    }
+
+    /**
+     * Returns a new batch subscriber that writes batches using a prepared statement, optionally committing each batch.
+     * <p>
+     * For each item in a batch, the binder is called to set the parameters of the prepared statement, after which the parameters are added to
+     * the statement's batch. The batch is then {@link PreparedStatement#executeBatch() executed}.
+     * <p>
+     * If {@code commitBatches} is {@code true} and the statement's connection is not in auto-commit mode, the connection is
+     * {@link Connection#commit() committed} after each batch, so each batch is written in its own transaction. If writing a batch fails, the
+     * connection is {@link Connection#rollback() rolled back} instead, so no part of the failed batch is written. Any work that was done on
+     * the connection before the first batch is committed along with it, so the connection should not be in use for anything else.
+     * If {@code commitBatches} is {@code false}, this method behaves like {@link #create(int, PreparedStatement, SQLBiConsumer)}.
+     * <p>
+     * The prepared statement is not closed by the returned batch subscriber.
+     *
+     * @param <T> The type of items.
+     * @param batchSize The maximum number of items per batch.
+     * @param statement The prepared statement to write batches with.
+     * @param binder The function that sets the parameters of the prepared statement for an item.
+     * @param commitBatches {@code true} to commit each batch, or {@code false} to leave transactions to the caller.
+     * @return The created batch subscriber.
+     * @throws NullPointerException If {@code statement} or {@code binder} is {@code null}.
+     * @throws IllegalArgumentException If {@code batchSize} is not positive.
+     */
+    public static <T> SQLBatchSubscriber<T> create(int batchSize, PreparedStatement statement,
+            SQLBiConsumer<? super PreparedStatement, ? super T> binder, boolean commitBatches) {
+
+        Objects.requireNonNull(statement);
+        Objects.requireNonNull(binder);
+        SQLConsumer<List<T>> batchWriter = items -> {
+            for (T item : items) {
+                binder.accept(statement, item);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        };
+        return create(batchSize, commitBatches ? committing(statement, batchWriter) : batchWriter);
+    }
+
+    private static <T> SQLConsumer<List<T>> committing(PreparedStatement statement, SQLConsumer<List<T>> batchWriter) {
+        return items -> {
+            Connection connection = statement.getConnection();
+            if (connection.getAutoCommit()) {
+                batchWriter.accept(items);
+                return;
+            }
+            try {
+                batchWriter.accept(items);
+                connection.commit();
+            } catch (SQLException | RuntimeException | Error e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException e2) {
+                    e.addSuppressed(e2);
+                }
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Returns the maximum number of items per batch.
+     *
+     * @return The maximum number of items per batch.
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the outcome of this batch subscriber.
+     *
+     * @return A future that completes with the number of written items once all items have been written, or completes exceptionally if the
+     *         publisher or writing a batch fails.
+     */
+    public CompletableFuture<Long> result() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription s) {
+        Objects.requireNonNull(s);
+        if (subscription != null || result.isDone()) {
+            // only one subscription is supported
+            s.cancel();
+            return;
+        }
+        subscription = s;
+        s.request(batchSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        Objects.requireNonNull(item);
+        if (result.isDone()) {
+            return;
+        }
+        batch.add(item);
+        if (batch.size() == batchSize && writeBatch()) {
+            subscription.request(batchSize);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        batch = new ArrayList<>(0);
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (!result.isDone() && (batch.isEmpty() || writeBatch())) {
+            result.complete(written);
+        }
+    }
+
+    private boolean writeBatch() {
+        List<T> items = batch;
+        batch = new ArrayList<>(batchSize);
+        try {
+            batchWriter.accept(items);
+            written += items.size();
+            return true;
+        } catch (SQLException | RuntimeException | Error e) {
+            subscription.cancel();
+            result.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[batchSize=" + batchSize + ",written=" + written + "]";
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * SQLChunkSizer.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * A controller that tunes the size of chunks of SQL work, so that processing a chunk takes roughly a target amount of time.
+ * <p>
+ * A chunk can be a page of rows, a range of keys, or any other unit of work whose size can be chosen up front. After each chunk has been
+ * processed, its size and the time it took are {@link #record(long, Duration) recorded}. From these measurements the controller keeps an
+ * exponentially weighted moving average of the time per unit, and derives the chunk size that would take the target time.
+ * To prevent oscillation, the chunk size at most doubles or halves per measurement, and it always stays between a minimum and a maximum.
+ * <p>
+ * This makes sparse ranges of keys use large chunks, and dense ranges of keys small chunks, without having to choose a fixed chunk size that
+ * fits neither. Instances of this class are thread-safe, so one controller can be shared by several workers that process chunks of the same
+ * kind of work.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLChunkSizer {
+
+    private static final double DEFAULT_SMOOTHING = 0.2;
+
+    private final long targetNanos;
+    private final long minSize;
+    private final long maxSize;
+    private final double smoothing;
+
+    private volatile long chunkSize;
+    private double nanosPerUnit;
+
+    private SQLChunkSizer(long targetNanos, long initialSize, long minSize, long maxSize, double smoothing) {
+        this.targetNanos = targetNanos;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.smoothing = smoothing;
+
+        this.chunkSize = initialSize;
+        this.nanosPerUnit = -1;
+    }
+
+    /**
+     * Returns a new controller.
+     *
+     * @param targetLatency The time that processing a chunk should take.
+     * @param initialSize The chunk size to use until the first measurement has been recorded.
+     * @param minSize The minimum chunk size.
+     * @param maxSize The maximum chunk size.
+     * @return The created controller.
+     * @throws NullPointerException If {@code targetLatency} is {@code null}.
+     * @throws IllegalArgumentException If {@code targetLatency} is not positive, if {@code minSize} is not positive, if {@code maxSize} is
+     *                                      smaller than {@code minSize}, or if {@code initialSize} is not between {@code minSize} and
+     *                                      {@code maxSize}.
+     */
+    public static SQLChunkSizer create(Duration targetLatency, long initialSize, long minSize, long maxSize) {
+        return create(targetLatency, initialSize, minSize, maxSize, DEFAULT_SMOOTHING);
+    }
+
+    /**
+     * Returns a new controller.
+     *
+     * @param targetLatency The time that processing a chunk should take.
+     * @param initialSize The chunk size to use until the first measurement has been recorded.
+     * @param minSize The minimum chunk size.
+     * @param maxSize The maximum chunk size.
+     * @param smoothing The weight of each new measurement in the moving average; larger than 0 and at most 1.
+     *                      Larger values react faster to changes, smaller values are less sensitive to outliers.
+     * @return The created controller.
+     * @throws NullPointerException If {@code targetLatency} is {@code null}.
+     * @throws IllegalArgumentException If {@code targetLatency} is not positive, if {@code minSize} is not positive, if {@code maxSize} is
+     *                                      smaller than {@code minSize}, if {@code initialSize} is not between {@code minSize} and
+     *                                      {@code maxSize}, or if {@code smoothing} is not larger than 0 and at most 1.
+     */
+    public static SQLChunkSizer create(Duration targetLatency, long initialSize, long minSize, long maxSize, double smoothing) {
+        if (targetLatency.isNegative() || targetLatency.isZero()) {
+            throw new IllegalArgumentException(targetLatency + " <= 0"); //$NON-NLS-1$
+        }
+        if (minSize <= 0) {
+            throw new IllegalArgumentException(minSize + " <= 0"); //$NON-NLS-1$
+        }
+        if (maxSize < minSize) {
+            throw new IllegalArgumentException(maxSize + " < " + minSize); //$NON-NLS-1$
+        }
+        if (initialSize < minSize || initialSize > maxSize) {
+            throw new IllegalArgumentException(initialSize + " is not in [" //$NON-NLS-1$
+                    + minSize + ", " + maxSize + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (!(smoothing > 0 && smoothing <= 1)) {
+            throw new IllegalArgumentException(smoothing + " is not in (0, 1]"); //$NON-NLS-1$
+        }
+        return new SQLChunkSizer(saturatedNanos(targetLatency), initialSize, minSize, maxSize, smoothing);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the target time for processing a chunk.
+     *
+     * @return The target time for processing a chunk.
+     */
+    public Duration targetLatency() {
+        return Duration.ofNanos(targetNanos);
+    }
+
+    /**
+     * Returns the minimum chunk size.
+     *
+     * @return The minimum chunk size.
+     */
+    public long minSize() {
+        return minSize;
+    }
+
+    /**
+     * Returns the maximum chunk size.
+     *
+     * @return The maximum chunk size.
+     */
+    public long maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the current chunk size.
+     *
+     * @return The current chunk size.
+     */
+    public long chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Records how long it took to process a chunk, and adjusts the chunk size accordingly.
+     *
+     * @param size The size of the chunk.
+     * @param elapsed The time it took to process the chunk.
+     * @throws NullPointerException If {@code elapsed} is {@code null}.
+     * @throws IllegalArgumentException If {@code size} is not positive, or if {@code elapsed} is negative.
+     */
+    public void record(long size, Duration elapsed) {
+        if (elapsed.isNegative()) {
+            throw new IllegalArgumentException(elapsed + " < 0"); //$NON-NLS-1$
+        }
+        record(size, saturatedNanos(elapsed));
+    }
+
+    private synchronized void record(long size, long elapsedNanos) {
+        if (size <= 0) {
+            throw new IllegalArgumentException(size + " <= 0"); //$NON-NLS-1$
+        }
+        // Avoid dividing by zero for chunks that took no measurable time
+        double observed = Math.max(elapsedNanos, 1) / (double) size;
+        nanosPerUnit = nanosPerUnit < 0 ? observed : smoothing * observed + (1 - smoothing) * nanosPerUnit;
+
+        long current = chunkSize;
+        double desired = targetNanos / nanosPerUnit;
+        double bounded = Math.max(current / 2.0, Math.min(current * 2.0, desired));
+        chunkSize = Math.max(minSize, Math.min(maxSize, (long) bounded));
+    }
+
+    /**
+     * Returns an operator for keyset pagination that uses chunk sizes determined by this controller.
+     * <p>
+     * The given page reader is called with the last key that was seen, or the initial key, and the current chunk size. It should process
+     * at most that many rows with a key larger than the given key, in ascending order of their keys, and report the key of each processed
+     * row. The returned operator measures how long that takes, and records the measurement with the number of rows that were actually
+     * processed; pages without rows are not recorded. It returns the last reported key, or the given key if no rows were processed.
+     * This allows keyset pagination to be written as follows:
+     * <pre><code>
+     * LongUnarySQLOperator nextPage = chunkSizer.keysetPages(pageReader);
+     * long lastKey = initialKey;
+     * long nextKey;
+     * while ((nextKey = nextPage.applyAsLong(lastKey)) != lastKey) {
+     *     lastKey = nextKey;
+     * }
+     * </code></pre>
+     *
+     * @param pageReader The reader that processes a page of rows, given the last key that was seen and the chunk size.
+     * @return An operator that processes the next page of rows, given the last key that was seen.
+     * @throws NullPointerException If {@code pageReader} is {@code null}.
+     */
+    public LongUnarySQLOperator keysetPages(KeysetPageReader pageReader) {
+        Objects.requireNonNull(pageReader);
+        return lastKey -> {
+            long[] state = { lastKey, 0 };
+            long start = System.nanoTime();
+            pageReader.read(lastKey, chunkSize, key -> {
+                state[0] = key;
+                state[1]++;
+            });
+            recordPage(state[1], System.nanoTime() - start);
+            return state[0];
+        };
+    }
+
+    /**
+     * Returns a supplier that loads pages using chunk sizes determined by this controller.
+     * <p>
+     * The given page loader is called with the current chunk size, and should load at most that many elements.
+     * The returned supplier measures how long that takes, and records the measurement with the size of the loaded page;
+     * empty pages are not recorded.
+     *
+     * @param <C> The type of pages.
+     * @param pageLoader The function that loads a page, given the chunk size.
+     * @return A supplier that loads the next page.
+     * @throws NullPointerException If {@code pageLoader} is {@code null}.
+     */
+    public <C extends Collection<?>> SQLSupplier<C> pages(LongSQLFunction<? extends C> pageLoader) {
+        return pages(pageLoader, Collection::size);
+    }
+
+    /**
+     * Returns a supplier that loads pages using chunk sizes determined by this controller.
+     * <p>
+     * The given page loader is called with the current chunk size, and should load at most that many elements.
+     * The returned supplier measures how long that takes, and records the measurement with the number of elements that were actually
+     * loaded, as returned by the given function; pages without elements are not recorded.
+     *
+     * @param <R> The type of pages.
+     * @param pageLoader The function that loads a page, given the chunk size.
+     * @param pageSize A function that returns the number of elements of a loaded page.
+     * @return A supplier that loads the next page.
+     * @throws NullPointerException If {@code pageLoader} or {@code pageSize} is {@code null}.
+     */
+    public <R> SQLSupplier<R> pages(LongSQLFunction<? extends R> pageLoader, ToLongFunction<? super R> pageSize) {
+        Objects.requireNonNull(pageLoader);
+        Objects.requireNonNull(pageSize);
+        return () -> {
+            long start = System.nanoTime();
+            R result = pageLoader.apply(chunkSize);
+            long elapsedNanos = System.nanoTime() - start;
+            recordPage(pageSize.applyAsLong(result), elapsedNanos);
+            return result;
+        };
+    }
+
+    private void recordPage(long size, long elapsedNanos) {
+        // A page without elements says nothing about the time per element
+        if (size > 0) {
+            record(size, elapsedNanos);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[chunkSize=" + chunkSize + ",targetLatency=" + targetLatency() + "]";
+    }
+
+    /**
+     * Reads a page of rows for keyset pagination.
+     *
+     * @author Rob Spoor
+     * @since 3.0
+     */
+    @FunctionalInterface
+    public interface KeysetPageReader {
+
+        /**
+         * Reads a page of rows, for instance using {@code SELECT ... WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY}.
+         *
+         * @param lastKey The last key that was seen; only rows with a larger key should be read.
+         * @param size The maximum number of rows to read.
+         * @param action The action to call with the key of each row that is read, in ascending order.
+         * @throws SQLException If an SQL error occurs.
+         */
+        void read(long lastKey, long size, LongSQLConsumer action) throws SQLException;
+    }
+}
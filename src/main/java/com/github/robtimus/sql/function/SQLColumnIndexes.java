@@ -0,0 +1,146 @@
+/*
+ * SQLColumnIndexes.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A mapping from column labels to column indexes, resolved once from {@link ResultSetMetaData}.
+ * <p>
+ * Getting a column value by label, for instance using {@link ResultSet#getString(String)}, requires the JDBC driver to find the column's index
+ * first. Many drivers do that with a linear search for every call, which becomes expensive for result sets with many columns. Instances of
+ * this class resolve all labels once, so mappers can look up the index of a column with a single hash lookup, and then use index-based getters
+ * like {@link ResultSet#getString(int)}.
+ * <p>
+ * Like {@link ResultSet#findColumn(String)}, labels are matched case-insensitively, and if several columns have the same label, the first one
+ * is used.
+ * <p>
+ * {@link #mapper(SQLBiFunction)} returns row mappers that cache the column indexes per result set.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLColumnIndexes {
+
+    private final Map<String, Integer> indexes;
+    private final Map<String, Integer> lowerCaseIndexes;
+    private final int columnCount;
+
+    private SQLColumnIndexes(Map<String, Integer> indexes, Map<String, Integer> lowerCaseIndexes, int columnCount) {
+        this.indexes = indexes;
+        this.lowerCaseIndexes = lowerCaseIndexes;
+        this.columnCount = columnCount;
+    }
+
+    /**
+     * Resolves the column indexes of a result set.
+     *
+     * @param metaData The meta data of the result set.
+     * @return An object that maps the column labels of the given meta data to their indexes.
+     * @throws NullPointerException If {@code metaData} is {@code null}.
+     * @throws SQLException If the column labels could not be read from the given meta data.
+     */
+    public static SQLColumnIndexes of(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        Map<String, Integer> indexes = new HashMap<>(columnCount * 2);
+        Map<String, Integer> lowerCaseIndexes = new HashMap<>(columnCount * 2);
+        for (int i = 1; i <= columnCount; i++) {
+            String label = metaData.getColumnLabel(i);
+            Integer index = i;
+            // only the first column with a case-insensitively matching label is used
+            if (lowerCaseIndexes.putIfAbsent(label.toLowerCase(Locale.ROOT), index) == null) {
+                indexes.put(label, index);
+            }
+        }
+        return new SQLColumnIndexes(indexes, lowerCaseIndexes, columnCount);
+    }
+
+    /**
+     * Returns a row mapper that resolves column indexes once per result set.
+     * <p>
+     * When the returned mapper is called, it passes the result set and its resolved column indexes to the given mapper. The column indexes are
+     * cached; they are only resolved again when the returned mapper is called with a different result set that has different meta data.
+     * The returned mapper can therefore be used for any number of rows and result sets. It does not prevent result sets that it was called
+     * with from being garbage collected.
+     *
+     * @param <T> The result type of the mapper.
+     * @param mapper The function that maps the current row of a result set, using the resolved column indexes of that result set.
+     * @return A row mapper that resolves column indexes once per result set.
+     * @throws NullPointerException If {@code mapper} is {@code null}.
+     */
+    public static <T> SQLFunction<ResultSet, T> mapper(SQLBiFunction<? super ResultSet, ? super SQLColumnIndexes, ? extends T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new CachingMapper<>(mapper);
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int columnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the index of a column.
+     *
+     * @param label The label of the column.
+     * @return The 1-based index of the column with the given label.
+     * @throws NullPointerException If {@code label} is {@code null}.
+     * @throws SQLException If there is no column with the given label.
+     */
+    public int indexOf(String label) throws SQLException {
+        Integer index = indexes.get(Objects.requireNonNull(label));
+        if (index == null) {
+            index = lowerCaseIndexes.get(label.toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new SQLException("Unknown column: " + label); //$NON-NLS-1$
+            }
+        }
+        return index;
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[columnCount=" + columnCount + "]";
+    }
+
+    private static final class CachingMapper<T> implements SQLFunction<ResultSet, T> {
+
+        private final SQLBiFunction<? super ResultSet, ? super SQLColumnIndexes, ? extends T> mapper;
+        private final MetaDataCache<SQLColumnIndexes> indexes;
+
+        private CachingMapper(SQLBiFunction<? super ResultSet, ? super SQLColumnIndexes, ? extends T> mapper) {
+            this.mapper = mapper;
+            this.indexes = new MetaDataCache<>(SQLColumnIndexes::of);
+        }
+
+        @Override
+        public T apply(ResultSet resultSet) throws SQLException {
+            return mapper.apply(resultSet, indexes.get(resultSet));
+        }
+    }
+}
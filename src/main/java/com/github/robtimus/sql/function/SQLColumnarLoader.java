@@ -0,0 +1,400 @@
+/*
+ * SQLColumnarLoader.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A loader that reads the rows of {@link ResultSet ResultSets} into columns of primitive arrays.
+ * <p>
+ * Instead of mapping each row to an object, each column is read into its own array: {@code int[]}, {@code long[]} or {@code double[]} for
+ * numeric columns, and dictionary-encoded {@code int[]} codes for string columns. This takes far less memory than a list of row objects,
+ * and allows aggregations to loop over plain arrays. Columns are read using extractor functions, so a column can be any value that can be
+ * computed from a row, not just a single column of the result set. Primitive extractors should use {@link ResultSet#wasNull()} if SQL
+ * {@code NULL} values need a specific representation.
+ * <p>
+ * While loading, the arrays grow by doubling their capacity, so loading takes amortized constant time per row. Once all rows have been read,
+ * the arrays are trimmed to the number of rows.
+ * <p>
+ * A loader is assembled once using {@link #withIntColumn(String, ToIntSQLFunction) withIntColumn},
+ * {@link #withLongColumn(String, ToLongSQLFunction) withLongColumn}, {@link #withDoubleColumn(String, ToDoubleSQLFunction) withDoubleColumn}
+ * and {@link #withStringColumn(String, SQLFunction) withStringColumn}, and can then {@link #load(ResultSet) load} any number of result sets.
+ * Instances of this class are immutable; each method that adds a column or changes a setting returns a new loader.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLColumnarLoader {
+
+    /** The default initial capacity of columns. */
+    public static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    private final List<Column> columns;
+    private final int initialCapacity;
+
+    private SQLColumnarLoader(List<Column> columns, int initialCapacity) {
+        this.columns = columns;
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * Returns a loader without any columns.
+     *
+     * @return A loader without any columns.
+     */
+    public static SQLColumnarLoader create() {
+        return new SQLColumnarLoader(Collections.emptyList(), DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns a loader that adds an {@code int} column to this loader.
+     *
+     * @param name The name of the column.
+     * @param extractor The function that extracts the value of the column from the current row of a result set.
+     * @return A loader that adds the column to this loader.
+     * @throws NullPointerException If {@code name} or {@code extractor} is {@code null}.
+     * @throws IllegalArgumentException If this loader already has a column with the given name.
+     */
+    public SQLColumnarLoader withIntColumn(String name, ToIntSQLFunction<? super ResultSet> extractor) {
+        Objects.requireNonNull(extractor);
+        return withColumn(new IntColumn(name, extractor));
+    }
+
+    /**
+     * Returns a loader that adds a {@code long} column to this loader.
+     *
+     * @param name The name of the column.
+     * @param extractor The function that extracts the value of the column from the current row of a result set.
+     * @return A loader that adds the column to this loader.
+     * @throws NullPointerException If {@code name} or {@code extractor} is {@code null}.
+     * @throws IllegalArgumentException If this loader already has a column with the given name.
+     */
+    public SQLColumnarLoader withLongColumn(String name, ToLongSQLFunction<? super ResultSet> extractor) {
+        Objects.requireNonNull(extractor);
+        return withColumn(new LongColumn(name, extractor));
+    }
+
+    /**
+     * Returns a loader that adds a {@code double} column to this loader.
+     *
+     * @param name The name of the column.
+     * @param extractor The function that extracts the value of the column from the current row of a result set.
+     * @return A loader that adds the column to this loader.
+     * @throws NullPointerException If {@code name} or {@code extractor} is {@code null}.
+     * @throws IllegalArgumentException If this loader already has a column with the given name.
+     */
+    public SQLColumnarLoader withDoubleColumn(String name, ToDoubleSQLFunction<? super ResultSet> extractor) {
+        Objects.requireNonNull(extractor);
+        return withColumn(new DoubleColumn(name, extractor));
+    }
+
+    /**
+     * Returns a loader that adds a dictionary-encoded string column to this loader.
+     * Each distinct string is stored only once; rows store the index of their string in the dictionary, or {@code -1} for {@code null}.
+     * This works best for columns with relatively few distinct values, like status codes or country names.
+     *
+     * @param name The name of the column.
+     * @param extractor The function that extracts the value of the column from the current row of a result set.
+     * @return A loader that adds the column to this loader.
+     * @throws NullPointerException If {@code name} or {@code extractor} is {@code null}.
+     * @throws IllegalArgumentException If this loader already has a column with the given name.
+     */
+    public SQLColumnarLoader withStringColumn(String name, SQLFunction<? super ResultSet, String> extractor) {
+        Objects.requireNonNull(extractor);
+        return withColumn(new StringColumn(name, extractor));
+    }
+
+    private SQLColumnarLoader withColumn(Column column) {
+        for (Column existing : columns) {
+            if (existing.name.equals(column.name)) {
+                throw new IllegalArgumentException("Duplicate column: " + column.name); //$NON-NLS-1$
+            }
+        }
+        List<Column> newColumns = new ArrayList<>(columns.size() + 1);
+        newColumns.addAll(columns);
+        newColumns.add(column);
+        return new SQLColumnarLoader(Collections.unmodifiableList(newColumns), initialCapacity);
+    }
+
+    /**
+     * Returns a loader with the same columns as this loader, but with a different initial capacity.
+     * If the expected number of rows is known, using it as initial capacity prevents the columns from having to grow while loading.
+     *
+     * @param newInitialCapacity The initial capacity of columns.
+     * @return A loader with the same columns as this loader, but with the given initial capacity.
+     * @throws IllegalArgumentException If {@code newInitialCapacity} is not positive.
+     */
+    public SQLColumnarLoader withInitialCapacity(int newInitialCapacity) {
+        if (newInitialCapacity <= 0) {
+            throw new IllegalArgumentException(newInitialCapacity + " <= 0"); //$NON-NLS-1$
+        }
+        return new SQLColumnarLoader(columns, newInitialCapacity);
+    }
+
+    /**
+     * Returns the initial capacity of columns.
+     *
+     * @return The initial capacity of columns.
+     */
+    public int initialCapacity() {
+        return initialCapacity;
+    }
+
+    /**
+     * Reads all remaining rows of a result set into columns.
+     * The result set is not closed by this method.
+     *
+     * @param resultSet The result set to read from.
+     * @return A table with the columns of this loader, containing the rows of the given result set.
+     * @throws NullPointerException If {@code resultSet} is {@code null}.
+     * @throws SQLException If reading a row or extracting a value fails.
+     */
+    public SQLColumnarTable load(ResultSet resultSet) throws SQLException {
+        Objects.requireNonNull(resultSet);
+
+        Buffer[] buffers = new Buffer[columns.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = columns.get(i).newBuffer(initialCapacity);
+        }
+
+        int capacity = initialCapacity;
+        int rowCount = 0;
+        while (resultSet.next()) {
+            if (rowCount == capacity) {
+                capacity = grow(capacity);
+                for (Buffer buffer : buffers) {
+                    buffer.grow(capacity);
+                }
+            }
+            for (Buffer buffer : buffers) {
+                buffer.read(resultSet, rowCount);
+            }
+            rowCount++;
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < buffers.length; i++) {
+            values.put(columns.get(i).name, buffers[i].finish(rowCount));
+        }
+        return new SQLColumnarTable(rowCount, values);
+    }
+
+    private static int grow(int capacity) {
+        if (capacity == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many rows"); //$NON-NLS-1$
+        }
+        return (int) Math.min((long) capacity * 2, Integer.MAX_VALUE);
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[columns=" + columns + ",initialCapacity=" + initialCapacity + "]";
+    }
+
+    private abstract static class Column {
+
+        private final String name;
+
+        private Column(String name) {
+            this.name = Objects.requireNonNull(name);
+        }
+
+        abstract Buffer newBuffer(int capacity);
+
+        @SuppressWarnings("nls")
+        String describe(String type) {
+            return name + ":" + type;
+        }
+    }
+
+    private abstract static class Buffer {
+
+        abstract void read(ResultSet resultSet, int row) throws SQLException;
+
+        abstract void grow(int capacity);
+
+        abstract Object finish(int rowCount);
+    }
+
+    private static final class IntColumn extends Column {
+
+        private final ToIntSQLFunction<? super ResultSet> extractor;
+
+        private IntColumn(String name, ToIntSQLFunction<? super ResultSet> extractor) {
+            super(name);
+            this.extractor = extractor;
+        }
+
+        @Override
+        Buffer newBuffer(int capacity) {
+            return new Buffer() {
+                private int[] values = new int[capacity];
+
+                @Override
+                void read(ResultSet resultSet, int row) throws SQLException {
+                    values[row] = extractor.applyAsInt(resultSet);
+                }
+
+                @Override
+                void grow(int newCapacity) {
+                    values = Arrays.copyOf(values, newCapacity);
+                }
+
+                @Override
+                Object finish(int rowCount) {
+                    return values.length == rowCount ? values : Arrays.copyOf(values, rowCount);
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return describe("int"); //$NON-NLS-1$
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private final ToLongSQLFunction<? super ResultSet> extractor;
+
+        private LongColumn(String name, ToLongSQLFunction<? super ResultSet> extractor) {
+            super(name);
+            this.extractor = extractor;
+        }
+
+        @Override
+        Buffer newBuffer(int capacity) {
+            return new Buffer() {
+                private long[] values = new long[capacity];
+
+                @Override
+                void read(ResultSet resultSet, int row) throws SQLException {
+                    values[row] = extractor.applyAsLong(resultSet);
+                }
+
+                @Override
+                void grow(int newCapacity) {
+                    values = Arrays.copyOf(values, newCapacity);
+                }
+
+                @Override
+                Object finish(int rowCount) {
+                    return values.length == rowCount ? values : Arrays.copyOf(values, rowCount);
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return describe("long"); //$NON-NLS-1$
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private final ToDoubleSQLFunction<? super ResultSet> extractor;
+
+        private DoubleColumn(String name, ToDoubleSQLFunction<? super ResultSet> extractor) {
+            super(name);
+            this.extractor = extractor;
+        }
+
+        @Override
+        Buffer newBuffer(int capacity) {
+            return new Buffer() {
+                private double[] values = new double[capacity];
+
+                @Override
+                void read(ResultSet resultSet, int row) throws SQLException {
+                    values[row] = extractor.applyAsDouble(resultSet);
+                }
+
+                @Override
+                void grow(int newCapacity) {
+                    values = Arrays.copyOf(values, newCapacity);
+                }
+
+                @Override
+                Object finish(int rowCount) {
+                    return values.length == rowCount ? values : Arrays.copyOf(values, rowCount);
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return describe("double"); //$NON-NLS-1$
+        }
+    }
+
+    private static final class StringColumn extends Column {
+
+        private final SQLFunction<? super ResultSet, String> extractor;
+
+        private StringColumn(String name, SQLFunction<? super ResultSet, String> extractor) {
+            super(name);
+            this.extractor = extractor;
+        }
+
+        @Override
+        Buffer newBuffer(int capacity) {
+            return new Buffer() {
+                private final Map<String, Integer> codes = new HashMap<>();
+                private final List<String> dictionary = new ArrayList<>();
+                private int[] values = new int[capacity];
+
+                @Override
+                void read(ResultSet resultSet, int row) throws SQLException {
+                    String value = extractor.apply(resultSet);
+                    values[row] = value == null ? -1 : codes.computeIfAbsent(value, this::addToDictionary);
+                }
+
+                private int addToDictionary(String value) {
+                    dictionary.add(value);
+                    return dictionary.size() - 1;
+                }
+
+                @Override
+                void grow(int newCapacity) {
+                    values = Arrays.copyOf(values, newCapacity);
+                }
+
+                @Override
+                Object finish(int rowCount) {
+                    int[] trimmed = values.length == rowCount ? values : Arrays.copyOf(values, rowCount);
+                    return new SQLColumnarTable.Strings(trimmed, Collections.unmodifiableList(dictionary));
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return describe("string"); //$NON-NLS-1$
+        }
+    }
+}
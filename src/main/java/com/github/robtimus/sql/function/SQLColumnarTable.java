@@ -0,0 +1,165 @@
+/*
+ * SQLColumnarTable.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Rows of a {@link java.sql.ResultSet ResultSet}, stored as columns of primitive arrays.
+ * Instances of this class are created by {@link SQLColumnarLoader#load(java.sql.ResultSet)}.
+ * <p>
+ * For performance reasons, the arrays returned by this class are not copied. They should be treated as read-only.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLColumnarTable {
+
+    private final int rowCount;
+    private final Map<String, Object> columns;
+
+    SQLColumnarTable(int rowCount, Map<String, Object> columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the names of the columns, in the order they were added to the loader.
+     *
+     * @return An unmodifiable set with the names of the columns.
+     */
+    public Set<String> columnNames() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * Returns the values of an {@code int} column.
+     *
+     * @param name The name of the column.
+     * @return An array with one value per row.
+     * @throws NullPointerException If {@code name} is {@code null}.
+     * @throws IllegalArgumentException If there is no {@code int} column with the given name.
+     */
+    public int[] intColumn(String name) {
+        return column(name, int[].class);
+    }
+
+    /**
+     * Returns the values of a {@code long} column.
+     *
+     * @param name The name of the column.
+     * @return An array with one value per row.
+     * @throws NullPointerException If {@code name} is {@code null}.
+     * @throws IllegalArgumentException If there is no {@code long} column with the given name.
+     */
+    public long[] longColumn(String name) {
+        return column(name, long[].class);
+    }
+
+    /**
+     * Returns the values of a {@code double} column.
+     *
+     * @param name The name of the column.
+     * @return An array with one value per row.
+     * @throws NullPointerException If {@code name} is {@code null}.
+     * @throws IllegalArgumentException If there is no {@code double} column with the given name.
+     */
+    public double[] doubleColumn(String name) {
+        return column(name, double[].class);
+    }
+
+    /**
+     * Returns the dictionary codes of a string column.
+     * Each code is an index in the column's {@link #dictionary(String) dictionary}, or {@code -1} for {@code null}.
+     *
+     * @param name The name of the column.
+     * @return An array with one code per row.
+     * @throws NullPointerException If {@code name} is {@code null}.
+     * @throws IllegalArgumentException If there is no string column with the given name.
+     */
+    public int[] stringCodes(String name) {
+        return column(name, Strings.class).codes;
+    }
+
+    /**
+     * Returns the dictionary of a string column.
+     * The dictionary contains each distinct non-{@code null} value of the column once, in order of first occurrence.
+     *
+     * @param name The name of the column.
+     * @return An unmodifiable list with the distinct values of the column.
+     * @throws NullPointerException If {@code name} is {@code null}.
+     * @throws IllegalArgumentException If there is no string column with the given name.
+     */
+    public List<String> dictionary(String name) {
+        return column(name, Strings.class).dictionary;
+    }
+
+    /**
+     * Returns the value of a string column for a single row.
+     *
+     * @param name The name of the column.
+     * @param row The index of the row.
+     * @return The value of the column for the given row; possibly {@code null}.
+     * @throws NullPointerException If {@code name} is {@code null}.
+     * @throws IllegalArgumentException If there is no string column with the given name.
+     * @throws IndexOutOfBoundsException If {@code row} is negative or not smaller than the {@link #rowCount() row count}.
+     */
+    public String getString(String name, int row) {
+        Strings strings = column(name, Strings.class);
+        int code = strings.codes[Objects.checkIndex(row, rowCount)];
+        return code == -1 ? null : strings.dictionary.get(code);
+    }
+
+    private <C> C column(String name, Class<C> type) {
+        Object column = columns.get(Objects.requireNonNull(name));
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("No such column: " + name); //$NON-NLS-1$
+        }
+        return type.cast(column);
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[columns=" + columns.keySet() + ",rowCount=" + rowCount + "]";
+    }
+
+    static final class Strings {
+
+        private final int[] codes;
+        private final List<String> dictionary;
+
+        Strings(int[] codes, List<String> dictionary) {
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * SQLDeadline.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An absolute deadline for SQL operations, expressed in terms of {@link System#nanoTime()}.
+ * <p>
+ * A deadline can be made the current deadline for the current thread using {@link #call(SQLSupplier)} or {@link #run(SQLRunnable)}.
+ * Operations decorated using the {@code guard...} methods consult the current deadline before they start, and fail with an
+ * {@link SQLTimeoutException} instead of starting work that can no longer complete in time.
+ * Statement operations decorated using {@link #guardStatement(SQLFunction)} additionally derive their timeouts from the current deadline.
+ * <p>
+ * Deadlines nest: if a deadline is made current while another deadline is already current, the earliest of the two is used.
+ * The current deadline is not propagated to other threads automatically. To continue a request on another thread, capture the deadline using
+ * {@link #current()} and make it current again on the other thread.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLDeadline {
+
+    private static final ThreadLocal<SQLDeadline> CURRENT = new ThreadLocal<>();
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long deadlineNanos;
+
+    private SQLDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Returns a deadline that expires after a specific duration from now.
+     *
+     * @param timeout The duration after which the deadline expires.
+     * @return A deadline that expires after the given duration from now.
+     * @throws NullPointerException If {@code timeout} is {@code null}.
+     */
+    public static SQLDeadline after(Duration timeout) {
+        long timeoutNanos = saturatedNanos(timeout);
+        long now = System.nanoTime();
+        // Prevent overflow for very long timeouts
+        long deadlineNanos = timeoutNanos > Long.MAX_VALUE / 2 ? now + Long.MAX_VALUE / 2 : now + timeoutNanos;
+        return new SQLDeadline(deadlineNanos);
+    }
+
+    /**
+     * Returns a deadline that expires at a specific value of {@link System#nanoTime()}.
+     *
+     * @param deadlineNanos The value of {@link System#nanoTime()} at which the deadline expires.
+     * @return A deadline that expires at the given value of {@link System#nanoTime()}.
+     */
+    public static SQLDeadline atNanoTime(long deadlineNanos) {
+        return new SQLDeadline(deadlineNanos);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return duration.isNegative() ? Long.MIN_VALUE / 2 : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the current deadline for the current thread.
+     *
+     * @return An {@link Optional} describing the current deadline for the current thread,
+     *         or {@link Optional#empty()} if there is no current deadline.
+     */
+    public static Optional<SQLDeadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Returns the value of {@link System#nanoTime()} at which this deadline expires.
+     *
+     * @return The value of {@link System#nanoTime()} at which this deadline expires.
+     */
+    public long nanoTime() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Returns the time remaining until this deadline expires.
+     *
+     * @return The time remaining until this deadline expires, or {@link Duration#ZERO} if it has already expired.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    private long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * Returns whether or not this deadline has expired.
+     *
+     * @return {@code true} if this deadline has expired, or {@code false} otherwise.
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Checks that this deadline has not expired.
+     *
+     * @throws SQLTimeoutException If this deadline has expired.
+     */
+    public void check() throws SQLTimeoutException {
+        if (isExpired()) {
+            throw new SQLTimeoutException("Deadline expired"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Checks that at least a minimum amount of time remains until this deadline expires.
+     *
+     * @param minimumRemaining The minimum amount of time that should remain.
+     * @throws NullPointerException If {@code minimumRemaining} is {@code null}.
+     * @throws SQLTimeoutException If less than the given amount of time remains until this deadline expires.
+     */
+    public void check(Duration minimumRemaining) throws SQLTimeoutException {
+        long minimumRemainingNanos = Math.max(0, saturatedNanos(minimumRemaining));
+        long remainingNanos = remainingNanos();
+        if (remainingNanos <= 0) {
+            throw new SQLTimeoutException("Deadline expired"); //$NON-NLS-1$
+        }
+        if (remainingNanos < minimumRemainingNanos) {
+            throw new SQLTimeoutException("Deadline expires in " + Duration.ofNanos(remainingNanos) //$NON-NLS-1$
+                    + ", less than " + minimumRemaining); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns a query timeout that matches the time remaining until this deadline expires.
+     * Because query timeouts are expressed in whole seconds, the remaining time is rounded up.
+     *
+     * @return A query timeout that matches the time remaining until this deadline expires; always at least 1.
+     * @throws SQLTimeoutException If this deadline has expired.
+     * @see Statement#setQueryTimeout(int)
+     */
+    public int queryTimeoutSeconds() throws SQLTimeoutException {
+        long remainingNanos = remainingNanos();
+        if (remainingNanos <= 0) {
+            throw new SQLTimeoutException("Deadline expired"); //$NON-NLS-1$
+        }
+        long seconds = (remainingNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        return (int) Math.min(seconds, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the earliest of this deadline and another deadline.
+     *
+     * @param other The other deadline.
+     * @return The earliest of this deadline and the given deadline.
+     * @throws NullPointerException If {@code other} is {@code null}.
+     */
+    public SQLDeadline min(SQLDeadline other) {
+        return other.deadlineNanos - deadlineNanos < 0 ? other : this;
+    }
+
+    /**
+     * Returns the result of a supplier, with this deadline as the current deadline.
+     * If there already is a current deadline that expires earlier than this deadline, that deadline remains the current deadline.
+     * The previous current deadline is restored afterwards.
+     *
+     * @param <T> The type of results supplied by the supplier.
+     * @param supplier The supplier to call.
+     * @return The result of the supplier.
+     * @throws NullPointerException If {@code supplier} is {@code null}.
+     * @throws SQLException If the supplier throws an {@link SQLException}.
+     */
+    public <T> T call(SQLSupplier<? extends T> supplier) throws SQLException {
+        Objects.requireNonNull(supplier);
+        SQLDeadline previous = CURRENT.get();
+        CURRENT.set(previous != null ? previous.min(this) : this);
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Performs an action, with this deadline as the current deadline.
+     * If there already is a current deadline that expires earlier than this deadline, that deadline remains the current deadline.
+     * The previous current deadline is restored afterwards.
+     *
+     * @param action The action to perform.
+     * @throws NullPointerException If {@code action} is {@code null}.
+     * @throws SQLException If the action throws an {@link SQLException}.
+     */
+    public void run(SQLRunnable action) throws SQLException {
+        Objects.requireNonNull(action);
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static void restore(SQLDeadline previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    private static void checkCurrent() throws SQLTimeoutException {
+        SQLDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+
+    private static void checkCurrent(Duration minimumRemaining) throws SQLTimeoutException {
+        SQLDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check(minimumRemaining);
+        }
+    }
+
+    /**
+     * Returns a function that checks the current deadline before applying the {@code function} function.
+     * If the current deadline has expired, the returned function throws an {@link SQLTimeoutException} without applying the {@code function}
+     * function. If there is no current deadline, the {@code function} function is always applied.
+     *
+     * @param <T> The type of the input to the function.
+     * @param <R> The type of the result of the function.
+     * @param function The function to apply.
+     * @return A function that checks the current deadline before applying the {@code function} function.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     */
+    public static <T, R> SQLFunction<T, R> guardFunction(SQLFunction<? super T, ? extends R> function) {
+        Objects.requireNonNull(function);
+        return t -> {
+            checkCurrent();
+            return function.apply(t);
+        };
+    }
+
+    /**
+     * Returns a function that checks the current deadline before applying the {@code function} function.
+     * If less than the given minimum amount of time remains until the current deadline expires, the returned function throws an
+     * {@link SQLTimeoutException} without applying the {@code function} function.
+     * If there is no current deadline, the {@code function} function is always applied.
+     *
+     * @param <T> The type of the input to the function.
+     * @param <R> The type of the result of the function.
+     * @param function The function to apply.
+     * @param minimumRemaining The minimum amount of time that the {@code function} function needs to complete.
+     * @return A function that checks the current deadline before applying the {@code function} function.
+     * @throws NullPointerException If {@code function} or {@code minimumRemaining} is {@code null}.
+     */
+    public static <T, R> SQLFunction<T, R> guardFunction(SQLFunction<? super T, ? extends R> function, Duration minimumRemaining) {
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(minimumRemaining);
+        return t -> {
+            checkCurrent(minimumRemaining);
+            return function.apply(t);
+        };
+    }
+
+    /**
+     * Returns a supplier that checks the current deadline before calling the {@code supplier} supplier.
+     * If the current deadline has expired, the returned supplier throws an {@link SQLTimeoutException} without calling the {@code supplier}
+     * supplier. If there is no current deadline, the {@code supplier} supplier is always called.
+     *
+     * @param <T> The type of results supplied by the supplier.
+     * @param supplier The supplier to call.
+     * @return A supplier that checks the current deadline before calling the {@code supplier} supplier.
+     * @throws NullPointerException If {@code supplier} is {@code null}.
+     */
+    public static <T> SQLSupplier<T> guardSupplier(SQLSupplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+        return () -> {
+            checkCurrent();
+            return supplier.get();
+        };
+    }
+
+    /**
+     * Returns a supplier that checks the current deadline before calling the {@code supplier} supplier.
+     * If less than the given minimum amount of time remains until the current deadline expires, the returned supplier throws an
+     * {@link SQLTimeoutException} without calling the {@code supplier} supplier.
+     * If there is no current deadline, the {@code supplier} supplier is always called.
+     *
+     * @param <T> The type of results supplied by the supplier.
+     * @param supplier The supplier to call.
+     * @param minimumRemaining The minimum amount of time that the {@code supplier} supplier needs to complete.
+     * @return A supplier that checks the current deadline before calling the {@code supplier} supplier.
+     * @throws NullPointerException If {@code supplier} or {@code minimumRemaining} is {@code null}.
+     */
+    public static <T> SQLSupplier<T> guardSupplier(SQLSupplier<? extends T> supplier, Duration minimumRemaining) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(minimumRemaining);
+        return () -> {
+            checkCurrent(minimumRemaining);
+            return supplier.get();
+        };
+    }
+
+    /**
+     * Returns an operation that checks the current deadline before performing the {@code operation} operation.
+     * If the current deadline has expired, the returned operation throws an {@link SQLTimeoutException} without performing the {@code operation}
+     * operation. If there is no current deadline, the {@code operation} operation is always performed.
+     *
+     * @param <T> The type of the input to the operation.
+     * @param operation The operation to perform.
+     * @return An operation that checks the current deadline before performing the {@code operation} operation.
+     * @throws NullPointerException If {@code operation} is {@code null}.
+     */
+    public static <T> SQLConsumer<T> guardConsumer(SQLConsumer<? super T> operation) {
+        Objects.requireNonNull(operation);
+        return t -> {
+            checkCurrent();
+            operation.accept(t);
+        };
+    }
+
+    /**
+     * Returns an operation that checks the current deadline before performing the {@code operation} operation.
+     * If less than the given minimum amount of time remains until the current deadline expires, the returned operation throws an
+     * {@link SQLTimeoutException} without performing the {@code operation} operation.
+     * If there is no current deadline, the {@code operation} operation is always performed.
+     *
+     * @param <T> The type of the input to the operation.
+     * @param operation The operation to perform.
+     * @param minimumRemaining The minimum amount of time that the {@code operation} operation needs to complete.
+     * @return An operation that checks the current deadline before performing the {@code operation} operation.
+     * @throws NullPointerException If {@code operation} or {@code minimumRemaining} is {@code null}.
+     */
+    public static <T> SQLConsumer<T> guardConsumer(SQLConsumer<? super T> operation, Duration minimumRemaining) {
+        Objects.requireNonNull(operation);
+        Objects.requireNonNull(minimumRemaining);
+        return t -> {
+            checkCurrent(minimumRemaining);
+            operation.accept(t);
+        };
+    }
+
+    /**
+     * Returns a function that applies the {@code function} function to a statement within the current deadline.
+     * If there is a current deadline, the returned function:
+     * <ol>
+     *   <li>Throws an {@link SQLTimeoutException} if the deadline has already expired, without applying the {@code function} function.</li>
+     *   <li>Sets the {@link Statement#setQueryTimeout(int) query timeout} of the statement to the remaining time, rounded up to whole seconds,
+     *       unless the statement already has a lower query timeout. The original query timeout is restored afterwards.</li>
+     *   <li>{@link Statement#cancel() Cancels} the statement if it is still running when the deadline expires, like {@link SQLTimeout} does.</li>
+     * </ol>
+     * If there is no current deadline, the {@code function} function is applied without any timeout.
+     *
+     * @param <S> The type of statement the function operates on.
+     * @param <R> The type of the result of the function.
+     * @param function The function to apply.
+     * @return A function that applies the {@code function} function to a statement within the current deadline.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     */
+    public static <S extends Statement, R> SQLFunction<S, R> guardStatement(SQLFunction<? super S, ? extends R> function) {
+        Objects.requireNonNull(function);
+        return statement -> {
+            SQLDeadline deadline = CURRENT.get();
+            return deadline != null
+                    ? deadline.applyWithin(statement, function)
+                    : function.apply(statement);
+        };
+    }
+
+    private <S extends Statement, R> R applyWithin(S statement, SQLFunction<? super S, ? extends R> function) throws SQLException {
+        int queryTimeout = queryTimeoutSeconds();
+        int originalQueryTimeout = statement.getQueryTimeout();
+        boolean setQueryTimeout = originalQueryTimeout == 0 || originalQueryTimeout > queryTimeout;
+        if (setQueryTimeout) {
+            statement.setQueryTimeout(queryTimeout);
+        }
+        R result;
+        try {
+            result = SQLTimeout.call(statement, () -> function.apply(statement), Math.max(1, remainingNanos()), SQLTimeout.sharedScheduler());
+        } catch (SQLException | RuntimeException | Error e) {
+            if (setQueryTimeout) {
+                restoreQueryTimeout(statement, originalQueryTimeout, e);
+            }
+            throw e;
+        }
+        if (setQueryTimeout) {
+            statement.setQueryTimeout(originalQueryTimeout);
+        }
+        return result;
+    }
+
+    private static void restoreQueryTimeout(Statement statement, int queryTimeout, Throwable failure) {
+        try {
+            statement.setQueryTimeout(queryTimeout);
+        } catch (SQLException | RuntimeException e) {
+            // don't let the restore failure mask the original failure
+            failure.addSuppressed(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o == null || o.getClass() != getClass()) {
+            return false;
+        }
+        SQLDeadline other = (SQLDeadline) o;
+        return deadlineNanos == other.deadlineNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(deadlineNanos);
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[remaining=" + remaining() + "]";
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * SQLExceptions.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+
+/**
+ * Utility methods for creating and converting {@link SQLException SQLExceptions}.
+ *
+ * @author Rob Spoor
+ */
+final class SQLExceptions {
+
+    private SQLExceptions() {
+    }
+
+    /**
+     * Converts an {@link InterruptedException} into an {@link SQLException}.
+     * The current thread's interrupt status is restored, so callers further up the stack can still detect the interruption.
+     *
+     * @param e The {@code InterruptedException} to convert.
+     * @return An {@code SQLException} with the given {@code InterruptedException} as cause.
+     */
+    static SQLException interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new SQLException("Interrupted", e); //$NON-NLS-1$
+    }
+
+    /**
+     * Converts the cause of a failed asynchronous task into an {@link SQLException}.
+     * Unchecked exceptions and errors are thrown as-is, {@link SQLException SQLExceptions} are returned as-is,
+     * and any other exception is wrapped in a new {@code SQLException}.
+     *
+     * @param cause The cause to convert.
+     * @return The converted {@code SQLException}.
+     */
+    static SQLException toSQLException(Throwable cause) {
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new SQLException(cause);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * SQLExecutionLanes.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Separate execution lanes for CPU-bound and I/O-bound work.
+ * <p>
+ * CPU-bound work, like transforming rows, runs best on a bounded pool with about as many threads as there are CPU cores. I/O-bound work,
+ * like JDBC calls, spends most of its time waiting, and needs many more threads to keep the database busy. Running both kinds of work on one
+ * pool either leaves cores idle while threads wait for the database, or oversubscribes the cores when all threads are busy computing.
+ * <p>
+ * Execution lanes keep the two apart. CPU-bound work runs on a {@link ForkJoinPool}; I/O-bound work runs on a separate executor, by default
+ * one that starts a new thread per task. On Java 21 and up these are virtual threads. Work is handed off between the lanes using
+ * {@link #cpuBound(SQLFunction)} and {@link #ioBound(SQLFunction)}. While a thread of the CPU pool waits for work in the I/O lane, the pool is
+ * allowed to compensate for the blocked thread, so CPU-bound work is not starved.
+ * <p>
+ * {@link SQLPipeline} can use execution lanes for its {@link SQLPipeline#mapCpu(SQLFunction, int) CPU-bound stages}.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLExecutionLanes implements AutoCloseable {
+
+    private static final AtomicInteger IO_THREAD_COUNTER = new AtomicInteger();
+
+    private static final Executor THREAD_PER_TASK = task -> Threads.newThread("sql-io-" + IO_THREAD_COUNTER.incrementAndGet(), task) //$NON-NLS-1$
+            .start();
+
+    private static final SQLExecutionLanes SHARED = new SQLExecutionLanes(ForkJoinPool.commonPool(), THREAD_PER_TASK, false);
+
+    private final ForkJoinPool cpuPool;
+    private final Executor ioExecutor;
+    private final boolean ownsCpuPool;
+
+    private SQLExecutionLanes(ForkJoinPool cpuPool, Executor ioExecutor, boolean ownsCpuPool) {
+        this.cpuPool = cpuPool;
+        this.ioExecutor = ioExecutor;
+        this.ownsCpuPool = ownsCpuPool;
+    }
+
+    /**
+     * Returns execution lanes that use the {@link ForkJoinPool#commonPool() common pool} for CPU-bound work, and a new thread per task for
+     * I/O-bound work. Closing the returned execution lanes has no effect.
+     *
+     * @return Execution lanes that use the common pool for CPU-bound work.
+     */
+    public static SQLExecutionLanes shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns execution lanes with a new CPU pool.
+     * The CPU pool has a parallelism equal to the number of available processors. I/O-bound work uses a new thread per task.
+     * Closing the returned execution lanes shuts down the CPU pool.
+     *
+     * @return Execution lanes with a new CPU pool.
+     */
+    public static SQLExecutionLanes create() {
+        return create(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns execution lanes with a new CPU pool. I/O-bound work uses a new thread per task.
+     * Closing the returned execution lanes shuts down the CPU pool.
+     *
+     * @param cpuParallelism The parallelism of the CPU pool.
+     * @return Execution lanes with a new CPU pool.
+     * @throws IllegalArgumentException If {@code cpuParallelism} is not positive.
+     */
+    public static SQLExecutionLanes create(int cpuParallelism) {
+        if (cpuParallelism <= 0) {
+            throw new IllegalArgumentException(cpuParallelism + " <= 0"); //$NON-NLS-1$
+        }
+        return new SQLExecutionLanes(new ForkJoinPool(cpuParallelism), THREAD_PER_TASK, true);
+    }
+
+    /**
+     * Returns execution lanes with an existing CPU pool and I/O executor.
+     * Closing the returned execution lanes has no effect; the given pool and executor remain owned by the caller.
+     * <p>
+     * The I/O executor should be able to run many tasks concurrently, for instance by using virtual threads or a large thread pool.
+     *
+     * @param cpuPool The pool for CPU-bound work.
+     * @param ioExecutor The executor for I/O-bound work.
+     * @return Execution lanes with the given CPU pool and I/O executor.
+     * @throws NullPointerException If {@code cpuPool} or {@code ioExecutor} is {@code null}.
+     */
+    public static SQLExecutionLanes of(ForkJoinPool cpuPool, Executor ioExecutor) {
+        Objects.requireNonNull(cpuPool);
+        Objects.requireNonNull(ioExecutor);
+        return new SQLExecutionLanes(cpuPool, ioExecutor, false);
+    }
+
+    /**
+     * Returns the pool for CPU-bound work.
+     *
+     * @return The pool for CPU-bound work.
+     */
+    public ForkJoinPool cpuPool() {
+        return cpuPool;
+    }
+
+    /**
+     * Returns the executor for I/O-bound work.
+     *
+     * @return The executor for I/O-bound work.
+     */
+    public Executor ioExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Calls a supplier in the CPU lane.
+     *
+     * @param <R> The result type of the supplier.
+     * @param supplier The supplier to call.
+     * @return A future that is completed with the result of calling the supplier.
+     * @throws NullPointerException If {@code supplier} is {@code null}.
+     */
+    public <R> CompletableFuture<R> supplyCpu(SQLSupplier<? extends R> supplier) {
+        return SQLFutures.supplyAsync(supplier, cpuPool);
+    }
+
+    /**
+     * Calls a supplier in the I/O lane.
+     *
+     * @param <R> The result type of the supplier.
+     * @param supplier The supplier to call.
+     * @return A future that is completed with the result of calling the supplier.
+     * @throws NullPointerException If {@code supplier} is {@code null}.
+     */
+    public <R> CompletableFuture<R> supplyIo(SQLSupplier<? extends R> supplier) {
+        return SQLFutures.supplyAsync(supplier, ioExecutor);
+    }
+
+    /**
+     * Returns a function that applies a function in the CPU lane, and waits for the result.
+     * If the returned function is called in the CPU lane already, the given function is applied directly.
+     *
+     * @param <T> The type of the input to the function.
+     * @param <R> The type of the result of the function.
+     * @param function The function to apply.
+     * @return A function that applies the given function in the CPU lane.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     */
+    public <T, R> SQLFunction<T, R> cpuBound(SQLFunction<? super T, ? extends R> function) {
+        Objects.requireNonNull(function);
+        return t -> ForkJoinTask.getPool() == cpuPool
+                ? function.apply(t)
+                : SQLFutures.get(supplyCpu(() -> function.apply(t)));
+    }
+
+    /**
+     * Returns a function that applies a function in the I/O lane, and waits for the result.
+     * If the returned function is called by a thread of the CPU pool, the pool is allowed to compensate for that thread while it waits.
+     *
+     * @param <T> The type of the input to the function.
+     * @param <R> The type of the result of the function.
+     * @param function The function to apply.
+     * @return A function that applies the given function in the I/O lane.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     */
+    public <T, R> SQLFunction<T, R> ioBound(SQLFunction<? super T, ? extends R> function) {
+        Objects.requireNonNull(function);
+        // CompletableFuture.get uses ForkJoinPool.managedBlock when called from a pool thread
+        return t -> SQLFutures.get(supplyIo(() -> function.apply(t)));
+    }
+
+    /**
+     * Closes these execution lanes. If these execution lanes created their own CPU pool, it is shut down, and this method waits until all
+     * CPU-bound work has finished.
+     *
+     * @throws SQLException If the current thread is interrupted while waiting for CPU-bound work to finish.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (ownsCpuPool) {
+            cpuPool.shutdown();
+            try {
+                while (!cpuPool.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // keep waiting
+                }
+            } catch (InterruptedException e) {
+                throw SQLExceptions.interrupted(e);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[cpuParallelism=" + cpuPool.getParallelism() + "]";
+    }
+}
@@ -19,6 +19,9 @@ package com.github.robtimus.sql.function;
 
 import java.sql.SQLException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -70,6 +73,24 @@ public interface SQLFunction<T, R> {
         return t -> after.apply(apply(t));
     }
 
+    /**
+     * Returns a function that applies this function asynchronously using an executor.
+     * The returned function returns a future that is completed with the result of this function.
+     * If this function throws an {@link SQLException}, the future completes exceptionally with that exception, without any wrapping.
+     * <p>
+     * The returned function can be passed to {@link CompletableFuture#thenCompose(Function)} or {@link SQLFutures#thenCompose(CompletionStage,
+     * SQLFunction)} to apply this function asynchronously to the result of another future.
+     *
+     * @param executor The executor to apply this function on.
+     * @return A function that applies this function asynchronously using the given executor.
+     * @throws NullPointerException If {@code executor} is {@code null}.
+     * @since 3.0
+     */
+    default Function<T, CompletableFuture<R>> async(Executor executor) {
+        Objects.requireNonNull(executor);
+        return t -> SQLFutures.supplyAsync(() -> apply(t), executor);
+    }
+
     /**
      * Returns a function that always returns its input argument.
      *
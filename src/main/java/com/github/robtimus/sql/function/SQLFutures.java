@@ -0,0 +1,315 @@
+/*
+ * SQLFutures.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Utility methods for combining SQL operations with {@link CompletableFuture CompletableFutures}.
+ * <p>
+ * The futures returned by the methods in this class never wrap exceptions. If an SQL operation throws an {@link SQLException}, the future
+ * completes exceptionally with that exception, and so do any futures returned by the {@code then...} methods of this class that depend on it.
+ * Dependent futures created using the methods of {@link CompletableFuture} itself will still wrap the exception in a
+ * {@link CompletionException}; {@link #unwrap(Throwable)} can be used to get the original exception in that case.
+ * <p>
+ * The {@code ...Async} methods of this class skip the SQL operation if the returned future is already completed when the operation is about to
+ * start, for instance because it was {@link CompletableFuture#cancel(boolean) cancelled} while the operation was still queued on the executor.
+ * Cancelling a future does not interrupt an operation that is already running; the operation runs to completion, and its result is discarded.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLFutures {
+
+    private SQLFutures() {
+    }
+
+    /**
+     * Returns a future that is completed with the result of a supplier, which is called using an executor.
+     * If the returned future is cancelled before the supplier is called, the supplier is not called at all.
+     * Cancelling the returned future does not interrupt a call to the supplier that is already running.
+     *
+     * @param <T> The type of result of the supplier.
+     * @param supplier The supplier to call.
+     * @param executor The executor to call the supplier on.
+     * @return A future that is completed with the result of the supplier, or exceptionally with the exception it throws.
+     * @throws NullPointerException If {@code supplier} or {@code executor} is {@code null}.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(SQLSupplier<? extends T> supplier, Executor executor) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(executor);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (!future.isDone()) {
+                complete(future, supplier);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Returns a future that is completed after an action has been performed using an executor.
+     * If the returned future is cancelled before the action is performed, the action is not performed at all.
+     * Cancelling the returned future does not interrupt the action if it is already running.
+     *
+     * @param action The action to perform.
+     * @param executor The executor to perform the action on.
+     * @return A future that is completed after the action has been performed, or exceptionally with the exception it throws.
+     * @throws NullPointerException If {@code action} or {@code executor} is {@code null}.
+     */
+    public static CompletableFuture<Void> runAsync(SQLRunnable action, Executor executor) {
+        Objects.requireNonNull(action);
+        return supplyAsync(asSupplier(action), executor);
+    }
+
+    /**
+     * Returns a future that is completed with the result of applying a function to the result of another future.
+     * If the other future completes exceptionally, the returned future completes exceptionally with the {@link #unwrap(Throwable) unwrapped}
+     * exception, and the function is not applied.
+     * The function is applied on the thread that completes the other future, or on the current thread if the other future is already completed.
+     *
+     * @param <T> The type of result of the other future.
+     * @param <R> The type of result of the function.
+     * @param future The other future.
+     * @param function The function to apply.
+     * @return A future that is completed with the result of applying the function to the result of the other future.
+     * @throws NullPointerException If {@code future} or {@code function} is {@code null}.
+     */
+    public static <T, R> CompletableFuture<R> thenApply(CompletionStage<? extends T> future, SQLFunction<? super T, ? extends R> function) {
+        Objects.requireNonNull(future);
+        Objects.requireNonNull(function);
+        CompletableFuture<R> result = new CompletableFuture<>();
+        future.whenComplete((t, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+            } else {
+                complete(result, () -> function.apply(t));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns a future that is completed with the result of applying a function to the result of another future.
+     * If the other future completes exceptionally, the returned future completes exceptionally with the {@link #unwrap(Throwable) unwrapped}
+     * exception, and the function is not applied.
+     *
+     * @param <T> The type of result of the other future.
+     * @param <R> The type of result of the function.
+     * @param future The other future.
+     * @param function The function to apply.
+     * @param executor The executor to apply the function on.
+     * @return A future that is completed with the result of applying the function to the result of the other future.
+     * @throws NullPointerException If {@code future}, {@code function} or {@code executor} is {@code null}.
+     */
+    public static <T, R> CompletableFuture<R> thenApplyAsync(CompletionStage<? extends T> future, SQLFunction<? super T, ? extends R> function,
+            Executor executor) {
+
+        Objects.requireNonNull(future);
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(executor);
+        CompletableFuture<R> result = new CompletableFuture<>();
+        future.whenComplete((t, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+            } else {
+                executeOrFail(result, () -> {
+                    if (!result.isDone()) {
+                        complete(result, () -> function.apply(t));
+                    }
+                }, executor);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns a future that is completed after an operation has been performed on the result of another future.
+     * If the other future completes exceptionally, the returned future completes exceptionally with the {@link #unwrap(Throwable) unwrapped}
+     * exception, and the operation is not performed.
+     *
+     * @param <T> The type of result of the other future.
+     * @param future The other future.
+     * @param operation The operation to perform.
+     * @return A future that is completed after the operation has been performed on the result of the other future.
+     * @throws NullPointerException If {@code future} or {@code operation} is {@code null}.
+     */
+    public static <T> CompletableFuture<Void> thenAccept(CompletionStage<? extends T> future, SQLConsumer<? super T> operation) {
+        Objects.requireNonNull(operation);
+        return thenApply(future, t -> {
+            operation.accept(t);
+            return null;
+        });
+    }
+
+    /**
+     * Returns a future that is completed after an action has been performed after another future completes.
+     * If the other future completes exceptionally, the returned future completes exceptionally with the {@link #unwrap(Throwable) unwrapped}
+     * exception, and the action is not performed.
+     *
+     * @param future The other future.
+     * @param action The action to perform.
+     * @return A future that is completed after the action has been performed after the other future completes.
+     * @throws NullPointerException If {@code future} or {@code action} is {@code null}.
+     */
+    public static CompletableFuture<Void> thenRun(CompletionStage<?> future, SQLRunnable action) {
+        Objects.requireNonNull(action);
+        return thenApply(future, t -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns a future that is completed with the result of the future returned by applying a function to the result of another future.
+     * If either future completes exceptionally, the returned future completes exceptionally with the {@link #unwrap(Throwable) unwrapped}
+     * exception.
+     *
+     * @param <T> The type of result of the other future.
+     * @param <R> The type of result of the future returned by the function.
+     * @param future The other future.
+     * @param function The function to apply.
+     * @return A future that is completed with the result of the future returned by applying the function to the result of the other future.
+     * @throws NullPointerException If {@code future} or {@code function} is {@code null}.
+     */
+    public static <T, R> CompletableFuture<R> thenCompose(CompletionStage<? extends T> future,
+            SQLFunction<? super T, ? extends CompletionStage<? extends R>> function) {
+
+        Objects.requireNonNull(future);
+        Objects.requireNonNull(function);
+        CompletableFuture<R> result = new CompletableFuture<>();
+        future.whenComplete((t, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+                return;
+            }
+            CompletionStage<? extends R> next;
+            try {
+                next = Objects.requireNonNull(function.apply(t));
+            } catch (SQLException | RuntimeException | Error e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            next.whenComplete((r, nextError) -> {
+                if (nextError != null) {
+                    result.completeExceptionally(unwrap(nextError));
+                } else {
+                    result.complete(r);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Returns a future that is completed with the result of applying a function to the results of two other futures.
+     * If either other future completes exceptionally, the returned future completes exceptionally with the {@link #unwrap(Throwable) unwrapped}
+     * exception, and the function is not applied.
+     *
+     * @param <T> The type of result of the first other future.
+     * @param <U> The type of result of the second other future.
+     * @param <R> The type of result of the function.
+     * @param future The first other future.
+     * @param other The second other future.
+     * @param function The function to apply.
+     * @return A future that is completed with the result of applying the function to the results of the two other futures.
+     * @throws NullPointerException If {@code future}, {@code other} or {@code function} is {@code null}.
+     */
+    public static <T, U, R> CompletableFuture<R> thenCombine(CompletionStage<? extends T> future, CompletionStage<? extends U> other,
+            SQLBiFunction<? super T, ? super U, ? extends R> function) {
+
+        Objects.requireNonNull(future);
+        Objects.requireNonNull(other);
+        Objects.requireNonNull(function);
+        return thenCompose(future, t -> thenApply(other, u -> function.apply(t, u)));
+    }
+
+    /**
+     * Waits for a future to complete, and returns its result.
+     * If the future completes exceptionally with an {@link SQLException}, possibly wrapped, that exception is thrown as-is.
+     *
+     * @param <T> The type of result of the future.
+     * @param future The future to wait for.
+     * @return The result of the future.
+     * @throws NullPointerException If {@code future} is {@code null}.
+     * @throws SQLException If the future completes exceptionally with an {@link SQLException}, or with a checked exception that is not an
+     *                          {@code SQLException}, in which case that exception is the cause of the thrown {@code SQLException}.
+     *                          If the current thread is interrupted while waiting, an {@code SQLException} is thrown as well,
+     *                          and the interrupt status of the current thread is restored.
+     */
+    public static <T> T get(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        } catch (ExecutionException e) {
+            throw SQLExceptions.toSQLException(unwrap(e));
+        }
+    }
+
+    /**
+     * Unwraps an exception thrown by, or passed to a callback of, a {@link CompletableFuture}.
+     * {@link CompletionException CompletionExceptions} and {@link ExecutionException ExecutionExceptions} are replaced by their causes,
+     * and {@link UncheckedSQLException UncheckedSQLExceptions} are replaced by the {@link SQLException} they wrap.
+     *
+     * @param exception The exception to unwrap.
+     * @return The unwrapped exception.
+     * @throws NullPointerException If {@code exception} is {@code null}.
+     */
+    public static Throwable unwrap(Throwable exception) {
+        Throwable result = Objects.requireNonNull(exception);
+        while (true) {
+            if ((result instanceof CompletionException || result instanceof ExecutionException) && result.getCause() != null) {
+                result = result.getCause();
+            } else if (result instanceof UncheckedSQLException) {
+                result = result.getCause();
+            } else {
+                return result;
+            }
+        }
+    }
+
+    static <T> void complete(CompletableFuture<T> future, SQLSupplier<? extends T> supplier) {
+        try {
+            future.complete(supplier.get());
+        } catch (SQLException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    static <T> SQLSupplier<T> asSupplier(SQLRunnable action) {
+        return () -> {
+            action.run();
+            return null;
+        };
+    }
+
+    private static void executeOrFail(CompletableFuture<?> future, Runnable task, Executor executor) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+}
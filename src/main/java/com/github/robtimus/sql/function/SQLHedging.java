@@ -0,0 +1,300 @@
+/*
+ * SQLHedging.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A policy for hedged execution of idempotent SQL reads.
+ * A hedged call starts a primary attempt. If that has not completed within the hedging delay, a backup attempt is started as well.
+ * The result of whichever attempt completes first is returned, and the other attempt is cancelled.
+ * <p>
+ * The backup attempt can be the same operation as the primary attempt, or a different one, for instance one that reads from a different replica.
+ * Because both attempts may run at the same time, hedging must only be used for operations that have no side effects.
+ * <p>
+ * The hedging delay is either fixed, or derived from a percentile of recently observed latencies.
+ * Attempts run on the executor of the policy; the calling thread only waits for the first result.
+ * If an attempt fails while the other attempt is still running, the result of the other attempt is used.
+ * If both attempts fail, the first failure is thrown, with the second failure added as {@link Throwable#addSuppressed(Throwable) suppressed}
+ * exception. A primary attempt that fails before the hedging delay has passed fails the call without a backup attempt being started.
+ * <p>
+ * Cancelling an attempt interrupts the thread running it. Whether that stops the attempt depends on the JDBC driver.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLHedging {
+
+    private static final int WINDOW_SIZE = 1024;
+    private static final int MIN_SAMPLES = 32;
+    private static final int RECALCULATION_INTERVAL = 64;
+
+    private final Executor executor;
+    private final LatencyWindow latencies;
+    private final long fixedDelayNanos;
+
+    private SQLHedging(Executor executor, LatencyWindow latencies, long fixedDelayNanos) {
+        this.executor = executor;
+        this.latencies = latencies;
+        this.fixedDelayNanos = fixedDelayNanos;
+    }
+
+    /**
+     * Returns a hedging policy with a fixed hedging delay.
+     *
+     * @param delay The time to wait for the primary attempt before starting the backup attempt.
+     * @param executor The executor to run attempts on.
+     * @return A hedging policy with the given hedging delay.
+     * @throws NullPointerException If {@code delay} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code delay} is negative.
+     */
+    public static SQLHedging withDelay(Duration delay, Executor executor) {
+        long delayNanos = toNanos(delay);
+        Objects.requireNonNull(executor);
+        return new SQLHedging(executor, null, delayNanos);
+    }
+
+    /**
+     * Returns a hedging policy with a hedging delay that is derived from the latencies of recent attempts.
+     * For instance, with a percentile of 95, the backup attempt is started once the primary attempt has taken longer than 95% of recent attempts.
+     * Until enough latencies have been observed, the given initial delay is used.
+     * <p>
+     * The latencies of completed attempts are recorded, whether they succeeded or failed. Each latency is measured inside the attempt, so it
+     * does not include the time the attempt was queued in the executor. Attempts that are cancelled before they start are not recorded, and
+     * neither are attempts that fail after they have been cancelled.
+     *
+     * @param percentile The percentile of recent latencies to use as hedging delay; larger than 0 and at most 100.
+     * @param initialDelay The hedging delay to use until enough latencies have been observed.
+     * @param executor The executor to run attempts on.
+     * @return A hedging policy with a hedging delay that is derived from the latencies of recent attempts.
+     * @throws NullPointerException If {@code initialDelay} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code percentile} is not larger than 0 and at most 100, or if {@code initialDelay} is negative.
+     */
+    public static SQLHedging withPercentileDelay(double percentile, Duration initialDelay, Executor executor) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException(percentile + " is not in (0, 100]"); //$NON-NLS-1$
+        }
+        long initialDelayNanos = toNanos(initialDelay);
+        Objects.requireNonNull(executor);
+        return new SQLHedging(executor, new LatencyWindow(percentile, initialDelayNanos), initialDelayNanos);
+    }
+
+    private static long toNanos(Duration delay) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException(delay + " < 0"); //$NON-NLS-1$
+        }
+        try {
+            return delay.toNanos();
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the current hedging delay.
+     * For policies with a fixed delay this is always the same value.
+     *
+     * @return The current hedging delay.
+     */
+    public Duration currentDelay() {
+        return Duration.ofNanos(delayNanos());
+    }
+
+    private long delayNanos() {
+        return latencies != null ? latencies.delayNanos() : fixedDelayNanos;
+    }
+
+    /**
+     * Returns a supplier that performs hedged calls to the {@code supplier} supplier.
+     * Both the primary and the backup attempt use the {@code supplier} supplier.
+     *
+     * @param <T> The type of results supplied by the supplier.
+     * @param supplier The supplier to call.
+     * @return A supplier that performs hedged calls to the {@code supplier} supplier.
+     * @throws NullPointerException If {@code supplier} is {@code null}.
+     */
+    public <T> SQLSupplier<T> hedgeSupplier(SQLSupplier<? extends T> supplier) {
+        return hedgeSupplier(supplier, supplier);
+    }
+
+    /**
+     * Returns a supplier that performs hedged calls, using the {@code primary} supplier for the primary attempt and the {@code backup} supplier for
+     * the backup attempt.
+     *
+     * @param <T> The type of results supplied by the suppliers.
+     * @param primary The supplier to use for the primary attempt.
+     * @param backup The supplier to use for the backup attempt.
+     * @return A supplier that performs hedged calls to the given suppliers.
+     * @throws NullPointerException If {@code primary} or {@code backup} is {@code null}.
+     */
+    public <T> SQLSupplier<T> hedgeSupplier(SQLSupplier<? extends T> primary, SQLSupplier<? extends T> backup) {
+        Objects.requireNonNull(primary);
+        Objects.requireNonNull(backup);
+        return () -> execute(primary::get, backup::get);
+    }
+
+    /**
+     * Returns a function that performs hedged calls to the {@code function} function.
+     * Both the primary and the backup attempt apply the {@code function} function to the same input.
+     *
+     * @param <T> The type of the input to the function.
+     * @param <R> The type of the result of the function.
+     * @param function The function to apply.
+     * @return A function that performs hedged calls to the {@code function} function.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     */
+    public <T, R> SQLFunction<T, R> hedgeFunction(SQLFunction<? super T, ? extends R> function) {
+        return hedgeFunction(function, function);
+    }
+
+    /**
+     * Returns a function that performs hedged calls, using the {@code primary} function for the primary attempt and the {@code backup} function
+     * for the backup attempt. Both functions are applied to the same input.
+     *
+     * @param <T> The type of the input to the functions.
+     * @param <R> The type of the result of the functions.
+     * @param primary The function to use for the primary attempt.
+     * @param backup The function to use for the backup attempt.
+     * @return A function that performs hedged calls to the given functions.
+     * @throws NullPointerException If {@code primary} or {@code backup} is {@code null}.
+     */
+    public <T, R> SQLFunction<T, R> hedgeFunction(SQLFunction<? super T, ? extends R> primary, SQLFunction<? super T, ? extends R> backup) {
+        Objects.requireNonNull(primary);
+        Objects.requireNonNull(backup);
+        return t -> execute(() -> primary.apply(t), () -> backup.apply(t));
+    }
+
+    private <T> T execute(Callable<T> primary, Callable<T> backup) throws SQLException {
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        AtomicBoolean finished = new AtomicBoolean();
+        Future<T> primaryFuture = completionService.submit(timed(primary, finished));
+        Future<T> backupFuture = null;
+        try {
+            Future<T> completed = completionService.poll(delayNanos(), TimeUnit.NANOSECONDS);
+            if (completed == null) {
+                backupFuture = completionService.submit(timed(backup, finished));
+                completed = completionService.take();
+                return resultOrOther(completed, completionService);
+            }
+            return result(completed);
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        } finally {
+            finished.set(true);
+            primaryFuture.cancel(true);
+            if (backupFuture != null) {
+                backupFuture.cancel(true);
+            }
+        }
+    }
+
+    private <T> T resultOrOther(Future<T> completed, CompletionService<T> completionService) throws SQLException, InterruptedException {
+        try {
+            return result(completed);
+        } catch (SQLException | RuntimeException e) {
+            Future<T> other = completionService.take();
+            try {
+                return result(other);
+            } catch (SQLException | RuntimeException e2) {
+                e.addSuppressed(e2);
+                throw e;
+            }
+        }
+    }
+
+    private static <T> T result(Future<T> future) throws SQLException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw SQLExceptions.toSQLException(e.getCause());
+        }
+    }
+
+    private <T> Callable<T> timed(Callable<T> callable, AtomicBoolean finished) {
+        if (latencies == null) {
+            return callable;
+        }
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                T result = callable.call();
+                latencies.record(System.nanoTime() - start);
+                return result;
+            } catch (Exception e) {
+                // an attempt that fails once the call has finished has been cancelled, and did not complete
+                if (!finished.get()) {
+                    latencies.record(System.nanoTime() - start);
+                }
+                throw e;
+            }
+        };
+    }
+
+    private static final class LatencyWindow {
+
+        private final double percentile;
+        private final long initialDelayNanos;
+
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+        private final AtomicLong count = new AtomicLong();
+
+        private volatile long delayNanos;
+
+        private LatencyWindow(double percentile, long initialDelayNanos) {
+            this.percentile = percentile;
+            this.initialDelayNanos = initialDelayNanos;
+            this.delayNanos = initialDelayNanos;
+        }
+
+        private long delayNanos() {
+            return delayNanos;
+        }
+
+        private void record(long latencyNanos) {
+            long index = count.getAndIncrement();
+            samples.set((int) (index % WINDOW_SIZE), latencyNanos);
+            long recorded = index + 1;
+            if (recorded >= MIN_SAMPLES && (recorded == MIN_SAMPLES || recorded % RECALCULATION_INTERVAL == 0)) {
+                delayNanos = calculateDelay((int) Math.min(recorded, WINDOW_SIZE));
+            }
+        }
+
+        private long calculateDelay(int sampleCount) {
+            long[] sorted = new long[sampleCount];
+            for (int i = 0; i < sampleCount; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * sampleCount) - 1;
+            return rank < 0 ? initialDelayNanos : sorted[rank];
+        }
+    }
+}
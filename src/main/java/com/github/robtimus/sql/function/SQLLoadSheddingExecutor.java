@@ -0,0 +1,413 @@
+/*
+ * SQLLoadSheddingExecutor.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An executor for SQL tasks that sheds tasks that have been queued for too long.
+ * <p>
+ * Queued tasks are managed using a variant of the CoDel (controlled delay) algorithm. The executor keeps track of the minimum time that tasks
+ * have spent in the queue during each interval. If that minimum exceeds the target delay, the queue never drained during the interval,
+ * and the executor considers itself overloaded until the minimum drops below the target again.
+ * <ul>
+ *   <li>While not overloaded, tasks are run in the order in which they were submitted.
+ *       Tasks that have been queued for longer than the interval are shed.</li>
+ *   <li>While overloaded, the most recently submitted tasks are run first, because their submitters are most likely to still be waiting for them.
+ *       Tasks that have been queued for longer than the target delay are shed.</li>
+ * </ul>
+ * The futures of shed tasks complete exceptionally with an {@link SQLTransientException}.
+ * Tasks that fail with an {@link SQLException} complete their futures exceptionally with that exception, without any wrapping.
+ * <p>
+ * Instances of this class are thread-safe.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLLoadSheddingExecutor implements AutoCloseable {
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMillis(100);
+
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition terminated = lock.newCondition();
+
+    private final Deque<Task<?>> queue = new ArrayDeque<>();
+    private final List<Thread> workers;
+
+    private final AtomicLong shedCount = new AtomicLong();
+
+    // All fields below are guarded by lock
+    private long intervalEnd;
+    private long minDelayNanos = Long.MAX_VALUE;
+    private boolean overloaded = false;
+    private boolean shutdown = false;
+    private int activeWorkers;
+
+    private SQLLoadSheddingExecutor(int threads, long targetNanos, long intervalNanos, ThreadFactory threadFactory) {
+        this.targetNanos = targetNanos;
+        this.intervalNanos = intervalNanos;
+        this.intervalEnd = System.nanoTime() + intervalNanos;
+
+        this.workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = threadFactory.newThread(this::work);
+            if (worker == null) {
+                throw new IllegalStateException("Thread factory did not create a thread"); //$NON-NLS-1$
+            }
+            workers.add(worker);
+        }
+        this.activeWorkers = threads;
+        workers.forEach(Thread::start);
+    }
+
+    /**
+     * Creates a new load shedding executor with an interval of 100 milliseconds.
+     *
+     * @param threads The number of threads to run tasks on.
+     * @param targetDelay The maximum acceptable time that tasks spend in the queue while the executor is overloaded.
+     * @return The created executor.
+     * @throws NullPointerException If {@code targetDelay} is {@code null}.
+     * @throws IllegalArgumentException If {@code threads} or {@code targetDelay} is not positive, or if {@code targetDelay} is larger than
+     *                                      100 milliseconds.
+     */
+    public static SQLLoadSheddingExecutor create(int threads, Duration targetDelay) {
+        return create(threads, targetDelay, DEFAULT_INTERVAL, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new load shedding executor.
+     *
+     * @param threads The number of threads to run tasks on.
+     * @param targetDelay The maximum acceptable time that tasks spend in the queue while the executor is overloaded.
+     * @param interval The interval over which queueing delays are measured, and the maximum time that tasks spend in the queue while the executor
+     *                     is not overloaded.
+     * @param threadFactory The factory for the threads to run tasks on.
+     * @return The created executor.
+     * @throws NullPointerException If {@code targetDelay}, {@code interval} or {@code threadFactory} is {@code null}.
+     * @throws IllegalArgumentException If {@code threads} or {@code targetDelay} is not positive, or if {@code targetDelay} is larger than
+     *                                      {@code interval}.
+     */
+    public static SQLLoadSheddingExecutor create(int threads, Duration targetDelay, Duration interval, ThreadFactory threadFactory) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException(threads + " <= 0"); //$NON-NLS-1$
+        }
+        if (targetDelay.isNegative() || targetDelay.isZero()) {
+            throw new IllegalArgumentException(targetDelay + " <= 0"); //$NON-NLS-1$
+        }
+        if (targetDelay.compareTo(interval) > 0) {
+            throw new IllegalArgumentException(targetDelay + " > " + interval); //$NON-NLS-1$
+        }
+        Objects.requireNonNull(threadFactory);
+        return new SQLLoadSheddingExecutor(threads, targetDelay.toNanos(), interval.toNanos(), threadFactory);
+    }
+
+    /**
+     * Submits a task that returns a result.
+     *
+     * @param <T> The type of result of the task.
+     * @param task The task to submit.
+     * @return A future that completes with the result of the task, or exceptionally if the task failed or was shed.
+     * @throws NullPointerException If {@code task} is {@code null}.
+     * @throws RejectedExecutionException If this executor has been shut down.
+     */
+    public <T> CompletableFuture<T> supply(SQLSupplier<? extends T> task) {
+        Objects.requireNonNull(task);
+        Task<T> queued = new Task<>(task);
+        enqueue(queued);
+        return queued.future;
+    }
+
+    /**
+     * Submits a task that does not return a result.
+     *
+     * @param task The task to submit.
+     * @return A future that completes when the task has completed, or exceptionally if the task failed or was shed.
+     * @throws NullPointerException If {@code task} is {@code null}.
+     * @throws RejectedExecutionException If this executor has been shut down.
+     */
+    public CompletableFuture<Void> run(SQLRunnable task) {
+        Objects.requireNonNull(task);
+        return supply(SQLFutures.asSupplier(task));
+    }
+
+    private void enqueue(Task<?> task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down"); //$NON-NLS-1$
+            }
+            queue.addLast(task);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether or not this executor is currently overloaded.
+     *
+     * @return {@code true} if this executor is currently overloaded, or {@code false} otherwise.
+     */
+    public boolean isOverloaded() {
+        lock.lock();
+        try {
+            return overloaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks that are currently queued.
+     *
+     * @return The number of tasks that are currently queued.
+     */
+    public int queueSize() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks that have been shed since this executor was created.
+     *
+     * @return The number of tasks that have been shed since this executor was created.
+     */
+    public long shedCount() {
+        return shedCount.get();
+    }
+
+    /**
+     * Shuts down this executor. Already submitted tasks are still run or shed, but no new tasks are accepted.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shuts down this executor, cancels all queued tasks, and interrupts all running tasks.
+     */
+    public void shutdownNow() {
+        List<Task<?>> cancelled;
+        lock.lock();
+        try {
+            shutdown = true;
+            cancelled = new ArrayList<>(queue);
+            queue.clear();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        cancelled.forEach(task -> task.future.cancel(false));
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Returns whether or not this executor has been shut down.
+     *
+     * @return {@code true} if this executor has been shut down, or {@code false} otherwise.
+     */
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until all tasks have completed after this executor has been shut down.
+     *
+     * @param timeout The maximum time to wait.
+     * @return {@code true} if all tasks completed, or {@code false} if the timeout expired first.
+     * @throws NullPointerException If {@code timeout} is {@code null}.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (activeWorkers > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = terminated.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shuts down this executor and waits until all tasks have completed.
+     * If the current thread is interrupted while waiting, all running tasks are interrupted.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (awaitTermination(Duration.ofDays(1))) {
+                    break;
+                }
+            } catch (@SuppressWarnings("unused") InterruptedException e) {
+                if (!interrupted) {
+                    shutdownNow();
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work() {
+        try {
+            Task<?> task;
+            while ((task = take()) != null) {
+                task.run();
+            }
+        } finally {
+            lock.lock();
+            try {
+                activeWorkers--;
+                if (activeWorkers == 0) {
+                    terminated.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Task<?> take() {
+        while (true) {
+            List<Task<?>> shed = new ArrayList<>();
+            Task<?> task;
+            lock.lock();
+            try {
+                while (queue.isEmpty()) {
+                    if (shutdown) {
+                        return null;
+                    }
+                    notEmpty.awaitUninterruptibly();
+                }
+                task = next(shed);
+            } finally {
+                lock.unlock();
+            }
+            // Complete the futures of shed tasks outside the lock, so dependent actions cannot block other workers
+            shed.forEach(this::shed);
+            if (task != null) {
+                return task;
+            }
+        }
+    }
+
+    private Task<?> next(List<Task<?>> shed) {
+        long now = System.nanoTime();
+        if (now - intervalEnd >= 0) {
+            overloaded = minDelayNanos != Long.MAX_VALUE && minDelayNanos > targetNanos;
+            minDelayNanos = Long.MAX_VALUE;
+            intervalEnd = now + intervalNanos;
+        }
+        if (overloaded) {
+            // Shed all stale tasks, then run the freshest task
+            while (!queue.isEmpty() && now - queue.peekFirst().enqueuedAt > targetNanos) {
+                Task<?> task = queue.pollFirst();
+                recordDelay(now - task.enqueuedAt);
+                shed.add(task);
+            }
+            Task<?> task = queue.pollLast();
+            if (task != null) {
+                recordDelay(now - task.enqueuedAt);
+            }
+            return task;
+        }
+        Task<?> task = queue.pollFirst();
+        long delay = now - task.enqueuedAt;
+        recordDelay(delay);
+        if (delay > intervalNanos) {
+            shed.add(task);
+            return null;
+        }
+        return task;
+    }
+
+    private void recordDelay(long delayNanos) {
+        minDelayNanos = Math.min(minDelayNanos, delayNanos);
+    }
+
+    private void shed(Task<?> task) {
+        shedCount.incrementAndGet();
+        long delayMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - task.enqueuedAt);
+        task.future.completeExceptionally(new SQLTransientException("Task shed after being queued for " //$NON-NLS-1$
+                + delayMillis + " ms")); //$NON-NLS-1$
+    }
+
+    private static final class Task<T> {
+
+        private final SQLSupplier<? extends T> supplier;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private Task(SQLSupplier<? extends T> supplier) {
+            this.supplier = supplier;
+        }
+
+        private void run() {
+            if (future.isDone()) {
+                // cancelled while queued
+                return;
+            }
+            SQLFutures.complete(future, supplier);
+        }
+    }
+}
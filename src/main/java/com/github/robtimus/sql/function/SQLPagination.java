@@ -0,0 +1,190 @@
+/*
+ * SQLPagination.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility methods for keyset pagination.
+ * <p>
+ * With keyset pagination, each page is loaded using the key of the last element of the previous page, for instance using
+ * {@code SELECT ... WHERE id > ? ORDER BY id FETCH FIRST 100 ROWS ONLY}. Unlike pagination using {@code OFFSET}, the database does not
+ * need to skip all preceding rows for each page, so deep pages are as fast to load as the first page.
+ * <p>
+ * The methods of this class return a lazy {@link Iterator} or {@link Stream} over the elements of all pages. While the elements of one page
+ * are being consumed, the next page is loaded in the background using an executor. Pagination ends when an empty page is loaded.
+ * If loading a page or extracting a key fails with an {@link SQLException}, it is thrown as an {@link UncheckedSQLException}; unchecked
+ * exceptions and errors are thrown as-is.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLPagination {
+
+    private SQLPagination() {
+    }
+
+    /**
+     * Returns a lazy iterator over the elements of all pages.
+     * <p>
+     * The first page is loaded when the iterator is first used. Each time the elements of a page become available, loading the next page
+     * is started. An iterator that is abandoned before it is exhausted leaves at most one page load running.
+     *
+     * @param <K> The type of keys.
+     * @param <T> The type of elements.
+     * @param initialKey The key to pass to the page loader for the first page; may be {@code null} if the page loader supports that.
+     * @param pageLoader The function that loads the page of elements after a key, in key order.
+     * @param keyExtractor The function that returns the key of an element.
+     * @param executor The executor to load pages on.
+     * @return A lazy iterator over the elements of all pages.
+     * @throws NullPointerException If {@code pageLoader}, {@code keyExtractor} or {@code executor} is {@code null}.
+     */
+    public static <K, T> Iterator<T> iterator(K initialKey, SQLFunction<? super K, ? extends List<? extends T>> pageLoader,
+            SQLFunction<? super T, ? extends K> keyExtractor, Executor executor) {
+
+        Objects.requireNonNull(pageLoader);
+        Objects.requireNonNull(keyExtractor);
+        Objects.requireNonNull(executor);
+        return new KeysetIterator<>(initialKey, pageLoader, keyExtractor, executor);
+    }
+
+    /**
+     * Returns a lazy stream over the elements of all pages.
+     * This method behaves like {@link #iterator(Object, SQLFunction, SQLFunction, Executor)}.
+     * Closing the returned stream cancels loading the next page if that is still in progress. If loading the next page has not started yet, the
+     * page loader is not called for it; if it is already running, it is not interrupted, and its result is discarded.
+     *
+     * @param <K> The type of keys.
+     * @param <T> The type of elements.
+     * @param initialKey The key to pass to the page loader for the first page; may be {@code null} if the page loader supports that.
+     * @param pageLoader The function that loads the page of elements after a key, in key order.
+     * @param keyExtractor The function that returns the key of an element.
+     * @param executor The executor to load pages on.
+     * @return A lazy sequential stream over the elements of all pages.
+     * @throws NullPointerException If {@code pageLoader}, {@code keyExtractor} or {@code executor} is {@code null}.
+     */
+    public static <K, T> Stream<T> stream(K initialKey, SQLFunction<? super K, ? extends List<? extends T>> pageLoader,
+            SQLFunction<? super T, ? extends K> keyExtractor, Executor executor) {
+
+        Objects.requireNonNull(pageLoader);
+        Objects.requireNonNull(keyExtractor);
+        Objects.requireNonNull(executor);
+        // Only create the iterator when the returned stream is consumed
+        AtomicReference<KeysetIterator<K, T>> iterator = new AtomicReference<>();
+        Supplier<Spliterator<T>> spliterator = () -> {
+            iterator.set(new KeysetIterator<>(initialKey, pageLoader, keyExtractor, executor));
+            return Spliterators.spliteratorUnknownSize(iterator.get(), Spliterator.ORDERED);
+        };
+        return StreamSupport.stream(spliterator, Spliterator.ORDERED, false)
+                .onClose(() -> {
+                    KeysetIterator<K, T> started = iterator.get();
+                    if (started != null) {
+                        started.cancel();
+                    }
+                });
+    }
+
+    private static final class KeysetIterator<K, T> implements Iterator<T> {
+
+        private final K initialKey;
+        private final SQLFunction<? super K, ? extends List<? extends T>> pageLoader;
+        private final SQLFunction<? super T, ? extends K> keyExtractor;
+        private final Executor executor;
+
+        private Iterator<? extends T> page;
+        private CompletableFuture<List<? extends T>> nextPage;
+        private boolean done;
+
+        private KeysetIterator(K initialKey, SQLFunction<? super K, ? extends List<? extends T>> pageLoader,
+                SQLFunction<? super T, ? extends K> keyExtractor, Executor executor) {
+
+            this.initialKey = initialKey;
+            this.pageLoader = pageLoader;
+            this.keyExtractor = keyExtractor;
+            this.executor = executor;
+
+            this.page = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !done) {
+                try {
+                    advance();
+                } catch (SQLException e) {
+                    cancel();
+                    throw new UncheckedSQLException(e);
+                } catch (RuntimeException | Error e) {
+                    cancel();
+                    throw e;
+                }
+            }
+            return page.hasNext();
+        }
+
+        private void advance() throws SQLException {
+            if (nextPage == null) {
+                nextPage = load(initialKey);
+            }
+            List<? extends T> elements = Objects.requireNonNull(SQLFutures.get(nextPage));
+            nextPage = null;
+            if (elements.isEmpty()) {
+                done = true;
+            } else {
+                // Start loading the next page before the elements of this page are consumed
+                K lastKey = keyExtractor.apply(elements.get(elements.size() - 1));
+                nextPage = load(lastKey);
+                page = elements.iterator();
+            }
+        }
+
+        private CompletableFuture<List<? extends T>> load(K key) {
+            return SQLFutures.supplyAsync(() -> pageLoader.apply(key), executor);
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+
+        private void cancel() {
+            done = true;
+            page = Collections.emptyIterator();
+            if (nextPage != null) {
+                nextPage.cancel(false);
+                nextPage = null;
+            }
+        }
+    }
+}
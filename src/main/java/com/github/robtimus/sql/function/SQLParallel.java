@@ -0,0 +1,663 @@
+/*
+ * SQLParallel.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility methods for applying SQL functions to elements in parallel.
+ * <p>
+ * The {@code map}, {@code mapToInt}, {@code mapToLong} and {@code mapToDouble} methods process the elements of a list or array.
+ * The elements are processed by a number of workers: the calling thread, and up to {@code parallelism - 1} workers that run on an executor.
+ * Each worker repeatedly takes the next element that has not been processed yet, until all elements have been processed.
+ * The results are returned in the order of the input list, regardless of the order in which the elements were processed.
+ * If the executor rejects a worker, the remaining elements are processed by the workers that did start.
+ * <p>
+ * If a function fails, no new elements are processed. Calls that are already in progress are allowed to complete; the threads of the executor
+ * are not interrupted, as they are not owned by these methods. All methods return or throw only after every worker that started has stopped,
+ * so no function calls are made after a method has returned or thrown. The calling thread does not wait for workers that the executor has not
+ * started yet; these workers stop immediately once they do start. This prevents deadlocks if the executor is saturated, or if the calling thread
+ * is itself a thread of the executor.
+ * <p>
+ * If a function fails with an {@link SQLException}, that exception is thrown as-is; unchecked exceptions and errors are thrown as-is as well.
+ * Failures of calls that were already in progress are added as {@link Throwable#addSuppressed(Throwable) suppressed} exceptions to the thrown
+ * exception. If the calling thread is interrupted while waiting for the other workers, no new elements are processed, and an {@link SQLException}
+ * is thrown with the {@link InterruptedException} as cause. The interrupt status of the calling thread is restored in that case.
+ * <p>
+ * When a {@link ForkJoinPool} is used, and the calling thread is a worker thread of that pool, the pool is allowed to compensate for the
+ * blocked calling thread.
+ * <p>
+ * The {@code mapOrdered} methods process the elements of an {@link Iterator} or {@link Stream} lazily, with a bounded number of function calls in
+ * flight at any time. This allows high-latency calls to be pipelined over inputs that are too large to keep in memory. Results are returned in
+ * the order of the input, and failures are thrown as {@link UncheckedSQLException UncheckedSQLExceptions}.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLParallel {
+
+    private SQLParallel() {
+    }
+
+    /**
+     * Applies a function to the elements of a list in parallel.
+     *
+     * @param <T> The type of elements in the list.
+     * @param <R> The type of result of the function.
+     * @param elements The list of elements.
+     * @param function The function to apply.
+     * @param executor The executor to run additional workers on.
+     * @param parallelism The maximum number of workers, including the calling thread.
+     * @return A list with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T, R> List<R> map(List<? extends T> elements, SQLFunction<? super T, ? extends R> function, Executor executor, int parallelism)
+            throws SQLException {
+
+        Objects.requireNonNull(function);
+        List<? extends T> input = copyOf(elements);
+        Object[] results = new Object[input.size()];
+        forEachIndex(results.length, i -> results[i] = function.apply(input.get(i)), executor, parallelism);
+
+        @SuppressWarnings("unchecked")
+        List<R> result = (List<R>) Arrays.asList(results);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Applies a function to the elements of a list in parallel, using a fork/join pool.
+     * The parallelism of the pool is used as the maximum number of workers.
+     *
+     * @param <T> The type of elements in the list.
+     * @param <R> The type of result of the function.
+     * @param elements The list of elements.
+     * @param function The function to apply.
+     * @param pool The pool to run additional workers on.
+     * @return A list with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code pool} is {@code null}.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T, R> List<R> map(List<? extends T> elements, SQLFunction<? super T, ? extends R> function, ForkJoinPool pool)
+            throws SQLException {
+
+        return map(elements, function, pool, pool.getParallelism());
+    }
+
+    /**
+     * Applies an {@code int}-valued function to the elements of a list in parallel.
+     *
+     * @param <T> The type of elements in the list.
+     * @param elements The list of elements.
+     * @param function The function to apply.
+     * @param executor The executor to run additional workers on.
+     * @param parallelism The maximum number of workers, including the calling thread.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> int[] mapToInt(List<? extends T> elements, ToIntSQLFunction<? super T> function, Executor executor, int parallelism)
+            throws SQLException {
+
+        Objects.requireNonNull(function);
+        List<? extends T> input = copyOf(elements);
+        int[] results = new int[input.size()];
+        forEachIndex(results.length, i -> results[i] = function.applyAsInt(input.get(i)), executor, parallelism);
+        return results;
+    }
+
+    /**
+     * Applies an {@code int}-valued function to the elements of a list in parallel, using a fork/join pool.
+     * The parallelism of the pool is used as the maximum number of workers.
+     *
+     * @param <T> The type of elements in the list.
+     * @param elements The list of elements.
+     * @param function The function to apply.
+     * @param pool The pool to run additional workers on.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code pool} is {@code null}.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> int[] mapToInt(List<? extends T> elements, ToIntSQLFunction<? super T> function, ForkJoinPool pool) throws SQLException {
+        return mapToInt(elements, function, pool, pool.getParallelism());
+    }
+
+    /**
+     * Applies a {@code long}-valued function to the elements of a list in parallel.
+     *
+     * @param <T> The type of elements in the list.
+     * @param elements The list of elements.
+     * @param function The function to apply.
+     * @param executor The executor to run additional workers on.
+     * @param parallelism The maximum number of workers, including the calling thread.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> long[] mapToLong(List<? extends T> elements, ToLongSQLFunction<? super T> function, Executor executor, int parallelism)
+            throws SQLException {
+
+        Objects.requireNonNull(function);
+        List<? extends T> input = copyOf(elements);
+        long[] results = new long[input.size()];
+        forEachIndex(results.length, i -> results[i] = function.applyAsLong(input.get(i)), executor, parallelism);
+        return results;
+    }
+
+    /**
+     * Applies a {@code long}-valued function to the elements of a list in parallel, using a fork/join pool.
+     * The parallelism of the pool is used as the maximum number of workers.
+     *
+     * @param <T> The type of elements in the list.
+     * @param elements The list of elements.
+     * @param function The function to apply.
+     * @param pool The pool to run additional workers on.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code pool} is {@code null}.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> long[] mapToLong(List<? extends T> elements, ToLongSQLFunction<? super T> function, ForkJoinPool pool) throws SQLException {
+        return mapToLong(elements, function, pool, pool.getParallelism());
+    }
+
+    /**
+     * Applies a {@code double}-valued function to the elements of a list in parallel.
+     *
+     * @param <T> The type of elements in the list.
+     * @param elements The list of elements.
+     * @param function The function to apply.
+     * @param executor The executor to run additional workers on.
+     * @param parallelism The maximum number of workers, including the calling thread.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> double[] mapToDouble(List<? extends T> elements, ToDoubleSQLFunction<? super T> function,
+            Executor executor, int parallelism) throws SQLException {
+
+        Objects.requireNonNull(function);
+        List<? extends T> input = copyOf(elements);
+        double[] results = new double[input.size()];
+        forEachIndex(results.length, i -> results[i] = function.applyAsDouble(input.get(i)), executor, parallelism);
+        return results;
+    }
+
+    /**
+     * Applies a {@code double}-valued function to the elements of a list in parallel, using a fork/join pool.
+     * The parallelism of the pool is used as the maximum number of workers.
+     *
+     * @param <T> The type of elements in the list.
+     * @param elements The list of elements.
+     * @param function The function to apply.
+     * @param pool The pool to run additional workers on.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code pool} is {@code null}.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> double[] mapToDouble(List<? extends T> elements, ToDoubleSQLFunction<? super T> function, ForkJoinPool pool)
+            throws SQLException {
+
+        return mapToDouble(elements, function, pool, pool.getParallelism());
+    }
+
+    /**
+     * Applies a function to the elements of an array in parallel.
+     * This method behaves like {@link #map(List, SQLFunction, Executor, int)}, using a list view of the array.
+     *
+     * @param <T> The type of elements in the array.
+     * @param <R> The type of result of the function.
+     * @param elements The array of elements.
+     * @param function The function to apply.
+     * @param executor The executor to run additional workers on.
+     * @param parallelism The maximum number of workers, including the calling thread.
+     * @return A list with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T, R> List<R> map(T[] elements, SQLFunction<? super T, ? extends R> function, Executor executor, int parallelism)
+            throws SQLException {
+
+        return map(Arrays.asList(elements), function, executor, parallelism);
+    }
+
+    /**
+     * Applies a function to the elements of an array in parallel, using a fork/join pool.
+     * This method behaves like {@link #map(List, SQLFunction, ForkJoinPool)}, using a list view of the array.
+     *
+     * @param <T> The type of elements in the array.
+     * @param <R> The type of result of the function.
+     * @param elements The array of elements.
+     * @param function The function to apply.
+     * @param pool The pool to run additional workers on.
+     * @return A list with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code pool} is {@code null}.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T, R> List<R> map(T[] elements, SQLFunction<? super T, ? extends R> function, ForkJoinPool pool) throws SQLException {
+        return map(Arrays.asList(elements), function, pool);
+    }
+
+    /**
+     * Applies an {@code int}-valued function to the elements of an array in parallel.
+     * This method behaves like {@link #mapToInt(List, ToIntSQLFunction, Executor, int)}, using a list view of the array.
+     *
+     * @param <T> The type of elements in the array.
+     * @param elements The array of elements.
+     * @param function The function to apply.
+     * @param executor The executor to run additional workers on.
+     * @param parallelism The maximum number of workers, including the calling thread.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> int[] mapToInt(T[] elements, ToIntSQLFunction<? super T> function, Executor executor, int parallelism) throws SQLException {
+        return mapToInt(Arrays.asList(elements), function, executor, parallelism);
+    }
+
+    /**
+     * Applies an {@code int}-valued function to the elements of an array in parallel, using a fork/join pool.
+     * This method behaves like {@link #mapToInt(List, ToIntSQLFunction, ForkJoinPool)}, using a list view of the array.
+     *
+     * @param <T> The type of elements in the array.
+     * @param elements The array of elements.
+     * @param function The function to apply.
+     * @param pool The pool to run additional workers on.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code pool} is {@code null}.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> int[] mapToInt(T[] elements, ToIntSQLFunction<? super T> function, ForkJoinPool pool) throws SQLException {
+        return mapToInt(Arrays.asList(elements), function, pool);
+    }
+
+    /**
+     * Applies a {@code long}-valued function to the elements of an array in parallel.
+     * This method behaves like {@link #mapToLong(List, ToLongSQLFunction, Executor, int)}, using a list view of the array.
+     *
+     * @param <T> The type of elements in the array.
+     * @param elements The array of elements.
+     * @param function The function to apply.
+     * @param executor The executor to run additional workers on.
+     * @param parallelism The maximum number of workers, including the calling thread.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> long[] mapToLong(T[] elements, ToLongSQLFunction<? super T> function, Executor executor, int parallelism)
+            throws SQLException {
+
+        return mapToLong(Arrays.asList(elements), function, executor, parallelism);
+    }
+
+    /**
+     * Applies a {@code long}-valued function to the elements of an array in parallel, using a fork/join pool.
+     * This method behaves like {@link #mapToLong(List, ToLongSQLFunction, ForkJoinPool)}, using a list view of the array.
+     *
+     * @param <T> The type of elements in the array.
+     * @param elements The array of elements.
+     * @param function The function to apply.
+     * @param pool The pool to run additional workers on.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code pool} is {@code null}.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> long[] mapToLong(T[] elements, ToLongSQLFunction<? super T> function, ForkJoinPool pool) throws SQLException {
+        return mapToLong(Arrays.asList(elements), function, pool);
+    }
+
+    /**
+     * Applies a {@code double}-valued function to the elements of an array in parallel.
+     * This method behaves like {@link #mapToDouble(List, ToDoubleSQLFunction, Executor, int)}, using a list view of the array.
+     *
+     * @param <T> The type of elements in the array.
+     * @param elements The array of elements.
+     * @param function The function to apply.
+     * @param executor The executor to run additional workers on.
+     * @param parallelism The maximum number of workers, including the calling thread.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> double[] mapToDouble(T[] elements, ToDoubleSQLFunction<? super T> function, Executor executor, int parallelism)
+            throws SQLException {
+
+        return mapToDouble(Arrays.asList(elements), function, executor, parallelism);
+    }
+
+    /**
+     * Applies a {@code double}-valued function to the elements of an array in parallel, using a fork/join pool.
+     * This method behaves like {@link #mapToDouble(List, ToDoubleSQLFunction, ForkJoinPool)}, using a list view of the array.
+     *
+     * @param <T> The type of elements in the array.
+     * @param elements The array of elements.
+     * @param function The function to apply.
+     * @param pool The pool to run additional workers on.
+     * @return An array with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code pool} is {@code null}.
+     * @throws SQLException If the function fails for any element, or if the current thread is interrupted while waiting.
+     */
+    public static <T> double[] mapToDouble(T[] elements, ToDoubleSQLFunction<? super T> function, ForkJoinPool pool) throws SQLException {
+        return mapToDouble(Arrays.asList(elements), function, pool);
+    }
+
+    /**
+     * Lazily applies a function to the elements of an iterator, with a bounded number of calls in flight.
+     * <p>
+     * The returned iterator starts calls for up to {@code maxInFlight} elements ahead of the element it returns next. Each call runs on the
+     * given executor. Results are returned in the order of the input elements; results that complete out of order are held until all
+     * preceding results have been returned, so at most {@code maxInFlight} results are held at any time.
+     * <p>
+     * If a call fails, the iterator throws the failure from {@link Iterator#next()} when that result is reached, wrapped in an
+     * {@link UncheckedSQLException} if it is an {@link SQLException}. The remaining calls in flight are cancelled, and the iterator has no
+     * more elements. Cancelled calls that have not started yet are never made; cancelled calls that are already running are not interrupted, and
+     * their results are discarded. If the current thread is interrupted while waiting for a result, an {@link UncheckedSQLException} is thrown
+     * that wraps an {@link SQLException} with the {@link InterruptedException} as cause; the interrupt status of the current thread is restored.
+     * <p>
+     * An iterator that is abandoned before it is exhausted leaves at most {@code maxInFlight} calls running.
+     *
+     * @param <T> The type of elements.
+     * @param <R> The type of result of the function.
+     * @param elements The iterator with elements.
+     * @param function The function to apply.
+     * @param executor The executor to apply the function on.
+     * @param maxInFlight The maximum number of calls in flight.
+     * @return An iterator over the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code maxInFlight} is not positive.
+     */
+    public static <T, R> Iterator<R> mapOrdered(Iterator<? extends T> elements, SQLFunction<? super T, ? extends R> function, Executor executor,
+            int maxInFlight) {
+
+        Objects.requireNonNull(elements);
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(executor);
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException(maxInFlight + " <= 0"); //$NON-NLS-1$
+        }
+        return new OrderedMapIterator<>(elements, function, executor, maxInFlight);
+    }
+
+    /**
+     * Lazily applies a function to the elements of a stream, with a bounded number of calls in flight.
+     * This method behaves like {@link #mapOrdered(Iterator, SQLFunction, Executor, int)}, using the iterator of the given stream.
+     * Closing the returned stream cancels the calls that are still in flight, and closes the given stream. Cancelled calls that have not started
+     * yet are never made; cancelled calls that are already running are not interrupted, and their results are discarded.
+     *
+     * @param <T> The type of elements.
+     * @param <R> The type of result of the function.
+     * @param elements The stream with elements.
+     * @param function The function to apply.
+     * @param executor The executor to apply the function on.
+     * @param maxInFlight The maximum number of calls in flight.
+     * @return A sequential stream with the results of applying the function to the elements, in the same order as the elements.
+     * @throws NullPointerException If {@code elements}, {@code function} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code maxInFlight} is not positive.
+     */
+    public static <T, R> Stream<R> mapOrdered(Stream<? extends T> elements, SQLFunction<? super T, ? extends R> function, Executor executor,
+            int maxInFlight) {
+
+        Objects.requireNonNull(elements);
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(executor);
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException(maxInFlight + " <= 0"); //$NON-NLS-1$
+        }
+        // Only obtain the iterator when the returned stream is consumed
+        AtomicReference<OrderedMapIterator<T, R>> iterator = new AtomicReference<>();
+        Supplier<Spliterator<R>> spliterator = () -> {
+            iterator.set(new OrderedMapIterator<>(elements.iterator(), function, executor, maxInFlight));
+            return Spliterators.spliteratorUnknownSize(iterator.get(), Spliterator.ORDERED);
+        };
+        return StreamSupport.stream(spliterator, Spliterator.ORDERED, false)
+                .onClose(() -> {
+                    OrderedMapIterator<T, R> started = iterator.get();
+                    if (started != null) {
+                        started.cancel();
+                    }
+                })
+                .onClose(elements::close);
+    }
+
+    private static <T> List<T> copyOf(List<T> elements) {
+        // Copy the list so it cannot change while it's being processed; ArrayList also provides fast random access
+        return new ArrayList<>(elements);
+    }
+
+    private static void forEachIndex(int size, IntSQLConsumer action, Executor executor, int parallelism) throws SQLException {
+        Objects.requireNonNull(executor);
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(parallelism + " <= 0"); //$NON-NLS-1$
+        }
+
+        Workers workers = new Workers(size, action);
+        int additionalWorkers = Math.min(parallelism, size) - 1;
+        for (int i = 0; i < additionalWorkers; i++) {
+            try {
+                executor.execute(workers::runWorker);
+            } catch (@SuppressWarnings("unused") RejectedExecutionException e) {
+                // let the workers that did start process the remaining elements
+                break;
+            }
+        }
+        workers.process();
+        workers.awaitStopped();
+        workers.throwFailure();
+    }
+
+    private static final class OrderedMapIterator<T, R> implements Iterator<R> {
+
+        private final Iterator<? extends T> elements;
+        private final SQLFunction<? super T, ? extends R> function;
+        private final Executor executor;
+        private final int maxInFlight;
+
+        private final Deque<CompletableFuture<R>> window;
+        private boolean done;
+
+        private OrderedMapIterator(Iterator<? extends T> elements, SQLFunction<? super T, ? extends R> function, Executor executor,
+                int maxInFlight) {
+
+            this.elements = elements;
+            this.function = function;
+            this.executor = executor;
+            this.maxInFlight = maxInFlight;
+
+            this.window = new ArrayDeque<>(Math.min(maxInFlight, 1024));
+        }
+
+        private void fill() {
+            while (!done && window.size() < maxInFlight && elements.hasNext()) {
+                T element = elements.next();
+                window.add(SQLFutures.supplyAsync(() -> function.apply(element), executor));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !window.isEmpty();
+        }
+
+        @Override
+        public R next() {
+            fill();
+            CompletableFuture<R> future = window.poll();
+            if (future == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return SQLFutures.get(future);
+            } catch (SQLException e) {
+                cancel();
+                throw new UncheckedSQLException(e);
+            } catch (RuntimeException | Error e) {
+                cancel();
+                throw e;
+            }
+        }
+
+        private void cancel() {
+            done = true;
+            window.forEach(f -> f.cancel(false));
+            window.clear();
+        }
+    }
+
+    private static final class Workers implements ForkJoinPool.ManagedBlocker {
+
+        // The sign bit is set once the calling thread has finished processing; the other bits hold the number of running workers
+        private static final int CLOSED = Integer.MIN_VALUE;
+
+        private final int size;
+        private final IntSQLConsumer action;
+
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final CountDownLatch allStopped = new CountDownLatch(1);
+
+        private volatile boolean failed;
+        private Throwable failure;
+        private InterruptedException interrupted;
+
+        private Workers(int size, IntSQLConsumer action) {
+            this.size = size;
+            this.action = action;
+        }
+
+        private void runWorker() {
+            if (!tryStart()) {
+                // the calling thread is no longer waiting for workers
+                return;
+            }
+            try {
+                process();
+            } finally {
+                stopped();
+            }
+        }
+
+        private void process() {
+            try {
+                int index;
+                while (!failed && (index = nextIndex.getAndIncrement()) < size) {
+                    action.accept(index);
+                }
+            } catch (SQLException | RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        private boolean tryStart() {
+            int state;
+            do {
+                state = running.get();
+                if ((state & CLOSED) != 0) {
+                    return false;
+                }
+            } while (!running.compareAndSet(state, state + 1));
+            return true;
+        }
+
+        private synchronized void fail(Throwable e) {
+            failed = true;
+            if (failure == null) {
+                failure = e;
+            } else if (failure != e) {
+                failure.addSuppressed(e);
+            }
+        }
+
+        private void stopped() {
+            if (running.decrementAndGet() == CLOSED) {
+                allStopped.countDown();
+            }
+        }
+
+        private void awaitStopped() {
+            if (running.getAndUpdate(state -> state | CLOSED) == 0) {
+                allStopped.countDown();
+            }
+            while (true) {
+                try {
+                    ForkJoinPool.managedBlock(this);
+                    return;
+                } catch (InterruptedException e) {
+                    synchronized (this) {
+                        failed = true;
+                        if (interrupted == null) {
+                            interrupted = e;
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            allStopped.await();
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return allStopped.getCount() == 0;
+        }
+
+        private synchronized void throwFailure() throws SQLException {
+            if (interrupted != null) {
+                SQLException exception = SQLExceptions.interrupted(interrupted);
+                if (failure != null) {
+                    exception.addSuppressed(failure);
+                }
+                throw exception;
+            }
+            if (failure != null) {
+                throw SQLExceptions.toSQLException(failure);
+            }
+        }
+    }
+}
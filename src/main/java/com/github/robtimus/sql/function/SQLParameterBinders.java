@@ -0,0 +1,471 @@
+/*
+ * SQLParameterBinders.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepared statement parameter binders for record and bean classes, generated from method handles.
+ * <p>
+ * A generated binder sets the parameters of a prepared statement from the record components or bean properties of an object, by parameter
+ * index. Which components or properties are bound, and in which order, is given by a list of names, matched case-insensitively and ignoring
+ * underscores. For record classes this list can be omitted, in which case all record components are bound in declaration order.
+ * For bean classes, properties are read using their public getters; {@code isX} getters are supported for {@code boolean} properties.
+ * <p>
+ * Values are set using the setter of {@link PreparedStatement} for the component or property type. Primitive types use primitive setters like
+ * {@link PreparedStatement#setInt(int, int)}; their wrapper types use the same setters, but {@code null} values are set using
+ * {@link PreparedStatement#setNull(int, int)} with the matching {@link Types SQL type}. {@code char} and {@link Character} values are set
+ * using {@link PreparedStatement#setString(int, String)}, and {@code null} values using {@code setNull} with {@link Types#CHAR}.
+ * {@link String}, {@link BigDecimal}, {@code byte[]}, {@link Date}, {@link Time} and {@link Timestamp} have their own setters as well;
+ * values of all other types are set using {@link PreparedStatement#setObject(int, Object)}. {@code null} values of these types are set using
+ * {@code setNull} with the matching SQL type, or {@link Types#OTHER} for types without a matching SQL type.
+ * <p>
+ * The accessors and setters are combined into a single method handle when the binder is generated, so binding an object involves no
+ * lookups of accessors and no boxing of primitive values. That method handle is cached per combination of names, for up to 64 combinations.
+ * Names are compared the same way as record components and bean properties, ignoring case and underscores.
+ * On Java 21 and up, the method handle of each cached combination is stored as a constant in a hidden class, so the JIT compiler can
+ * inline it into the binder.
+ * On older Java versions, it is invoked through an instance field, which limits such inlining.
+ * Generated binders are thread-safe, and should be created once and reused.
+ * They can be used with {@link SQLBatchSubscriber#create(int, PreparedStatement, SQLBiConsumer)} to write objects in batches.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLParameterBinders {
+
+    private static final int MAX_CACHED_PLANS = 64;
+
+    private static final Map<Class<?>, MethodHandle> SETTERS = createSetters();
+    private static final MethodHandle SET_NULLABLE_OBJECT = findNullable("setNullableObject", Object.class, int.class); //$NON-NLS-1$
+
+    private static final Map<Class<?>, Integer> SQL_TYPES = createSQLTypes();
+
+    private static final MethodType BINDER_TYPE = MethodType.methodType(void.class, PreparedStatement.class, Object.class);
+
+    private static final ClassValue<TypeModel> PUBLIC_MODELS = new ClassValue<TypeModel>() {
+        @Override
+        protected TypeModel computeValue(Class<?> type) {
+            return TypeModel.of(type, MethodHandles.publicLookup());
+        }
+    };
+
+    private static final LookupCache<TypeModel> LOOKUP_MODELS = new LookupCache<>(TypeModel::of);
+
+    private SQLParameterBinders() {
+    }
+
+    /**
+     * Returns a generated binder for a public record or bean class.
+     * The analysis of the class is cached, so calling this method several times for the same class is cheap.
+     *
+     * @param <T> The type of objects to bind.
+     * @param type The public record or bean class.
+     * @param names The names of the record components or bean properties to bind, in parameter order.
+     *                  For record classes, if no names are given all record components are bound in declaration order.
+     * @return A generated binder for the given class.
+     * @throws NullPointerException If {@code type} or {@code names} is {@code null}, or if {@code names} contains a {@code null} element.
+     * @throws IllegalArgumentException If the given class is not public, if no names are given for a class that is not a record class,
+     *                                      or if the given class has no public accessor for one of the given names.
+     */
+    public static <T> SQLBiConsumer<PreparedStatement, T> of(Class<T> type, String... names) {
+        List<String> nameList = List.of(names);
+        return new GeneratedBinder<>(type, PUBLIC_MODELS.get(type).invoker(nameList));
+    }
+
+    /**
+     * Returns a generated binder for a record or bean class, using a lookup to access the class.
+     * This allows binders to be generated for classes that are not public, by passing a lookup that has access to the class.
+     * If the lookup has {@link MethodHandles.Lookup#MODULE module} access, like lookups returned by {@link MethodHandles#lookup()}, the
+     * analysis of the class is cached per lookup class, so calling this method several times for the same class and lookup is cheap.
+     *
+     * @param <T> The type of objects to bind.
+     * @param type The record or bean class.
+     * @param lookup The lookup to use for accessing the accessors of the class.
+     * @param names The names of the record components or bean properties to bind, in parameter order.
+     *                  For record classes, if no names are given all record components are bound in declaration order.
+     * @return A generated binder for the given class.
+     * @throws NullPointerException If {@code type}, {@code lookup} or {@code names} is {@code null}, or if {@code names} contains a
+     *                                  {@code null} element.
+     * @throws IllegalArgumentException If the given lookup has no access to the class, if no names are given for a class that is not a record
+     *                                      class, or if the given class has no accessor for one of the given names.
+     */
+    public static <T> SQLBiConsumer<PreparedStatement, T> of(Class<T> type, MethodHandles.Lookup lookup, String... names) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(lookup);
+        List<String> nameList = List.of(names);
+        return new GeneratedBinder<>(type, LOOKUP_MODELS.get(type, lookup).invoker(nameList));
+    }
+
+    private static MethodHandle setter(Class<?> type, int parameterIndex) {
+        MethodHandle setter = SETTERS.get(type);
+        if (setter == null) {
+            int sqlType = SQL_TYPES.getOrDefault(type, Types.OTHER);
+            setter = MethodHandles.insertArguments(SET_NULLABLE_OBJECT, 3, sqlType)
+                    .asType(MethodType.methodType(void.class, PreparedStatement.class, int.class, type));
+        }
+        return MethodHandles.insertArguments(setter, 1, parameterIndex);
+    }
+
+    private static Map<Class<?>, MethodHandle> createSetters() {
+        Map<Class<?>, MethodHandle> setters = new HashMap<>();
+        setters.put(boolean.class, findVirtual("setBoolean", boolean.class)); //$NON-NLS-1$
+        setters.put(byte.class, findVirtual("setByte", byte.class)); //$NON-NLS-1$
+        setters.put(short.class, findVirtual("setShort", short.class)); //$NON-NLS-1$
+        setters.put(int.class, findVirtual("setInt", int.class)); //$NON-NLS-1$
+        setters.put(long.class, findVirtual("setLong", long.class)); //$NON-NLS-1$
+        setters.put(float.class, findVirtual("setFloat", float.class)); //$NON-NLS-1$
+        setters.put(double.class, findVirtual("setDouble", double.class)); //$NON-NLS-1$
+        setters.put(char.class, findNullable("setChar", char.class)); //$NON-NLS-1$
+        setters.put(Boolean.class, findNullable("setNullableBoolean", Boolean.class)); //$NON-NLS-1$
+        setters.put(Byte.class, findNullable("setNullableByte", Byte.class)); //$NON-NLS-1$
+        setters.put(Short.class, findNullable("setNullableShort", Short.class)); //$NON-NLS-1$
+        setters.put(Integer.class, findNullable("setNullableInt", Integer.class)); //$NON-NLS-1$
+        setters.put(Long.class, findNullable("setNullableLong", Long.class)); //$NON-NLS-1$
+        setters.put(Float.class, findNullable("setNullableFloat", Float.class)); //$NON-NLS-1$
+        setters.put(Double.class, findNullable("setNullableDouble", Double.class)); //$NON-NLS-1$
+        setters.put(Character.class, findNullable("setNullableChar", Character.class)); //$NON-NLS-1$
+        setters.put(String.class, findNullable("setNullableString", String.class)); //$NON-NLS-1$
+        setters.put(BigDecimal.class, findNullable("setNullableBigDecimal", BigDecimal.class)); //$NON-NLS-1$
+        setters.put(byte[].class, findNullable("setNullableBytes", byte[].class)); //$NON-NLS-1$
+        setters.put(Date.class, findNullable("setNullableDate", Date.class)); //$NON-NLS-1$
+        setters.put(Time.class, findNullable("setNullableTime", Time.class)); //$NON-NLS-1$
+        setters.put(Timestamp.class, findNullable("setNullableTimestamp", Timestamp.class)); //$NON-NLS-1$
+        return setters;
+    }
+
+    private static Map<Class<?>, Integer> createSQLTypes() {
+        Map<Class<?>, Integer> sqlTypes = new HashMap<>();
+        sqlTypes.put(LocalDate.class, Types.DATE);
+        sqlTypes.put(LocalTime.class, Types.TIME);
+        sqlTypes.put(LocalDateTime.class, Types.TIMESTAMP);
+        sqlTypes.put(OffsetTime.class, Types.TIME_WITH_TIMEZONE);
+        sqlTypes.put(OffsetDateTime.class, Types.TIMESTAMP_WITH_TIMEZONE);
+        return sqlTypes;
+    }
+
+    private static MethodHandle findVirtual(String name, Class<?> valueType) {
+        MethodType methodType = MethodType.methodType(void.class, int.class, valueType);
+        try {
+            return MethodHandles.publicLookup().findVirtual(PreparedStatement.class, name, methodType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle findNullable(String name, Class<?>... valueTypes) {
+        MethodType methodType = MethodType.methodType(void.class, PreparedStatement.class, int.class).appendParameterTypes(valueTypes);
+        try {
+            return MethodHandles.lookup().findStatic(SQLParameterBinders.class, name, methodType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void setNullableBoolean(PreparedStatement statement, int parameterIndex, Boolean value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.BOOLEAN);
+        } else {
+            statement.setBoolean(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableByte(PreparedStatement statement, int parameterIndex, Byte value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.TINYINT);
+        } else {
+            statement.setByte(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableShort(PreparedStatement statement, int parameterIndex, Short value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.SMALLINT);
+        } else {
+            statement.setShort(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableInt(PreparedStatement statement, int parameterIndex, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.INTEGER);
+        } else {
+            statement.setInt(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableLong(PreparedStatement statement, int parameterIndex, Long value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.BIGINT);
+        } else {
+            statement.setLong(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableFloat(PreparedStatement statement, int parameterIndex, Float value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.REAL);
+        } else {
+            statement.setFloat(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableDouble(PreparedStatement statement, int parameterIndex, Double value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.DOUBLE);
+        } else {
+            statement.setDouble(parameterIndex, value);
+        }
+    }
+
+    private static void setChar(PreparedStatement statement, int parameterIndex, char value) throws SQLException {
+        statement.setString(parameterIndex, String.valueOf(value));
+    }
+
+    private static void setNullableChar(PreparedStatement statement, int parameterIndex, Character value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.CHAR);
+        } else {
+            statement.setString(parameterIndex, value.toString());
+        }
+    }
+
+    private static void setNullableString(PreparedStatement statement, int parameterIndex, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.VARCHAR);
+        } else {
+            statement.setString(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableBigDecimal(PreparedStatement statement, int parameterIndex, BigDecimal value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.DECIMAL);
+        } else {
+            statement.setBigDecimal(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableBytes(PreparedStatement statement, int parameterIndex, byte[] value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.VARBINARY);
+        } else {
+            statement.setBytes(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableDate(PreparedStatement statement, int parameterIndex, Date value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.DATE);
+        } else {
+            statement.setDate(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableTime(PreparedStatement statement, int parameterIndex, Time value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.TIME);
+        } else {
+            statement.setTime(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableTimestamp(PreparedStatement statement, int parameterIndex, Timestamp value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.TIMESTAMP);
+        } else {
+            statement.setTimestamp(parameterIndex, value);
+        }
+    }
+
+    private static void setNullableObject(PreparedStatement statement, int parameterIndex, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, sqlType);
+        } else {
+            statement.setObject(parameterIndex, value);
+        }
+    }
+
+    private static final class TypeModel {
+
+        private final Class<?> type;
+        private final boolean isRecord;
+        // accessors of type (Object)X, by normalized name, in declaration order for records
+        private final Map<String, MethodHandle> accessors;
+        private final Map<List<String>, SQLBiConsumer<PreparedStatement, Object>> invokers = new ConcurrentHashMap<>();
+
+        private TypeModel(Class<?> type, boolean isRecord, Map<String, MethodHandle> accessors) {
+            this.type = type;
+            this.isRecord = isRecord;
+            this.accessors = accessors;
+        }
+
+        static TypeModel of(Class<?> type, MethodHandles.Lookup lookup) {
+            if (type.isPrimitive() || type.isArray()) {
+                throw new IllegalArgumentException(type + " is not a record or bean class"); //$NON-NLS-1$
+            }
+            try {
+                return Records.isRecord(type)
+                        ? ofRecord(type, lookup)
+                        : ofBean(type, lookup);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+
+        private static TypeModel ofRecord(Class<?> type, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            String[] names = Records.componentNames(type);
+            Method[] methods = Records.accessors(type);
+            Map<String, MethodHandle> accessors = new LinkedHashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                accessors.put(SQLRowMappers.normalize(names[i]), accessor(methods[i], lookup));
+            }
+            return new TypeModel(type, true, Collections.unmodifiableMap(accessors));
+        }
+
+        private static TypeModel ofBean(Class<?> type, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            Map<String, MethodHandle> accessors = new HashMap<>();
+            for (Method method : type.getMethods()) {
+                String name = propertyName(method);
+                if (name != null && accessors.putIfAbsent(SQLRowMappers.normalize(name), accessor(method, lookup)) != null) {
+                    throw new IllegalArgumentException("Ambiguous getters for property " + name + " of " + type); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+            }
+            return new TypeModel(type, false, Collections.unmodifiableMap(accessors));
+        }
+
+        @SuppressWarnings("nls")
+        private static String propertyName(Method method) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.isBridge()
+                    || method.getDeclaringClass() == Object.class) {
+                return null;
+            }
+            String name = method.getName();
+            Class<?> returnType = method.getReturnType();
+            if (name.length() > 3 && name.startsWith("get") && returnType != void.class) {
+                return name.substring(3);
+            }
+            if (name.length() > 2 && name.startsWith("is") && returnType == boolean.class) {
+                return name.substring(2);
+            }
+            return null;
+        }
+
+        private static MethodHandle accessor(Method method, MethodHandles.Lookup lookup) throws IllegalAccessException {
+            return lookup.unreflect(method)
+                    .asType(MethodType.methodType(method.getReturnType(), Object.class));
+        }
+
+        SQLBiConsumer<PreparedStatement, Object> invoker(List<String> names) {
+            String[] normalized = new String[names.size()];
+            for (int i = 0; i < normalized.length; i++) {
+                normalized[i] = SQLRowMappers.normalize(names.get(i));
+            }
+            List<String> key = Arrays.asList(normalized);
+            SQLBiConsumer<PreparedStatement, Object> invoker = invokers.get(key);
+            if (invoker == null) {
+                MethodHandle plan = plan(names);
+                // the cache is bounded, so binders for ever-changing names cannot make it grow indefinitely;
+                // plans that are not cached do not get a hidden class, as each miss would otherwise define a new one
+                invoker = invokers.size() < MAX_CACHED_PLANS
+                        ? invokers.computeIfAbsent(key, k -> Invokers.binder(plan))
+                        : Invokers.fieldBinder(plan);
+            }
+            return invoker;
+        }
+
+        // Returns a method handle of type (PreparedStatement, Object)void
+        private MethodHandle plan(List<String> names) {
+            List<MethodHandle> selected;
+            if (names.isEmpty()) {
+                if (!isRecord) {
+                    throw new IllegalArgumentException("No property names given for bean class " + type); //$NON-NLS-1$
+                }
+                selected = List.copyOf(accessors.values());
+            } else {
+                MethodHandle[] handles = new MethodHandle[names.size()];
+                for (int i = 0; i < handles.length; i++) {
+                    String name = names.get(i);
+                    handles[i] = accessors.get(SQLRowMappers.normalize(name));
+                    if (handles[i] == null) {
+                        throw new IllegalArgumentException("No accessor found for " + name + " of " + type); //$NON-NLS-1$ //$NON-NLS-2$
+                    }
+                }
+                selected = Arrays.asList(handles);
+            }
+
+            // (PreparedStatement, Object)void
+            MethodHandle handle = MethodHandles.empty(BINDER_TYPE);
+            for (int i = selected.size() - 1; i >= 0; i--) {
+                MethodHandle accessor = selected.get(i);
+                // (PreparedStatement, Object)void
+                MethodHandle setParameter = MethodHandles.filterArguments(setter(accessor.type().returnType(), i + 1), 1, accessor);
+                handle = MethodHandles.foldArguments(handle, setParameter);
+            }
+            return handle;
+        }
+    }
+
+    private static final class GeneratedBinder<T> implements SQLBiConsumer<PreparedStatement, T> {
+
+        private final Class<T> type;
+        private final SQLBiConsumer<PreparedStatement, Object> invoker;
+
+        private GeneratedBinder(Class<T> type, SQLBiConsumer<PreparedStatement, Object> invoker) {
+            this.type = type;
+            this.invoker = invoker;
+        }
+
+        @Override
+        public void accept(PreparedStatement statement, T value) throws SQLException {
+            Objects.requireNonNull(statement);
+            Objects.requireNonNull(value);
+            invoker.accept(statement, value);
+        }
+
+        @Override
+        @SuppressWarnings("nls")
+        public String toString() {
+            return SQLParameterBinders.class.getSimpleName() + "[type=" + type.getName() + "]";
+        }
+    }
+}
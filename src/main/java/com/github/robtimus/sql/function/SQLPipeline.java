@@ -0,0 +1,727 @@
+/*
+ * SQLPipeline.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A pipeline of stages that elements flow through, from a source to a sink.
+ * <p>
+ * A pipeline is assembled once from {@link #map(SQLFunction, int) map} and {@link #filter(SQLPredicate, int) filter} stages, and can then be
+ * {@link #run(Iterator, SQLConsumer, int) run} any number of times with different sources and sinks. Instances of this class are immutable;
+ * each method that adds a stage or changes a setting returns a new pipeline.
+ * <p>
+ * When a pipeline runs, the source, each stage and the sink are processed by their own threads, as many as the parallelism of each stage.
+ * Stages are connected by bounded queues. Elements are passed through these queues in micro-batches of up to {@link #batchSize()} elements,
+ * which reduces the synchronization overhead per element. Each queue holds at most {@link #queueCapacity()} batches; if a queue is full, the
+ * threads that produce its batches wait until the next stage has taken a batch. This allows CPU-bound and database-bound stages to each be
+ * given as many threads as they need, while the number of elements in flight stays bounded.
+ * <p>
+ * Stages added using {@link #mapCpu(SQLFunction, int) mapCpu} and {@link #filterCpu(SQLPredicate, int) filterCpu} are CPU-bound. The threads
+ * of such a stage only take batches from the queue and pass them on; the elements of each batch are processed in the CPU lane of the
+ * pipeline's {@link #withLanes(SQLExecutionLanes) execution lanes}. As a result, all CPU-bound stages together never use more threads than
+ * the CPU pool has, while database-bound stages can use many threads that are mostly waiting.
+ * <p>
+ * Within a batch, elements keep their order. If all stages and the sink have a parallelism of 1, elements reach the sink in the order of the
+ * source. Otherwise, elements may be processed and reach the sink in any order.
+ * <p>
+ * If the source, a stage or the sink fails, all threads stop taking new elements, and the failure is thrown once all threads have stopped.
+ * {@link SQLException SQLExceptions} are thrown as-is; unchecked exceptions and errors are thrown as-is as well. Failures of other threads are
+ * added as {@link Throwable#addSuppressed(Throwable) suppressed} exceptions to the thrown exception. Threads are not interrupted, because
+ * some JDBC drivers close their connections when interrupted.
+ *
+ * @author Rob Spoor
+ * @param <T> The type of elements provided by sources.
+ * @param <R> The type of elements passed to sinks.
+ * @since 3.0
+ */
+public final class SQLPipeline<T, R> {
+
+    /** The default maximum number of elements per batch. */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /** The default maximum number of batches per queue. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private static final AtomicInteger PIPELINE_COUNTER = new AtomicInteger();
+
+    private final List<TransformStage> stages;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final SQLExecutionLanes lanes;
+
+    private SQLPipeline(List<TransformStage> stages, int batchSize, int queueCapacity, SQLExecutionLanes lanes) {
+        this.stages = stages;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.lanes = lanes;
+    }
+
+    /**
+     * Returns a pipeline without any stages.
+     * This pipeline passes the elements of the source as-is to the sink.
+     *
+     * @param <T> The type of elements.
+     * @return A pipeline without any stages.
+     */
+    public static <T> SQLPipeline<T, T> create() {
+        return new SQLPipeline<>(Collections.emptyList(), DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY, SQLExecutionLanes.shared());
+    }
+
+    /**
+     * Returns a pipeline that adds a map stage to this pipeline, with a parallelism of 1.
+     *
+     * @param <V> The result type of the map stage.
+     * @param function The function to apply to each element.
+     * @return A pipeline that adds the map stage to this pipeline.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     */
+    public <V> SQLPipeline<T, V> map(SQLFunction<? super R, ? extends V> function) {
+        return map(function, 1);
+    }
+
+    /**
+     * Returns a pipeline that adds a map stage to this pipeline.
+     *
+     * @param <V> The result type of the map stage.
+     * @param function The function to apply to each element.
+     * @param parallelism The number of threads that apply the function.
+     * @return A pipeline that adds the map stage to this pipeline.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     */
+    public <V> SQLPipeline<T, V> map(SQLFunction<? super R, ? extends V> function, int parallelism) {
+        Objects.requireNonNull(function);
+        return withStage(new MapStage<>(function, parallelism, false));
+    }
+
+    /**
+     * Returns a pipeline that adds a CPU-bound map stage to this pipeline.
+     * The function is applied in the CPU lane of this pipeline's {@link #lanes() execution lanes}.
+     * The function should therefore not block, for instance by accessing a database.
+     *
+     * @param <V> The result type of the map stage.
+     * @param function The function to apply to each element.
+     * @param parallelism The maximum number of batches that are processed concurrently.
+     * @return A pipeline that adds the map stage to this pipeline.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     */
+    public <V> SQLPipeline<T, V> mapCpu(SQLFunction<? super R, ? extends V> function, int parallelism) {
+        Objects.requireNonNull(function);
+        return withStage(new MapStage<>(function, parallelism, true));
+    }
+
+    /**
+     * Returns a pipeline that adds a filter stage to this pipeline, with a parallelism of 1.
+     *
+     * @param predicate The predicate that determines which elements to pass to the next stage.
+     * @return A pipeline that adds the filter stage to this pipeline.
+     * @throws NullPointerException If {@code predicate} is {@code null}.
+     */
+    public SQLPipeline<T, R> filter(SQLPredicate<? super R> predicate) {
+        return filter(predicate, 1);
+    }
+
+    /**
+     * Returns a pipeline that adds a filter stage to this pipeline.
+     *
+     * @param predicate The predicate that determines which elements to pass to the next stage.
+     * @param parallelism The number of threads that test elements.
+     * @return A pipeline that adds the filter stage to this pipeline.
+     * @throws NullPointerException If {@code predicate} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     */
+    public SQLPipeline<T, R> filter(SQLPredicate<? super R> predicate, int parallelism) {
+        Objects.requireNonNull(predicate);
+        return withStage(new FilterStage<>(predicate, parallelism, false));
+    }
+
+    /**
+     * Returns a pipeline that adds a CPU-bound filter stage to this pipeline.
+     * The predicate is tested in the CPU lane of this pipeline's {@link #lanes() execution lanes}.
+     * The predicate should therefore not block, for instance by accessing a database.
+     *
+     * @param predicate The predicate that determines which elements to pass to the next stage.
+     * @param parallelism The maximum number of batches that are processed concurrently.
+     * @return A pipeline that adds the filter stage to this pipeline.
+     * @throws NullPointerException If {@code predicate} is {@code null}.
+     * @throws IllegalArgumentException If {@code parallelism} is not positive.
+     */
+    public SQLPipeline<T, R> filterCpu(SQLPredicate<? super R> predicate, int parallelism) {
+        Objects.requireNonNull(predicate);
+        return withStage(new FilterStage<>(predicate, parallelism, true));
+    }
+
+    private <V> SQLPipeline<T, V> withStage(TransformStage stage) {
+        List<TransformStage> newStages = new ArrayList<>(stages.size() + 1);
+        newStages.addAll(stages);
+        newStages.add(stage);
+        return new SQLPipeline<>(Collections.unmodifiableList(newStages), batchSize, queueCapacity, lanes);
+    }
+
+    /**
+     * Returns a pipeline with the same stages as this pipeline, but with a different batch size.
+     *
+     * @param newBatchSize The maximum number of elements per batch.
+     * @return A pipeline with the same stages as this pipeline, but with the given batch size.
+     * @throws IllegalArgumentException If {@code newBatchSize} is not positive.
+     */
+    public SQLPipeline<T, R> withBatchSize(int newBatchSize) {
+        if (newBatchSize <= 0) {
+            throw new IllegalArgumentException(newBatchSize + " <= 0"); //$NON-NLS-1$
+        }
+        return new SQLPipeline<>(stages, newBatchSize, queueCapacity, lanes);
+    }
+
+    /**
+     * Returns a pipeline with the same stages as this pipeline, but with a different queue capacity.
+     *
+     * @param newQueueCapacity The maximum number of batches per queue.
+     * @return A pipeline with the same stages as this pipeline, but with the given queue capacity.
+     * @throws IllegalArgumentException If {@code newQueueCapacity} is not positive.
+     */
+    public SQLPipeline<T, R> withQueueCapacity(int newQueueCapacity) {
+        if (newQueueCapacity <= 0) {
+            throw new IllegalArgumentException(newQueueCapacity + " <= 0"); //$NON-NLS-1$
+        }
+        return new SQLPipeline<>(stages, batchSize, newQueueCapacity, lanes);
+    }
+
+    /**
+     * Returns a pipeline with the same stages as this pipeline, but with different execution lanes.
+     *
+     * @param newLanes The execution lanes for CPU-bound stages.
+     * @return A pipeline with the same stages as this pipeline, but with the given execution lanes.
+     * @throws NullPointerException If {@code newLanes} is {@code null}.
+     */
+    public SQLPipeline<T, R> withLanes(SQLExecutionLanes newLanes) {
+        Objects.requireNonNull(newLanes);
+        return new SQLPipeline<>(stages, batchSize, queueCapacity, newLanes);
+    }
+
+    /**
+     * Returns the maximum number of elements per batch.
+     *
+     * @return The maximum number of elements per batch.
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the maximum number of batches per queue.
+     *
+     * @return The maximum number of batches per queue.
+     */
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Returns the execution lanes for CPU-bound stages.
+     * By default these are the {@link SQLExecutionLanes#shared() shared} execution lanes.
+     *
+     * @return The execution lanes for CPU-bound stages.
+     */
+    public SQLExecutionLanes lanes() {
+        return lanes;
+    }
+
+    /**
+     * Runs this pipeline with the elements of an iterator as source.
+     *
+     * @param source The iterator that provides the elements.
+     * @param sink The action to perform on each element that reaches the end of the pipeline.
+     * @param sinkParallelism The number of threads that perform the sink action.
+     * @return The number of elements that the sink action was performed on.
+     * @throws NullPointerException If {@code source} or {@code sink} is {@code null}.
+     * @throws IllegalArgumentException If {@code sinkParallelism} is not positive.
+     * @throws SQLException If the source, a stage or the sink fails, or if the current thread is interrupted while waiting for the pipeline.
+     */
+    public long run(Iterator<? extends T> source, SQLConsumer<? super R> sink, int sinkParallelism) throws SQLException {
+        Objects.requireNonNull(source);
+        return run(emitter -> {
+            while (source.hasNext()) {
+                if (!emitter.emit(source.next())) {
+                    return;
+                }
+            }
+        }, sink, sinkParallelism);
+    }
+
+    /**
+     * Runs this pipeline with a supplier as source.
+     * The supplier is called until it returns {@code null}.
+     *
+     * @param source The supplier that provides the elements.
+     * @param sink The action to perform on each element that reaches the end of the pipeline.
+     * @param sinkParallelism The number of threads that perform the sink action.
+     * @return The number of elements that the sink action was performed on.
+     * @throws NullPointerException If {@code source} or {@code sink} is {@code null}.
+     * @throws IllegalArgumentException If {@code sinkParallelism} is not positive.
+     * @throws SQLException If the source, a stage or the sink fails, or if the current thread is interrupted while waiting for the pipeline.
+     */
+    public long run(SQLSupplier<? extends T> source, SQLConsumer<? super R> sink, int sinkParallelism) throws SQLException {
+        Objects.requireNonNull(source);
+        return run(emitter -> {
+            T element;
+            while ((element = source.get()) != null) {
+                if (!emitter.emit(element)) {
+                    return;
+                }
+            }
+        }, sink, sinkParallelism);
+    }
+
+    /**
+     * Runs this pipeline with the rows of a result set as source.
+     * The result set is only used by the thread that processes the source. It is not closed by this method.
+     *
+     * @param resultSet The result set to read from.
+     * @param mapper The function that maps the current row of the result set to an element.
+     * @param sink The action to perform on each element that reaches the end of the pipeline.
+     * @param sinkParallelism The number of threads that perform the sink action.
+     * @return The number of elements that the sink action was performed on.
+     * @throws NullPointerException If {@code resultSet}, {@code mapper} or {@code sink} is {@code null}.
+     * @throws IllegalArgumentException If {@code sinkParallelism} is not positive.
+     * @throws SQLException If reading from the result set, a stage or the sink fails, or if the current thread is interrupted while waiting
+     *                          for the pipeline.
+     */
+    public long run(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper, SQLConsumer<? super R> sink, int sinkParallelism)
+            throws SQLException {
+
+        Objects.requireNonNull(resultSet);
+        Objects.requireNonNull(mapper);
+        return run(emitter -> {
+            while (resultSet.next()) {
+                if (!emitter.emit(mapper.apply(resultSet))) {
+                    return;
+                }
+            }
+        }, sink, sinkParallelism);
+    }
+
+    private long run(Source source, SQLConsumer<? super R> sink, int sinkParallelism) throws SQLException {
+        Objects.requireNonNull(sink);
+        SinkStage<R> sinkStage = new SinkStage<>(sink, sinkParallelism);
+
+        Execution execution = new Execution("sql-pipeline-" + PIPELINE_COUNTER.incrementAndGet()); //$NON-NLS-1$
+
+        // channels[i] connects the previous stage (or the source) to stages[i], or to the sink for the last channel
+        Channel[] channels = new Channel[stages.size() + 1];
+        int producers = 1;
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = new Channel(queueCapacity, producers);
+            producers = i < stages.size() ? stages.get(i).parallelism : 0;
+        }
+        execution.channels = channels;
+
+        Channel first = channels[0];
+        execution.start("source", () -> { //$NON-NLS-1$
+            Emitter emitter = new Emitter(first, batchSize);
+            try {
+                source.produce(emitter);
+                emitter.flush();
+            } finally {
+                first.producerDone();
+            }
+        });
+        for (int i = 0; i < stages.size(); i++) {
+            TransformStage stage = stages.get(i);
+            Channel input = channels[i];
+            Channel output = channels[i + 1];
+            for (int j = 0; j < stage.parallelism; j++) {
+                execution.start("stage-" + (i + 1), () -> { //$NON-NLS-1$
+                    Emitter emitter = new Emitter(output, batchSize);
+                    try {
+                        if (stage.cpuBound) {
+                            processInCpuLane(stage, input, emitter);
+                        } else {
+                            process(stage, input, emitter);
+                        }
+                        emitter.flush();
+                    } finally {
+                        output.producerDone();
+                    }
+                });
+            }
+        }
+        Channel last = channels[stages.size()];
+        for (int j = 0; j < sinkParallelism; j++) {
+            execution.start("sink", () -> process(sinkStage, last, null)); //$NON-NLS-1$
+        }
+
+        execution.join();
+        execution.throwFailure();
+        return sinkStage.count.sum();
+    }
+
+    private static void process(Stage stage, Channel input, Emitter emitter) throws SQLException {
+        List<Object> batch;
+        while ((batch = input.take()) != null) {
+            for (Object element : batch) {
+                if (!stage.process(element, emitter)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void processInCpuLane(TransformStage stage, Channel input, Emitter emitter) throws SQLException {
+        List<Object> batch;
+        while ((batch = input.take()) != null) {
+            List<Object> source = batch;
+            List<Object> results = SQLFutures.get(lanes.supplyCpu(() -> stage.processBatch(source)));
+            for (Object result : results) {
+                if (!emitter.emit(result)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[stages=" + stages + ",batchSize=" + batchSize + ",queueCapacity=" + queueCapacity + "]";
+    }
+
+    private interface Source {
+
+        void produce(Emitter emitter) throws SQLException;
+    }
+
+    private interface Task {
+
+        void run() throws SQLException;
+    }
+
+    private abstract static class Stage {
+
+        final int parallelism;
+
+        private Stage(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException(parallelism + " <= 0"); //$NON-NLS-1$
+            }
+            this.parallelism = parallelism;
+        }
+
+        abstract boolean process(Object element, Emitter emitter) throws SQLException;
+    }
+
+    private abstract static class TransformStage extends Stage {
+
+        private final boolean cpuBound;
+
+        private TransformStage(int parallelism, boolean cpuBound) {
+            super(parallelism);
+            this.cpuBound = cpuBound;
+        }
+
+        abstract List<Object> processBatch(List<Object> batch) throws SQLException;
+
+        @SuppressWarnings("nls")
+        String describe(String name) {
+            return name + (cpuBound ? "Cpu(" : "(") + parallelism + ")";
+        }
+    }
+
+    private static final class MapStage<T, R> extends TransformStage {
+
+        private final SQLFunction<? super T, ? extends R> function;
+
+        private MapStage(SQLFunction<? super T, ? extends R> function, int parallelism, boolean cpuBound) {
+            super(parallelism, cpuBound);
+            this.function = function;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean process(Object element, Emitter emitter) throws SQLException {
+            return emitter.emit(function.apply((T) element));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        List<Object> processBatch(List<Object> batch) throws SQLException {
+            List<Object> results = new ArrayList<>(batch.size());
+            for (Object element : batch) {
+                results.add(function.apply((T) element));
+            }
+            return results;
+        }
+
+        @Override
+        public String toString() {
+            return describe("map"); //$NON-NLS-1$
+        }
+    }
+
+    private static final class FilterStage<T> extends TransformStage {
+
+        private final SQLPredicate<? super T> predicate;
+
+        private FilterStage(SQLPredicate<? super T> predicate, int parallelism, boolean cpuBound) {
+            super(parallelism, cpuBound);
+            this.predicate = predicate;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean process(Object element, Emitter emitter) throws SQLException {
+            return !predicate.test((T) element) || emitter.emit(element);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        List<Object> processBatch(List<Object> batch) throws SQLException {
+            List<Object> results = new ArrayList<>(batch.size());
+            for (Object element : batch) {
+                if (predicate.test((T) element)) {
+                    results.add(element);
+                }
+            }
+            return results;
+        }
+
+        @Override
+        public String toString() {
+            return describe("filter"); //$NON-NLS-1$
+        }
+    }
+
+    private static final class SinkStage<T> extends Stage {
+
+        private final SQLConsumer<? super T> sink;
+        private final LongAdder count = new LongAdder();
+
+        private SinkStage(SQLConsumer<? super T> sink, int parallelism) {
+            super(parallelism);
+            this.sink = sink;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean process(Object element, Emitter emitter) throws SQLException {
+            sink.accept((T) element);
+            count.increment();
+            return true;
+        }
+    }
+
+    private static final class Emitter {
+
+        private final Channel output;
+        private final int batchSize;
+
+        private List<Object> batch;
+
+        private Emitter(Channel output, int batchSize) {
+            this.output = output;
+            this.batchSize = batchSize;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        private boolean emit(Object element) {
+            batch.add(element);
+            return batch.size() < batchSize || flush();
+        }
+
+        private boolean flush() {
+            if (batch.isEmpty()) {
+                return true;
+            }
+            List<Object> full = batch;
+            batch = new ArrayList<>(batchSize);
+            return output.put(full);
+        }
+    }
+
+    private static final class Channel {
+
+        private final Lock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+
+        private final Deque<List<Object>> batches;
+        private final int capacity;
+        private int producers;
+        private boolean aborted;
+
+        private Channel(int capacity, int producers) {
+            this.batches = new ArrayDeque<>(capacity);
+            this.capacity = capacity;
+            this.producers = producers;
+        }
+
+        private boolean put(List<Object> batch) {
+            lock.lock();
+            try {
+                while (batches.size() == capacity && !aborted) {
+                    notFull.awaitUninterruptibly();
+                }
+                if (aborted) {
+                    return false;
+                }
+                batches.add(batch);
+                notEmpty.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<Object> take() {
+            lock.lock();
+            try {
+                while (batches.isEmpty() && producers > 0 && !aborted) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (aborted) {
+                    return null;
+                }
+                List<Object> batch = batches.poll();
+                if (batch != null) {
+                    notFull.signal();
+                }
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void producerDone() {
+            lock.lock();
+            try {
+                producers--;
+                if (producers == 0) {
+                    notEmpty.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void abort() {
+            lock.lock();
+            try {
+                aborted = true;
+                batches.clear();
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Execution {
+
+        private final String name;
+        private final List<Thread> threads = new ArrayList<>();
+
+        private Channel[] channels;
+        private boolean aborted;
+        private Throwable failure;
+        private InterruptedException interrupted;
+
+        private Execution(String name) {
+            this.name = name;
+        }
+
+        private void start(String role, Task task) {
+            Thread thread = Threads.newThread(name + "-" + role + "-" + threads.size(), () -> { //$NON-NLS-1$ //$NON-NLS-2$
+                try {
+                    task.run();
+                } catch (SQLException | RuntimeException | Error e) {
+                    fail(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        private synchronized void fail(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            } else if (failure != e) {
+                failure.addSuppressed(e);
+            }
+            abort();
+        }
+
+        private void abort() {
+            if (!aborted) {
+                aborted = true;
+                for (Channel channel : channels) {
+                    channel.abort();
+                }
+            }
+        }
+
+        private void join() {
+            for (Thread thread : threads) {
+                joinUninterruptibly(thread);
+            }
+        }
+
+        private void joinUninterruptibly(Thread thread) {
+            while (true) {
+                try {
+                    thread.join();
+                    return;
+                } catch (InterruptedException e) {
+                    synchronized (this) {
+                        if (interrupted == null) {
+                            interrupted = e;
+                        }
+                        abort();
+                    }
+                }
+            }
+        }
+
+        private synchronized void throwFailure() throws SQLException {
+            if (interrupted != null) {
+                SQLException exception = SQLExceptions.interrupted(interrupted);
+                if (failure != null) {
+                    exception.addSuppressed(failure);
+                }
+                throw exception;
+            }
+            if (failure != null) {
+                throw SQLExceptions.toSQLException(failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * SQLRangeScanner.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A parallel scanner over ranges of keys, for instance the primary keys of a table.
+ * <p>
+ * A scan splits a range of keys in halves until the parts are no larger than the chunk size of the scanner, and reads each chunk using a
+ * {@link RangeReader} or {@link KeyRangeReader}. The parts are processed as tasks in a {@link ForkJoinPool}, so idle workers steal remaining
+ * parts from busy workers. This spreads a scan over as many threads, and therefore database connections, as the parallelism of the pool.
+ * Because parts are split lazily, ranges that are sparse in some places and dense in others are still distributed evenly over the workers.
+ * <p>
+ * Rows are passed to the action of a scan in the order they are read within each chunk, but chunks are read in no particular order, and
+ * possibly concurrently. Actions must therefore be thread-safe.
+ * <p>
+ * If reading a chunk or performing the action fails, no new chunks are read, and the failure is thrown once all chunks that were being read
+ * have been completed. {@link SQLException SQLExceptions} are thrown as-is; unchecked exceptions and errors are thrown as-is as well.
+ * <p>
+ * Instead of a fixed chunk size, a scanner can use an {@link SQLChunkSizer}. Each chunk is then timed, and the chunk size is adjusted while
+ * the scan progresses. Because parts are only split when they are taken, parts that are split later use the adjusted chunk size.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLRangeScanner {
+
+    private final long chunkSize;
+    private final SQLChunkSizer chunkSizer;
+    private final ForkJoinPool pool;
+
+    private SQLRangeScanner(long chunkSize, SQLChunkSizer chunkSizer, ForkJoinPool pool) {
+        this.chunkSize = chunkSize;
+        this.chunkSizer = chunkSizer;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns a scanner that uses the {@link ForkJoinPool#commonPool() common pool}.
+     * Because tasks block while reading chunks, a dedicated pool is preferred for long-running scans.
+     *
+     * @param chunkSize The maximum number of keys per chunk.
+     * @return A scanner with the given chunk size.
+     * @throws IllegalArgumentException If {@code chunkSize} is not positive.
+     */
+    public static SQLRangeScanner create(long chunkSize) {
+        return create(chunkSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a scanner.
+     *
+     * @param chunkSize The maximum number of keys per chunk.
+     * @param pool The pool to scan chunks in.
+     * @return A scanner with the given chunk size and pool.
+     * @throws NullPointerException If {@code pool} is {@code null}.
+     * @throws IllegalArgumentException If {@code chunkSize} is not positive.
+     */
+    public static SQLRangeScanner create(long chunkSize, ForkJoinPool pool) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException(chunkSize + " <= 0"); //$NON-NLS-1$
+        }
+        Objects.requireNonNull(pool);
+        return new SQLRangeScanner(chunkSize, null, pool);
+    }
+
+    /**
+     * Returns a scanner with adaptive chunk sizes that uses the {@link ForkJoinPool#commonPool() common pool}.
+     * Because tasks block while reading chunks, a dedicated pool is preferred for long-running scans.
+     *
+     * @param chunkSizer The controller that determines the maximum number of keys per chunk.
+     * @return A scanner with the given chunk size controller.
+     * @throws NullPointerException If {@code chunkSizer} is {@code null}.
+     */
+    public static SQLRangeScanner create(SQLChunkSizer chunkSizer) {
+        return create(chunkSizer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a scanner with adaptive chunk sizes.
+     *
+     * @param chunkSizer The controller that determines the maximum number of keys per chunk.
+     * @param pool The pool to scan chunks in.
+     * @return A scanner with the given chunk size controller and pool.
+     * @throws NullPointerException If {@code chunkSizer} or {@code pool} is {@code null}.
+     */
+    public static SQLRangeScanner create(SQLChunkSizer chunkSizer, ForkJoinPool pool) {
+        Objects.requireNonNull(chunkSizer);
+        Objects.requireNonNull(pool);
+        return new SQLRangeScanner(0, chunkSizer, pool);
+    }
+
+    /**
+     * Returns the maximum number of keys per chunk.
+     * For scanners with adaptive chunk sizes this is the current chunk size of the controller.
+     *
+     * @return The maximum number of keys per chunk.
+     */
+    public long chunkSize() {
+        return chunkSizer != null ? chunkSizer.chunkSize() : chunkSize;
+    }
+
+    /**
+     * Scans a range of keys, and performs an action for each row that is read.
+     *
+     * @param <T> The type of rows.
+     * @param minKey The minimum key of the range, inclusive.
+     * @param maxKey The maximum key of the range, inclusive.
+     * @param reader The reader to read chunks with.
+     * @param action The action to perform for each row.
+     * @return The number of rows that were read.
+     * @throws NullPointerException If {@code reader} or {@code action} is {@code null}.
+     * @throws IllegalArgumentException If {@code minKey} is larger than {@code maxKey}.
+     * @throws SQLException If reading a chunk or performing the action fails.
+     */
+    public <T> long scan(long minKey, long maxKey, RangeReader<T> reader, SQLConsumer<? super T> action) throws SQLException {
+        Objects.requireNonNull(reader);
+        Objects.requireNonNull(action);
+        return scan(minKey, maxKey, (fromKey, toKey, count) -> reader.read(fromKey, toKey, row -> {
+            action.accept(row);
+            count[0]++;
+        }));
+    }
+
+    /**
+     * Scans a range of keys, and performs an action for each key that is read.
+     * This method is useful if only the keys of rows are needed, for instance to process each row separately afterwards.
+     *
+     * @param minKey The minimum key of the range, inclusive.
+     * @param maxKey The maximum key of the range, inclusive.
+     * @param reader The reader to read chunks with.
+     * @param action The action to perform for each key.
+     * @return The number of keys that were read.
+     * @throws NullPointerException If {@code reader} or {@code action} is {@code null}.
+     * @throws IllegalArgumentException If {@code minKey} is larger than {@code maxKey}.
+     * @throws SQLException If reading a chunk or performing the action fails.
+     */
+    public long scanKeys(long minKey, long maxKey, KeyRangeReader reader, LongSQLConsumer action) throws SQLException {
+        Objects.requireNonNull(reader);
+        Objects.requireNonNull(action);
+        return scan(minKey, maxKey, (fromKey, toKey, count) -> reader.read(fromKey, toKey, key -> {
+            action.accept(key);
+            count[0]++;
+        }));
+    }
+
+    private long scan(long minKey, long maxKey, ChunkTask chunkTask) throws SQLException {
+        if (minKey > maxKey) {
+            throw new IllegalArgumentException(minKey + " > " + maxKey); //$NON-NLS-1$
+        }
+        Scan scan = new Scan(chunkTask);
+        pool.invoke(new RangeTask(scan, minKey, maxKey));
+        Throwable failure = scan.failure.get();
+        if (failure != null) {
+            throw SQLExceptions.toSQLException(failure);
+        }
+        return scan.rowCount.sum();
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[chunkSize=" + chunkSize() + ",parallelism=" + pool.getParallelism() + "]";
+    }
+
+    /**
+     * Reads the rows within a chunk of keys.
+     *
+     * @author Rob Spoor
+     * @param <T> The type of rows.
+     * @since 3.0
+     */
+    @FunctionalInterface
+    public interface RangeReader<T> {
+
+        /**
+         * Reads the rows within a chunk of keys, for instance using {@code SELECT ... WHERE id BETWEEN ? AND ?}.
+         *
+         * @param fromKey The minimum key of the chunk, inclusive.
+         * @param toKey The maximum key of the chunk, inclusive.
+         * @param action The action to perform for each row that is read.
+         * @throws SQLException If an SQL error occurs.
+         */
+        void read(long fromKey, long toKey, SQLConsumer<? super T> action) throws SQLException;
+    }
+
+    /**
+     * Reads the keys within a chunk of keys.
+     *
+     * @author Rob Spoor
+     * @since 3.0
+     */
+    @FunctionalInterface
+    public interface KeyRangeReader {
+
+        /**
+         * Reads the keys within a chunk of keys, for instance using {@code SELECT id ... WHERE id BETWEEN ? AND ?}.
+         *
+         * @param fromKey The minimum key of the chunk, inclusive.
+         * @param toKey The maximum key of the chunk, inclusive.
+         * @param action The action to perform for each key that is read.
+         * @throws SQLException If an SQL error occurs.
+         */
+        void read(long fromKey, long toKey, LongSQLConsumer action) throws SQLException;
+    }
+
+    private interface ChunkTask {
+
+        void read(long fromKey, long toKey, long[] count) throws SQLException;
+    }
+
+    private static final class Scan {
+
+        private final ChunkTask chunkTask;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final LongAdder rowCount = new LongAdder();
+
+        private Scan(ChunkTask chunkTask) {
+            this.chunkTask = chunkTask;
+        }
+
+        private void fail(Throwable e) {
+            if (!failure.compareAndSet(null, e)) {
+                Throwable first = failure.get();
+                if (first != e) {
+                    synchronized (first) {
+                        first.addSuppressed(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Scan scan;
+        private final long fromKey;
+        private final long toKey;
+
+        private RangeTask(Scan scan, long fromKey, long toKey) {
+            this.scan = scan;
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        @Override
+        protected void compute() {
+            if (scan.failure.get() != null) {
+                return;
+            }
+            // Use unsigned arithmetic, as the difference between the keys may overflow
+            long span = toKey - fromKey;
+            if (Long.compareUnsigned(span, chunkSize() - 1) <= 0) {
+                readChunk(span + 1);
+            } else {
+                long middle = fromKey + (span >>> 1);
+                invokeAll(new RangeTask(scan, fromKey, middle), new RangeTask(scan, middle + 1, toKey));
+            }
+        }
+
+        private void readChunk(long size) {
+            long[] count = { 0 };
+            try {
+                if (chunkSizer == null) {
+                    scan.chunkTask.read(fromKey, toKey, count);
+                } else {
+                    long start = System.nanoTime();
+                    scan.chunkTask.read(fromKey, toKey, count);
+                    chunkSizer.record(size, Duration.ofNanos(System.nanoTime() - start));
+                }
+            } catch (SQLException | RuntimeException | Error e) {
+                scan.fail(e);
+            } finally {
+                scan.rowCount.add(count[0]);
+            }
+        }
+    }
+}
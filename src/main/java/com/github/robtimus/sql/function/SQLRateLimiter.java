@@ -0,0 +1,418 @@
+/*
+ * SQLRateLimiter.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket rate limiter for SQL operations.
+ * A rate limiter hands out permits at a fixed rate, and allows up to a fixed number of permits to be accumulated while it is idle.
+ * This allows short bursts to pass through immediately, while the long-term rate is never exceeded.
+ * <p>
+ * Permits can be acquired in three ways:
+ * <ul>
+ *   <li>Blocking, using {@link #acquire()} or {@link #acquire(int)}. These methods wait as long as needed.</li>
+ *   <li>Timed, using {@link #tryAcquire(Duration)} or {@link #tryAcquire(int, Duration)}. These methods only wait if the permits become
+ *       available within the given timeout.</li>
+ *   <li>Non-blocking, using {@link #tryAcquire()} or {@link #tryAcquire(int)}. These methods never wait.</li>
+ * </ul>
+ * The {@code limit...} methods decorate SQL operations so each call first acquires a permit.
+ * <p>
+ * Instances of this class are thread-safe. Acquiring permits does not use any locks; contending threads only retry an atomic update.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLRateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // The maximum for the burst and the cost of a reservation, so calculations with them cannot overflow
+    private static final long MAX_NANOS = Long.MAX_VALUE / 4;
+
+    private final double permitsPerSecond;
+    private final int burst;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    // The moment at which the bucket will be full again, if no more permits are acquired
+    private final AtomicLong fullAt;
+
+    private SQLRateLimiter(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+
+        this.intervalNanos = Math.max(1, Math.round(NANOS_PER_SECOND / permitsPerSecond));
+        this.burstNanos = saturatedMultiply(burst, intervalNanos);
+
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Creates a new rate limiter.
+     * The returned rate limiter allows bursts of up to one second's worth of permits.
+     *
+     * @param permitsPerSecond The number of permits to hand out per second.
+     * @return The created rate limiter.
+     * @throws IllegalArgumentException If the number of permits per second is not positive.
+     */
+    public static SQLRateLimiter create(double permitsPerSecond) {
+        validatePermitsPerSecond(permitsPerSecond);
+        int burst = (int) Math.max(1, Math.min(permitsPerSecond, Integer.MAX_VALUE));
+        return new SQLRateLimiter(permitsPerSecond, burst);
+    }
+
+    /**
+     * Creates a new rate limiter.
+     *
+     * @param permitsPerSecond The number of permits to hand out per second.
+     * @param burst The maximum number of permits that can be accumulated while the rate limiter is idle.
+     * @return The created rate limiter.
+     * @throws IllegalArgumentException If the number of permits per second or the burst is not positive.
+     */
+    public static SQLRateLimiter create(double permitsPerSecond, int burst) {
+        validatePermitsPerSecond(permitsPerSecond);
+        if (burst <= 0) {
+            throw new IllegalArgumentException(burst + " <= 0"); //$NON-NLS-1$
+        }
+        return new SQLRateLimiter(permitsPerSecond, burst);
+    }
+
+    private static void validatePermitsPerSecond(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException(permitsPerSecond + " is not a positive finite number"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the number of permits this rate limiter hands out per second.
+     *
+     * @return The number of permits this rate limiter hands out per second.
+     */
+    public double permitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Returns the maximum number of permits that can be accumulated while this rate limiter is idle.
+     *
+     * @return The maximum number of permits that can be accumulated while this rate limiter is idle.
+     */
+    public int burst() {
+        return burst;
+    }
+
+    /**
+     * Acquires a single permit, waiting as long as needed.
+     *
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Acquires a number of permits, waiting as long as needed.
+     *
+     * @param permits The number of permits to acquire.
+     * @throws IllegalArgumentException If the number of permits is not positive.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public void acquire(int permits) throws InterruptedException {
+        validatePermits(permits);
+        long waitNanos = reserve(permits, Long.MAX_VALUE);
+        sleep(waitNanos);
+    }
+
+    /**
+     * Acquires a single permit if it is available immediately.
+     *
+     * @return {@code true} if the permit was acquired, or {@code false} otherwise.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquires a number of permits if they are available immediately.
+     *
+     * @param permits The number of permits to acquire.
+     * @return {@code true} if the permits were acquired, or {@code false} otherwise.
+     * @throws IllegalArgumentException If the number of permits is not positive.
+     */
+    public boolean tryAcquire(int permits) {
+        validatePermits(permits);
+        return reserve(permits, 0) == 0;
+    }
+
+    /**
+     * Acquires a single permit if it becomes available within a timeout.
+     * If the permit will not become available within the timeout, this method returns {@code false} immediately, without waiting.
+     *
+     * @param timeout The maximum time to wait for the permit.
+     * @return {@code true} if the permit was acquired, or {@code false} otherwise.
+     * @throws NullPointerException If the given timeout is {@code null}.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        return tryAcquire(1, timeout);
+    }
+
+    /**
+     * Acquires a number of permits if they become available within a timeout.
+     * If the permits will not become available within the timeout, this method returns {@code false} immediately, without waiting.
+     *
+     * @param permits The number of permits to acquire.
+     * @param timeout The maximum time to wait for the permits.
+     * @return {@code true} if the permits were acquired, or {@code false} otherwise.
+     * @throws IllegalArgumentException If the number of permits is not positive.
+     * @throws NullPointerException If the given timeout is {@code null}.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean tryAcquire(int permits, Duration timeout) throws InterruptedException {
+        validatePermits(permits);
+        long waitNanos = reserve(permits, toNanos(timeout));
+        if (waitNanos < 0) {
+            return false;
+        }
+        sleep(waitNanos);
+        return true;
+    }
+
+    private static void validatePermits(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException(permits + " <= 0"); //$NON-NLS-1$
+        }
+    }
+
+    private static long toNanos(Duration timeout) {
+        return Math.max(0, saturatedNanos(timeout));
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Reserves permits.
+     *
+     * @param permits The number of permits to reserve.
+     * @param maxWaitNanos The maximum time the caller is willing to wait for the permits.
+     * @return The time the caller needs to wait before the reserved permits can be used, or -1 if the permits could not be reserved within
+     *         {@code maxWaitNanos}.
+     */
+    private long reserve(int permits, long maxWaitNanos) {
+        long costNanos = saturatedMultiply(permits, intervalNanos);
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            // Keep the bucket at most 2 * MAX_NANOS ahead of now, so the addition below and later calls cannot overflow
+            long ahead = Math.min(Math.max(0, current - now) + costNanos, 2 * MAX_NANOS);
+            long next = now + ahead;
+            long waitNanos = Math.max(0, ahead - burstNanos);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return waitNanos;
+            }
+        }
+    }
+
+    private static long saturatedMultiply(int count, long nanos) {
+        try {
+            return Math.min(Math.multiplyExact(count, nanos), MAX_NANOS);
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return MAX_NANOS;
+        }
+    }
+
+    private static void sleep(long nanos) throws InterruptedException {
+        if (nanos == 0) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return;
+        }
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns an operation that acquires a permit from this rate limiter before performing the {@code operation} operation.
+     * The returned operation waits as long as needed for the permit.
+     * If the current thread is interrupted while waiting, the returned operation throws an {@link SQLException} and the interrupt status of the
+     * current thread is restored.
+     *
+     * @param <T> The type of the input to the operation.
+     * @param operation The operation to perform when the returned operation is performed.
+     * @return An operation that acquires a permit from this rate limiter before performing the {@code operation} operation.
+     * @throws NullPointerException If {@code operation} is {@code null}.
+     */
+    public <T> SQLConsumer<T> limitConsumer(SQLConsumer<? super T> operation) {
+        Objects.requireNonNull(operation);
+        return t -> {
+            acquirePermit();
+            operation.accept(t);
+        };
+    }
+
+    /**
+     * Returns an operation that acquires a permit from this rate limiter before performing the {@code operation} operation.
+     * If no permit becomes available within the given maximum waiting time, the returned operation throws an {@link SQLTransientException}
+     * without waiting or performing the {@code operation} operation. Use {@link Duration#ZERO} to never wait.
+     * If the current thread is interrupted while waiting, the returned operation throws an {@link SQLException} and the interrupt status of the
+     * current thread is restored.
+     *
+     * @param <T> The type of the input to the operation.
+     * @param operation The operation to perform when the returned operation is performed.
+     * @param maxWait The maximum time to wait for a permit.
+     * @return An operation that acquires a permit from this rate limiter before performing the {@code operation} operation.
+     * @throws NullPointerException If {@code operation} or {@code maxWait} is {@code null}.
+     */
+    public <T> SQLConsumer<T> limitConsumer(SQLConsumer<? super T> operation, Duration maxWait) {
+        Objects.requireNonNull(operation);
+        Objects.requireNonNull(maxWait);
+        return t -> {
+            acquirePermit(maxWait);
+            operation.accept(t);
+        };
+    }
+
+    /**
+     * Returns an operation that acquires a permit from this rate limiter before performing the {@code operation} operation.
+     * The returned operation waits as long as needed for the permit.
+     * If the current thread is interrupted while waiting, the returned operation throws an {@link SQLException} and the interrupt status of the
+     * current thread is restored.
+     *
+     * @param <T> The type of the first argument to the operation.
+     * @param <U> The type of the second argument to the operation.
+     * @param operation The operation to perform when the returned operation is performed.
+     * @return An operation that acquires a permit from this rate limiter before performing the {@code operation} operation.
+     * @throws NullPointerException If {@code operation} is {@code null}.
+     */
+    public <T, U> SQLBiConsumer<T, U> limitBiConsumer(SQLBiConsumer<? super T, ? super U> operation) {
+        Objects.requireNonNull(operation);
+        return (t, u) -> {
+            acquirePermit();
+            operation.accept(t, u);
+        };
+    }
+
+    /**
+     * Returns an operation that acquires a permit from this rate limiter before performing the {@code operation} operation.
+     * If no permit becomes available within the given maximum waiting time, the returned operation throws an {@link SQLTransientException}
+     * without waiting or performing the {@code operation} operation. Use {@link Duration#ZERO} to never wait.
+     * If the current thread is interrupted while waiting, the returned operation throws an {@link SQLException} and the interrupt status of the
+     * current thread is restored.
+     *
+     * @param <T> The type of the first argument to the operation.
+     * @param <U> The type of the second argument to the operation.
+     * @param operation The operation to perform when the returned operation is performed.
+     * @param maxWait The maximum time to wait for a permit.
+     * @return An operation that acquires a permit from this rate limiter before performing the {@code operation} operation.
+     * @throws NullPointerException If {@code operation} or {@code maxWait} is {@code null}.
+     */
+    public <T, U> SQLBiConsumer<T, U> limitBiConsumer(SQLBiConsumer<? super T, ? super U> operation, Duration maxWait) {
+        Objects.requireNonNull(operation);
+        Objects.requireNonNull(maxWait);
+        return (t, u) -> {
+            acquirePermit(maxWait);
+            operation.accept(t, u);
+        };
+    }
+
+    /**
+     * Returns an action that acquires a permit from this rate limiter before performing the {@code action} action.
+     * The returned action waits as long as needed for the permit.
+     * If the current thread is interrupted while waiting, the returned action throws an {@link SQLException} and the interrupt status of the
+     * current thread is restored.
+     *
+     * @param action The action to perform when the returned action is performed.
+     * @return An action that acquires a permit from this rate limiter before performing the {@code action} action.
+     * @throws NullPointerException If {@code action} is {@code null}.
+     */
+    public SQLRunnable limitRunnable(SQLRunnable action) {
+        Objects.requireNonNull(action);
+        return () -> {
+            acquirePermit();
+            action.run();
+        };
+    }
+
+    /**
+     * Returns an action that acquires a permit from this rate limiter before performing the {@code action} action.
+     * If no permit becomes available within the given maximum waiting time, the returned action throws an {@link SQLTransientException}
+     * without waiting or performing the {@code action} action. Use {@link Duration#ZERO} to never wait.
+     * If the current thread is interrupted while waiting, the returned action throws an {@link SQLException} and the interrupt status of the
+     * current thread is restored.
+     *
+     * @param action The action to perform when the returned action is performed.
+     * @param maxWait The maximum time to wait for a permit.
+     * @return An action that acquires a permit from this rate limiter before performing the {@code action} action.
+     * @throws NullPointerException If {@code action} or {@code maxWait} is {@code null}.
+     */
+    public SQLRunnable limitRunnable(SQLRunnable action, Duration maxWait) {
+        Objects.requireNonNull(action);
+        Objects.requireNonNull(maxWait);
+        return () -> {
+            acquirePermit(maxWait);
+            action.run();
+        };
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            acquire();
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+
+    private void acquirePermit(Duration maxWait) throws SQLException {
+        boolean acquired;
+        try {
+            acquired = tryAcquire(maxWait);
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+        if (!acquired) {
+            throw new SQLTransientException("No permit available within " + maxWait); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[permitsPerSecond=" + permitsPerSecond + ",burst=" + burst + "]";
+    }
+}
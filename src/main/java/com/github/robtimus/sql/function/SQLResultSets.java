@@ -0,0 +1,947 @@
+/*
+ * SQLResultSets.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.ref.Cleaner;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility methods for processing the rows of {@link ResultSet ResultSets}.
+ * <p>
+ * The streams returned by the methods of this class do not close the result sets they read from; that remains the responsibility of the
+ * caller. If reading a row or mapping it fails with an {@link SQLException}, it is thrown as an {@link UncheckedSQLException}; unchecked
+ * exceptions and errors are thrown as-is.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLResultSets {
+
+    /** The default maximum fetch size for {@link #publisher(ResultSet, SQLFunction, Executor)}. */
+    public static final int DEFAULT_MAX_FETCH_SIZE = 1000;
+
+    private static final AtomicInteger PREFETCH_THREAD_COUNTER = new AtomicInteger();
+    private static final AtomicInteger MULTICAST_COUNTER = new AtomicInteger();
+
+    private SQLResultSets() {
+    }
+
+    /**
+     * Returns a lazy stream over the rows of a result set.
+     * Each row is read and mapped when the stream requests the next element, on the thread that consumes the stream.
+     *
+     * @param <T> The type of elements in the stream.
+     * @param resultSet The result set to read from.
+     * @param mapper The function that maps the current row of the result set to an element.
+     * @return A lazy sequential stream over the mapped rows of the given result set.
+     * @throws NullPointerException If {@code resultSet} or {@code mapper} is {@code null}.
+     */
+    public static <T> Stream<T> stream(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper) {
+        Objects.requireNonNull(resultSet);
+        Objects.requireNonNull(mapper);
+        return StreamSupport.stream(() -> Spliterators.spliteratorUnknownSize(new RowIterator<>(resultSet, mapper), Spliterator.ORDERED),
+                Spliterator.ORDERED, false);
+    }
+
+    /**
+     * Returns a lazy stream over the rows of a result set, that reads and maps rows in the background.
+     * <p>
+     * When the stream is first consumed, a dedicated thread starts reading rows and mapping them in blocks of {@code blockSize} rows.
+     * Completed blocks are handed off to the consuming thread through a ring buffer that holds at most {@code bufferedBlocks} blocks.
+     * If the buffer is full, the reading thread waits until the consuming thread takes a block. As a result, fetching rows and processing them
+     * overlap, while at most {@code (bufferedBlocks + 2) * blockSize} mapped rows are kept in memory: the full buffer, the block that is
+     * being consumed, and the block that is being read. With one buffered block, rows are double-buffered.
+     * <p>
+     * The result set is only used by the reading thread. It must not be used by any other thread until the stream has been exhausted or
+     * closed. Closing the stream stops the reading thread after the row it is currently reading, and waits until it has stopped, so the result
+     * set can be closed afterwards. The reading thread is not interrupted, because some JDBC drivers close their connections when interrupted.
+     * <p>
+     * The returned stream should be closed unless it is exhausted, for instance using a try-with-resources block. If a stream is abandoned
+     * without being closed or exhausted, the reading thread keeps waiting for buffer space, keeping the result set in use, until the stream
+     * has been garbage collected. The reading thread then stops after the row it is currently reading. Because it is not known when that
+     * happens, the result set should not be closed until the stream has been closed or exhausted.
+     *
+     * @param <T> The type of elements in the stream.
+     * @param resultSet The result set to read from.
+     * @param mapper The function that maps the current row of the result set to an element.
+     * @param blockSize The number of rows per block.
+     * @param bufferedBlocks The maximum number of completed blocks that wait to be consumed.
+     * @return A lazy sequential stream over the mapped rows of the given result set.
+     * @throws NullPointerException If {@code resultSet} or {@code mapper} is {@code null}.
+     * @throws IllegalArgumentException If {@code blockSize} or {@code bufferedBlocks} is not positive.
+     */
+    public static <T> Stream<T> prefetchingStream(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper, int blockSize,
+            int bufferedBlocks) {
+
+        Objects.requireNonNull(resultSet);
+        Objects.requireNonNull(mapper);
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(blockSize + " <= 0"); //$NON-NLS-1$
+        }
+        if (bufferedBlocks <= 0) {
+            throw new IllegalArgumentException(bufferedBlocks + " <= 0"); //$NON-NLS-1$
+        }
+        // Only start reading when the returned stream is consumed
+        AtomicReference<PrefetchIterator<T>> iterator = new AtomicReference<>();
+        Supplier<Spliterator<T>> spliterator = () -> {
+            iterator.set(new PrefetchIterator<>(resultSet, mapper, blockSize, bufferedBlocks));
+            return Spliterators.spliteratorUnknownSize(iterator.get(), Spliterator.ORDERED);
+        };
+        return StreamSupport.stream(spliterator, Spliterator.ORDERED, false)
+                .onClose(() -> {
+                    PrefetchIterator<T> started = iterator.get();
+                    if (started != null) {
+                        started.close();
+                    }
+                });
+    }
+
+    /**
+     * Returns a publisher that reads rows from a result set as subscribers request them.
+     * This method is shorthand for {@link #publisher(ResultSet, SQLFunction, Executor, int)} with {@link #DEFAULT_MAX_FETCH_SIZE} as the
+     * maximum fetch size.
+     *
+     * @param <T> The type of elements to publish.
+     * @param resultSet The result set to read from.
+     * @param mapper The function that maps the current row of the result set to an element.
+     * @param executor The executor to read rows and publish elements on.
+     * @return A publisher that reads rows from the given result set.
+     * @throws NullPointerException If {@code resultSet}, {@code mapper} or {@code executor} is {@code null}.
+     */
+    public static <T> Flow.Publisher<T> publisher(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper, Executor executor) {
+        return publisher(resultSet, mapper, executor, DEFAULT_MAX_FETCH_SIZE);
+    }
+
+    /**
+     * Returns a publisher that reads rows from a result set as subscribers request them.
+     * <p>
+     * Because a result set can only be read once, the returned publisher accepts only one subscriber. Any other subscriber immediately receives
+     * an {@link IllegalStateException} through {@link Flow.Subscriber#onError(Throwable)}.
+     * <p>
+     * Rows are only read while there is outstanding demand, so a slow subscriber does not cause the result set to be read into memory.
+     * Before rows are read, the {@link ResultSet#setFetchSize(int) fetch size} of the result set is set to the outstanding demand, limited to
+     * {@code maxFetchSize}, so the JDBC driver does not fetch many more rows from the database than have been requested. The fetch size is only
+     * a hint; drivers that do not support changing it are still read from.
+     * <p>
+     * Rows are read, mapped and published on the given executor, never on the thread that calls {@link Flow.Subscription#request(long)}.
+     * At most one thread uses the result set at any time. If reading or mapping a row fails, the failure is published through
+     * {@link Flow.Subscriber#onError(Throwable)}. When the subscription ends, because all rows have been read, because of a failure or because
+     * the subscription is cancelled, the result set is closed.
+     *
+     * @param <T> The type of elements to publish.
+     * @param resultSet The result set to read from.
+     * @param mapper The function that maps the current row of the result set to an element.
+     * @param executor The executor to read rows and publish elements on.
+     * @param maxFetchSize The maximum fetch size to set.
+     * @return A publisher that reads rows from the given result set.
+     * @throws NullPointerException If {@code resultSet}, {@code mapper} or {@code executor} is {@code null}.
+     * @throws IllegalArgumentException If {@code maxFetchSize} is not positive.
+     */
+    public static <T> Flow.Publisher<T> publisher(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper, Executor executor,
+            int maxFetchSize) {
+
+        Objects.requireNonNull(resultSet);
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(executor);
+        if (maxFetchSize <= 0) {
+            throw new IllegalArgumentException(maxFetchSize + " <= 0"); //$NON-NLS-1$
+        }
+        AtomicBoolean subscribed = new AtomicBoolean();
+        return subscriber -> {
+            Objects.requireNonNull(subscriber);
+            if (subscribed.compareAndSet(false, true)) {
+                RowSubscription<T> subscription = new RowSubscription<>(resultSet, mapper, executor, maxFetchSize, subscriber);
+                subscriber.onSubscribe(subscription);
+            } else {
+                subscriber.onSubscribe(NoOpSubscription.INSTANCE);
+                subscriber.onError(new IllegalStateException("Publisher already has a subscriber")); //$NON-NLS-1$
+            }
+        };
+    }
+
+    /**
+     * Reads all rows of a result set into a single reusable holder, and passes the holder to an action for each row.
+     * <p>
+     * Instead of mapping each row to a new object, the filler copies the values of the current row into the given holder, which is then passed
+     * to the action. The same holder is used for every row, so no objects need to be created per row. This makes the holder a flyweight: it is
+     * only valid until the action returns. The action must not retain the holder or pass it on to code that does; values that need to be kept
+     * should be copied out of it instead.
+     * <p>
+     * Rows are read, filled and passed to the action on the current thread. If reading a row, the filler or the action fails, no more rows are
+     * read. The result set is not closed by this method.
+     *
+     * @param <T> The type of holder.
+     * @param resultSet The result set to read from.
+     * @param holder The mutable holder to fill for each row.
+     * @param filler The function that copies the values of the current row of the result set into the holder.
+     * @param action The action to perform for each filled holder.
+     * @return The number of rows that were read.
+     * @throws NullPointerException If {@code resultSet}, {@code holder}, {@code filler} or {@code action} is {@code null}.
+     * @throws SQLException If reading a row, the filler or the action fails.
+     */
+    public static <T> long forEach(ResultSet resultSet, T holder, SQLBiConsumer<? super ResultSet, ? super T> filler,
+            SQLConsumer<? super T> action) throws SQLException {
+
+        Objects.requireNonNull(resultSet);
+        Objects.requireNonNull(holder);
+        Objects.requireNonNull(filler);
+        Objects.requireNonNull(action);
+
+        long count = 0;
+        while (resultSet.next()) {
+            filler.accept(resultSet, holder);
+            action.accept(holder);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads all rows of a result set once, and passes each mapped row to several sinks.
+     * This allows several results to be built from the same rows without reading the rows more than once.
+     * <p>
+     * Rows are read, mapped and passed to the sinks on the current thread. Each row is mapped only once, and passed to the sinks in the order
+     * of the given list. If reading or mapping a row or any sink fails, no more rows are read.
+     * <p>
+     * The result set is not closed by this method.
+     *
+     * @param <T> The type of mapped rows.
+     * @param resultSet The result set to read from.
+     * @param mapper The function that maps the current row of the result set to an element.
+     * @param sinks The sinks to pass each mapped row to.
+     * @return The number of rows that were read.
+     * @throws NullPointerException If {@code resultSet}, {@code mapper} or {@code sinks} is {@code null}, or if {@code sinks} contains a
+     *                                  {@code null} element.
+     * @throws SQLException If reading or mapping a row or any sink fails.
+     */
+    public static <T> long multicast(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper,
+            List<? extends SQLConsumer<? super T>> sinks) throws SQLException {
+
+        Objects.requireNonNull(resultSet);
+        Objects.requireNonNull(mapper);
+        List<SQLConsumer<? super T>> targets = List.copyOf(sinks);
+
+        long count = 0;
+        while (resultSet.next()) {
+            T element = mapper.apply(resultSet);
+            for (SQLConsumer<? super T> sink : targets) {
+                sink.accept(element);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads all rows of a result set once, and passes each mapped row to several sinks that run in parallel.
+     * This allows several results to be built from the same rows without reading the rows more than once.
+     * <p>
+     * Rows are read and mapped on the current thread, in blocks of {@code blockSize} rows. Each sink runs on its own thread, and has its own
+     * buffer that holds at most {@code bufferedBlocks} blocks. Each completed block is added to the buffers of all sinks. If the buffer of
+     * a sink is full, reading waits until that sink has taken a block. As a result, the slowest sink determines the pace of reading, while
+     * the other sinks can run up to {@code bufferedBlocks} blocks ahead of it. The same mapped rows are passed to all sinks, so sinks should
+     * not modify them.
+     * <p>
+     * Each sink receives all rows in the order of the result set. This method returns once all sinks have processed all rows.
+     * If reading or mapping a row or any sink fails, all sinks stop taking new rows, and the failure is thrown once all sinks have stopped.
+     * Failures of other sinks are added as {@link Throwable#addSuppressed(Throwable) suppressed} exceptions to the thrown exception.
+     * The threads of the sinks are not interrupted, because some JDBC drivers close their connections when interrupted.
+     * <p>
+     * The result set is not closed by this method.
+     *
+     * @param <T> The type of mapped rows.
+     * @param resultSet The result set to read from.
+     * @param mapper The function that maps the current row of the result set to an element.
+     * @param sinks The sinks to pass each mapped row to.
+     * @param blockSize The number of rows per block.
+     * @param bufferedBlocks The maximum number of blocks per sink that wait to be processed.
+     * @return The number of rows that were read.
+     * @throws NullPointerException If {@code resultSet}, {@code mapper} or {@code sinks} is {@code null}, or if {@code sinks} contains a
+     *                                  {@code null} element.
+     * @throws IllegalArgumentException If {@code blockSize} or {@code bufferedBlocks} is not positive.
+     * @throws SQLException If reading or mapping a row or any sink fails, or if the current thread is interrupted while waiting.
+     */
+    public static <T> long multicast(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper,
+            List<? extends SQLConsumer<? super T>> sinks, int blockSize, int bufferedBlocks) throws SQLException {
+
+        Objects.requireNonNull(resultSet);
+        Objects.requireNonNull(mapper);
+        List<SQLConsumer<? super T>> targets = List.copyOf(sinks);
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(blockSize + " <= 0"); //$NON-NLS-1$
+        }
+        if (bufferedBlocks <= 0) {
+            throw new IllegalArgumentException(bufferedBlocks + " <= 0"); //$NON-NLS-1$
+        }
+
+        Multicast multicast = new Multicast(targets.size(), bufferedBlocks);
+        for (int i = 0; i < targets.size(); i++) {
+            multicast.start(i, targets.get(i));
+        }
+
+        long count = 0;
+        List<Object> block = new ArrayList<>(blockSize);
+        try {
+            while (!multicast.isAborted() && resultSet.next()) {
+                block.add(mapper.apply(resultSet));
+                count++;
+                if (block.size() == blockSize) {
+                    multicast.publish(Collections.unmodifiableList(block));
+                    block = new ArrayList<>(blockSize);
+                }
+            }
+            if (!block.isEmpty()) {
+                multicast.publish(Collections.unmodifiableList(block));
+            }
+        } catch (SQLException | RuntimeException | Error e) {
+            multicast.fail(e);
+        } catch (InterruptedException e) {
+            multicast.interrupted(e);
+        } finally {
+            multicast.finish();
+        }
+
+        multicast.join();
+        multicast.throwFailure();
+        return count;
+    }
+
+    private static final class RowIterator<T> implements Iterator<T> {
+
+        private final ResultSet resultSet;
+        private final SQLFunction<? super ResultSet, ? extends T> mapper;
+
+        private T next;
+        private boolean hasNext;
+        private boolean done;
+
+        private RowIterator(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper) {
+            this.resultSet = resultSet;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!hasNext && !done) {
+                try {
+                    if (resultSet.next()) {
+                        next = mapper.apply(resultSet);
+                        hasNext = true;
+                    } else {
+                        done = true;
+                    }
+                } catch (SQLException e) {
+                    done = true;
+                    throw new UncheckedSQLException(e);
+                } catch (RuntimeException | Error e) {
+                    done = true;
+                    throw e;
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = next;
+            next = null;
+            hasNext = false;
+            return result;
+        }
+    }
+
+    private static final class PrefetchIterator<T> implements Iterator<T> {
+
+        // Only created when the first prefetching stream is consumed
+        private static final Cleaner CLEANER = Cleaner.create();
+
+        private final Prefetcher<T> prefetcher;
+        private final Cleaner.Cleanable cleanable;
+
+        private Iterator<T> block;
+        private boolean done;
+
+        private PrefetchIterator(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper, int blockSize, int bufferedBlocks) {
+            this.prefetcher = new Prefetcher<>(resultSet, mapper, blockSize, bufferedBlocks);
+            // The reading thread only references the prefetcher, so an abandoned iterator can still be garbage collected, which stops it
+            this.cleanable = CLEANER.register(this, prefetcher::stop);
+
+            this.block = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!block.hasNext() && !done) {
+                try {
+                    List<T> rows = prefetcher.take();
+                    if (rows == null) {
+                        done = true;
+                    } else {
+                        block = rows.iterator();
+                    }
+                } catch (SQLException e) {
+                    close();
+                    throw new UncheckedSQLException(e);
+                } catch (RuntimeException | Error e) {
+                    close();
+                    throw e;
+                }
+            }
+            return block.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return block.next();
+        }
+
+        private void close() {
+            done = true;
+            block = Collections.emptyIterator();
+
+            cleanable.clean();
+            prefetcher.awaitReader();
+        }
+    }
+
+    private static final class Prefetcher<T> {
+
+        private final ResultSet resultSet;
+        private final SQLFunction<? super ResultSet, ? extends T> mapper;
+        private final int blockSize;
+
+        private final Lock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+
+        // A ring buffer of blocks, guarded by lock
+        private final Object[] blocks;
+        private int head;
+        private int count;
+        private boolean finished;
+        // Also read without the lock by the reading thread, to stop reading as soon as possible
+        private volatile boolean closed;
+        private Throwable failure;
+
+        private final Thread reader;
+
+        private Prefetcher(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper, int blockSize, int bufferedBlocks) {
+            this.resultSet = resultSet;
+            this.mapper = mapper;
+            this.blockSize = blockSize;
+
+            this.blocks = new Object[bufferedBlocks];
+
+            this.reader = Threads.newThread("sql-prefetch-" + PREFETCH_THREAD_COUNTER.incrementAndGet(), this::read); //$NON-NLS-1$
+            this.reader.start();
+        }
+
+        private void read() {
+            List<T> rows = new ArrayList<>(blockSize);
+            Throwable readFailure = null;
+            try {
+                boolean hasMore = true;
+                while (hasMore) {
+                    while (rows.size() < blockSize && !closed && (hasMore = resultSet.next())) {
+                        rows.add(mapper.apply(resultSet));
+                    }
+                    if (closed || (!rows.isEmpty() && !offer(rows))) {
+                        return;
+                    }
+                    rows = new ArrayList<>(blockSize);
+                }
+            } catch (SQLException | RuntimeException | Error e) {
+                readFailure = e;
+                // Rows that were read before the failure are still made available
+                if (!rows.isEmpty()) {
+                    offer(rows);
+                }
+            } finally {
+                finish(readFailure);
+            }
+        }
+
+        private boolean offer(List<T> rows) {
+            lock.lock();
+            try {
+                while (count == blocks.length && !closed) {
+                    notFull.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return false;
+                }
+                blocks[(head + count) % blocks.length] = rows;
+                count++;
+                notEmpty.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void finish(Throwable readFailure) {
+            lock.lock();
+            try {
+                finished = true;
+                failure = readFailure;
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> take() throws SQLException {
+            lock.lock();
+            try {
+                while (count == 0 && !finished) {
+                    notEmpty.await();
+                }
+                if (count > 0) {
+                    List<T> rows = (List<T>) blocks[head];
+                    blocks[head] = null;
+                    head = (head + 1) % blocks.length;
+                    count--;
+                    notFull.signal();
+                    return rows;
+                }
+                if (failure != null) {
+                    throw SQLExceptions.toSQLException(failure);
+                }
+                return null;
+            } catch (InterruptedException e) {
+                throw SQLExceptions.interrupted(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void stop() {
+            lock.lock();
+            try {
+                closed = true;
+                Arrays.fill(blocks, null);
+                count = 0;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void awaitReader() {
+            boolean interrupted = false;
+            while (reader.isAlive()) {
+                try {
+                    reader.join();
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class RowSubscription<T> implements Flow.Subscription {
+
+        private final ResultSet resultSet;
+        private final SQLFunction<? super ResultSet, ? extends T> mapper;
+        private final Executor executor;
+        private final int maxFetchSize;
+        private final Flow.Subscriber<? super T> subscriber;
+
+        private final AtomicLong demand = new AtomicLong();
+        // The number of times drain was requested; only the thread that increments it from 0 drains
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // only accessed while draining
+        private int fetchSize;
+        private int remainingInFetch;
+        private boolean terminated;
+
+        private RowSubscription(ResultSet resultSet, SQLFunction<? super ResultSet, ? extends T> mapper, Executor executor, int maxFetchSize,
+                Flow.Subscriber<? super T> subscriber) {
+
+            this.resultSet = resultSet;
+            this.mapper = mapper;
+            this.executor = executor;
+            this.maxFetchSize = maxFetchSize;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException(n + " <= 0"); //$NON-NLS-1$
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    terminate(e);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            while (!terminated) {
+                if (cancelled) {
+                    // there is no subscriber left to report a failure to close the result set to
+                    close();
+                    return;
+                }
+                Throwable failure = invalidRequest;
+                if (failure != null) {
+                    terminate(failure);
+                    return;
+                }
+                long requested = demand.get();
+                if (requested > 0) {
+                    if (!updateFetchSize(requested) || !emit()) {
+                        return;
+                    }
+                    if (requested != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    continue;
+                }
+                missed = pending.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private boolean emit() {
+            T element;
+            try {
+                if (!resultSet.next()) {
+                    terminate(null);
+                    return false;
+                }
+                element = mapper.apply(resultSet);
+            } catch (SQLException | RuntimeException | Error e) {
+                terminate(e);
+                return false;
+            }
+            try {
+                subscriber.onNext(element);
+            } catch (RuntimeException | Error e) {
+                // the subscriber violated the specification; treat it as cancelled
+                close();
+                throw e;
+            }
+            return true;
+        }
+
+        private boolean updateFetchSize(long requested) {
+            // Only change the fetch size when the driver is expected to fetch the next rows from the database
+            if (remainingInFetch > 0) {
+                remainingInFetch--;
+                return true;
+            }
+            int newFetchSize = (int) Math.min(requested, maxFetchSize);
+            remainingInFetch = newFetchSize - 1;
+            if (newFetchSize != fetchSize) {
+                try {
+                    resultSet.setFetchSize(newFetchSize);
+                } catch (@SuppressWarnings("unused") SQLFeatureNotSupportedException e) {
+                    // the fetch size is only a hint
+                } catch (SQLException e) {
+                    terminate(e);
+                    return false;
+                }
+                fetchSize = newFetchSize;
+            }
+            return true;
+        }
+
+        private void terminate(Throwable failure) {
+            Throwable closeFailure = close();
+            if (failure != null) {
+                if (closeFailure != null) {
+                    failure.addSuppressed(closeFailure);
+                }
+                subscriber.onError(failure);
+            } else if (closeFailure != null) {
+                subscriber.onError(closeFailure);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+
+        private Throwable close() {
+            terminated = true;
+            cancelled = true;
+            try {
+                resultSet.close();
+                return null;
+            } catch (SQLException e) {
+                return e;
+            }
+        }
+    }
+
+    private static final class Multicast {
+
+        private final String name;
+        private final SinkBuffer[] buffers;
+        private final List<Thread> threads;
+
+        private volatile boolean aborted;
+        private Throwable failure;
+        private InterruptedException interrupted;
+
+        private Multicast(int sinkCount, int bufferedBlocks) {
+            this.name = "sql-multicast-" + MULTICAST_COUNTER.incrementAndGet(); //$NON-NLS-1$
+            this.buffers = new SinkBuffer[sinkCount];
+            for (int i = 0; i < sinkCount; i++) {
+                buffers[i] = new SinkBuffer(bufferedBlocks);
+            }
+            this.threads = new ArrayList<>(sinkCount);
+        }
+
+        private <T> void start(int index, SQLConsumer<? super T> sink) {
+            SinkBuffer buffer = buffers[index];
+            Thread thread = Threads.newThread(name + "-sink-" + index, () -> { //$NON-NLS-1$
+                try {
+                    List<Object> block;
+                    while ((block = buffer.take()) != null) {
+                        for (Object element : block) {
+                            @SuppressWarnings("unchecked")
+                            T t = (T) element;
+                            sink.accept(t);
+                        }
+                    }
+                } catch (SQLException | RuntimeException | Error e) {
+                    fail(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        private boolean isAborted() {
+            return aborted;
+        }
+
+        private void publish(List<Object> block) throws InterruptedException {
+            for (SinkBuffer buffer : buffers) {
+                buffer.put(block);
+            }
+        }
+
+        private void finish() {
+            for (SinkBuffer buffer : buffers) {
+                buffer.finish();
+            }
+        }
+
+        private synchronized void fail(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            } else if (failure != e) {
+                failure.addSuppressed(e);
+            }
+            abort();
+        }
+
+        private synchronized void interrupted(InterruptedException e) {
+            if (interrupted == null) {
+                interrupted = e;
+            }
+            abort();
+        }
+
+        private void abort() {
+            if (!aborted) {
+                aborted = true;
+                for (SinkBuffer buffer : buffers) {
+                    buffer.abort();
+                }
+            }
+        }
+
+        private void join() {
+            for (Thread thread : threads) {
+                joinUninterruptibly(thread);
+            }
+        }
+
+        private void joinUninterruptibly(Thread thread) {
+            while (true) {
+                try {
+                    thread.join();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted(e);
+                }
+            }
+        }
+
+        private synchronized void throwFailure() throws SQLException {
+            if (interrupted != null) {
+                SQLException exception = SQLExceptions.interrupted(interrupted);
+                if (failure != null) {
+                    exception.addSuppressed(failure);
+                }
+                throw exception;
+            }
+            if (failure != null) {
+                throw SQLExceptions.toSQLException(failure);
+            }
+        }
+    }
+
+    private static final class SinkBuffer {
+
+        private final Lock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+
+        private final Deque<List<Object>> blocks;
+        private final int capacity;
+        private boolean finished;
+        private boolean aborted;
+
+        private SinkBuffer(int capacity) {
+            this.blocks = new ArrayDeque<>(capacity);
+            this.capacity = capacity;
+        }
+
+        private void put(List<Object> block) throws InterruptedException {
+            lock.lock();
+            try {
+                while (blocks.size() == capacity && !aborted) {
+                    notFull.await();
+                }
+                if (!aborted) {
+                    blocks.add(block);
+                    notEmpty.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<Object> take() {
+            lock.lock();
+            try {
+                while (blocks.isEmpty() && !finished && !aborted) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (aborted) {
+                    return null;
+                }
+                List<Object> block = blocks.poll();
+                if (block != null) {
+                    notFull.signal();
+                }
+                return block;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void finish() {
+            lock.lock();
+            try {
+                finished = true;
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void abort() {
+            lock.lock();
+            try {
+                aborted = true;
+                blocks.clear();
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class NoOpSubscription implements Flow.Subscription {
+
+        private static final NoOpSubscription INSTANCE = new NoOpSubscription();
+
+        @Override
+        public void request(long n) {
+            // does nothing
+        }
+
+        @Override
+        public void cancel() {
+            // does nothing
+        }
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * SQLRingBuffer.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded ring buffer that hands off elements from a single producer to a number of workers that process them with an SQL consumer.
+ * <p>
+ * Unlike a {@link java.util.concurrent.BlockingQueue}, a ring buffer does not allocate a node per element, and publishing and taking elements
+ * does not use locks. Elements are stored in a preallocated array. The producer publishes an element by storing it in the next slot and
+ * advancing a sequence number; workers claim ranges of published slots of up to a maximum batch size, and process each range as a batch.
+ * Each element is processed by exactly one worker. If the ring buffer is full, the producer waits until the slowest worker has processed the
+ * slot it is about to reuse.
+ * <p>
+ * How the producer and the workers wait is determined by a {@link WaitStrategy}. Strategies that spin give the lowest latency at the cost of
+ * CPU usage; strategies that sleep or block use less CPU but add latency. Each worker runs on its own platform daemon thread, also on Java
+ * versions that support virtual threads, so spinning workers cannot starve other threads of carrier threads.
+ * <p>
+ * Elements must be published by one thread only, and {@link #close()} must be called by that same thread. Elements within a batch are
+ * processed in the order in which they were published, but batches are processed concurrently by different workers, in no particular order.
+ * <p>
+ * If a worker fails, all workers stop, and elements that have not been processed yet are discarded. The failure is thrown by the next call to
+ * {@link #publish(Object)} and by {@link #close()}. {@link SQLException SQLExceptions} are thrown as-is; unchecked exceptions and errors are
+ * thrown as-is as well. Failures of other workers are added as {@link Throwable#addSuppressed(Throwable) suppressed} exceptions.
+ *
+ * @author Rob Spoor
+ * @param <T> The type of elements.
+ * @since 3.0
+ */
+public final class SQLRingBuffer<T> implements AutoCloseable {
+
+    private static final AtomicInteger RING_BUFFER_COUNTER = new AtomicInteger();
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 100_000;
+
+    private final Object[] slots;
+    private final int mask;
+    private final int maxBatchSize;
+    private final WaitStrategy waitStrategy;
+    private final BatchProcessor<T> processor;
+
+    // The sequence of the last published element
+    private final AtomicLong cursor = new AtomicLong(-1);
+    // The sequence of the last element claimed by a worker
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final List<Worker> workers;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    // only accessed by the producer
+    private long nextSequence;
+    private long cachedGate = -1;
+
+    private volatile boolean closed;
+    private volatile boolean failed;
+    private Throwable failure;
+
+    private SQLRingBuffer(int capacity, int workerCount, int maxBatchSize, WaitStrategy waitStrategy, BatchProcessor<T> processor) {
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+        this.maxBatchSize = maxBatchSize;
+        this.waitStrategy = waitStrategy;
+        this.processor = processor;
+
+        String name = "sql-ring-buffer-" + RING_BUFFER_COUNTER.incrementAndGet(); //$NON-NLS-1$
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Worker(name + "-" + i)); //$NON-NLS-1$
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Returns a new ring buffer that processes elements one by one.
+     * The returned ring buffer has started its workers.
+     *
+     * @param <T> The type of elements.
+     * @param capacity The number of slots; must be a power of 2.
+     * @param consumer The consumer that processes elements.
+     * @param workers The number of workers.
+     * @param maxBatchSize The maximum number of elements that a worker claims at once.
+     * @param waitStrategy The strategy for waiting for elements or free slots.
+     * @return The created ring buffer.
+     * @throws NullPointerException If {@code consumer} or {@code waitStrategy} is {@code null}.
+     * @throws IllegalArgumentException If {@code capacity} is not a positive power of 2, or if {@code workers} or {@code maxBatchSize} is not
+     *                                      positive.
+     */
+    public static <T> SQLRingBuffer<T> create(int capacity, SQLConsumer<? super T> consumer, int workers, int maxBatchSize,
+            WaitStrategy waitStrategy) {
+
+        Objects.requireNonNull(consumer);
+        return create(capacity, workers, maxBatchSize, waitStrategy, (ringBuffer, from, to, batch) -> {
+            for (long sequence = from; sequence <= to; sequence++) {
+                consumer.accept(ringBuffer.elementAt(sequence));
+            }
+        });
+    }
+
+    /**
+     * Returns a new ring buffer that processes elements in batches.
+     * The returned ring buffer has started its workers.
+     * <p>
+     * Each worker reuses the same list for each batch it processes. The batch consumer must therefore not keep a reference to the list after
+     * it returns.
+     *
+     * @param <T> The type of elements.
+     * @param capacity The number of slots; must be a power of 2.
+     * @param batchConsumer The consumer that processes batches of elements.
+     * @param workers The number of workers.
+     * @param maxBatchSize The maximum number of elements per batch.
+     * @param waitStrategy The strategy for waiting for elements or free slots.
+     * @return The created ring buffer.
+     * @throws NullPointerException If {@code batchConsumer} or {@code waitStrategy} is {@code null}.
+     * @throws IllegalArgumentException If {@code capacity} is not a positive power of 2, or if {@code workers} or {@code maxBatchSize} is not
+     *                                      positive.
+     */
+    public static <T> SQLRingBuffer<T> createBatching(int capacity, SQLConsumer<? super List<T>> batchConsumer, int workers, int maxBatchSize,
+            WaitStrategy waitStrategy) {
+
+        Objects.requireNonNull(batchConsumer);
+        return create(capacity, workers, maxBatchSize, waitStrategy, (ringBuffer, from, to, batch) -> {
+            for (long sequence = from; sequence <= to; sequence++) {
+                batch.add(ringBuffer.elementAt(sequence));
+            }
+            try {
+                batchConsumer.accept(batch);
+            } finally {
+                batch.clear();
+            }
+        });
+    }
+
+    private static <T> SQLRingBuffer<T> create(int capacity, int workers, int maxBatchSize, WaitStrategy waitStrategy,
+            BatchProcessor<T> processor) {
+
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(capacity + " is not a positive power of 2"); //$NON-NLS-1$
+        }
+        if (workers <= 0) {
+            throw new IllegalArgumentException(workers + " <= 0"); //$NON-NLS-1$
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException(maxBatchSize + " <= 0"); //$NON-NLS-1$
+        }
+        Objects.requireNonNull(waitStrategy);
+        return new SQLRingBuffer<>(capacity, workers, maxBatchSize, waitStrategy, processor);
+    }
+
+    /**
+     * Returns the number of slots of this ring buffer.
+     *
+     * @return The number of slots of this ring buffer.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Publishes an element. If the ring buffer is full, this method waits until a slot becomes available.
+     *
+     * @param element The element to publish.
+     * @throws IllegalStateException If this ring buffer has been closed.
+     * @throws SQLException If a worker has failed, or if the current thread is interrupted while waiting for a slot to become available.
+     */
+    public void publish(T element) throws SQLException {
+        if (closed) {
+            throw new IllegalStateException("Ring buffer is closed"); //$NON-NLS-1$
+        }
+        throwIfFailed();
+
+        long sequence = nextSequence;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > cachedGate) {
+            long gate;
+            int tries = 0;
+            while (wrapPoint > (gate = minimumWorkerSequence())) {
+                throwIfFailed();
+                awaitSlot(tries++);
+            }
+            cachedGate = gate;
+        }
+
+        slots[(int) sequence & mask] = element;
+        nextSequence = sequence + 1;
+        cursor.set(sequence);
+        signalWorkers();
+    }
+
+    private long minimumWorkerSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (int i = 0, size = workers.size(); i < size; i++) {
+            minimum = Math.min(minimum, workers.get(i).sequence.get());
+        }
+        return minimum;
+    }
+
+    private void awaitSlot(int tries) throws SQLException {
+        if (Thread.interrupted()) {
+            throw SQLExceptions.interrupted(new InterruptedException());
+        }
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                Thread.onSpinWait();
+                break;
+            case YIELDING:
+                Thread.yield();
+                break;
+            default:
+                // Workers do not signal the producer, so sleeping and blocking both back off
+                backOff(tries);
+                break;
+        }
+    }
+
+    private void signalWorkers() {
+        if (waitStrategy == WaitStrategy.BLOCKING && waiters.get() > 0) {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void throwIfFailed() throws SQLException {
+        if (failed) {
+            synchronized (this) {
+                throw SQLExceptions.toSQLException(failure);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(long sequence) {
+        return (T) slots[(int) sequence & mask];
+    }
+
+    private synchronized void fail(Throwable e) {
+        if (failure == null) {
+            failure = e;
+        } else if (failure != e) {
+            failure.addSuppressed(e);
+        }
+        failed = true;
+        signalAll();
+    }
+
+    private void signalAll() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes this ring buffer. Workers process all elements that have been published, after which they stop.
+     * This method waits until all workers have stopped.
+     *
+     * @throws SQLException If a worker has failed.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (!closed) {
+            closed = true;
+            signalAll();
+        }
+        boolean interrupted = false;
+        for (Worker worker : workers) {
+            while (worker.thread.isAlive()) {
+                try {
+                    worker.thread.join();
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        throwIfFailed();
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[capacity=" + slots.length + ",workers=" + workers.size() + ",maxBatchSize=" + maxBatchSize
+                + ",waitStrategy=" + waitStrategy + "]";
+    }
+
+    private static void backOff(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * The possible strategies for waiting for elements or free slots.
+     *
+     * @author Rob Spoor
+     * @since 3.0
+     */
+    public enum WaitStrategy {
+        /** Spin continuously. This gives the lowest latency, but each waiting thread uses a full CPU core. */
+        BUSY_SPIN,
+
+        /** Spin briefly, then yield to other threads. This gives low latency if there are more CPU cores than busy threads. */
+        YIELDING,
+
+        /** Spin briefly, then yield, then sleep for short periods. This balances latency and CPU usage. */
+        SLEEPING,
+
+        /**
+         * Block workers until elements are published. This uses the least CPU when idle, but requires the producer to signal waiting workers.
+         * The producer backs off like {@link #SLEEPING} if the ring buffer is full.
+         */
+        BLOCKING
+    }
+
+    private interface BatchProcessor<T> {
+
+        void process(SQLRingBuffer<T> ringBuffer, long from, long to, List<T> batch) throws SQLException;
+    }
+
+    private final class Worker {
+
+        // All elements up to and including this sequence may be overwritten as far as this worker is concerned
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final Thread thread;
+
+        private Worker(String name) {
+            // Workers may spin, and a spinning virtual thread never releases its carrier thread, so workers need dedicated platform threads
+            this.thread = new Thread(this::run, name);
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            List<T> batch = new ArrayList<>(Math.min(maxBatchSize, slots.length));
+            int tries = 0;
+            try {
+                while (!failed) {
+                    long current = claimed.get();
+                    // Gate the producer before claiming, so the claimed slots cannot be overwritten
+                    sequence.set(current);
+                    long available = cursor.get();
+                    if (current >= available) {
+                        if (closed && cursor.get() == current) {
+                            return;
+                        }
+                        awaitElement(current, tries++);
+                        continue;
+                    }
+                    long end = Math.min(available, current + Math.min(maxBatchSize, slots.length));
+                    if (claimed.compareAndSet(current, end)) {
+                        tries = 0;
+                        processor.process(SQLRingBuffer.this, current + 1, end, batch);
+                    }
+                }
+            } catch (SQLException | RuntimeException | Error e) {
+                fail(e);
+            } finally {
+                // Don't let a stopped worker hold back the producer
+                sequence.set(Long.MAX_VALUE);
+            }
+        }
+
+        private void awaitElement(long current, int tries) {
+            switch (waitStrategy) {
+                case BUSY_SPIN:
+                    Thread.onSpinWait();
+                    break;
+                case YIELDING:
+                    if (tries < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                    break;
+                case SLEEPING:
+                    backOff(tries);
+                    break;
+                case BLOCKING:
+                default:
+                    block(current);
+                    break;
+            }
+        }
+
+        private void block(long current) {
+            lock.lock();
+            try {
+                waiters.incrementAndGet();
+                while (cursor.get() <= current && !closed && !failed) {
+                    published.awaitUninterruptibly();
+                }
+            } finally {
+                waiters.decrementAndGet();
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * SQLRowMappers.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row mappers for record and bean classes, generated from method handles.
+ * <p>
+ * A generated row mapper maps each column of a result set to the record component or bean property with a matching name. Names are matched
+ * case-insensitively, ignoring underscores, so a column with label {@code FIRST_NAME} matches a component or property named
+ * {@code firstName}. If several columns match the same component or property, the first one is used.
+ * <ul>
+ * <li>For record classes, the canonical constructor is called with the values of the matching columns. Each record component must have a
+ * matching column.</li>
+ * <li>For other classes, the public no-argument constructor is called, and for each column with a matching public setter, the setter is
+ * called with the column's value. Columns without a matching setter are ignored.</li>
+ * </ul>
+ * Values are read using the getter of {@link ResultSet} for the component or property type, by column index. Primitive types use primitive
+ * getters like {@link ResultSet#getInt(int)}; their wrapper types use the same getters, but map SQL {@code NULL} to {@code null}.
+ * {@code char} and {@link Character} values are read using {@link ResultSet#getString(int)}, and must consist of exactly one character;
+ * SQL {@code NULL} is mapped to {@code '\0'} and {@code null} respectively.
+ * {@link String}, {@link BigDecimal}, {@code byte[]}, {@link Date}, {@link Time} and {@link Timestamp} have their own getters as well;
+ * values of all other types are read using {@link ResultSet#getObject(int, Class)}.
+ * <p>
+ * When a generated row mapper is first called for a result set, it matches the result set's column labels once, and combines the
+ * constructor, getters and setters into a single method handle. That method handle is reused for all rows of the same result set. It is
+ * also cached per combination of column labels, for up to 64 combinations, and reused for other result sets with the same column labels.
+ * As a result, mapping a row involves no lookups by column label, and no boxing of primitive values.
+ * On Java 21 and up, the method handle of each cached combination is stored as a constant in a hidden class, so the JIT compiler can
+ * inline it into the mapper.
+ * On older Java versions, it is invoked through an instance field, which limits such inlining.
+ * <p>
+ * Generated row mappers are thread-safe, and should be created once and reused. They do not prevent result sets that they were called with
+ * from being garbage collected.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLRowMappers {
+
+    private static final int MAX_CACHED_PLANS = 64;
+
+    private static final Map<Class<?>, MethodHandle> GETTERS = createGetters();
+    private static final MethodHandle GET_OBJECT = findVirtual("getObject", Object.class, Class.class); //$NON-NLS-1$
+
+    private static final MethodType MAPPER_TYPE = MethodType.methodType(Object.class, ResultSet.class);
+
+    private static final ClassValue<TypeModel> PUBLIC_MODELS = new ClassValue<TypeModel>() {
+        @Override
+        protected TypeModel computeValue(Class<?> type) {
+            return TypeModel.of(type, MethodHandles.publicLookup());
+        }
+    };
+
+    private static final LookupCache<TypeModel> LOOKUP_MODELS = new LookupCache<>(TypeModel::of);
+
+    private SQLRowMappers() {
+    }
+
+    /**
+     * Returns a generated row mapper for a public record or bean class.
+     * The analysis of the class is cached, so calling this method several times for the same class is cheap.
+     *
+     * @param <T> The type of objects to create.
+     * @param type The public record or bean class.
+     * @return A generated row mapper for the given class.
+     * @throws NullPointerException If {@code type} is {@code null}.
+     * @throws IllegalArgumentException If the given class or its constructor is not public, if the given class is abstract, or if the given
+     *                                      class is not a record class and does not have a public no-argument constructor.
+     */
+    public static <T> SQLFunction<ResultSet, T> of(Class<T> type) {
+        return new GeneratedMapper<>(PUBLIC_MODELS.get(type));
+    }
+
+    /**
+     * Returns a generated row mapper for a record or bean class, using a lookup to access the class.
+     * This allows row mappers to be generated for classes that are not public, by passing a lookup that has access to the class.
+     * If the lookup has {@link MethodHandles.Lookup#MODULE module} access, like lookups returned by {@link MethodHandles#lookup()}, the
+     * analysis of the class is cached per lookup class, so calling this method several times for the same class and lookup is cheap.
+     *
+     * @param <T> The type of objects to create.
+     * @param type The record or bean class.
+     * @param lookup The lookup to use for accessing the constructor and setters of the class.
+     * @return A generated row mapper for the given class.
+     * @throws NullPointerException If {@code type} or {@code lookup} is {@code null}.
+     * @throws IllegalArgumentException If the given lookup has no access to the class or its constructor, if the given class is abstract,
+     *                                      or if the given class is not a record class and does not have a no-argument constructor.
+     */
+    public static <T> SQLFunction<ResultSet, T> of(Class<T> type, MethodHandles.Lookup lookup) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(lookup);
+        return new GeneratedMapper<>(LOOKUP_MODELS.get(type, lookup));
+    }
+
+    static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private static MethodHandle getter(Class<?> type, int columnIndex) {
+        MethodHandle getter = GETTERS.get(type);
+        if (getter == null) {
+            getter = MethodHandles.insertArguments(GET_OBJECT, 2, type)
+                    .asType(MethodType.methodType(type, ResultSet.class, int.class));
+        }
+        return MethodHandles.insertArguments(getter, 1, columnIndex);
+    }
+
+    private static Map<Class<?>, MethodHandle> createGetters() {
+        Map<Class<?>, MethodHandle> getters = new HashMap<>();
+        getters.put(boolean.class, findVirtual("getBoolean", boolean.class)); //$NON-NLS-1$
+        getters.put(byte.class, findVirtual("getByte", byte.class)); //$NON-NLS-1$
+        getters.put(short.class, findVirtual("getShort", short.class)); //$NON-NLS-1$
+        getters.put(int.class, findVirtual("getInt", int.class)); //$NON-NLS-1$
+        getters.put(long.class, findVirtual("getLong", long.class)); //$NON-NLS-1$
+        getters.put(float.class, findVirtual("getFloat", float.class)); //$NON-NLS-1$
+        getters.put(double.class, findVirtual("getDouble", double.class)); //$NON-NLS-1$
+        getters.put(char.class, findNullable("getChar", char.class)); //$NON-NLS-1$
+        getters.put(Boolean.class, findNullable("getNullableBoolean", Boolean.class)); //$NON-NLS-1$
+        getters.put(Byte.class, findNullable("getNullableByte", Byte.class)); //$NON-NLS-1$
+        getters.put(Short.class, findNullable("getNullableShort", Short.class)); //$NON-NLS-1$
+        getters.put(Integer.class, findNullable("getNullableInt", Integer.class)); //$NON-NLS-1$
+        getters.put(Long.class, findNullable("getNullableLong", Long.class)); //$NON-NLS-1$
+        getters.put(Float.class, findNullable("getNullableFloat", Float.class)); //$NON-NLS-1$
+        getters.put(Double.class, findNullable("getNullableDouble", Double.class)); //$NON-NLS-1$
+        getters.put(Character.class, findNullable("getNullableChar", Character.class)); //$NON-NLS-1$
+        getters.put(String.class, findVirtual("getString", String.class)); //$NON-NLS-1$
+        getters.put(BigDecimal.class, findVirtual("getBigDecimal", BigDecimal.class)); //$NON-NLS-1$
+        getters.put(byte[].class, findVirtual("getBytes", byte[].class)); //$NON-NLS-1$
+        getters.put(Date.class, findVirtual("getDate", Date.class)); //$NON-NLS-1$
+        getters.put(Time.class, findVirtual("getTime", Time.class)); //$NON-NLS-1$
+        getters.put(Timestamp.class, findVirtual("getTimestamp", Timestamp.class)); //$NON-NLS-1$
+        return getters;
+    }
+
+    private static MethodHandle findVirtual(String name, Class<?> returnType, Class<?>... extraParameterTypes) {
+        MethodType methodType = MethodType.methodType(returnType, int.class).appendParameterTypes(extraParameterTypes);
+        try {
+            return MethodHandles.publicLookup().findVirtual(ResultSet.class, name, methodType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle findNullable(String name, Class<?> returnType) {
+        MethodType methodType = MethodType.methodType(returnType, ResultSet.class, int.class);
+        try {
+            return MethodHandles.lookup().findStatic(SQLRowMappers.class, name, methodType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Boolean getNullableBoolean(ResultSet resultSet, int columnIndex) throws SQLException {
+        boolean value = resultSet.getBoolean(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Byte getNullableByte(ResultSet resultSet, int columnIndex) throws SQLException {
+        byte value = resultSet.getByte(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Short getNullableShort(ResultSet resultSet, int columnIndex) throws SQLException {
+        short value = resultSet.getShort(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Integer getNullableInt(ResultSet resultSet, int columnIndex) throws SQLException {
+        int value = resultSet.getInt(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Long getNullableLong(ResultSet resultSet, int columnIndex) throws SQLException {
+        long value = resultSet.getLong(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Float getNullableFloat(ResultSet resultSet, int columnIndex) throws SQLException {
+        float value = resultSet.getFloat(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Double getNullableDouble(ResultSet resultSet, int columnIndex) throws SQLException {
+        double value = resultSet.getDouble(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static char getChar(ResultSet resultSet, int columnIndex) throws SQLException {
+        Character value = getNullableChar(resultSet, columnIndex);
+        return value != null ? value : '\0';
+    }
+
+    private static Character getNullableChar(ResultSet resultSet, int columnIndex) throws SQLException {
+        String value = resultSet.getString(columnIndex);
+        if (value == null) {
+            return null;
+        }
+        if (value.length() != 1) {
+            throw new SQLException("Value of column " + columnIndex + " is not a single character: " + value); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return value.charAt(0);
+    }
+
+    private abstract static class TypeModel {
+
+        private final Class<?> type;
+        private final Map<List<String>, SQLFunction<ResultSet, Object>> invokers = new ConcurrentHashMap<>();
+
+        private TypeModel(Class<?> type) {
+            this.type = type;
+        }
+
+        static TypeModel of(Class<?> type, MethodHandles.Lookup lookup) {
+            if (Modifier.isAbstract(type.getModifiers()) || type.isInterface() || type.isPrimitive() || type.isArray()) {
+                throw new IllegalArgumentException(type + " is not a concrete class"); //$NON-NLS-1$
+            }
+            try {
+                return Records.isRecord(type)
+                        ? new RecordModel(type, lookup)
+                        : new BeanModel(type, lookup);
+            } catch (IllegalAccessException | NoSuchMethodException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+
+        SQLFunction<ResultSet, Object> invoker(ResultSetMetaData metaData) throws SQLException {
+            String[] labels = new String[metaData.getColumnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = normalize(metaData.getColumnLabel(i + 1));
+            }
+            List<String> key = Arrays.asList(labels);
+            SQLFunction<ResultSet, Object> invoker = invokers.get(key);
+            if (invoker == null) {
+                MethodHandle plan = plan(labels);
+                // the cache is bounded, so result sets with ever-changing column labels cannot make it grow indefinitely;
+                // plans that are not cached do not get a hidden class, as each miss would otherwise define a new one
+                invoker = invokers.size() < MAX_CACHED_PLANS
+                        ? invokers.computeIfAbsent(key, k -> Invokers.mapper(plan))
+                        : Invokers.fieldMapper(plan);
+            }
+            return invoker;
+        }
+
+        // Returns a method handle of type (ResultSet)Object for the given normalized column labels
+        abstract MethodHandle plan(String[] labels) throws SQLException;
+    }
+
+    private static final class RecordModel extends TypeModel {
+
+        private final MethodHandle constructor;
+        private final String[] names;
+        private final Class<?>[] types;
+
+        private RecordModel(Class<?> type, MethodHandles.Lookup lookup) throws IllegalAccessException, NoSuchMethodException {
+            super(type);
+            String[] componentNames = Records.componentNames(type);
+            this.types = Records.componentTypes(type);
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, types));
+            this.names = new String[componentNames.length];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = normalize(componentNames[i]);
+            }
+        }
+
+        @Override
+        MethodHandle plan(String[] labels) throws SQLException {
+            Map<String, Integer> columns = new HashMap<>(labels.length * 2);
+            for (int i = 0; i < labels.length; i++) {
+                columns.putIfAbsent(labels[i], i + 1);
+            }
+
+            MethodHandle handle = constructor;
+            for (int i = 0; i < names.length; i++) {
+                Integer columnIndex = columns.get(names[i]);
+                if (columnIndex == null) {
+                    throw new SQLException("No column found for record component " + names[i] + " of " + super.type); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                handle = MethodHandles.filterArguments(handle, i, getter(types[i], columnIndex));
+            }
+            // all arguments are now the same result set
+            handle = names.length == 0
+                    ? MethodHandles.dropArguments(handle, 0, ResultSet.class)
+                    : MethodHandles.permuteArguments(handle, MethodType.methodType(handle.type().returnType(), ResultSet.class),
+                            new int[names.length]);
+            return handle.asType(MAPPER_TYPE);
+        }
+    }
+
+    private static final class BeanModel extends TypeModel {
+
+        private static final MethodHandle IDENTITY = MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, ResultSet.class);
+
+        private final MethodHandle constructor;
+        private final Map<String, MethodHandle> setters;
+
+        private BeanModel(Class<?> type, MethodHandles.Lookup lookup) throws IllegalAccessException, NoSuchMethodException {
+            super(type);
+            this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            this.setters = new HashMap<>();
+            for (Method method : type.getMethods()) {
+                if (isSetter(method)) {
+                    String name = normalize(method.getName().substring(3));
+                    MethodHandle setter = lookup.unreflect(method)
+                            .asType(MethodType.methodType(void.class, Object.class, method.getParameterTypes()[0]));
+                    if (setters.putIfAbsent(name, setter) != null) {
+                        throw new IllegalArgumentException("Ambiguous setters for property " + name + " of " + type); //$NON-NLS-1$ //$NON-NLS-2$
+                    }
+                }
+            }
+        }
+
+        private static boolean isSetter(Method method) {
+            return !Modifier.isStatic(method.getModifiers())
+                    && method.getName().length() > 3
+                    && method.getName().startsWith("set") //$NON-NLS-1$
+                    && method.getParameterCount() == 1
+                    && !method.isBridge();
+        }
+
+        @Override
+        MethodHandle plan(String[] labels) {
+            // (ResultSet)Object
+            MethodHandle handle = MethodHandles.dropArguments(constructor, 0, ResultSet.class);
+            Set<String> bound = new HashSet<>();
+            for (int i = 0; i < labels.length; i++) {
+                String name = labels[i];
+                MethodHandle setter = setters.get(name);
+                if (setter != null && bound.add(name)) {
+                    // (Object, ResultSet)void
+                    MethodHandle setColumn = MethodHandles.filterArguments(setter, 1, getter(setter.type().parameterType(1), i + 1));
+                    // (Object, ResultSet)Object, returns the object after calling the setter
+                    MethodHandle step = MethodHandles.foldArguments(IDENTITY, setColumn);
+                    handle = MethodHandles.foldArguments(step, handle);
+                }
+            }
+            return handle;
+        }
+    }
+
+    private static final class GeneratedMapper<T> implements SQLFunction<ResultSet, T> {
+
+        private final TypeModel model;
+        private final MetaDataCache<SQLFunction<ResultSet, Object>> invokers;
+
+        private GeneratedMapper(TypeModel model) {
+            this.model = model;
+            this.invokers = new MetaDataCache<>(model::invoker);
+        }
+
+        @Override
+        public T apply(ResultSet resultSet) throws SQLException {
+            @SuppressWarnings("unchecked")
+            T result = (T) invokers.get(resultSet).apply(resultSet);
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("nls")
+        public String toString() {
+            return SQLRowMappers.class.getSimpleName() + "[type=" + model.type.getName() + "]";
+        }
+    }
+}
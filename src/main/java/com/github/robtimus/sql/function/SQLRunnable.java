@@ -19,6 +19,8 @@ package com.github.robtimus.sql.function;
 
 import java.sql.SQLException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Represents an action that accepts no input and returns no result.
@@ -36,6 +38,20 @@ public interface SQLRunnable {
      */
     void run() throws SQLException;
 
+    /**
+     * Returns a future that is completed after this action has been performed using an executor.
+     * If this action throws an {@link SQLException}, the future completes exceptionally with that exception, without any wrapping.
+     *
+     * @param executor The executor to perform this action on.
+     * @return A future that is completed after this action has been performed.
+     * @throws NullPointerException If {@code executor} is {@code null}.
+     * @see SQLFutures#runAsync(SQLRunnable, Executor)
+     * @since 3.0
+     */
+    default CompletableFuture<Void> async(Executor executor) {
+        return SQLFutures.runAsync(this, executor);
+    }
+
     /**
      * Returns a {@code Runnable} that performs the {@code action} action, and wraps any {@link SQLException} that is thrown in an
      * {@link UncheckedSQLException}.
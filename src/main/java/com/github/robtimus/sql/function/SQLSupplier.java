@@ -19,6 +19,8 @@ package com.github.robtimus.sql.function;
 
 import java.sql.SQLException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 /**
@@ -38,6 +40,20 @@ public interface SQLSupplier<T> {
      */
     T get() throws SQLException;
 
+    /**
+     * Returns a future that is completed with the result of this supplier, which is called using an executor.
+     * If this supplier throws an {@link SQLException}, the future completes exceptionally with that exception, without any wrapping.
+     *
+     * @param executor The executor to call this supplier on.
+     * @return A future that is completed with the result of this supplier.
+     * @throws NullPointerException If {@code executor} is {@code null}.
+     * @see SQLFutures#supplyAsync(SQLSupplier, Executor)
+     * @since 3.0
+     */
+    default CompletableFuture<T> async(Executor executor) {
+        return SQLFutures.supplyAsync(this, executor);
+    }
+
     /**
      * Returns a supplier that returns the result of the {@code supplier} supplier, and wraps any {@link SQLException} that is thrown in an
      * {@link UncheckedSQLException}.
@@ -0,0 +1,458 @@
+/*
+ * SQLTaskScope.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A scope for running SQL operations concurrently, that ends only when all of its operations have ended.
+ * <p>
+ * A scope is opened by the thread that will own it. That thread forks subtasks, each of which runs in its own thread, and then joins the scope
+ * to wait for the subtasks to complete. If any subtask fails, the scope is shut down: subtasks that are still running are cancelled by
+ * interrupting the threads running them, no new subtasks are started, and joining throws the failure. Closing the scope shuts it down as well,
+ * and waits until all threads have ended, so no threads are left running once the scope is closed.
+ * Scopes should therefore be used with try-with-resources:
+ * <pre><code>
+ * try (SQLTaskScope scope = SQLTaskScope.open("dashboard")) {
+ *     SQLTaskScope.Subtask&lt;List&lt;Order&gt;&gt; orders = scope.forkSupplier(() -&gt; findOrders(customerId));
+ *     SQLTaskScope.Subtask&lt;Customer&gt; customer = scope.forkSupplier(() -&gt; findCustomer(customerId));
+ *
+ *     scope.join();
+ *
+ *     return new Dashboard(customer.get(), orders.get());
+ * }
+ * </code></pre>
+ * <p>
+ * Subtasks run in virtual threads on Java 21 and up, and in platform daemon threads on older Java versions.
+ * Each thread is named after the owner thread, the scope and the index of the subtask, separated by slashes and dashes.
+ * For instance, the second subtask of scope {@code dashboard} opened by thread {@code main} runs in thread {@code main/dashboard-1}.
+ * If a subtask opens a scope of its own, its threads are named after the subtask's thread, which makes the task hierarchy visible in thread dumps.
+ * <p>
+ * Only the owner thread can fork subtasks, join the scope and close the scope. Any thread can shut down the scope.
+ * <p>
+ * If a subtask fails with an {@link SQLException}, that exception is thrown as-is when joining; unchecked exceptions and errors are thrown as-is as
+ * well. Subtasks that fail after the scope has been shut down, for instance because they were cancelled, do not affect the outcome of joining.
+ * <p>
+ * Scopes follow the shut-down-on-failure policy of {@code java.util.concurrent.StructuredTaskScope}. That class is a preview API in Java 21,
+ * which a library cannot depend on, so scopes are implemented directly on top of threads instead, on all Java versions.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLTaskScope implements AutoCloseable {
+
+    private static final String DEFAULT_NAME = "sql-task-scope"; //$NON-NLS-1$
+
+    private final String name;
+    private final Thread owner;
+
+    private final ReentrantLock lock;
+    private final Condition changed;
+
+    private final Set<Thread> threads;
+    private int forkCount;
+    private boolean shutdown;
+    private boolean closed;
+    private Throwable failure;
+
+    private SQLTaskScope(String name) {
+        this.name = name;
+        this.owner = Thread.currentThread();
+
+        this.lock = new ReentrantLock();
+        this.changed = lock.newCondition();
+
+        this.threads = new HashSet<>();
+    }
+
+    /**
+     * Opens a new scope, owned by the current thread.
+     *
+     * @return The opened scope.
+     */
+    public static SQLTaskScope open() {
+        return open(DEFAULT_NAME);
+    }
+
+    /**
+     * Opens a new scope, owned by the current thread.
+     *
+     * @param name The name of the scope, used for naming the threads that run subtasks.
+     * @return The opened scope.
+     * @throws NullPointerException If {@code name} is {@code null}.
+     */
+    public static SQLTaskScope open(String name) {
+        return new SQLTaskScope(Objects.requireNonNull(name));
+    }
+
+    /**
+     * Returns the name of this scope.
+     *
+     * @return The name of this scope.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Starts a subtask that calls a supplier.
+     * If this scope has been shut down, the subtask is not started, and its state remains {@link Subtask.State#UNAVAILABLE}.
+     *
+     * @param <T> The type of result of the supplier.
+     * @param supplier The supplier to call.
+     * @return The started subtask.
+     * @throws NullPointerException If {@code supplier} is {@code null}.
+     * @throws IllegalStateException If the current thread is not the owner of this scope, or if this scope has been closed.
+     */
+    public <T> Subtask<T> forkSupplier(SQLSupplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+        ensureOwnerAndOpen();
+
+        Subtask<T> subtask = new Subtask<>();
+        lock.lock();
+        try {
+            if (!shutdown) {
+                String threadName = owner.getName() + "/" + name + "-" + forkCount++; //$NON-NLS-1$ //$NON-NLS-2$
+                Thread thread = Threads.newThread(threadName, () -> execute(subtask, supplier));
+                threads.add(thread);
+                thread.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return subtask;
+    }
+
+    /**
+     * Starts a subtask that runs an action.
+     * If this scope has been shut down, the subtask is not started, and its state remains {@link Subtask.State#UNAVAILABLE}.
+     *
+     * @param action The action to run.
+     * @return The started subtask.
+     * @throws NullPointerException If {@code action} is {@code null}.
+     * @throws IllegalStateException If the current thread is not the owner of this scope, or if this scope has been closed.
+     */
+    public Subtask<Void> forkRunnable(SQLRunnable action) {
+        Objects.requireNonNull(action);
+        return forkSupplier(SQLFutures.asSupplier(action));
+    }
+
+    private <T> void execute(Subtask<T> subtask, SQLSupplier<? extends T> supplier) {
+        try {
+            subtask.succeed(supplier.get());
+        } catch (SQLException | RuntimeException | Error e) {
+            subtask.fail(e);
+            lock.lock();
+            try {
+                if (!shutdown) {
+                    failure = e;
+                    shutdownLocked();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            lock.lock();
+            try {
+                threads.remove(Thread.currentThread());
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waits until all subtasks have completed, or this scope has been shut down.
+     *
+     * @return This scope.
+     * @throws IllegalStateException If the current thread is not the owner of this scope, or if this scope has been closed.
+     * @throws SQLException If a subtask failed with an {@link SQLException}, or if the current thread is interrupted while waiting.
+     *                          If the current thread is interrupted, this scope is shut down, and the interrupt status of the current thread is
+     *                          restored.
+     */
+    public SQLTaskScope join() throws SQLException {
+        ensureOwnerAndOpen();
+
+        lock.lock();
+        try {
+            while (!threads.isEmpty() && !shutdown) {
+                changed.await();
+            }
+        } catch (InterruptedException e) {
+            shutdownLocked();
+            throw SQLExceptions.interrupted(e);
+        } finally {
+            lock.unlock();
+        }
+        throwFailure();
+        return this;
+    }
+
+    /**
+     * Waits until all subtasks have completed, this scope has been shut down, or a timeout expires.
+     * If the timeout expires, this scope is shut down.
+     *
+     * @param timeout The maximum time to wait.
+     * @return This scope.
+     * @throws NullPointerException If {@code timeout} is {@code null}.
+     * @throws IllegalStateException If the current thread is not the owner of this scope, or if this scope has been closed.
+     * @throws SQLTimeoutException If the timeout expires before all subtasks have completed.
+     * @throws SQLException If a subtask failed with an {@link SQLException}, or if the current thread is interrupted while waiting.
+     *                          If the current thread is interrupted, this scope is shut down, and the interrupt status of the current thread is
+     *                          restored.
+     */
+    public SQLTaskScope join(Duration timeout) throws SQLException {
+        long timeoutNanos = toNanos(timeout);
+        ensureOwnerAndOpen();
+
+        lock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (!threads.isEmpty() && !shutdown) {
+                if (remaining <= 0) {
+                    shutdownLocked();
+                    throw new SQLTimeoutException("Subtasks did not complete within " + timeout); //$NON-NLS-1$
+                }
+                remaining = changed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            shutdownLocked();
+            throw SQLExceptions.interrupted(e);
+        } finally {
+            lock.unlock();
+        }
+        throwFailure();
+        return this;
+    }
+
+    private static long toNanos(Duration timeout) {
+        try {
+            return timeout.toNanos();
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return timeout.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private void throwFailure() throws SQLException {
+        Throwable error;
+        lock.lock();
+        try {
+            error = failure;
+        } finally {
+            lock.unlock();
+        }
+        if (error != null) {
+            throw SQLExceptions.toSQLException(error);
+        }
+    }
+
+    /**
+     * Shuts down this scope.
+     * Subtasks that are still running are cancelled by interrupting the threads running them, and no new subtasks are started.
+     * If the owner thread is waiting in {@link #join()} or {@link #join(Duration)}, it stops waiting.
+     * <p>
+     * This method has no effect if this scope has already been shut down.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdownLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void shutdownLocked() {
+        if (!shutdown) {
+            shutdown = true;
+            Thread current = Thread.currentThread();
+            for (Thread thread : threads) {
+                if (thread != current) {
+                    thread.interrupt();
+                }
+            }
+            changed.signalAll();
+        }
+    }
+
+    /**
+     * Returns whether or not this scope has been shut down.
+     *
+     * @return {@code true} if this scope has been shut down, or {@code false} otherwise.
+     */
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes this scope.
+     * This scope is shut down, and this method waits until all threads that run subtasks have ended.
+     * If the current thread is interrupted while waiting, it keeps waiting, and its interrupt status is restored afterwards.
+     * <p>
+     * This method has no effect if this scope has already been closed.
+     *
+     * @throws IllegalStateException If the current thread is not the owner of this scope.
+     */
+    @Override
+    public void close() {
+        ensureOwner();
+
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            shutdownLocked();
+            while (!threads.isEmpty()) {
+                try {
+                    changed.await();
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void ensureOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Current thread is not the owner of scope " + name); //$NON-NLS-1$
+        }
+    }
+
+    private void ensureOwnerAndOpen() {
+        ensureOwner();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Scope " + name + " has been closed"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("nls")
+    public String toString() {
+        return getClass().getSimpleName() + "[name=" + name + ",owner=" + owner.getName() + "]";
+    }
+
+    /**
+     * A subtask forked in an {@link SQLTaskScope}.
+     *
+     * @author Rob Spoor
+     * @param <T> The type of result of the subtask.
+     * @since 3.0
+     */
+    public static final class Subtask<T> {
+
+        /**
+         * The possible states of a subtask.
+         *
+         * @author Rob Spoor
+         * @since 3.0
+         */
+        public enum State {
+            /** Indicates the subtask has not completed yet, or was not started because its scope had been shut down. */
+            UNAVAILABLE,
+            /** Indicates the subtask completed successfully. */
+            SUCCESS,
+            /** Indicates the subtask failed. */
+            FAILED
+        }
+
+        private volatile State state;
+        private volatile T result;
+        private volatile Throwable exception;
+
+        private Subtask() {
+            state = State.UNAVAILABLE;
+        }
+
+        private void succeed(T value) {
+            result = value;
+            state = State.SUCCESS;
+        }
+
+        private void fail(Throwable e) {
+            exception = e;
+            state = State.FAILED;
+        }
+
+        /**
+         * Returns the state of this subtask.
+         *
+         * @return The state of this subtask.
+         */
+        public State state() {
+            return state;
+        }
+
+        /**
+         * Returns the result of this subtask.
+         *
+         * @return The result of this subtask.
+         * @throws IllegalStateException If this subtask did not complete successfully.
+         */
+        public T get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("Subtask did not complete successfully; state: " + state); //$NON-NLS-1$
+            }
+            return result;
+        }
+
+        /**
+         * Returns the exception that this subtask failed with.
+         *
+         * @return The exception that this subtask failed with; an {@link SQLException}, unchecked exception or error.
+         * @throws IllegalStateException If this subtask did not fail.
+         */
+        public Throwable exception() {
+            if (state != State.FAILED) {
+                throw new IllegalStateException("Subtask did not fail; state: " + state); //$NON-NLS-1$
+            }
+            return exception;
+        }
+
+        @Override
+        @SuppressWarnings("nls")
+        public String toString() {
+            return getClass().getSimpleName() + "[state=" + state + "]";
+        }
+    }
+}
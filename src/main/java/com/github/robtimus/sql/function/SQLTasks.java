@@ -0,0 +1,316 @@
+/*
+ * SQLTasks.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Utility methods for running independent SQL operations concurrently.
+ * <p>
+ * Each operation runs in its own thread. On Java 21 and up these are virtual threads; on older Java versions these are platform daemon threads.
+ * The number of operations that run at the same time can be limited, for instance to the maximum size of the connection pool that the operations
+ * obtain their connections from. Without a limit, all operations are started immediately.
+ * <p>
+ * All methods block until every started operation has ended; no threads are left running after a method returns or throws an exception.
+ * Operations that are no longer needed are cancelled by interrupting the thread running them. Whether that stops the operation depends on the
+ * JDBC driver. Operations that have not been started yet when this happens are never started.
+ * <p>
+ * If an operation fails with an {@link SQLException}, that exception is thrown as-is; unchecked exceptions and errors are thrown as-is as well.
+ * Failures of other operations are added as {@link Throwable#addSuppressed(Throwable) suppressed} exceptions to the thrown exception.
+ * If the calling thread is interrupted while waiting, all operations are cancelled, and an {@link SQLException} is thrown with the
+ * {@link InterruptedException} as cause. The interrupt status of the calling thread is restored in that case.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLTasks {
+
+    private SQLTasks() {
+    }
+
+    /**
+     * Calls several suppliers concurrently, and returns their results.
+     * If any supplier fails, all other suppliers are cancelled.
+     *
+     * @param <T> The type of results supplied by the suppliers.
+     * @param suppliers The suppliers to call.
+     * @return A list with the results of the suppliers, in the iteration order of the given collection.
+     * @throws NullPointerException If {@code suppliers} is {@code null} or contains {@code null} elements.
+     * @throws SQLException If any supplier fails with an {@link SQLException}, or if the current thread is interrupted while waiting.
+     */
+    public static <T> List<T> invokeAll(Collection<? extends SQLSupplier<? extends T>> suppliers) throws SQLException {
+        return invokeAll(suppliers, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Calls several suppliers concurrently, and returns their results.
+     * If any supplier fails, all other suppliers are cancelled.
+     *
+     * @param <T> The type of results supplied by the suppliers.
+     * @param suppliers The suppliers to call.
+     * @param maxConcurrency The maximum number of suppliers to call at the same time.
+     * @return A list with the results of the suppliers, in the iteration order of the given collection.
+     * @throws NullPointerException If {@code suppliers} is {@code null} or contains {@code null} elements.
+     * @throws IllegalArgumentException If {@code maxConcurrency} is not positive.
+     * @throws SQLException If any supplier fails with an {@link SQLException}, or if the current thread is interrupted while waiting.
+     */
+    public static <T> List<T> invokeAll(Collection<? extends SQLSupplier<? extends T>> suppliers, int maxConcurrency) throws SQLException {
+        List<SQLSupplier<? extends T>> tasks = copyOf(suppliers);
+        FanOut fanOut = new FanOut(maxConcurrency, false);
+
+        Object[] results = new Object[tasks.size()];
+        for (int i = 0; i < results.length && !fanOut.isStopped(); i++) {
+            int index = i;
+            SQLSupplier<? extends T> task = tasks.get(i);
+            fanOut.fork(i, () -> {
+                results[index] = task.get();
+                return null;
+            });
+        }
+        fanOut.join();
+        fanOut.throwFailure();
+
+        @SuppressWarnings("unchecked")
+        List<T> result = (List<T>) Arrays.asList(results);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Runs several actions concurrently.
+     * If any action fails, all other actions are cancelled.
+     *
+     * @param actions The actions to run.
+     * @throws NullPointerException If {@code actions} is {@code null} or contains {@code null} elements.
+     * @throws SQLException If any action fails with an {@link SQLException}, or if the current thread is interrupted while waiting.
+     */
+    public static void runAll(Collection<? extends SQLRunnable> actions) throws SQLException {
+        runAll(actions, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Runs several actions concurrently.
+     * If any action fails, all other actions are cancelled.
+     *
+     * @param actions The actions to run.
+     * @param maxConcurrency The maximum number of actions to run at the same time.
+     * @throws NullPointerException If {@code actions} is {@code null} or contains {@code null} elements.
+     * @throws IllegalArgumentException If {@code maxConcurrency} is not positive.
+     * @throws SQLException If any action fails with an {@link SQLException}, or if the current thread is interrupted while waiting.
+     */
+    public static void runAll(Collection<? extends SQLRunnable> actions, int maxConcurrency) throws SQLException {
+        List<SQLRunnable> tasks = copyOf(actions);
+        FanOut fanOut = new FanOut(maxConcurrency, false);
+
+        for (int i = 0; i < tasks.size() && !fanOut.isStopped(); i++) {
+            fanOut.fork(i, SQLFutures.asSupplier(tasks.get(i)));
+        }
+        fanOut.join();
+        fanOut.throwFailure();
+    }
+
+    /**
+     * Calls several suppliers concurrently, and returns the result of the first one that succeeds.
+     * Once a supplier succeeds, all other suppliers are cancelled.
+     *
+     * @param <T> The type of results supplied by the suppliers.
+     * @param suppliers The suppliers to call.
+     * @return The result of the first supplier that succeeds.
+     * @throws NullPointerException If {@code suppliers} is {@code null} or contains {@code null} elements.
+     * @throws IllegalArgumentException If {@code suppliers} is empty.
+     * @throws SQLException If all suppliers fail, or if the current thread is interrupted while waiting.
+     *                          If all suppliers fail, the first failure is thrown.
+     */
+    public static <T> T invokeAny(Collection<? extends SQLSupplier<? extends T>> suppliers) throws SQLException {
+        return invokeAny(suppliers, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Calls several suppliers concurrently, and returns the result of the first one that succeeds.
+     * Once a supplier succeeds, all other suppliers are cancelled.
+     *
+     * @param <T> The type of results supplied by the suppliers.
+     * @param suppliers The suppliers to call.
+     * @param maxConcurrency The maximum number of suppliers to call at the same time.
+     * @return The result of the first supplier that succeeds.
+     * @throws NullPointerException If {@code suppliers} is {@code null} or contains {@code null} elements.
+     * @throws IllegalArgumentException If {@code suppliers} is empty, or if {@code maxConcurrency} is not positive.
+     * @throws SQLException If all suppliers fail, or if the current thread is interrupted while waiting.
+     *                          If all suppliers fail, the first failure is thrown.
+     */
+    public static <T> T invokeAny(Collection<? extends SQLSupplier<? extends T>> suppliers, int maxConcurrency) throws SQLException {
+        List<SQLSupplier<? extends T>> tasks = copyOf(suppliers);
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("no suppliers given"); //$NON-NLS-1$
+        }
+        FanOut fanOut = new FanOut(maxConcurrency, true);
+
+        for (int i = 0; i < tasks.size() && !fanOut.isStopped(); i++) {
+            fanOut.fork(i, tasks.get(i));
+        }
+        fanOut.join();
+        if (fanOut.succeeded && fanOut.interrupted == null) {
+            @SuppressWarnings("unchecked")
+            T result = (T) fanOut.result;
+            return result;
+        }
+        fanOut.throwFailure();
+        // throwFailure always throws an exception if no supplier succeeded
+        throw new IllegalStateException();
+    }
+
+    private static <E> List<E> copyOf(Collection<? extends E> elements) {
+        List<E> result = new ArrayList<>(elements);
+        result.forEach(Objects::requireNonNull);
+        return result;
+    }
+
+    private static final class FanOut {
+
+        private final Semaphore permits;
+        private final boolean stopOnSuccess;
+
+        private final List<Thread> threads = new ArrayList<>();
+        private boolean stopped;
+        private Throwable failure;
+        private InterruptedException interrupted;
+
+        private boolean succeeded;
+        private Object result;
+
+        private FanOut(int maxConcurrency, boolean stopOnSuccess) {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException(maxConcurrency + " <= 0"); //$NON-NLS-1$
+            }
+            this.permits = new Semaphore(maxConcurrency);
+            this.stopOnSuccess = stopOnSuccess;
+        }
+
+        private synchronized boolean isStopped() {
+            return stopped;
+        }
+
+        private void fork(int index, SQLSupplier<?> task) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    interrupted = e;
+                    stop();
+                }
+                return;
+            }
+            synchronized (this) {
+                if (stopped) {
+                    permits.release();
+                    return;
+                }
+                Thread thread = Threads.newThread("sql-task-" + index, () -> execute(task)); //$NON-NLS-1$
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        private void execute(SQLSupplier<?> task) {
+            try {
+                Object value = task.get();
+                succeed(value);
+            } catch (SQLException | RuntimeException | Error e) {
+                fail(e);
+            } finally {
+                permits.release();
+            }
+        }
+
+        private synchronized void succeed(Object value) {
+            if (stopOnSuccess && !succeeded) {
+                succeeded = true;
+                result = value;
+                stop();
+            }
+        }
+
+        private synchronized void fail(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            } else if (failure != e) {
+                failure.addSuppressed(e);
+            }
+            if (!stopOnSuccess) {
+                stop();
+            }
+        }
+
+        private void stop() {
+            if (!stopped) {
+                stopped = true;
+                Thread current = Thread.currentThread();
+                for (Thread thread : threads) {
+                    if (thread != current) {
+                        thread.interrupt();
+                    }
+                }
+            }
+        }
+
+        private void join() {
+            List<Thread> started;
+            synchronized (this) {
+                started = new ArrayList<>(threads);
+            }
+            for (Thread thread : started) {
+                joinUninterruptibly(thread);
+            }
+        }
+
+        private void joinUninterruptibly(Thread thread) {
+            while (true) {
+                try {
+                    thread.join();
+                    return;
+                } catch (InterruptedException e) {
+                    synchronized (this) {
+                        if (interrupted == null) {
+                            interrupted = e;
+                        }
+                        stop();
+                    }
+                }
+            }
+        }
+
+        private synchronized void throwFailure() throws SQLException {
+            if (interrupted != null) {
+                SQLException exception = SQLExceptions.interrupted(interrupted);
+                if (failure != null) {
+                    exception.addSuppressed(failure);
+                }
+                throw exception;
+            }
+            if (failure != null) {
+                throw SQLExceptions.toSQLException(failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * SQLTimeout.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A client-side timeout for SQL operations on {@link Statement Statements}.
+ * When a decorated operation does not complete within the timeout, the statement it runs on is {@link Statement#cancel() cancelled}, and the
+ * operation throws an {@link SQLTimeoutException}.
+ * <p>
+ * Unlike {@link Statement#setQueryTimeout(int)}, the timeout is not limited to whole seconds, and it does not depend on the JDBC driver
+ * enforcing it. It does depend on the JDBC driver supporting {@link Statement#cancel()}.
+ * <p>
+ * Timeouts are tracked using a {@link ScheduledExecutorService}. Statements are cancelled on the scheduler's threads, so a scheduler with a
+ * single thread can delay other timeouts while a statement is being cancelled. If that is an issue, use a scheduler with more threads.
+ *
+ * @author Rob Spoor
+ * @since 3.0
+ */
+public final class SQLTimeout {
+
+    private final long timeoutNanos;
+    private final ScheduledExecutorService scheduler;
+
+    private SQLTimeout(long timeoutNanos, ScheduledExecutorService scheduler) {
+        this.timeoutNanos = timeoutNanos;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns a timeout that uses a shared scheduler.
+     * The shared scheduler uses a single daemon thread.
+     *
+     * @param timeout The maximum duration of decorated operations.
+     * @return A timeout that uses a shared scheduler.
+     * @throws NullPointerException If {@code timeout} is {@code null}.
+     * @throws IllegalArgumentException If {@code timeout} is not positive.
+     */
+    public static SQLTimeout of(Duration timeout) {
+        return of(timeout, sharedScheduler());
+    }
+
+    static ScheduledExecutorService sharedScheduler() {
+        return SharedScheduler.INSTANCE;
+    }
+
+    /**
+     * Returns a timeout that uses a specific scheduler.
+     *
+     * @param timeout The maximum duration of decorated operations.
+     * @param scheduler The scheduler to use for tracking timeouts.
+     * @return A timeout that uses the given scheduler.
+     * @throws NullPointerException If {@code timeout} or {@code scheduler} is {@code null}.
+     * @throws IllegalArgumentException If {@code timeout} is not positive.
+     */
+    public static SQLTimeout of(Duration timeout, ScheduledExecutorService scheduler) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException(timeout + " <= 0"); //$NON-NLS-1$
+        }
+        Objects.requireNonNull(scheduler);
+        return new SQLTimeout(saturatedNanos(timeout), scheduler);
+    }
+
+    private static long saturatedNanos(Duration timeout) {
+        try {
+            return timeout.toNanos();
+        } catch (@SuppressWarnings("unused") ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the maximum duration of decorated operations.
+     *
+     * @return The maximum duration of decorated operations.
+     */
+    public Duration timeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    /**
+     * Returns a function that applies the {@code function} function to its input, and cancels the input if that does not complete within this
+     * timeout.
+     *
+     * @param <S> The type of statement the function operates on.
+     * @param <R> The type of the result of the function.
+     * @param function The function to apply.
+     * @return A function that applies the {@code function} function to its input, and cancels the input if that does not complete within this
+     *         timeout. If the timeout expires, the returned function throws an {@link SQLTimeoutException}.
+     * @throws NullPointerException If {@code function} is {@code null}.
+     */
+    public <S extends Statement, R> SQLFunction<S, R> cancelling(SQLFunction<? super S, ? extends R> function) {
+        Objects.requireNonNull(function);
+        return statement -> call(statement, () -> function.apply(statement), timeoutNanos, scheduler);
+    }
+
+    /**
+     * Returns a supplier that returns the result of the {@code supplier} supplier, and cancels the given statement if that does not complete
+     * within this timeout. The supplier should perform its work on the given statement.
+     *
+     * @param <R> The type of results supplied by the supplier.
+     * @param statement The statement to cancel if the timeout expires.
+     * @param supplier The supplier that will provide results for the returned supplier.
+     * @return A supplier that returns the result of the {@code supplier} supplier, and cancels the given statement if that does not complete
+     *         within this timeout. If the timeout expires, the returned supplier throws an {@link SQLTimeoutException}.
+     * @throws NullPointerException If {@code statement} or {@code supplier} is {@code null}.
+     */
+    public <R> SQLSupplier<R> cancelling(Statement statement, SQLSupplier<? extends R> supplier) {
+        Objects.requireNonNull(statement);
+        Objects.requireNonNull(supplier);
+        return () -> call(statement, supplier, timeoutNanos, scheduler);
+    }
+
+    static <R> R call(Statement statement, SQLSupplier<? extends R> supplier, long timeoutNanos, ScheduledExecutorService scheduler)
+            throws SQLException {
+
+        Cancellation cancellation = new Cancellation(statement);
+        cancellation.schedule(scheduler, timeoutNanos);
+
+        R result;
+        try {
+            result = supplier.get();
+        } catch (SQLException e) {
+            if (cancellation.complete()) {
+                throw e;
+            }
+            throw timeoutException(timeoutNanos, e);
+        } catch (RuntimeException | Error e) {
+            cancellation.complete();
+            throw e;
+        }
+        if (cancellation.complete()) {
+            return result;
+        }
+        throw timeoutException(timeoutNanos, null);
+    }
+
+    private static SQLTimeoutException timeoutException(long timeoutNanos, SQLException cause) {
+        return new SQLTimeoutException("Operation timed out after " + Duration.ofNanos(timeoutNanos), cause); //$NON-NLS-1$
+    }
+
+    private static final class Cancellation implements Runnable {
+
+        private static final int RUNNING = 0;
+        private static final int COMPLETED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Statement statement;
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private ScheduledFuture<?> future;
+
+        private Cancellation(Statement statement) {
+            this.statement = statement;
+        }
+
+        private void schedule(ScheduledExecutorService scheduler, long timeoutNanos) {
+            future = scheduler.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            if (state.compareAndSet(RUNNING, CANCELLED)) {
+                try {
+                    statement.cancel();
+                } catch (@SuppressWarnings("unused") SQLException e) {
+                    // The operation will still fail with a timeout
+                }
+            }
+        }
+
+        /**
+         * Marks the operation as completed.
+         * If the timeout has already expired, this method waits until the statement has been cancelled,
+         * so the cancellation cannot affect a later execution of the same statement.
+         *
+         * @return {@code true} if the operation completed before the timeout expired, or {@code false} otherwise.
+         */
+        private boolean complete() {
+            if (state.compareAndSet(RUNNING, COMPLETED)) {
+                future.cancel(false);
+                return true;
+            }
+            awaitCancellation();
+            return false;
+        }
+
+        private void awaitCancellation() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    interrupted = true;
+                } catch (@SuppressWarnings("unused") ExecutionException e) {
+                    break;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class SharedScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = createScheduler();
+
+        private SharedScheduler() {
+        }
+
+        private static ScheduledExecutorService createScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "sql-timeout"); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Threads.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Utility methods for creating threads for short-lived SQL tasks.
+ * On Java versions that support virtual threads, virtual threads are created. On other Java versions, platform daemon threads are created.
+ *
+ * @author Rob Spoor
+ */
+final class Threads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual"); //$NON-NLS-1$
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder"); //$NON-NLS-1$
+            name = builderClass.getMethod("name", String.class); //$NON-NLS-1$
+            unstarted = builderClass.getMethod("unstarted", Runnable.class); //$NON-NLS-1$
+            // On Java 19 and 20 virtual threads are a preview feature, and creating a builder fails if preview features are not enabled
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private Threads() {
+    }
+
+    /**
+     * Returns whether or not {@link #newThread(String, Runnable)} creates virtual threads.
+     *
+     * @return {@code true} if {@link #newThread(String, Runnable)} creates virtual threads, or {@code false} otherwise.
+     */
+    static boolean virtual() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a new unstarted thread.
+     *
+     * @param name The name of the thread.
+     * @param task The task to run.
+     * @return The created thread.
+     */
+    static Thread newThread(String name, Runnable task) {
+        if (OF_VIRTUAL != null) {
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                NAME.invoke(builder, name);
+                return (Thread) UNSTARTED.invoke(builder, task);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
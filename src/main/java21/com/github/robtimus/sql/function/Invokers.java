@@ -0,0 +1,167 @@
+/*
+ * Invokers.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Utility methods for invoking the method handles of generated row mappers and parameter binders.
+ * This version is used on Java 21 and up. For each method handle it defines a hidden class from the bytes of {@link MapperInvoker} or
+ * {@link BinderInvoker}, with the method handle as class data. The hidden class stores the method handle in a static final field, which the
+ * JIT compiler treats as a constant. If the template bytes are not available, each method handle is invoked through a final instance field.
+ *
+ * @author Rob Spoor
+ */
+final class Invokers {
+
+    private static final byte[] MAPPER_TEMPLATE = readTemplate("MapperInvoker.class"); //$NON-NLS-1$
+    private static final byte[] BINDER_TEMPLATE = readTemplate("BinderInvoker.class"); //$NON-NLS-1$
+
+    private Invokers() {
+    }
+
+    /**
+     * Returns a row mapper that invokes a method handle.
+     *
+     * @param plan The method handle to invoke, of type {@code (ResultSet)Object}.
+     * @return A row mapper that invokes the given method handle.
+     */
+    @SuppressWarnings("unchecked")
+    static SQLFunction<ResultSet, Object> mapper(MethodHandle plan) {
+        return MAPPER_TEMPLATE != null
+                ? (SQLFunction<ResultSet, Object>) newInstance(MAPPER_TEMPLATE, plan)
+                : fieldMapper(plan);
+    }
+
+    /**
+     * Returns a parameter binder that invokes a method handle.
+     *
+     * @param plan The method handle to invoke, of type {@code (PreparedStatement, Object)void}.
+     * @return A parameter binder that invokes the given method handle.
+     */
+    @SuppressWarnings("unchecked")
+    static SQLBiConsumer<PreparedStatement, Object> binder(MethodHandle plan) {
+        return BINDER_TEMPLATE != null
+                ? (SQLBiConsumer<PreparedStatement, Object>) newInstance(BINDER_TEMPLATE, plan)
+                : fieldBinder(plan);
+    }
+
+    /**
+     * Returns a row mapper that invokes a method handle through a final instance field.
+     * Unlike {@link #mapper(MethodHandle)} this never defines a class, so it should be used for method handles that are not cached.
+     *
+     * @param plan The method handle to invoke, of type {@code (ResultSet)Object}.
+     * @return A row mapper that invokes the given method handle.
+     */
+    static SQLFunction<ResultSet, Object> fieldMapper(MethodHandle plan) {
+        return new FieldMapper(plan);
+    }
+
+    /**
+     * Returns a parameter binder that invokes a method handle through a final instance field.
+     * Unlike {@link #binder(MethodHandle)} this never defines a class, so it should be used for method handles that are not cached.
+     *
+     * @param plan The method handle to invoke, of type {@code (PreparedStatement, Object)void}.
+     * @return A parameter binder that invokes the given method handle.
+     */
+    static SQLBiConsumer<PreparedStatement, Object> fieldBinder(MethodHandle plan) {
+        return new FieldBinder(plan);
+    }
+
+    /**
+     * Returns the method handle of a hidden class defined by this class.
+     *
+     * @param lookup The lookup of the hidden class.
+     * @return The method handle that was passed as class data for the hidden class.
+     */
+    static MethodHandle classData(MethodHandles.Lookup lookup) {
+        try {
+            return MethodHandles.classData(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object newInstance(byte[] template, MethodHandle plan) {
+        try {
+            // not STRONG, so the hidden class can be unloaded once the returned object is no longer used
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClassWithClassData(template, plan, true);
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] readTemplate(String name) {
+        try (InputStream input = Invokers.class.getResourceAsStream(name)) {
+            return input != null ? input.readAllBytes() : null;
+        } catch (@SuppressWarnings("unused") IOException e) {
+            return null;
+        }
+    }
+
+    private static final class FieldMapper implements SQLFunction<ResultSet, Object> {
+
+        private final MethodHandle plan;
+
+        private FieldMapper(MethodHandle plan) {
+            this.plan = plan;
+        }
+
+        @Override
+        public Object apply(ResultSet resultSet) throws SQLException {
+            try {
+                return (Object) plan.invokeExact(resultSet);
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    private static final class FieldBinder implements SQLBiConsumer<PreparedStatement, Object> {
+
+        private final MethodHandle plan;
+
+        private FieldBinder(MethodHandle plan) {
+            this.plan = plan;
+        }
+
+        @Override
+        public void accept(PreparedStatement statement, Object value) throws SQLException {
+            try {
+                plan.invokeExact(statement, value);
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+}
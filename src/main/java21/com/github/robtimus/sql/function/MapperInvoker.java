@@ -0,0 +1,48 @@
+/*
+ * MapperInvoker.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The template for hidden classes that invoke the method handle of a generated row mapper.
+ * This class is never loaded itself; {@link Invokers} defines hidden classes from its bytes, with the method handle as class data.
+ *
+ * @author Rob Spoor
+ */
+final class MapperInvoker implements SQLFunction<ResultSet, Object> {
+
+    private static final MethodHandle PLAN = Invokers.classData(MethodHandles.lookup());
+
+    private MapperInvoker() {
+    }
+
+    @Override
+    public Object apply(ResultSet resultSet) throws SQLException {
+        try {
+            return (Object) PLAN.invokeExact(resultSet);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SQLException(e);
+        }
+    }
+}
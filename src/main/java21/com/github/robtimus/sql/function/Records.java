@@ -0,0 +1,95 @@
+/*
+ * Records.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Utility methods for inspecting record classes.
+ * This version is used on Java 21 and up, and inspects record classes directly.
+ *
+ * @author Rob Spoor
+ */
+final class Records {
+
+    private Records() {
+    }
+
+    /**
+     * Returns whether or not a class is a record class.
+     *
+     * @param type The class to check.
+     * @return {@code true} if the given class is a record class, or {@code false} otherwise.
+     */
+    static boolean isRecord(Class<?> type) {
+        return type.isRecord();
+    }
+
+    /**
+     * Returns the names of the components of a record class.
+     *
+     * @param type The record class.
+     * @return The names of the components of the given record class, in declaration order.
+     */
+    static String[] componentNames(Class<?> type) {
+        RecordComponent[] components = components(type);
+        String[] names = new String[components.length];
+        for (int i = 0; i < components.length; i++) {
+            names[i] = components[i].getName();
+        }
+        return names;
+    }
+
+    /**
+     * Returns the types of the components of a record class.
+     *
+     * @param type The record class.
+     * @return The types of the components of the given record class, in declaration order.
+     */
+    static Class<?>[] componentTypes(Class<?> type) {
+        RecordComponent[] components = components(type);
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+        }
+        return types;
+    }
+
+    /**
+     * Returns the accessor methods of the components of a record class.
+     *
+     * @param type The record class.
+     * @return The accessor methods of the components of the given record class, in declaration order.
+     */
+    static Method[] accessors(Class<?> type) {
+        RecordComponent[] components = components(type);
+        Method[] accessors = new Method[components.length];
+        for (int i = 0; i < components.length; i++) {
+            accessors[i] = components[i].getAccessor();
+        }
+        return accessors;
+    }
+
+    private static RecordComponent[] components(Class<?> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(type + " is not a record class"); //$NON-NLS-1$
+        }
+        return type.getRecordComponents();
+    }
+}
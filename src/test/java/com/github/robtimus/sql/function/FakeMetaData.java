@@ -0,0 +1,52 @@
+/*
+ * FakeMetaData.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSetMetaData;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SuppressWarnings("nls")
+final class FakeMetaData {
+
+    final List<String> labels;
+    final AtomicInteger labelLookups = new AtomicInteger();
+
+    private final ResultSetMetaData proxy;
+
+    FakeMetaData(List<String> labels) {
+        this.labels = labels;
+        this.proxy = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                new Class<?>[] { ResultSetMetaData.class }, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return labels.size();
+                        case "getColumnLabel":
+                            labelLookups.incrementAndGet();
+                            return labels.get((Integer) args[0] - 1);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    ResultSetMetaData proxy() {
+        return proxy;
+    }
+}
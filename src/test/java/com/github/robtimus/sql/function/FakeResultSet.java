@@ -0,0 +1,123 @@
+/*
+ * FakeResultSet.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Columns can only be read by index, so tests fail if code reads columns by label
+@SuppressWarnings("nls")
+final class FakeResultSet {
+
+    final FakeMetaData metaData;
+    final AtomicInteger rowsRead = new AtomicInteger();
+    final AtomicInteger metaDataCalls = new AtomicInteger();
+    final List<Integer> fetchSizes = Collections.synchronizedList(new ArrayList<>());
+    volatile boolean closed;
+
+    private final List<? extends List<?>> rows;
+    private final ResultSet proxy;
+
+    // only accessed by the thread that reads the result set
+    private int index = -1;
+    private boolean wasNull;
+
+    FakeResultSet(List<String> labels, List<?>... rows) {
+        this(new FakeMetaData(labels), rows);
+    }
+
+    FakeResultSet(FakeMetaData metaData, List<?>... rows) {
+        this(metaData, List.of(rows));
+    }
+
+    private FakeResultSet(FakeMetaData metaData, List<? extends List<?>> rows) {
+        this.metaData = metaData;
+        this.rows = rows;
+        this.proxy = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            if (index + 1 < this.rows.size()) {
+                                index++;
+                                rowsRead.incrementAndGet();
+                                return true;
+                            }
+                            return false;
+                        case "getMetaData":
+                            metaDataCalls.incrementAndGet();
+                            return metaData.proxy();
+                        case "wasNull":
+                            return wasNull;
+                        case "getInt":
+                            return value(args, 0);
+                        case "getLong":
+                            return value(args, 0L);
+                        case "getDouble":
+                            return value(args, 0D);
+                        case "getBoolean":
+                            return value(args, false);
+                        case "getString":
+                        case "getBigDecimal":
+                        case "getObject":
+                            return value(args, null);
+                        case "setFetchSize":
+                            fetchSizes.add((Integer) args[0]);
+                            return null;
+                        case "close":
+                            closed = true;
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static FakeResultSet ofInts(List<Integer> values) {
+        List<List<Integer>> rows = values.stream()
+                .map(List::of)
+                .collect(Collectors.toList());
+        return new FakeResultSet(new FakeMetaData(List.of("value")), rows);
+    }
+
+    private Object value(Object[] args, Object nullValue) {
+        if (!(args[0] instanceof Integer)) {
+            throw new UnsupportedOperationException("get by label");
+        }
+        Object value = rows.get(index).get((Integer) args[0] - 1);
+        wasNull = value == null;
+        return wasNull ? nullValue : value;
+    }
+
+    ResultSet proxy() {
+        return proxy;
+    }
+
+    <T> List<T> mapAll(SQLFunction<ResultSet, T> mapper) throws SQLException {
+        List<T> result = new ArrayList<>();
+        while (proxy.next()) {
+            result.add(mapper.apply(proxy));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * FakeStatement.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Records the calls to the statement and its connection as lists of the method name followed by the arguments
+@SuppressWarnings("nls")
+final class FakeStatement {
+
+    final List<List<Object>> calls = new ArrayList<>();
+
+    private final Map<String, SQLException> failures = new HashMap<>();
+    private final PreparedStatement proxy;
+
+    FakeStatement() {
+        this(true);
+    }
+
+    FakeStatement(boolean autoCommit) {
+        Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAutoCommit":
+                            return autoCommit;
+                        case "commit":
+                        case "rollback":
+                            return record(method, args, null);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (p, method, args) -> {
+                    if (method.getName().startsWith("set") || "addBatch".equals(method.getName())) {
+                        return record(method, args, null);
+                    }
+                    switch (method.getName()) {
+                        case "executeBatch":
+                            return record(method, args, new int[0]);
+                        case "getConnection":
+                            return connection;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static List<Object> call(String methodName, Object... args) {
+        List<Object> call = new ArrayList<>();
+        call.add(methodName);
+        call.addAll(Arrays.asList(args));
+        return call;
+    }
+
+    void failOn(String methodName, SQLException failure) {
+        failures.put(methodName, failure);
+    }
+
+    private Object record(Method method, Object[] args, Object result) throws SQLException {
+        calls.add(call(method.getName(), args == null ? new Object[0] : args));
+        SQLException failure = failures.get(method.getName());
+        if (failure != null) {
+            throw failure;
+        }
+        return result;
+    }
+
+    PreparedStatement proxy() {
+        return proxy;
+    }
+}
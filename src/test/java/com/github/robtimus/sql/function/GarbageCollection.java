@@ -0,0 +1,42 @@
+/*
+ * GarbageCollection.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import java.lang.ref.Reference;
+import java.util.function.BooleanSupplier;
+
+final class GarbageCollection {
+
+    // Tests that depend on the garbage collector are tagged with this tag, so they can be excluded using -DexcludedGroups=gc
+    static final String TAG = "gc"; //$NON-NLS-1$
+
+    private GarbageCollection() {
+    }
+
+    static boolean awaitCleared(Reference<?> reference) throws InterruptedException {
+        return await(() -> reference.get() == null);
+    }
+
+    static boolean await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        return condition.getAsBoolean();
+    }
+}
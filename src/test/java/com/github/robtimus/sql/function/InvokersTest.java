@@ -0,0 +1,98 @@
+/*
+ * InvokersTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class InvokersTest {
+
+    // set when the tests run against the multi-release JAR, which contains the Java 21 layer
+    private static final boolean HIDDEN_CLASSES = Boolean.getBoolean("com.github.robtimus.sql.function.multiRelease")
+            && Runtime.version().feature() >= 21;
+
+    @Test
+    @DisplayName("mapper(MethodHandle)")
+    void testMapper() throws SQLException {
+        MethodHandle plan = MethodHandles.dropArguments(MethodHandles.constant(Object.class, "foo"), 0, ResultSet.class);
+
+        SQLFunction<ResultSet, Object> mapper = Invokers.mapper(plan);
+
+        assertEquals("foo", mapper.apply(null));
+        assertEquals(HIDDEN_CLASSES, isHidden(mapper.getClass()));
+    }
+
+    @Test
+    @DisplayName("binder(MethodHandle)")
+    void testBinder() throws ReflectiveOperationException, SQLException {
+        List<Object> values = new ArrayList<>();
+        MethodHandle add = MethodHandles.lookup().findVirtual(List.class, "add", MethodType.methodType(boolean.class, Object.class))
+                .bindTo(values)
+                .asType(MethodType.methodType(void.class, Object.class));
+        MethodHandle plan = MethodHandles.dropArguments(add, 0, PreparedStatement.class);
+
+        SQLBiConsumer<PreparedStatement, Object> binder = Invokers.binder(plan);
+        binder.accept(null, "foo");
+
+        assertEquals(List.of("foo"), values);
+        assertEquals(HIDDEN_CLASSES, isHidden(binder.getClass()));
+    }
+
+    @Test
+    @DisplayName("fieldMapper(MethodHandle)")
+    void testFieldMapper() throws SQLException {
+        MethodHandle plan = MethodHandles.dropArguments(MethodHandles.constant(Object.class, "foo"), 0, ResultSet.class);
+
+        SQLFunction<ResultSet, Object> mapper = Invokers.fieldMapper(plan);
+
+        assertEquals("foo", mapper.apply(null));
+        assertFalse(isHidden(mapper.getClass()));
+    }
+
+    @Test
+    @DisplayName("fieldBinder(MethodHandle)")
+    void testFieldBinder() throws ReflectiveOperationException, SQLException {
+        List<Object> values = new ArrayList<>();
+        MethodHandle add = MethodHandles.lookup().findVirtual(List.class, "add", MethodType.methodType(boolean.class, Object.class))
+                .bindTo(values)
+                .asType(MethodType.methodType(void.class, Object.class));
+        MethodHandle plan = MethodHandles.dropArguments(add, 0, PreparedStatement.class);
+
+        SQLBiConsumer<PreparedStatement, Object> binder = Invokers.fieldBinder(plan);
+        binder.accept(null, "foo");
+
+        assertEquals(List.of("foo"), values);
+        assertFalse(isHidden(binder.getClass()));
+    }
+
+    private static boolean isHidden(Class<?> c) {
+        // the names of hidden classes contain a slash; Class.isHidden() is not available on Java 11
+        return c.getName().contains("/");
+    }
+}
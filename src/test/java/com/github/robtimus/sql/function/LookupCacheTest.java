@@ -0,0 +1,60 @@
+/*
+ * LookupCacheTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LookupCacheTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final LookupCache<Object> cache = new LookupCache<>((type, lookup) -> {
+        created.incrementAndGet();
+        return new Object();
+    });
+
+    @Test
+    @DisplayName("caches value per class and lookup class")
+    void testCachesValuePerClassAndLookupClass() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        Object value = cache.get(String.class, lookup);
+
+        assertSame(value, cache.get(String.class, lookup));
+        assertSame(value, cache.get(String.class, MethodHandles.lookup()));
+        assertNotSame(value, cache.get(Integer.class, lookup));
+        assertNotSame(value, cache.get(String.class, lookup.in(MetaDataCache.class)));
+        assertEquals(3, created.get());
+    }
+
+    @Test
+    @DisplayName("does not cache values for lookups without module access")
+    void testDoesNotCacheWithoutModuleAccess() {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        Object value = cache.get(String.class, lookup);
+
+        assertNotSame(value, cache.get(String.class, lookup));
+        assertEquals(2, created.get());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * MetaDataCacheTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class MetaDataCacheTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final MetaDataCache<Object> cache = new MetaDataCache<>(metaData -> {
+        created.incrementAndGet();
+        return new Object();
+    });
+
+    @Test
+    @DisplayName("caches value per result set")
+    void testCachesValuePerResultSet() throws SQLException {
+        ResultSet resultSet = new FakeResultSet(List.of("id")).proxy();
+
+        Object value = cache.get(resultSet);
+
+        assertSame(value, cache.get(resultSet));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    @DisplayName("reuses value for same meta data")
+    void testReusesValueForSameMetaData() throws SQLException {
+        FakeMetaData metaData = new FakeMetaData(List.of("id"));
+        FakeResultSet first = new FakeResultSet(metaData);
+        FakeResultSet second = new FakeResultSet(metaData);
+
+        Object value = cache.get(first.proxy());
+
+        assertSame(value, cache.get(second.proxy()));
+        assertEquals(1, created.get());
+        assertEquals(1, second.metaDataCalls.get());
+    }
+
+    @Test
+    @DisplayName("creates value for different meta data")
+    void testCreatesValueForDifferentMetaData() throws SQLException {
+        ResultSet first = new FakeResultSet(List.of("id")).proxy();
+        ResultSet second = new FakeResultSet(List.of("id")).proxy();
+
+        Object value = cache.get(first);
+
+        assertNotSame(value, cache.get(second));
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    @Tag(GarbageCollection.TAG)
+    @DisplayName("does not retain result set")
+    void testDoesNotRetainResultSet() throws SQLException, InterruptedException {
+        ResultSet resultSet = new FakeResultSet(List.of("id")).proxy();
+        WeakReference<ResultSet> reference = new WeakReference<>(resultSet);
+
+        cache.get(resultSet);
+        resultSet = null;
+
+        assertTrue(GarbageCollection.awaitCleared(reference));
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * SQLBatchSubscriberTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static com.github.robtimus.sql.function.FakeStatement.call;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLBatchSubscriberTest {
+
+    private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Nested
+    @DisplayName("create(int, SQLConsumer<? super List<T>>)")
+    class Create {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            assertThrows(IllegalArgumentException.class, () -> SQLBatchSubscriber.<Integer>create(0, batches::add));
+            assertThrows(NullPointerException.class, () -> SQLBatchSubscriber.create(10, null));
+        }
+
+        @Test
+        @DisplayName("toString()")
+        void testToString() {
+            assertEquals("SQLBatchSubscriber[batchSize=10,written=0]", SQLBatchSubscriber.<Integer>create(10, batches::add).toString());
+        }
+
+        @Test
+        @DisplayName("requests per batch")
+        void testRequestsPerBatch() throws SQLException {
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(3, batches::add);
+            TestSubscription subscription = new TestSubscription();
+
+            subscriber.onSubscribe(subscription);
+            assertEquals(List.of(3L), subscription.requests);
+
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+            assertEquals(List.of(), batches);
+            assertEquals(List.of(3L), subscription.requests);
+
+            subscriber.onNext(3);
+            assertEquals(List.of(List.of(1, 2, 3)), batches);
+            assertEquals(List.of(3L, 3L), subscription.requests);
+
+            subscriber.onNext(4);
+            subscriber.onNext(5);
+            assertFalse(subscriber.result().isDone());
+
+            subscriber.onComplete();
+            assertEquals(List.of(List.of(1, 2, 3), List.of(4, 5)), batches);
+            assertEquals(List.of(3L, 3L), subscription.requests);
+            assertEquals(5L, SQLFutures.get(subscriber.result()));
+            assertFalse(subscription.cancelled);
+        }
+
+        @Test
+        @DisplayName("does not request before batch is written")
+        void testDoesNotRequestBeforeBatchIsWritten() {
+            TestSubscription subscription = new TestSubscription();
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(2, items -> {
+                assertEquals(List.of(2L), subscription.requests);
+                batches.add(items);
+            });
+
+            subscriber.onSubscribe(subscription);
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+
+            assertEquals(List.of(List.of(1, 2)), batches);
+            assertEquals(List.of(2L, 2L), subscription.requests);
+        }
+
+        @Test
+        @DisplayName("batch writer throws")
+        void testBatchWriterThrows() {
+            SQLException e = new SQLException("failure");
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(2, items -> {
+                throw e;
+            });
+            TestSubscription subscription = new TestSubscription();
+
+            subscriber.onSubscribe(subscription);
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+            subscriber.onNext(3);
+            subscriber.onComplete();
+
+            assertTrue(subscription.cancelled);
+            assertEquals(List.of(2L), subscription.requests);
+            SQLException exception = assertThrows(SQLException.class, () -> SQLFutures.get(subscriber.result()));
+            assertSame(e, exception);
+        }
+
+        @Test
+        @DisplayName("publisher fails")
+        void testPublisherFails() {
+            IllegalStateException e = new IllegalStateException("failure");
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(3, batches::add);
+
+            subscriber.onSubscribe(new TestSubscription());
+            subscriber.onNext(1);
+            subscriber.onError(e);
+
+            assertEquals(List.of(), batches);
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> SQLFutures.get(subscriber.result()));
+            assertSame(e, exception);
+        }
+
+        @Test
+        @DisplayName("second subscription")
+        void testSecondSubscription() {
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(3, batches::add);
+            TestSubscription subscription = new TestSubscription();
+            TestSubscription second = new TestSubscription();
+
+            subscriber.onSubscribe(subscription);
+            subscriber.onSubscribe(second);
+
+            assertFalse(subscription.cancelled);
+            assertTrue(second.cancelled);
+            assertEquals(List.of(), second.requests);
+        }
+
+        @Test
+        @DisplayName("with SubmissionPublisher")
+        void testWithSubmissionPublisher() throws SQLException {
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(7, batches::add);
+
+            try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+                publisher.subscribe(subscriber);
+                IntStream.rangeClosed(1, 100).forEach(publisher::submit);
+            }
+
+            assertEquals(100L, SQLFutures.get(subscriber.result()));
+            assertTrue(batches.stream().allMatch(batch -> batch.size() <= 7));
+            assertEquals(IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()),
+                    batches.stream().flatMap(List::stream).collect(Collectors.toList()));
+        }
+    }
+
+    @Nested
+    @DisplayName("create(int, PreparedStatement, SQLBiConsumer<? super PreparedStatement, ? super T>)")
+    class CreateWithPreparedStatement {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            PreparedStatement statement = new FakeStatement(true).proxy();
+            SQLBiConsumer<PreparedStatement, Integer> binder = (ps, item) -> ps.setInt(1, item);
+
+            assertThrows(IllegalArgumentException.class, () -> SQLBatchSubscriber.create(0, statement, binder));
+            assertThrows(NullPointerException.class, () -> SQLBatchSubscriber.create(10, null, binder));
+            assertThrows(NullPointerException.class, () -> SQLBatchSubscriber.create(10, statement, null));
+        }
+
+        @Test
+        @DisplayName("auto-commit")
+        void testAutoCommit() throws SQLException {
+            FakeStatement statement = new FakeStatement(true);
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(2, statement.proxy(), (ps, item) -> ps.setInt(1, item));
+
+            subscriber.onSubscribe(new TestSubscription());
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+            subscriber.onNext(3);
+            subscriber.onComplete();
+
+            assertEquals(3L, SQLFutures.get(subscriber.result()));
+            assertEquals(List.of(
+                    call("setInt", 1, 1), call("addBatch"), call("setInt", 1, 2), call("addBatch"), call("executeBatch"),
+                    call("setInt", 1, 3), call("addBatch"), call("executeBatch")), statement.calls);
+        }
+
+        @Test
+        @DisplayName("manual commit")
+        void testManualCommit() throws SQLException {
+            FakeStatement statement = new FakeStatement(false);
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(2, statement.proxy(), (ps, item) -> ps.setInt(1, item));
+
+            subscriber.onSubscribe(new TestSubscription());
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+            subscriber.onNext(3);
+            subscriber.onComplete();
+
+            assertEquals(3L, SQLFutures.get(subscriber.result()));
+            assertEquals(List.of(
+                    call("setInt", 1, 1), call("addBatch"), call("setInt", 1, 2), call("addBatch"), call("executeBatch"),
+                    call("setInt", 1, 3), call("addBatch"), call("executeBatch")), statement.calls);
+        }
+    }
+
+    @Nested
+    @DisplayName("create(int, PreparedStatement, SQLBiConsumer<? super PreparedStatement, ? super T>, boolean)")
+    class CreateWithPreparedStatementAndCommit {
+
+        @Test
+        @DisplayName("auto-commit")
+        void testAutoCommit() throws SQLException {
+            FakeStatement statement = new FakeStatement(true);
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(2, statement.proxy(), (ps, item) -> ps.setInt(1, item), true);
+
+            subscriber.onSubscribe(new TestSubscription());
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+            subscriber.onComplete();
+
+            assertEquals(2L, SQLFutures.get(subscriber.result()));
+            assertEquals(List.of(call("setInt", 1, 1), call("addBatch"), call("setInt", 1, 2), call("addBatch"), call("executeBatch")),
+                    statement.calls);
+        }
+
+        @Test
+        @DisplayName("commits batches")
+        void testCommitsBatches() throws SQLException {
+            FakeStatement statement = new FakeStatement(false);
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(2, statement.proxy(), (ps, item) -> ps.setInt(1, item), true);
+
+            subscriber.onSubscribe(new TestSubscription());
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+            subscriber.onNext(3);
+            subscriber.onComplete();
+
+            assertEquals(3L, SQLFutures.get(subscriber.result()));
+            assertEquals(List.of(
+                    call("setInt", 1, 1), call("addBatch"), call("setInt", 1, 2), call("addBatch"), call("executeBatch"), call("commit"),
+                    call("setInt", 1, 3), call("addBatch"), call("executeBatch"), call("commit")), statement.calls);
+        }
+
+        @Test
+        @DisplayName("rolls back failed batch")
+        void testRollsBackFailedBatch() {
+            SQLException batchFailure = new SQLException("batch");
+            FakeStatement statement = new FakeStatement(false);
+            statement.failOn("executeBatch", batchFailure);
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(2, statement.proxy(), (ps, item) -> ps.setInt(1, item), true);
+            TestSubscription subscription = new TestSubscription();
+
+            subscriber.onSubscribe(subscription);
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLFutures.get(subscriber.result()));
+            assertSame(batchFailure, exception);
+            assertEquals(0, exception.getSuppressed().length);
+            assertTrue(subscription.cancelled);
+            assertEquals(List.of(
+                    call("setInt", 1, 1), call("addBatch"), call("setInt", 1, 2), call("addBatch"), call("executeBatch"), call("rollback")),
+                    statement.calls);
+        }
+
+        @Test
+        @DisplayName("rollback fails")
+        void testRollbackFails() {
+            SQLException batchFailure = new SQLException("batch");
+            SQLException rollbackFailure = new SQLException("rollback");
+            FakeStatement statement = new FakeStatement(false);
+            statement.failOn("executeBatch", batchFailure);
+            statement.failOn("rollback", rollbackFailure);
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(1, statement.proxy(), (ps, item) -> ps.setInt(1, item), true);
+
+            subscriber.onSubscribe(new TestSubscription());
+            subscriber.onNext(1);
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLFutures.get(subscriber.result()));
+            assertSame(batchFailure, exception);
+            assertArrayEquals(new Throwable[] { rollbackFailure }, exception.getSuppressed());
+        }
+
+        @Test
+        @DisplayName("does not roll back without commit")
+        void testDoesNotRollBackWithoutCommit() {
+            FakeStatement statement = new FakeStatement(false);
+            statement.failOn("executeBatch", new SQLException("batch"));
+            SQLBatchSubscriber<Integer> subscriber = SQLBatchSubscriber.create(1, statement.proxy(), (ps, item) -> ps.setInt(1, item), false);
+
+            subscriber.onSubscribe(new TestSubscription());
+            subscriber.onNext(1);
+
+            assertThrows(SQLException.class, () -> SQLFutures.get(subscriber.result()));
+            assertEquals(List.of(call("setInt", 1, 1), call("addBatch"), call("executeBatch")), statement.calls);
+        }
+    }
+
+    private static final class TestSubscription implements Flow.Subscription {
+
+        private final List<Long> requests = new ArrayList<>();
+        private boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requests.add(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * SQLChunkSizerTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLChunkSizerTest {
+
+    @Nested
+    @DisplayName("create(Duration, long, long, long, double)")
+    class Create {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            Duration target = Duration.ofMillis(100);
+
+            assertThrows(NullPointerException.class, () -> SQLChunkSizer.create(null, 10, 1, 100));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(Duration.ZERO, 10, 1, 100));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(Duration.ofMillis(-1), 10, 1, 100));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(target, 10, 0, 100));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(target, 10, 20, 10));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(target, 0, 1, 100));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(target, 101, 1, 100));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(target, 10, 1, 100, 0));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(target, 10, 1, 100, 1.5));
+            assertThrows(IllegalArgumentException.class, () -> SQLChunkSizer.create(target, 10, 1, 100, Double.NaN));
+        }
+
+        @Test
+        @DisplayName("accessors")
+        void testAccessors() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 10, 1, 100);
+
+            assertEquals(Duration.ofMillis(100), chunkSizer.targetLatency());
+            assertEquals(10, chunkSizer.chunkSize());
+            assertEquals(1, chunkSizer.minSize());
+            assertEquals(100, chunkSizer.maxSize());
+        }
+
+        @Test
+        @DisplayName("toString()")
+        void testToString() {
+            assertEquals("SQLChunkSizer[chunkSize=10,targetLatency=PT0.1S]", SQLChunkSizer.create(Duration.ofMillis(100), 10, 1, 100).toString());
+        }
+    }
+
+    @Nested
+    @DisplayName("record(long, Duration)")
+    class Record {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 10, 1, 100);
+
+            assertThrows(NullPointerException.class, () -> chunkSizer.record(10, null));
+            assertThrows(IllegalArgumentException.class, () -> chunkSizer.record(10, Duration.ofMillis(-1)));
+            assertThrows(IllegalArgumentException.class, () -> chunkSizer.record(0, Duration.ofMillis(1)));
+        }
+
+        @Test
+        @DisplayName("grows at most twice per measurement")
+        void testGrows() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 1000, 1, 1_000_000);
+
+            // 1ms per 1000 keys, so the desired chunk size is 100,000
+            chunkSizer.record(1000, Duration.ofMillis(1));
+            assertEquals(2000, chunkSizer.chunkSize());
+
+            chunkSizer.record(2000, Duration.ofMillis(2));
+            assertEquals(4000, chunkSizer.chunkSize());
+        }
+
+        @Test
+        @DisplayName("shrinks at most half per measurement")
+        void testShrinks() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 1000, 1, 1_000_000);
+
+            // 1s per 1000 keys, so the desired chunk size is 100
+            chunkSizer.record(1000, Duration.ofSeconds(1));
+            assertEquals(500, chunkSizer.chunkSize());
+
+            chunkSizer.record(500, Duration.ofMillis(500));
+            assertEquals(250, chunkSizer.chunkSize());
+        }
+
+        @Test
+        @DisplayName("converges to target")
+        void testConverges() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 10, 1, 1_000_000);
+
+            // 1ms per 10 keys, so the desired chunk size is 1000
+            for (int i = 0; i < 20; i++) {
+                long size = chunkSizer.chunkSize();
+                chunkSizer.record(size, Duration.ofNanos(size * 100_000));
+            }
+            assertEquals(1000, chunkSizer.chunkSize(), 1);
+        }
+
+        @Test
+        @DisplayName("smooths outliers")
+        void testSmoothsOutliers() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 1000, 1, 1_000_000, 0.1);
+
+            // 100ms per 1000 keys, exactly the target
+            chunkSizer.record(1000, Duration.ofMillis(100));
+            assertEquals(1000, chunkSizer.chunkSize());
+
+            // one chunk that is 10 times as slow
+            chunkSizer.record(1000, Duration.ofSeconds(1));
+            long size = chunkSizer.chunkSize();
+            assertTrue(size > 500, "chunk size: " + size);
+        }
+
+        @Test
+        @DisplayName("stays within bounds")
+        void testStaysWithinBounds() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 50, 10, 100);
+
+            chunkSizer.record(50, Duration.ZERO);
+            assertEquals(100, chunkSizer.chunkSize());
+            chunkSizer.record(100, Duration.ZERO);
+            assertEquals(100, chunkSizer.chunkSize());
+
+            chunkSizer.record(100, Duration.ofDays(1));
+            assertEquals(50, chunkSizer.chunkSize());
+            chunkSizer.record(50, Duration.ofDays(1));
+            chunkSizer.record(25, Duration.ofDays(1));
+            chunkSizer.record(12, Duration.ofDays(1));
+            assertEquals(10, chunkSizer.chunkSize());
+        }
+    }
+
+    @Nested
+    @DisplayName("keysetPages(KeysetPageReader)")
+    class KeysetPages {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 10, 1, 100);
+
+            assertThrows(NullPointerException.class, () -> chunkSizer.keysetPages(null));
+        }
+
+        @Test
+        @DisplayName("uses and adjusts chunk size")
+        void testUsesAndAdjustsChunkSize() throws SQLException {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofHours(1), 10, 1, 1000);
+            List<Long> sizes = new ArrayList<>();
+
+            LongUnarySQLOperator nextPage = chunkSizer.keysetPages((lastKey, size, action) -> {
+                sizes.add(size);
+                for (long key = lastKey + 1; key <= lastKey + size; key++) {
+                    action.accept(key);
+                }
+            });
+
+            long lastKey = 0;
+            for (int i = 0; i < 4; i++) {
+                lastKey = nextPage.applyAsLong(lastKey);
+            }
+
+            assertEquals(List.of(10L, 20L, 40L, 80L), sizes);
+            assertEquals(150, lastKey);
+            assertEquals(160, chunkSizer.chunkSize());
+        }
+
+        @Test
+        @DisplayName("records processed rows")
+        void testRecordsProcessedRows() throws SQLException {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 100, 1, 1000);
+
+            LongUnarySQLOperator nextPage = chunkSizer.keysetPages((lastKey, size, action) -> {
+                action.accept(lastKey + 5);
+                action.accept(lastKey + 10);
+                sleep(Duration.ofMillis(50));
+            });
+
+            assertEquals(10, nextPage.applyAsLong(0));
+            // 2 rows took at least 50 ms, so the chunk size is halved; based on the requested size, it would have been doubled
+            assertEquals(50, chunkSizer.chunkSize());
+        }
+
+        @Test
+        @DisplayName("empty page")
+        void testEmptyPage() throws SQLException {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofHours(1), 10, 1, 1000);
+
+            LongUnarySQLOperator nextPage = chunkSizer.keysetPages((lastKey, size, action) -> {
+                // no rows
+            });
+
+            assertEquals(42, nextPage.applyAsLong(42));
+            assertEquals(10, chunkSizer.chunkSize());
+        }
+
+        @Test
+        @DisplayName("reader throws")
+        void testReaderThrows() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofHours(1), 10, 1, 1000);
+            SQLException e = new SQLException("failure");
+
+            LongUnarySQLOperator nextPage = chunkSizer.keysetPages((lastKey, size, action) -> {
+                throw e;
+            });
+
+            SQLException exception = assertThrows(SQLException.class, () -> nextPage.applyAsLong(0));
+            assertSame(e, exception);
+            assertEquals(10, chunkSizer.chunkSize());
+        }
+    }
+
+    @Nested
+    @DisplayName("pages(LongSQLFunction<? extends C>)")
+    class Pages {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 10, 1, 100);
+
+            assertThrows(NullPointerException.class, () -> chunkSizer.pages(null));
+        }
+
+        @Test
+        @DisplayName("uses and adjusts chunk size")
+        void testUsesAndAdjustsChunkSize() throws SQLException {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofHours(1), 10, 1, 1000);
+
+            SQLSupplier<List<Long>> nextPage = chunkSizer.pages(size -> Collections.nCopies((int) size, size));
+
+            assertEquals(10, nextPage.get().size());
+            assertEquals(20, nextPage.get().size());
+            assertEquals(40, chunkSizer.chunkSize());
+        }
+
+        @Test
+        @DisplayName("records loaded elements")
+        void testRecordsLoadedElements() throws SQLException {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 100, 1, 1000);
+
+            SQLSupplier<List<String>> nextPage = chunkSizer.pages(size -> {
+                sleep(Duration.ofMillis(50));
+                return List.of("a", "b");
+            });
+
+            assertEquals(List.of("a", "b"), nextPage.get());
+            assertEquals(50, chunkSizer.chunkSize());
+        }
+
+        @Test
+        @DisplayName("empty page")
+        void testEmptyPage() throws SQLException {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofHours(1), 10, 1, 1000);
+
+            SQLSupplier<List<String>> nextPage = chunkSizer.pages(size -> List.of());
+
+            assertEquals(List.of(), nextPage.get());
+            assertEquals(10, chunkSizer.chunkSize());
+        }
+    }
+
+    @Nested
+    @DisplayName("pages(LongSQLFunction<? extends R>, ToLongFunction<? super R>)")
+    class PagesWithPageSize {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofMillis(100), 10, 1, 100);
+
+            assertThrows(NullPointerException.class, () -> chunkSizer.pages(null, String::length));
+            assertThrows(NullPointerException.class, () -> chunkSizer.pages(size -> "", null));
+        }
+
+        @Test
+        @DisplayName("uses and adjusts chunk size")
+        void testUsesAndAdjustsChunkSize() throws SQLException {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofHours(1), 10, 1, 1000);
+
+            SQLSupplier<String> nextPage = chunkSizer.pages(size -> "x".repeat((int) size), String::length);
+
+            assertEquals(10, nextPage.get().length());
+            assertEquals(20, nextPage.get().length());
+            assertEquals(40, chunkSizer.chunkSize());
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
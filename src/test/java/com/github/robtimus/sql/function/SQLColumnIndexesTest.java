@@ -0,0 +1,111 @@
+/*
+ * SQLColumnIndexesTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLColumnIndexesTest {
+
+    @Nested
+    @DisplayName("of(ResultSetMetaData)")
+    class Of {
+
+        @Test
+        @DisplayName("null meta data")
+        void testNullMetaData() {
+            assertThrows(NullPointerException.class, () -> SQLColumnIndexes.of(null));
+        }
+
+        @Test
+        @DisplayName("indexOf(String)")
+        void testIndexOf() throws SQLException {
+            SQLColumnIndexes indexes = SQLColumnIndexes.of(new FakeMetaData(List.of("ID", "Name", "amount", "name")).proxy());
+
+            assertEquals(4, indexes.columnCount());
+            assertEquals(1, indexes.indexOf("ID"));
+            assertEquals(1, indexes.indexOf("id"));
+            assertEquals(2, indexes.indexOf("Name"));
+            // duplicate labels resolve to the first column
+            assertEquals(2, indexes.indexOf("name"));
+            assertEquals(2, indexes.indexOf("NAME"));
+            assertEquals(3, indexes.indexOf("AMOUNT"));
+            assertThrows(NullPointerException.class, () -> indexes.indexOf(null));
+            assertThrows(SQLException.class, () -> indexes.indexOf("unknown"));
+            assertEquals("SQLColumnIndexes[columnCount=4]", indexes.toString());
+        }
+    }
+
+    @Nested
+    @DisplayName("mapper(SQLBiFunction<? super ResultSet, ? super SQLColumnIndexes, ? extends T>)")
+    class Mapper {
+
+        @Test
+        @DisplayName("null mapper")
+        void testNullMapper() {
+            assertThrows(NullPointerException.class, () -> SQLColumnIndexes.mapper(null));
+        }
+
+        @Test
+        @DisplayName("resolves once per result set")
+        void testResolvesOncePerResultSet() throws SQLException {
+            FakeMetaData firstMetaData = new FakeMetaData(List.of("id", "name"));
+            FakeMetaData secondMetaData = new FakeMetaData(List.of("id", "name"));
+            ResultSet first = resultSet(firstMetaData);
+            ResultSet second = resultSet(secondMetaData);
+
+            SQLFunction<ResultSet, String> mapper = SQLColumnIndexes.mapper((rs, indexes) -> rs.getString(indexes.indexOf("name")));
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals("value2", mapper.apply(first));
+            }
+            assertEquals(2, firstMetaData.labelLookups.get());
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals("value2", mapper.apply(second));
+            }
+            assertEquals(2, firstMetaData.labelLookups.get());
+            assertEquals(2, secondMetaData.labelLookups.get());
+        }
+
+        @Test
+        @DisplayName("reuses indexes for same meta data")
+        void testReusesIndexesForSameMetaData() throws SQLException {
+            FakeMetaData metaData = new FakeMetaData(List.of("id", "name"));
+
+            SQLFunction<ResultSet, String> mapper = SQLColumnIndexes.mapper((rs, indexes) -> rs.getString(indexes.indexOf("id")));
+
+            assertEquals("value1", mapper.apply(resultSet(metaData)));
+            assertEquals("value1", mapper.apply(resultSet(metaData)));
+            assertEquals(2, metaData.labelLookups.get());
+        }
+    }
+
+    private static ResultSet resultSet(FakeMetaData metaData) throws SQLException {
+        ResultSet resultSet = new FakeResultSet(metaData, List.of("value1", "value2")).proxy();
+        resultSet.next();
+        return resultSet;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * SQLColumnarLoaderTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLColumnarLoaderTest {
+
+    private static final String[] REGIONS = { "north", "south", null, "east" };
+
+    @Nested
+    @DisplayName("assembly")
+    class Assembly {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLColumnarLoader loader = SQLColumnarLoader.create().withIntColumn("id", rs -> rs.getInt(1));
+
+            assertThrows(NullPointerException.class, () -> loader.withIntColumn(null, rs -> 0));
+            assertThrows(NullPointerException.class, () -> loader.withIntColumn("other", null));
+            assertThrows(NullPointerException.class, () -> loader.withLongColumn(null, rs -> 0L));
+            assertThrows(NullPointerException.class, () -> loader.withLongColumn("other", null));
+            assertThrows(NullPointerException.class, () -> loader.withDoubleColumn(null, rs -> 0D));
+            assertThrows(NullPointerException.class, () -> loader.withDoubleColumn("other", null));
+            assertThrows(NullPointerException.class, () -> loader.withStringColumn(null, rs -> ""));
+            assertThrows(NullPointerException.class, () -> loader.withStringColumn("other", null));
+            assertThrows(IllegalArgumentException.class, () -> loader.withLongColumn("id", rs -> 0L));
+            assertThrows(IllegalArgumentException.class, () -> loader.withInitialCapacity(0));
+            assertThrows(NullPointerException.class, () -> loader.load(null));
+        }
+
+        @Test
+        @DisplayName("immutable")
+        void testImmutable() {
+            SQLColumnarLoader loader = SQLColumnarLoader.create();
+            SQLColumnarLoader withColumns = loader
+                    .withIntColumn("id", rs -> rs.getInt(1))
+                    .withStringColumn("region", rs -> rs.getString(4));
+            SQLColumnarLoader configured = withColumns.withInitialCapacity(10);
+
+            assertEquals("SQLColumnarLoader[columns=[],initialCapacity=1024]", loader.toString());
+            assertEquals("SQLColumnarLoader[columns=[id:int, region:string],initialCapacity=1024]", withColumns.toString());
+            assertEquals("SQLColumnarLoader[columns=[id:int, region:string],initialCapacity=10]", configured.toString());
+            assertEquals(10, configured.initialCapacity());
+        }
+    }
+
+    @Nested
+    @DisplayName("load(ResultSet)")
+    class Load {
+
+        @Test
+        @DisplayName("all column types")
+        void testAllColumnTypes() throws SQLException {
+            SQLColumnarTable table = loader(1024).load(resultSet(10));
+
+            assertEquals(10, table.rowCount());
+            assertEquals(Set.of("id", "amount", "price", "region"), table.columnNames());
+            assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, table.intColumn("id"));
+            assertArrayEquals(new long[] { 0, 1000, 2000, 3000, 4000, 5000, 6000, 7000, 8000, 9000 }, table.longColumn("amount"));
+            assertArrayEquals(new double[] { 0, 0.5, 1, 1.5, 2, 2.5, 3, 3.5, 4, 4.5 }, table.doubleColumn("price"));
+            assertArrayEquals(new int[] { 0, 1, -1, 2, 0, 1, -1, 2, 0, 1 }, table.stringCodes("region"));
+            assertEquals(List.of("north", "south", "east"), table.dictionary("region"));
+        }
+
+        @Test
+        @DisplayName("grows beyond initial capacity")
+        void testGrows() throws SQLException {
+            int rows = 1000;
+            SQLColumnarTable table = loader(3).load(resultSet(rows));
+
+            assertEquals(rows, table.rowCount());
+            int[] ids = table.intColumn("id");
+            long[] amounts = table.longColumn("amount");
+            double[] prices = table.doubleColumn("price");
+            int[] regions = table.stringCodes("region");
+            assertEquals(rows, ids.length);
+            assertEquals(rows, amounts.length);
+            assertEquals(rows, prices.length);
+            assertEquals(rows, regions.length);
+            for (int i = 0; i < rows; i++) {
+                assertEquals(i, ids[i]);
+                assertEquals(i * 1000L, amounts[i]);
+                assertEquals(i / 2.0, prices[i], 0);
+                assertEquals(REGIONS[i % REGIONS.length], table.getString("region", i));
+            }
+        }
+
+        @Test
+        @DisplayName("exact capacity")
+        void testExactCapacity() throws SQLException {
+            SQLColumnarTable table = loader(4).load(resultSet(4));
+
+            assertArrayEquals(new int[] { 0, 1, 2, 3 }, table.intColumn("id"));
+        }
+
+        @Test
+        @DisplayName("no rows")
+        void testNoRows() throws SQLException {
+            SQLColumnarTable table = loader(16).load(resultSet(0));
+
+            assertEquals(0, table.rowCount());
+            assertEquals(0, table.intColumn("id").length);
+            assertEquals(0, table.stringCodes("region").length);
+            assertEquals(List.of(), table.dictionary("region"));
+        }
+
+        @Test
+        @DisplayName("extractor throws")
+        void testExtractorThrows() {
+            SQLException exception = new SQLException("extractor");
+            SQLColumnarLoader loader = SQLColumnarLoader.create().withIntColumn("id", rs -> {
+                int id = rs.getInt(1);
+                if (id == 5) {
+                    throw exception;
+                }
+                return id;
+            });
+            ResultSet resultSet = resultSet(10);
+
+            SQLException thrown = assertThrows(SQLException.class, () -> loader.load(resultSet));
+            assertSame(exception, thrown);
+        }
+    }
+
+    private static SQLColumnarLoader loader(int initialCapacity) {
+        return SQLColumnarLoader.create()
+                .withIntColumn("id", rs -> rs.getInt(1))
+                .withLongColumn("amount", rs -> rs.getLong(2))
+                .withDoubleColumn("price", rs -> rs.getDouble(3))
+                .withStringColumn("region", rs -> rs.getString(4))
+                .withInitialCapacity(initialCapacity);
+    }
+
+    private static ResultSet resultSet(int rows) {
+        List<?>[] values = IntStream.range(0, rows)
+                .mapToObj(i -> Arrays.asList(i, i * 1000L, i / 2.0, REGIONS[i % REGIONS.length]))
+                .toArray(List<?>[]::new);
+        return new FakeResultSet(List.of("id", "amount", "price", "region"), values).proxy();
+    }
+}
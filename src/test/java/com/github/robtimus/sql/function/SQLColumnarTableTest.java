@@ -0,0 +1,86 @@
+/*
+ * SQLColumnarTableTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLColumnarTableTest {
+
+    private final SQLColumnarTable table = createTable();
+
+    @Test
+    @DisplayName("columns")
+    void testColumns() {
+        assertEquals(3, table.rowCount());
+        assertEquals(Set.of("id", "amount", "price", "region"), table.columnNames());
+        assertEquals(List.of("id", "amount", "price", "region"), List.copyOf(table.columnNames()));
+        assertArrayEquals(new int[] { 1, 2, 3 }, table.intColumn("id"));
+        assertArrayEquals(new long[] { 10, 20, 30 }, table.longColumn("amount"));
+        assertArrayEquals(new double[] { 1.5, 2.5, 3.5 }, table.doubleColumn("price"));
+        assertArrayEquals(new int[] { 0, -1, 0 }, table.stringCodes("region"));
+        assertEquals(List.of("north"), table.dictionary("region"));
+    }
+
+    @Test
+    @DisplayName("getString(String, int)")
+    void testGetString() {
+        assertEquals("north", table.getString("region", 0));
+        assertNull(table.getString("region", 1));
+        assertEquals("north", table.getString("region", 2));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getString("region", -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getString("region", 3));
+        assertThrows(IllegalArgumentException.class, () -> table.getString("id", 0));
+    }
+
+    @Test
+    @DisplayName("wrong column type or name")
+    void testWrongColumn() {
+        assertThrows(NullPointerException.class, () -> table.intColumn(null));
+        assertThrows(IllegalArgumentException.class, () -> table.intColumn("amount"));
+        assertThrows(IllegalArgumentException.class, () -> table.longColumn("id"));
+        assertThrows(IllegalArgumentException.class, () -> table.doubleColumn("region"));
+        assertThrows(IllegalArgumentException.class, () -> table.stringCodes("price"));
+        assertThrows(IllegalArgumentException.class, () -> table.dictionary("unknown"));
+    }
+
+    @Test
+    @DisplayName("toString()")
+    void testToString() {
+        assertEquals("SQLColumnarTable[columns=[id, amount, price, region],rowCount=3]", table.toString());
+    }
+
+    private static SQLColumnarTable createTable() {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("id", new int[] { 1, 2, 3 });
+        columns.put("amount", new long[] { 10, 20, 30 });
+        columns.put("price", new double[] { 1.5, 2.5, 3.5 });
+        columns.put("region", new SQLColumnarTable.Strings(new int[] { 0, -1, 0 }, List.of("north")));
+        return new SQLColumnarTable(3, columns);
+    }
+}
@@ -0,0 +1,515 @@
+/*
+ * SQLDeadlineTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLDeadlineTest {
+
+    private static final String TEST_VALUE = "foo";
+
+    private static final SQLDeadline EXPIRED = SQLDeadline.after(Duration.ofSeconds(-1));
+
+    @Nested
+    @DisplayName("after(Duration)")
+    class After {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            assertThrows(NullPointerException.class, () -> SQLDeadline.after(null));
+        }
+
+        @Test
+        @DisplayName("future deadline")
+        void testFutureDeadline() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+
+            assertFalse(deadline.isExpired());
+            Duration remaining = deadline.remaining();
+            assertTrue(remaining.compareTo(Duration.ofMinutes(1)) <= 0, "remaining: " + remaining);
+            assertTrue(remaining.compareTo(Duration.ofSeconds(50)) > 0, "remaining: " + remaining);
+        }
+
+        @Test
+        @DisplayName("past deadline")
+        void testPastDeadline() {
+            assertTrue(EXPIRED.isExpired());
+            assertEquals(Duration.ZERO, EXPIRED.remaining());
+        }
+
+        @Test
+        @DisplayName("very long timeout")
+        void testVeryLongTimeout() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofSeconds(Long.MAX_VALUE));
+
+            assertFalse(deadline.isExpired());
+        }
+    }
+
+    @Nested
+    @DisplayName("atNanoTime(long)")
+    class AtNanoTime {
+
+        @Test
+        @DisplayName("returns deadline")
+        void testReturnsDeadline() {
+            long nanoTime = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+            SQLDeadline deadline = SQLDeadline.atNanoTime(nanoTime);
+
+            assertEquals(nanoTime, deadline.nanoTime());
+            assertEquals(deadline, SQLDeadline.atNanoTime(nanoTime));
+        }
+    }
+
+    @Nested
+    @DisplayName("check(Duration)")
+    class Check {
+
+        @Test
+        @DisplayName("not expired")
+        void testNotExpired() throws SQLTimeoutException {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+
+            deadline.check();
+            deadline.check(Duration.ofSeconds(1));
+        }
+
+        @Test
+        @DisplayName("expired")
+        void testExpired() {
+            assertThrows(SQLTimeoutException.class, EXPIRED::check);
+            assertThrows(SQLTimeoutException.class, () -> EXPIRED.check(Duration.ZERO));
+        }
+
+        @Test
+        @DisplayName("not enough time remaining")
+        void testNotEnoughTimeRemaining() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+
+            assertThrows(SQLTimeoutException.class, () -> deadline.check(Duration.ofMinutes(2)));
+        }
+    }
+
+    @Nested
+    @DisplayName("queryTimeoutSeconds()")
+    class QueryTimeoutSeconds {
+
+        @Test
+        @DisplayName("rounds up")
+        void testRoundsUp() throws SQLTimeoutException {
+            assertEquals(1, SQLDeadline.after(Duration.ofMillis(100)).queryTimeoutSeconds());
+            assertEquals(60, SQLDeadline.after(Duration.ofMinutes(1)).queryTimeoutSeconds());
+        }
+
+        @Test
+        @DisplayName("expired")
+        void testExpired() {
+            assertThrows(SQLTimeoutException.class, EXPIRED::queryTimeoutSeconds);
+        }
+    }
+
+    @Nested
+    @DisplayName("min(SQLDeadline)")
+    class Min {
+
+        @Test
+        @DisplayName("returns earliest")
+        void testReturnsEarliest() {
+            SQLDeadline early = SQLDeadline.after(Duration.ofSeconds(1));
+            SQLDeadline late = SQLDeadline.after(Duration.ofMinutes(1));
+
+            assertSame(early, early.min(late));
+            assertSame(early, late.min(early));
+        }
+    }
+
+    @Nested
+    @DisplayName("call(SQLSupplier<? extends T>)")
+    class Call {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+
+            assertThrows(NullPointerException.class, () -> deadline.call(null));
+        }
+
+        @Test
+        @DisplayName("sets current deadline")
+        void testSetsCurrentDeadline() throws SQLException {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+
+            assertEquals(Optional.empty(), SQLDeadline.current());
+            assertEquals(Optional.of(deadline), deadline.call(SQLDeadline::current));
+            assertEquals(Optional.empty(), SQLDeadline.current());
+        }
+
+        @Test
+        @DisplayName("nested deadlines")
+        void testNestedDeadlines() throws SQLException {
+            SQLDeadline early = SQLDeadline.after(Duration.ofSeconds(10));
+            SQLDeadline late = SQLDeadline.after(Duration.ofMinutes(1));
+
+            assertEquals(Optional.of(early), early.call(() -> late.call(SQLDeadline::current)));
+            assertEquals(Optional.of(early), late.call(() -> early.call(SQLDeadline::current)));
+            assertEquals(Optional.of(late), late.call(() -> {
+                early.call(SQLDeadline::current);
+                return SQLDeadline.current();
+            }));
+        }
+
+        @Test
+        @DisplayName("restores on failure")
+        void testRestoresOnFailure() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+            SQLException e = new SQLException("supplier");
+
+            SQLException exception = assertThrows(SQLException.class, () -> deadline.call(() -> {
+                throw e;
+            }));
+            assertSame(e, exception);
+            assertEquals(Optional.empty(), SQLDeadline.current());
+        }
+    }
+
+    @Nested
+    @DisplayName("run(SQLRunnable)")
+    class Run {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+
+            assertThrows(NullPointerException.class, () -> deadline.run(null));
+        }
+
+        @Test
+        @DisplayName("sets current deadline")
+        void testSetsCurrentDeadline() throws SQLException {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+            List<Optional<SQLDeadline>> list = new ArrayList<>();
+
+            deadline.run(() -> list.add(SQLDeadline.current()));
+            assertEquals(Collections.singletonList(Optional.of(deadline)), list);
+            assertEquals(Optional.empty(), SQLDeadline.current());
+        }
+    }
+
+    @Nested
+    @DisplayName("guardFunction(SQLFunction<? super T, ? extends R>, Duration)")
+    class GuardFunction {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLFunction<String, String> function = t -> t;
+
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardFunction(null));
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardFunction(null, Duration.ZERO));
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardFunction(function, null));
+        }
+
+        @Test
+        @DisplayName("without deadline")
+        void testWithoutDeadline() throws SQLException {
+            SQLFunction<String, String> function = SQLDeadline.guardFunction(String::toUpperCase);
+
+            assertEquals("FOO", function.apply(TEST_VALUE));
+        }
+
+        @Test
+        @DisplayName("within deadline")
+        void testWithinDeadline() throws SQLException {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+            SQLFunction<String, String> function = SQLDeadline.guardFunction(String::toUpperCase, Duration.ofSeconds(1));
+
+            assertEquals("FOO", deadline.call(() -> function.apply(TEST_VALUE)));
+        }
+
+        @Test
+        @DisplayName("expired deadline")
+        void testExpiredDeadline() {
+            List<String> list = new ArrayList<>();
+            SQLFunction<String, Boolean> function = SQLDeadline.guardFunction(list::add);
+
+            assertThrows(SQLTimeoutException.class, () -> EXPIRED.call(() -> function.apply(TEST_VALUE)));
+            assertEquals(Collections.emptyList(), list);
+        }
+
+        @Test
+        @DisplayName("not enough time remaining")
+        void testNotEnoughTimeRemaining() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+            List<String> list = new ArrayList<>();
+            SQLFunction<String, Boolean> function = SQLDeadline.guardFunction(list::add, Duration.ofMinutes(2));
+
+            assertThrows(SQLTimeoutException.class, () -> deadline.call(() -> function.apply(TEST_VALUE)));
+            assertEquals(Collections.emptyList(), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("guardSupplier(SQLSupplier<? extends T>, Duration)")
+    class GuardSupplier {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLSupplier<String> supplier = () -> TEST_VALUE;
+
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardSupplier(null));
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardSupplier(null, Duration.ZERO));
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardSupplier(supplier, null));
+        }
+
+        @Test
+        @DisplayName("without deadline")
+        void testWithoutDeadline() throws SQLException {
+            SQLSupplier<String> supplier = SQLDeadline.guardSupplier(() -> TEST_VALUE);
+
+            assertEquals(TEST_VALUE, supplier.get());
+        }
+
+        @Test
+        @DisplayName("expired deadline")
+        void testExpiredDeadline() {
+            SQLSupplier<String> supplier = SQLDeadline.guardSupplier(() -> TEST_VALUE);
+
+            assertThrows(SQLTimeoutException.class, () -> EXPIRED.call(supplier));
+        }
+
+        @Test
+        @DisplayName("not enough time remaining")
+        void testNotEnoughTimeRemaining() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+            SQLSupplier<String> supplier = SQLDeadline.guardSupplier(() -> TEST_VALUE, Duration.ofMinutes(2));
+
+            assertThrows(SQLTimeoutException.class, () -> deadline.call(supplier));
+        }
+    }
+
+    @Nested
+    @DisplayName("guardConsumer(SQLConsumer<? super T>, Duration)")
+    class GuardConsumer {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLConsumer<String> consumer = t -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardConsumer(null));
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardConsumer(null, Duration.ZERO));
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardConsumer(consumer, null));
+        }
+
+        @Test
+        @DisplayName("within deadline")
+        void testWithinDeadline() throws SQLException {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+            List<String> list = new ArrayList<>();
+            SQLConsumer<String> consumer = SQLDeadline.guardConsumer(list::add);
+
+            deadline.run(() -> consumer.accept(TEST_VALUE));
+            assertEquals(Collections.singletonList(TEST_VALUE), list);
+        }
+
+        @Test
+        @DisplayName("expired deadline")
+        void testExpiredDeadline() {
+            List<String> list = new ArrayList<>();
+            SQLConsumer<String> consumer = SQLDeadline.guardConsumer(list::add);
+
+            assertThrows(SQLTimeoutException.class, () -> EXPIRED.run(() -> consumer.accept(TEST_VALUE)));
+            assertEquals(Collections.emptyList(), list);
+        }
+
+        @Test
+        @DisplayName("not enough time remaining")
+        void testNotEnoughTimeRemaining() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMinutes(1));
+            List<String> list = new ArrayList<>();
+            SQLConsumer<String> consumer = SQLDeadline.guardConsumer(list::add, Duration.ofMinutes(2));
+
+            assertThrows(SQLTimeoutException.class, () -> deadline.run(() -> consumer.accept(TEST_VALUE)));
+            assertEquals(Collections.emptyList(), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("guardStatement(SQLFunction<? super S, ? extends R>)")
+    class GuardStatement {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            assertThrows(NullPointerException.class, () -> SQLDeadline.guardStatement(null));
+        }
+
+        @Test
+        @DisplayName("without deadline")
+        void testWithoutDeadline() throws SQLException {
+            TestStatement statement = new TestStatement(0);
+            SQLFunction<Statement, Integer> function = SQLDeadline.guardStatement(Statement::getQueryTimeout);
+
+            assertEquals(0, function.apply(statement.proxy));
+            assertEquals(Collections.emptyList(), statement.queryTimeouts);
+        }
+
+        @Test
+        @DisplayName("sets query timeout")
+        void testSetsQueryTimeout() throws SQLException {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofSeconds(30));
+            TestStatement statement = new TestStatement(0);
+            SQLFunction<Statement, Integer> function = SQLDeadline.guardStatement(Statement::getQueryTimeout);
+
+            assertEquals(30, deadline.call(() -> function.apply(statement.proxy)));
+            assertEquals(Arrays.asList(30, 0), statement.queryTimeouts);
+            assertFalse(statement.isCancelled());
+        }
+
+        @Test
+        @DisplayName("keeps lower query timeout")
+        void testKeepsLowerQueryTimeout() throws SQLException {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofSeconds(30));
+            TestStatement statement = new TestStatement(5);
+            SQLFunction<Statement, Integer> function = SQLDeadline.guardStatement(Statement::getQueryTimeout);
+
+            assertEquals(5, deadline.call(() -> function.apply(statement.proxy)));
+            assertEquals(Collections.emptyList(), statement.queryTimeouts);
+        }
+
+        @Test
+        @DisplayName("restore failure does not mask failure")
+        void testRestoreFailureDoesNotMaskFailure() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofSeconds(30));
+            TestStatement statement = new TestStatement(0);
+            statement.restoreFailure = new SQLException("restore failed");
+            SQLFunction<Statement, Integer> function = SQLDeadline.guardStatement(s -> {
+                throw new SQLException("query failed");
+            });
+
+            SQLException thrown = assertThrows(SQLException.class, () -> deadline.call(() -> function.apply(statement.proxy)));
+            assertEquals("query failed", thrown.getMessage());
+            assertArrayEquals(new Throwable[] { statement.restoreFailure }, thrown.getSuppressed());
+        }
+
+        @Test
+        @DisplayName("restore failure after success")
+        void testRestoreFailureAfterSuccess() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofSeconds(30));
+            TestStatement statement = new TestStatement(0);
+            statement.restoreFailure = new SQLException("restore failed");
+            SQLFunction<Statement, Integer> function = SQLDeadline.guardStatement(Statement::getQueryTimeout);
+
+            SQLException thrown = assertThrows(SQLException.class, () -> deadline.call(() -> function.apply(statement.proxy)));
+            assertSame(statement.restoreFailure, thrown);
+        }
+
+        @Test
+        @DisplayName("expired deadline")
+        void testExpiredDeadline() {
+            TestStatement statement = new TestStatement(0);
+            SQLFunction<Statement, Integer> function = SQLDeadline.guardStatement(Statement::getQueryTimeout);
+
+            assertThrows(SQLTimeoutException.class, () -> EXPIRED.call(() -> function.apply(statement.proxy)));
+            assertEquals(Collections.emptyList(), statement.queryTimeouts);
+        }
+
+        @Test
+        @DisplayName("cancels when deadline expires")
+        void testCancelsWhenDeadlineExpires() {
+            SQLDeadline deadline = SQLDeadline.after(Duration.ofMillis(50));
+            TestStatement statement = new TestStatement(0);
+            SQLFunction<Statement, Integer> function = SQLDeadline.guardStatement(s -> statement.awaitCancel());
+
+            assertThrows(SQLTimeoutException.class, () -> deadline.call(() -> function.apply(statement.proxy)));
+            assertTrue(statement.isCancelled());
+            assertEquals(Arrays.asList(1, 0), statement.queryTimeouts);
+        }
+    }
+
+    private static final class TestStatement {
+
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+        private final List<Integer> queryTimeouts = new ArrayList<>();
+        private int queryTimeout;
+        private SQLException restoreFailure;
+        private final Statement proxy;
+
+        private TestStatement(int queryTimeout) {
+            this.queryTimeout = queryTimeout;
+            proxy = (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { Statement.class }, (p, method, args) -> {
+                switch (method.getName()) {
+                    case "cancel":
+                        cancelled.countDown();
+                        return null;
+                    case "getQueryTimeout":
+                        return this.queryTimeout;
+                    case "setQueryTimeout":
+                        if (restoreFailure != null && !queryTimeouts.isEmpty()) {
+                            throw restoreFailure;
+                        }
+                        this.queryTimeout = (int) args[0];
+                        queryTimeouts.add(this.queryTimeout);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        }
+
+        private boolean isCancelled() {
+            return cancelled.getCount() == 0;
+        }
+
+        private int awaitCancel() throws SQLException {
+            try {
+                cancelled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw SQLExceptions.interrupted(e);
+            }
+            throw new SQLException("cancelled");
+        }
+    }
+}
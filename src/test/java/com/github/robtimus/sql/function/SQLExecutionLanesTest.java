@@ -0,0 +1,204 @@
+/*
+ * SQLExecutionLanesTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLExecutionLanesTest {
+
+    @Nested
+    @DisplayName("factories")
+    class Factories {
+
+        @Test
+        @DisplayName("shared()")
+        void testShared() throws SQLException {
+            SQLExecutionLanes lanes = SQLExecutionLanes.shared();
+
+            assertSame(ForkJoinPool.commonPool(), lanes.cpuPool());
+            assertSame(lanes, SQLExecutionLanes.shared());
+
+            lanes.close();
+            assertFalse(lanes.cpuPool().isShutdown());
+        }
+
+        @Test
+        @DisplayName("create(int)")
+        void testCreate() throws SQLException {
+            assertThrows(IllegalArgumentException.class, () -> SQLExecutionLanes.create(0));
+
+            SQLExecutionLanes lanes = SQLExecutionLanes.create(3);
+
+            assertEquals(3, lanes.cpuPool().getParallelism());
+            assertNotSame(ForkJoinPool.commonPool(), lanes.cpuPool());
+            assertEquals("SQLExecutionLanes[cpuParallelism=3]", lanes.toString());
+
+            lanes.close();
+            assertTrue(lanes.cpuPool().isTerminated());
+        }
+
+        @Test
+        @DisplayName("of(ForkJoinPool, Executor)")
+        void testOf() throws SQLException {
+            ForkJoinPool cpuPool = new ForkJoinPool(2);
+            Executor ioExecutor = Runnable::run;
+
+            assertThrows(NullPointerException.class, () -> SQLExecutionLanes.of(null, ioExecutor));
+            assertThrows(NullPointerException.class, () -> SQLExecutionLanes.of(cpuPool, null));
+
+            try {
+                SQLExecutionLanes lanes = SQLExecutionLanes.of(cpuPool, ioExecutor);
+
+                assertSame(cpuPool, lanes.cpuPool());
+                assertSame(ioExecutor, lanes.ioExecutor());
+
+                lanes.close();
+                assertFalse(cpuPool.isShutdown());
+            } finally {
+                cpuPool.shutdown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("supplyCpu(SQLSupplier<? extends R>) and supplyIo(SQLSupplier<? extends R>)")
+    class Supply {
+
+        @Test
+        @DisplayName("runs in lanes")
+        void testRunsInLanes() throws SQLException {
+            try (SQLExecutionLanes lanes = SQLExecutionLanes.create(1)) {
+                CompletableFuture<Thread> cpu = lanes.supplyCpu(Thread::currentThread);
+                CompletableFuture<Thread> io = lanes.supplyIo(Thread::currentThread);
+
+                Thread cpuThread = SQLFutures.get(cpu);
+                Thread ioThread = SQLFutures.get(io);
+
+                assertTrue(cpuThread instanceof ForkJoinWorkerThread);
+                assertSame(lanes.cpuPool(), ((ForkJoinWorkerThread) cpuThread).getPool());
+                assertFalse(ioThread instanceof ForkJoinWorkerThread);
+                assertTrue(ioThread.getName().startsWith("sql-io-"), ioThread.getName());
+            }
+        }
+
+        @Test
+        @DisplayName("failure")
+        void testFailure() throws SQLException {
+            SQLException exception = new SQLException("failure");
+
+            try (SQLExecutionLanes lanes = SQLExecutionLanes.create(1)) {
+                CompletableFuture<Object> future = lanes.supplyIo(() -> {
+                    throw exception;
+                });
+
+                SQLException thrown = assertThrows(SQLException.class, () -> SQLFutures.get(future));
+                assertSame(exception, thrown);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("cpuBound(SQLFunction<? super T, ? extends R>)")
+    class CpuBound {
+
+        @Test
+        @DisplayName("applies in CPU lane")
+        void testAppliesInCpuLane() throws SQLException {
+            assertThrows(NullPointerException.class, () -> SQLExecutionLanes.shared().cpuBound(null));
+
+            try (SQLExecutionLanes lanes = SQLExecutionLanes.create(1)) {
+                SQLFunction<Integer, ForkJoinPool> function = lanes.cpuBound(i -> ForkJoinTask.getPool());
+
+                assertSame(lanes.cpuPool(), function.apply(1));
+                // nested calls are applied directly
+                assertSame(lanes.cpuPool(), SQLFutures.get(lanes.supplyCpu(() -> function.apply(1))));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("ioBound(SQLFunction<? super T, ? extends R>)")
+    class IoBound {
+
+        @Test
+        @DisplayName("applies in I/O lane")
+        void testAppliesInIoLane() throws SQLException {
+            assertThrows(NullPointerException.class, () -> SQLExecutionLanes.shared().ioBound(null));
+
+            try (SQLExecutionLanes lanes = SQLExecutionLanes.create(1)) {
+                SQLFunction<Integer, Thread> function = lanes.ioBound(i -> Thread.currentThread());
+
+                Thread thread = SQLFutures.get(lanes.supplyCpu(() -> function.apply(1)));
+
+                assertFalse(thread instanceof ForkJoinWorkerThread);
+            }
+        }
+
+        @Test
+        @DisplayName("CPU lane compensates for blocked threads")
+        void testCpuLaneCompensates() throws SQLException {
+            try (SQLExecutionLanes lanes = SQLExecutionLanes.create(1)) {
+                CountDownLatch cpuWorkDone = new CountDownLatch(1);
+                SQLFunction<Integer, Integer> query = lanes.ioBound(i -> {
+                    // simulates a query that takes as long as it takes for other CPU-bound work to finish
+                    await(cpuWorkDone);
+                    return i;
+                });
+
+                CompletableFuture<Integer> blocking = lanes.supplyCpu(() -> query.apply(1));
+                List<CompletableFuture<Integer>> others = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    int value = i;
+                    others.add(lanes.supplyCpu(() -> value * 2));
+                }
+                for (int i = 0; i < others.size(); i++) {
+                    assertEquals(i * 2, SQLFutures.get(others.get(i)));
+                }
+                cpuWorkDone.countDown();
+
+                assertEquals(1, SQLFutures.get(blocking));
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
@@ -26,6 +26,8 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -165,6 +167,41 @@ class SQLFunctionTest {
         }
     }
 
+    @Nested
+    @DisplayName("async(Executor)")
+    class Async {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLFunction<String, Integer> function = String::length;
+
+            assertThrows(NullPointerException.class, () -> function.async(null));
+        }
+
+        @Test
+        @DisplayName("applies")
+        void testApplies() throws InterruptedException, ExecutionException {
+            SQLFunction<String, Integer> function = String::length;
+            Function<String, CompletableFuture<Integer>> asyncFunction = function.async(Runnable::run);
+
+            assertEquals(TEST_RESULT, asyncFunction.apply(TEST_VALUE).get());
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("sqlFunction");
+            SQLFunction<String, Integer> function = t -> {
+                throw e;
+            };
+            CompletableFuture<Integer> future = function.async(Runnable::run).apply(TEST_VALUE);
+
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertSame(e, exception.getCause());
+        }
+    }
+
     @Nested
     @DisplayName("identity()")
     class Identity {
@@ -0,0 +1,487 @@
+/*
+ * SQLFuturesTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLFuturesTest {
+
+    private static final String TEST_VALUE = "foo";
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Nested
+    @DisplayName("supplyAsync(SQLSupplier<? extends T>, Executor)")
+    class SupplyAsync {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLSupplier<String> supplier = () -> TEST_VALUE;
+
+            assertThrows(NullPointerException.class, () -> SQLFutures.supplyAsync(null, DIRECT));
+            assertThrows(NullPointerException.class, () -> SQLFutures.supplyAsync(supplier, null));
+        }
+
+        @Test
+        @DisplayName("supplies")
+        void testSupplies() throws SQLException {
+            CompletableFuture<String> future = SQLFutures.supplyAsync(() -> TEST_VALUE, command -> new Thread(command).start());
+
+            assertEquals(TEST_VALUE, SQLFutures.get(future));
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("supplier");
+            CompletableFuture<String> future = SQLFutures.supplyAsync(() -> {
+                throw e;
+            }, DIRECT);
+
+            assertSame(e, failure(future));
+        }
+
+        @Test
+        @DisplayName("cancelled before supplier is called")
+        void testCancelledBeforeSupplierIsCalled() {
+            List<Runnable> queued = new ArrayList<>();
+            AtomicInteger calls = new AtomicInteger();
+            CompletableFuture<String> future = SQLFutures.supplyAsync(() -> {
+                calls.incrementAndGet();
+                return TEST_VALUE;
+            }, queued::add);
+
+            assertTrue(future.cancel(false));
+            queued.forEach(Runnable::run);
+
+            assertEquals(0, calls.get());
+            assertTrue(future.isCancelled());
+        }
+    }
+
+    @Nested
+    @DisplayName("runAsync(SQLRunnable, Executor)")
+    class RunAsync {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLRunnable action = () -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> SQLFutures.runAsync(null, DIRECT));
+            assertThrows(NullPointerException.class, () -> SQLFutures.runAsync(action, null));
+        }
+
+        @Test
+        @DisplayName("runs")
+        void testRuns() throws SQLException {
+            List<String> list = new ArrayList<>();
+            CompletableFuture<Void> future = SQLFutures.runAsync(() -> list.add(TEST_VALUE), DIRECT);
+
+            assertNull(SQLFutures.get(future));
+            assertEquals(Collections.singletonList(TEST_VALUE), list);
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("action");
+            CompletableFuture<Void> future = SQLFutures.runAsync(() -> {
+                throw e;
+            }, DIRECT);
+
+            assertSame(e, failure(future));
+        }
+    }
+
+    @Nested
+    @DisplayName("thenApply(CompletionStage<? extends T>, SQLFunction<? super T, ? extends R>)")
+    class ThenApply {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            CompletableFuture<String> future = CompletableFuture.completedFuture(TEST_VALUE);
+            SQLFunction<String, String> function = t -> t;
+
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenApply(null, function));
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenApply(future, null));
+        }
+
+        @Test
+        @DisplayName("applies")
+        void testApplies() throws SQLException {
+            CompletableFuture<String> future = SQLFutures.thenApply(CompletableFuture.completedFuture(TEST_VALUE), String::toUpperCase);
+
+            assertEquals("FOO", SQLFutures.get(future));
+        }
+
+        @Test
+        @DisplayName("function throws")
+        void testFunctionThrows() {
+            SQLException e = new SQLException("function");
+            CompletableFuture<String> future = SQLFutures.thenApply(CompletableFuture.completedFuture(TEST_VALUE), t -> {
+                throw e;
+            });
+
+            assertSame(e, failure(future));
+        }
+
+        @Test
+        @DisplayName("source fails")
+        void testSourceFails() {
+            SQLException e = new SQLException("source");
+            CompletableFuture<String> source = CompletableFuture.failedFuture(e);
+            // Dependent futures created by CompletableFuture wrap the exception
+            CompletableFuture<String> wrapped = source.thenApply(t -> t);
+            List<String> list = new ArrayList<>();
+
+            CompletableFuture<Boolean> future = SQLFutures.thenApply(wrapped, list::add);
+
+            assertSame(e, failure(future));
+            assertEquals(Collections.emptyList(), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("thenApplyAsync(CompletionStage<? extends T>, SQLFunction<? super T, ? extends R>, Executor)")
+    class ThenApplyAsync {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            CompletableFuture<String> future = CompletableFuture.completedFuture(TEST_VALUE);
+            SQLFunction<String, String> function = t -> t;
+
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenApplyAsync(null, function, DIRECT));
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenApplyAsync(future, null, DIRECT));
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenApplyAsync(future, function, null));
+        }
+
+        @Test
+        @DisplayName("applies on executor")
+        void testAppliesOnExecutor() throws SQLException {
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            Executor executor = command -> {
+                Thread t = new Thread(command);
+                thread.set(t);
+                t.start();
+            };
+            CompletableFuture<Boolean> future = SQLFutures.thenApplyAsync(CompletableFuture.completedFuture(TEST_VALUE),
+                    t -> Thread.currentThread() == thread.get(), executor);
+
+            assertTrue(SQLFutures.get(future));
+        }
+
+        @Test
+        @DisplayName("executor rejects")
+        void testExecutorRejects() {
+            RejectedExecutionException e = new RejectedExecutionException();
+            Executor executor = command -> {
+                throw e;
+            };
+            CompletableFuture<String> future = SQLFutures.thenApplyAsync(CompletableFuture.completedFuture(TEST_VALUE), t -> t, executor);
+
+            CompletionException exception = assertThrows(CompletionException.class, future::join);
+            assertSame(e, exception.getCause());
+        }
+
+        @Test
+        @DisplayName("cancelled before function is applied")
+        void testCancelledBeforeFunctionIsApplied() {
+            List<Runnable> queued = new ArrayList<>();
+            AtomicInteger calls = new AtomicInteger();
+            CompletableFuture<String> future = SQLFutures.thenApplyAsync(CompletableFuture.completedFuture(TEST_VALUE), t -> {
+                calls.incrementAndGet();
+                return t;
+            }, queued::add);
+
+            assertTrue(future.cancel(false));
+            queued.forEach(Runnable::run);
+
+            assertEquals(0, calls.get());
+            assertTrue(future.isCancelled());
+        }
+    }
+
+    @Nested
+    @DisplayName("thenAccept(CompletionStage<? extends T>, SQLConsumer<? super T>)")
+    class ThenAccept {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            CompletableFuture<String> future = CompletableFuture.completedFuture(TEST_VALUE);
+            SQLConsumer<String> consumer = t -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenAccept(null, consumer));
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenAccept(future, null));
+        }
+
+        @Test
+        @DisplayName("accepts")
+        void testAccepts() throws SQLException {
+            List<String> list = new ArrayList<>();
+            CompletableFuture<Void> future = SQLFutures.thenAccept(CompletableFuture.completedFuture(TEST_VALUE), list::add);
+
+            assertNull(SQLFutures.get(future));
+            assertEquals(Collections.singletonList(TEST_VALUE), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("thenRun(CompletionStage<?>, SQLRunnable)")
+    class ThenRun {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            CompletableFuture<String> future = CompletableFuture.completedFuture(TEST_VALUE);
+            SQLRunnable action = () -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenRun(null, action));
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenRun(future, null));
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("action");
+            CompletableFuture<Void> future = SQLFutures.thenRun(CompletableFuture.completedFuture(TEST_VALUE), () -> {
+                throw e;
+            });
+
+            assertSame(e, failure(future));
+        }
+    }
+
+    @Nested
+    @DisplayName("thenCompose(CompletionStage<? extends T>, SQLFunction<? super T, ? extends CompletionStage<? extends R>>)")
+    class ThenCompose {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            CompletableFuture<String> future = CompletableFuture.completedFuture(TEST_VALUE);
+            SQLFunction<String, CompletableFuture<String>> function = CompletableFuture::completedFuture;
+
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenCompose(null, function));
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenCompose(future, null));
+        }
+
+        @Test
+        @DisplayName("composes")
+        void testComposes() throws SQLException {
+            SQLFunction<String, String> function = String::toUpperCase;
+            CompletableFuture<String> future = SQLFutures.thenCompose(CompletableFuture.completedFuture(TEST_VALUE), function.async(DIRECT)::apply);
+
+            assertEquals("FOO", SQLFutures.get(future));
+        }
+
+        @Test
+        @DisplayName("composed future fails")
+        void testComposedFutureFails() {
+            SQLException e = new SQLException("function");
+            SQLFunction<String, String> function = t -> {
+                throw e;
+            };
+            CompletableFuture<String> future = SQLFutures.thenCompose(CompletableFuture.completedFuture(TEST_VALUE), function.async(DIRECT)::apply);
+
+            assertSame(e, failure(future));
+        }
+
+        @Test
+        @DisplayName("function throws")
+        void testFunctionThrows() {
+            SQLException e = new SQLException("function");
+            CompletableFuture<String> future = SQLFutures.thenCompose(CompletableFuture.completedFuture(TEST_VALUE), t -> {
+                throw e;
+            });
+
+            assertSame(e, failure(future));
+        }
+    }
+
+    @Nested
+    @DisplayName("thenCombine(CompletionStage<? extends T>, CompletionStage<? extends U>, SQLBiFunction<? super T, ? super U, ? extends R>)")
+    class ThenCombine {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            CompletableFuture<String> future = CompletableFuture.completedFuture(TEST_VALUE);
+            SQLBiFunction<String, String, String> function = (t, u) -> t + u;
+
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenCombine(null, future, function));
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenCombine(future, null, function));
+            assertThrows(NullPointerException.class, () -> SQLFutures.thenCombine(future, future, null));
+        }
+
+        @Test
+        @DisplayName("combines")
+        void testCombines() throws SQLException {
+            CompletableFuture<String> future = SQLFutures.thenCombine(CompletableFuture.completedFuture(TEST_VALUE),
+                    CompletableFuture.completedFuture(1), (t, u) -> t + u);
+
+            assertEquals(TEST_VALUE + 1, SQLFutures.get(future));
+        }
+
+        @Test
+        @DisplayName("other does not support toCompletableFuture()")
+        void testOtherWithoutToCompletableFuture() throws SQLException {
+            CompletableFuture<String> future = SQLFutures.thenCombine(CompletableFuture.completedFuture(TEST_VALUE),
+                    withoutToCompletableFuture(CompletableFuture.completedFuture(1)), (t, u) -> t + u);
+
+            assertEquals(TEST_VALUE + 1, SQLFutures.get(future));
+        }
+
+        @Test
+        @DisplayName("other fails")
+        void testOtherFails() {
+            SQLException e = new SQLException("other");
+            CompletableFuture<String> future = SQLFutures.thenCombine(CompletableFuture.completedFuture(TEST_VALUE),
+                    CompletableFuture.failedFuture(e), (t, u) -> t + u);
+
+            assertSame(e, failure(future));
+        }
+    }
+
+    @Nested
+    @DisplayName("get(CompletableFuture<T>)")
+    class Get {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            assertThrows(NullPointerException.class, () -> SQLFutures.get(null));
+        }
+
+        @Test
+        @DisplayName("wrapped SQLException")
+        void testWrappedSQLException() {
+            SQLException e = new SQLException("original");
+            CompletableFuture<String> future = CompletableFuture.failedFuture(new CompletionException(new UncheckedSQLException(e)));
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLFutures.get(future));
+            assertSame(e, exception);
+        }
+
+        @Test
+        @DisplayName("unchecked exception")
+        void testUncheckedException() {
+            IllegalStateException e = new IllegalStateException("original");
+            CompletableFuture<String> future = CompletableFuture.failedFuture(e);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> SQLFutures.get(future));
+            assertSame(e, exception);
+        }
+
+        @Test
+        @DisplayName("checked exception")
+        void testCheckedException() {
+            IOException e = new IOException("original");
+            CompletableFuture<String> future = CompletableFuture.failedFuture(e);
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLFutures.get(future));
+            assertSame(e, exception.getCause());
+        }
+
+        @Test
+        @DisplayName("interrupted")
+        void testInterrupted() {
+            CompletableFuture<String> future = new CompletableFuture<>();
+
+            Thread.currentThread().interrupt();
+            assertThrows(SQLException.class, () -> SQLFutures.get(future));
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Nested
+    @DisplayName("unwrap(Throwable)")
+    class Unwrap {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            assertThrows(NullPointerException.class, () -> SQLFutures.unwrap(null));
+        }
+
+        @Test
+        @DisplayName("nested wrappers")
+        void testNestedWrappers() {
+            SQLException e = new SQLException("original");
+            Throwable wrapped = new CompletionException(new ExecutionException(new UncheckedSQLException(e)));
+
+            assertSame(e, SQLFutures.unwrap(wrapped));
+        }
+
+        @Test
+        @DisplayName("wrapper without cause")
+        void testWrapperWithoutCause() {
+            CompletionException e = new CompletionException("no cause", null);
+
+            assertSame(e, SQLFutures.unwrap(e));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletionStage<T> withoutToCompletableFuture(CompletableFuture<T> future) {
+        return (CompletionStage<T>) Proxy.newProxyInstance(CompletionStage.class.getClassLoader(), new Class<?>[] { CompletionStage.class },
+                (proxy, method, args) -> {
+                    if ("toCompletableFuture".equals(method.getName())) {
+                        throw new UnsupportedOperationException();
+                    }
+                    return method.invoke(future, args);
+                });
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        return exception.getCause();
+    }
+}
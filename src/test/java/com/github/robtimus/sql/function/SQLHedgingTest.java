@@ -0,0 +1,316 @@
+/*
+ * SQLHedgingTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLHedgingTest {
+
+    private static final Duration SHORT_DELAY = Duration.ofMillis(20);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdownExecutor() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Nested
+    @DisplayName("withDelay(Duration, Executor)")
+    class WithDelay {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            assertThrows(NullPointerException.class, () -> SQLHedging.withDelay(null, executor));
+            assertThrows(NullPointerException.class, () -> SQLHedging.withDelay(SHORT_DELAY, null));
+        }
+
+        @Test
+        @DisplayName("negative delay")
+        void testNegativeDelay() {
+            Duration delay = Duration.ofMillis(-1);
+
+            assertThrows(IllegalArgumentException.class, () -> SQLHedging.withDelay(delay, executor));
+        }
+
+        @Test
+        @DisplayName("fixed delay")
+        void testFixedDelay() {
+            SQLHedging hedging = SQLHedging.withDelay(SHORT_DELAY, executor);
+
+            assertEquals(SHORT_DELAY, hedging.currentDelay());
+        }
+    }
+
+    @Nested
+    @DisplayName("withPercentileDelay(double, Duration, Executor)")
+    class WithPercentileDelay {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            assertThrows(NullPointerException.class, () -> SQLHedging.withPercentileDelay(95, null, executor));
+            assertThrows(NullPointerException.class, () -> SQLHedging.withPercentileDelay(95, SHORT_DELAY, null));
+        }
+
+        @Test
+        @DisplayName("invalid percentile")
+        void testInvalidPercentile() {
+            assertThrows(IllegalArgumentException.class, () -> SQLHedging.withPercentileDelay(0, SHORT_DELAY, executor));
+            assertThrows(IllegalArgumentException.class, () -> SQLHedging.withPercentileDelay(100.1, SHORT_DELAY, executor));
+            assertThrows(IllegalArgumentException.class, () -> SQLHedging.withPercentileDelay(Double.NaN, SHORT_DELAY, executor));
+        }
+
+        @Test
+        @DisplayName("delay adapts to latencies")
+        void testDelayAdapts() throws SQLException {
+            Duration initialDelay = Duration.ofSeconds(10);
+            SQLHedging hedging = SQLHedging.withPercentileDelay(95, initialDelay, executor);
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> "foo");
+
+            assertEquals(initialDelay, hedging.currentDelay());
+
+            for (int i = 0; i < 100; i++) {
+                supplier.get();
+            }
+
+            Duration delay = hedging.currentDelay();
+            assertTrue(delay.compareTo(initialDelay) < 0, "delay: " + delay);
+        }
+
+        @Test
+        @DisplayName("failed attempts are recorded")
+        void testFailedAttemptsRecorded() {
+            Duration initialDelay = Duration.ofSeconds(10);
+            SQLHedging hedging = SQLHedging.withPercentileDelay(95, initialDelay, executor);
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> {
+                throw new SQLException("failure");
+            });
+
+            for (int i = 0; i < 32; i++) {
+                assertThrows(SQLException.class, supplier::get);
+            }
+
+            Duration delay = hedging.currentDelay();
+            assertTrue(delay.compareTo(initialDelay) < 0, "delay: " + delay);
+        }
+
+        @Test
+        @DisplayName("cancelled primary attempts are not recorded")
+        void testCancelledPrimaryAttemptsNotRecorded() throws SQLException {
+            SQLHedging hedging = SQLHedging.withPercentileDelay(95, SHORT_DELAY, executor);
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    return "primary";
+                } catch (InterruptedException e) {
+                    throw SQLExceptions.interrupted(e);
+                }
+            }, () -> "backup");
+
+            // only the backup attempts complete
+            for (int i = 0; i < 32; i++) {
+                assertEquals("backup", supplier.get());
+            }
+
+            Duration delay = hedging.currentDelay();
+            assertTrue(delay.compareTo(SHORT_DELAY) < 0, "delay: " + delay);
+        }
+    }
+
+    @Nested
+    @DisplayName("hedgeSupplier(SQLSupplier<? extends T>, SQLSupplier<? extends T>)")
+    class HedgeSupplier {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLHedging hedging = SQLHedging.withDelay(SHORT_DELAY, executor);
+            SQLSupplier<String> supplier = () -> "foo";
+
+            assertThrows(NullPointerException.class, () -> hedging.hedgeSupplier(null));
+            assertThrows(NullPointerException.class, () -> hedging.hedgeSupplier(null, supplier));
+            assertThrows(NullPointerException.class, () -> hedging.hedgeSupplier(supplier, null));
+        }
+
+        @Test
+        @DisplayName("fast primary")
+        void testFastPrimary() throws SQLException {
+            SQLHedging hedging = SQLHedging.withDelay(Duration.ofSeconds(10), executor);
+            AtomicInteger backupCalls = new AtomicInteger();
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> "primary", () -> {
+                backupCalls.incrementAndGet();
+                return "backup";
+            });
+
+            assertEquals("primary", supplier.get());
+            assertEquals(0, backupCalls.get());
+        }
+
+        @Test
+        @DisplayName("slow primary")
+        void testSlowPrimary() throws SQLException, InterruptedException {
+            SQLHedging hedging = SQLHedging.withDelay(SHORT_DELAY, executor);
+            CountDownLatch primaryCancelled = new CountDownLatch(1);
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    return "primary";
+                } catch (InterruptedException e) {
+                    primaryCancelled.countDown();
+                    throw SQLExceptions.interrupted(e);
+                }
+            }, () -> "backup");
+
+            assertEquals("backup", supplier.get());
+            assertTrue(primaryCancelled.await(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        @DisplayName("primary fails before delay")
+        void testPrimaryFailsBeforeDelay() {
+            SQLHedging hedging = SQLHedging.withDelay(Duration.ofSeconds(10), executor);
+            SQLException e = new SQLException("primary");
+            AtomicInteger backupCalls = new AtomicInteger();
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> {
+                throw e;
+            }, () -> {
+                backupCalls.incrementAndGet();
+                return "backup";
+            });
+
+            SQLException exception = assertThrows(SQLException.class, supplier::get);
+            assertSame(e, exception);
+            assertEquals(0, backupCalls.get());
+        }
+
+        @Test
+        @DisplayName("slow primary fails after backup started")
+        void testPrimaryFailsAfterBackupStarted() throws SQLException {
+            SQLHedging hedging = SQLHedging.withDelay(SHORT_DELAY, executor);
+            CountDownLatch backupStarted = new CountDownLatch(1);
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> {
+                await(backupStarted);
+                throw new SQLException("primary");
+            }, () -> {
+                backupStarted.countDown();
+                Thread.yield();
+                return "backup";
+            });
+
+            assertEquals("backup", supplier.get());
+        }
+
+        @Test
+        @DisplayName("both attempts fail")
+        void testBothFail() {
+            SQLHedging hedging = SQLHedging.withDelay(SHORT_DELAY, executor);
+            CountDownLatch primaryMayFail = new CountDownLatch(1);
+            SQLException primaryException = new SQLException("primary");
+            SQLException backupException = new SQLException("backup");
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> {
+                await(primaryMayFail);
+                throw primaryException;
+            }, () -> {
+                primaryMayFail.countDown();
+                throw backupException;
+            });
+
+            SQLException exception = assertThrows(SQLException.class, supplier::get);
+            SQLException other = exception == primaryException ? backupException : primaryException;
+            assertArrayEquals(new Throwable[] { other }, exception.getSuppressed());
+        }
+
+        @Test
+        @DisplayName("unchecked exception")
+        void testUncheckedException() {
+            SQLHedging hedging = SQLHedging.withDelay(Duration.ofSeconds(10), executor);
+            IllegalStateException e = new IllegalStateException("primary");
+            SQLSupplier<String> supplier = hedging.hedgeSupplier(() -> {
+                throw e;
+            });
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, supplier::get);
+            assertSame(e, exception);
+        }
+    }
+
+    @Nested
+    @DisplayName("hedgeFunction(SQLFunction<? super T, ? extends R>, SQLFunction<? super T, ? extends R>)")
+    class HedgeFunction {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLHedging hedging = SQLHedging.withDelay(SHORT_DELAY, executor);
+            SQLFunction<String, String> function = t -> t;
+
+            assertThrows(NullPointerException.class, () -> hedging.hedgeFunction(null));
+            assertThrows(NullPointerException.class, () -> hedging.hedgeFunction(null, function));
+            assertThrows(NullPointerException.class, () -> hedging.hedgeFunction(function, null));
+        }
+
+        @Test
+        @DisplayName("fast primary")
+        void testFastPrimary() throws SQLException {
+            SQLHedging hedging = SQLHedging.withDelay(Duration.ofSeconds(10), executor);
+            SQLFunction<String, String> function = hedging.hedgeFunction(t -> "primary-" + t, t -> "backup-" + t);
+
+            assertEquals("primary-foo", function.apply("foo"));
+        }
+
+        @Test
+        @DisplayName("slow primary")
+        void testSlowPrimary() throws SQLException {
+            SQLHedging hedging = SQLHedging.withDelay(SHORT_DELAY, executor);
+            CountDownLatch never = new CountDownLatch(1);
+            SQLFunction<String, String> function = hedging.hedgeFunction(t -> {
+                await(never);
+                return "primary-" + t;
+            }, t -> "backup-" + t);
+
+            assertEquals("backup-foo", function.apply("foo"));
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
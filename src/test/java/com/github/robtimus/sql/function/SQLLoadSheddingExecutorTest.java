@@ -0,0 +1,244 @@
+/*
+ * SQLLoadSheddingExecutorTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLLoadSheddingExecutorTest {
+
+    private static final Duration TARGET = Duration.ofMillis(20);
+    private static final Duration INTERVAL = Duration.ofMillis(100);
+
+    @Nested
+    @DisplayName("create(int, Duration, Duration, ThreadFactory)")
+    class Create {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+            assertThrows(NullPointerException.class, () -> SQLLoadSheddingExecutor.create(1, null));
+            assertThrows(NullPointerException.class, () -> SQLLoadSheddingExecutor.create(1, null, INTERVAL, threadFactory));
+            assertThrows(NullPointerException.class, () -> SQLLoadSheddingExecutor.create(1, TARGET, null, threadFactory));
+            assertThrows(NullPointerException.class, () -> SQLLoadSheddingExecutor.create(1, TARGET, INTERVAL, null));
+        }
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+            assertThrows(IllegalArgumentException.class, () -> SQLLoadSheddingExecutor.create(0, TARGET));
+            assertThrows(IllegalArgumentException.class, () -> SQLLoadSheddingExecutor.create(1, Duration.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> SQLLoadSheddingExecutor.create(1, INTERVAL, TARGET, threadFactory));
+        }
+    }
+
+    @Nested
+    @DisplayName("supply(SQLSupplier<? extends T>)")
+    class Supply {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            try (SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(1, TARGET)) {
+                assertThrows(NullPointerException.class, () -> executor.supply(null));
+            }
+        }
+
+        @Test
+        @DisplayName("supplies")
+        void testSupplies() throws InterruptedException, ExecutionException {
+            try (SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(2, TARGET)) {
+                CompletableFuture<String> future = executor.supply(() -> "foo");
+
+                assertEquals("foo", future.get());
+            }
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() throws InterruptedException {
+            try (SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(1, TARGET)) {
+                SQLException e = new SQLException("task");
+                CompletableFuture<String> future = executor.supply(() -> {
+                    throw e;
+                });
+
+                ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+                assertSame(e, exception.getCause());
+            }
+        }
+
+        @Test
+        @DisplayName("after shutdown")
+        void testAfterShutdown() {
+            SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(1, TARGET);
+            executor.close();
+
+            assertTrue(executor.isShutdown());
+            assertThrows(RejectedExecutionException.class, () -> executor.supply(() -> "foo"));
+        }
+    }
+
+    @Nested
+    @DisplayName("run(SQLRunnable)")
+    class Run {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            try (SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(1, TARGET)) {
+                assertThrows(NullPointerException.class, () -> executor.run(null));
+            }
+        }
+
+        @Test
+        @DisplayName("runs")
+        void testRuns() throws InterruptedException, ExecutionException {
+            try (SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(1, TARGET)) {
+                List<String> list = Collections.synchronizedList(new ArrayList<>());
+                CompletableFuture<Void> future = executor.run(() -> list.add("foo"));
+
+                assertNull(future.get());
+                assertEquals(Collections.singletonList("foo"), list);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("load shedding")
+    class LoadShedding {
+
+        @Test
+        @DisplayName("sheds tasks queued for longer than interval")
+        void testShedsStaleTasks() throws InterruptedException, ExecutionException {
+            try (SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(1, TARGET, INTERVAL, Executors.defaultThreadFactory())) {
+                CountDownLatch blocker = new CountDownLatch(1);
+                executor.run(() -> await(blocker));
+                CompletableFuture<String> stale = executor.supply(() -> "stale");
+
+                Thread.sleep(INTERVAL.toMillis() * 2);
+                blocker.countDown();
+
+                ExecutionException exception = assertThrows(ExecutionException.class, stale::get);
+                assertInstanceOf(SQLTransientException.class, exception.getCause());
+                assertEquals(1, executor.shedCount());
+
+                assertEquals("fresh", executor.supply(() -> "fresh").get());
+            }
+        }
+
+        @Test
+        @DisplayName("runs freshest tasks first when overloaded")
+        void testRunsFreshestTasksFirstWhenOverloaded() throws InterruptedException, ExecutionException {
+            Duration target = Duration.ofMillis(10);
+            try (SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(1, target, INTERVAL, Executors.defaultThreadFactory())) {
+                List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+                CountDownLatch firstBlocker = new CountDownLatch(1);
+                executor.run(() -> await(firstBlocker));
+                Thread.sleep(INTERVAL.toMillis() + 10);
+
+                // The second blocker starts a new interval, in which it is the only task and exceeds the target delay
+                CountDownLatch secondBlocker = new CountDownLatch(1);
+                executor.run(() -> await(secondBlocker));
+                CompletableFuture<Void> old1 = executor.run(() -> order.add("old1"));
+                Thread.sleep(target.toMillis() * 4);
+                firstBlocker.countDown();
+                CompletableFuture<Void> old2 = executor.run(() -> order.add("old2"));
+                Thread.sleep(INTERVAL.toMillis() + 20);
+
+                CompletableFuture<Void> fresh = executor.run(() -> order.add("new"));
+                CompletableFuture<Void> freshest = executor.run(() -> order.add("newest"));
+                secondBlocker.countDown();
+
+                fresh.get();
+                freshest.get();
+                assertTrue(executor.isOverloaded());
+                assertEquals(Arrays.asList("newest", "new"), order);
+                assertInstanceOf(SQLTransientException.class, assertThrows(ExecutionException.class, old1::get).getCause());
+                assertInstanceOf(SQLTransientException.class, assertThrows(ExecutionException.class, old2::get).getCause());
+                assertEquals(2, executor.shedCount());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("shutdownNow()")
+    class ShutdownNow {
+
+        @Test
+        @DisplayName("cancels queued tasks")
+        void testCancelsQueuedTasks() throws InterruptedException {
+            SQLLoadSheddingExecutor executor = SQLLoadSheddingExecutor.create(1, TARGET);
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(1);
+            CompletableFuture<Void> running = executor.run(() -> {
+                started.countDown();
+                await(blocker);
+            });
+            CompletableFuture<String> queued = executor.supply(() -> "foo");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            executor.shutdownNow();
+
+            assertTrue(executor.awaitTermination(Duration.ofSeconds(5)));
+            assertTrue(queued.isCancelled());
+            ExecutionException exception = assertThrows(ExecutionException.class, running::get);
+            assertInstanceOf(InterruptedException.class, exception.getCause().getCause());
+            assertFalse(executor.isOverloaded());
+            assertEquals(0, executor.queueSize());
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new SQLException("latch not released");
+            }
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
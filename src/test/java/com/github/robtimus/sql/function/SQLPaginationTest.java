@@ -0,0 +1,244 @@
+/*
+ * SQLPaginationTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLPaginationTest {
+
+    private static final List<Integer> ROWS = IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList());
+
+    private static final SQLFunction<Integer, Integer> KEY = row -> row;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final List<Integer> loadedAfter = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void shutdownExecutor() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private List<Integer> loadPage(Integer lastKey) {
+        loadedAfter.add(lastKey);
+        int after = lastKey == null ? 0 : lastKey;
+        return ROWS.stream()
+                .filter(row -> row > after)
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("iterator(K, SQLFunction<? super K, ? extends List<? extends T>>, SQLFunction<? super T, ? extends K>, Executor)")
+    class IteratorTest {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLFunction<Integer, List<Integer>> pageLoader = SQLPaginationTest.this::loadPage;
+
+            assertThrows(NullPointerException.class, () -> SQLPagination.iterator(0, null, KEY, executor));
+            assertThrows(NullPointerException.class, () -> SQLPagination.iterator(0, pageLoader, null, executor));
+            assertThrows(NullPointerException.class, () -> SQLPagination.iterator(0, pageLoader, KEY, null));
+        }
+
+        @Test
+        @DisplayName("all pages")
+        void testAllPages() {
+            Iterator<Integer> iterator = SQLPagination.iterator(null, SQLPaginationTest.this::loadPage, KEY, executor);
+
+            assertTrue(loadedAfter.isEmpty());
+
+            List<Integer> rows = new ArrayList<>();
+            iterator.forEachRemaining(rows::add);
+
+            assertEquals(ROWS, rows);
+            assertEquals(Arrays.asList(null, 10, 20, 25), loadedAfter);
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::next);
+        }
+
+        @Test
+        @DisplayName("no rows")
+        void testNoRows() {
+            Iterator<Integer> iterator = SQLPagination.iterator(100, SQLPaginationTest.this::loadPage, KEY, executor);
+
+            assertFalse(iterator.hasNext());
+            assertEquals(List.of(100), loadedAfter);
+        }
+
+        @Test
+        @DisplayName("prefetches next page")
+        void testPrefetchesNextPage() throws SQLException {
+            CountDownLatch secondPageLoaded = new CountDownLatch(1);
+
+            Iterator<Integer> iterator = SQLPagination.iterator(null, lastKey -> {
+                List<Integer> page = loadPage(lastKey);
+                if (lastKey != null) {
+                    secondPageLoaded.countDown();
+                }
+                return page;
+            }, KEY, executor);
+
+            assertEquals(1, iterator.next());
+            // the second page is loaded while the first page is being consumed
+            await(secondPageLoaded);
+            assertEquals(Arrays.asList(null, 10), loadedAfter);
+        }
+
+        @Test
+        @DisplayName("page loader throws")
+        void testPageLoaderThrows() {
+            SQLException e = new SQLException("failure");
+
+            Iterator<Integer> iterator = SQLPagination.iterator(null, lastKey -> {
+                if (lastKey != null) {
+                    throw e;
+                }
+                return loadPage(lastKey);
+            }, KEY, executor);
+
+            for (int i = 1; i <= 10; i++) {
+                assertEquals(i, iterator.next());
+            }
+            UncheckedSQLException exception = assertThrows(UncheckedSQLException.class, iterator::hasNext);
+            assertSame(e, exception.getCause());
+            assertFalse(iterator.hasNext());
+        }
+
+        @Test
+        @DisplayName("key extractor throws")
+        void testKeyExtractorThrows() {
+            IllegalStateException e = new IllegalStateException("failure");
+
+            Iterator<Integer> iterator = SQLPagination.iterator(null, SQLPaginationTest.this::loadPage, row -> {
+                throw e;
+            }, executor);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, iterator::hasNext);
+            assertSame(e, exception);
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Nested
+    @DisplayName("stream(K, SQLFunction<? super K, ? extends List<? extends T>>, SQLFunction<? super T, ? extends K>, Executor)")
+    class StreamTest {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLFunction<Integer, List<Integer>> pageLoader = SQLPaginationTest.this::loadPage;
+
+            assertThrows(NullPointerException.class, () -> SQLPagination.stream(0, null, KEY, executor));
+            assertThrows(NullPointerException.class, () -> SQLPagination.stream(0, pageLoader, null, executor));
+            assertThrows(NullPointerException.class, () -> SQLPagination.stream(0, pageLoader, KEY, null));
+        }
+
+        @Test
+        @DisplayName("all pages")
+        void testAllPages() {
+            try (Stream<Integer> stream = SQLPagination.stream(null, SQLPaginationTest.this::loadPage, KEY, executor)) {
+                assertTrue(loadedAfter.isEmpty());
+                assertEquals(ROWS, stream.collect(Collectors.toList()));
+            }
+        }
+
+        @Test
+        @DisplayName("close cancels next page")
+        void testCloseCancelsNextPage() throws SQLException {
+            CountDownLatch secondPageStarted = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Stream<Integer> stream = SQLPagination.stream(null, lastKey -> {
+                List<Integer> page = loadPage(lastKey);
+                if (lastKey != null) {
+                    secondPageStarted.countDown();
+                    await(release);
+                }
+                return page;
+            }, KEY, executor);
+            Iterator<Integer> iterator = stream.iterator();
+
+            assertEquals(1, iterator.next());
+            await(secondPageStarted);
+            stream.close();
+            release.countDown();
+
+            assertFalse(iterator.hasNext());
+            assertEquals(Arrays.asList(null, 10), loadedAfter);
+        }
+
+        @Test
+        @DisplayName("close prevents queued page load")
+        void testClosePreventsQueuedPageLoad() {
+            List<Runnable> queued = new ArrayList<>();
+            // loads the first page directly, and queues the loads of all other pages
+            Executor firstDirect = command -> {
+                if (loadedAfter.isEmpty()) {
+                    command.run();
+                } else {
+                    queued.add(command);
+                }
+            };
+
+            Stream<Integer> stream = SQLPagination.stream(null, SQLPaginationTest.this::loadPage, KEY, firstDirect);
+            Iterator<Integer> iterator = stream.iterator();
+
+            assertEquals(1, iterator.next());
+            assertEquals(1, queued.size());
+            stream.close();
+            queued.forEach(Runnable::run);
+
+            assertEquals(Collections.singletonList(null), loadedAfter);
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
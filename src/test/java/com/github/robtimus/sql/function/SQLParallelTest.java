@@ -0,0 +1,583 @@
+/*
+ * SQLParallelTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLParallelTest {
+
+    private static final List<String> ELEMENTS = Arrays.asList("a", "bb", "ccc", "dddd", "eeeee", "ffffff", "ggggggg", "hhhhhhhh");
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdownExecutor() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Nested
+    @DisplayName("map(List<? extends T>, SQLFunction<? super T, ? extends R>, Executor, int)")
+    class Map {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLFunction<String, String> function = String::toUpperCase;
+
+            assertThrows(NullPointerException.class, () -> SQLParallel.map((List<String>) null, function, executor, 2));
+            assertThrows(NullPointerException.class, () -> SQLParallel.map(ELEMENTS, null, executor, 2));
+            assertThrows(NullPointerException.class, () -> SQLParallel.map(ELEMENTS, function, (Executor) null, 2));
+            assertThrows(IllegalArgumentException.class, () -> SQLParallel.map(ELEMENTS, function, executor, 0));
+        }
+
+        @Test
+        @DisplayName("empty list")
+        void testEmptyList() throws SQLException {
+            assertEquals(Collections.emptyList(), SQLParallel.map(Collections.<String>emptyList(), String::toUpperCase, executor, 4));
+        }
+
+        @Test
+        @DisplayName("preserves order")
+        void testPreservesOrder() throws SQLException {
+            List<String> result = SQLParallel.map(ELEMENTS, s -> {
+                // let later elements complete earlier
+                sleep(10L * (ELEMENTS.size() - s.length()));
+                return s.toUpperCase();
+            }, executor, 4);
+
+            assertEquals(Arrays.asList("A", "BB", "CCC", "DDDD", "EEEEE", "FFFFFF", "GGGGGGG", "HHHHHHHH"), result);
+        }
+
+        @Test
+        @DisplayName("uses multiple threads")
+        void testUsesMultipleThreads() throws SQLException {
+            CountDownLatch allStarted = new CountDownLatch(4);
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+            SQLParallel.map(ELEMENTS.subList(0, 4), s -> {
+                threads.add(Thread.currentThread());
+                allStarted.countDown();
+                await(allStarted);
+                return s;
+            }, executor, 4);
+
+            assertEquals(4, threads.size());
+            assertTrue(threads.contains(Thread.currentThread()));
+        }
+
+        @Test
+        @DisplayName("limits parallelism")
+        void testLimitsParallelism() throws SQLException {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+
+            SQLParallel.map(ELEMENTS, s -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(10);
+                running.decrementAndGet();
+                return s;
+            }, executor, 2);
+
+            assertTrue(maxRunning.get() <= 2);
+        }
+
+        @Test
+        @DisplayName("stops at first failure")
+        void testStopsAtFirstFailure() {
+            SQLException e = new SQLException("failure");
+            List<String> processed = Collections.synchronizedList(new ArrayList<>());
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLParallel.map(ELEMENTS, s -> {
+                processed.add(s);
+                if ("bb".equals(s)) {
+                    throw e;
+                }
+                return s;
+            }, executor, 1));
+
+            assertSame(e, exception);
+            assertEquals(Arrays.asList("a", "bb"), processed);
+        }
+
+        @Test
+        @DisplayName("waits for calls in progress")
+        void testWaitsForCallsInProgress() {
+            SQLException e = new SQLException("failure");
+            CountDownLatch slowStarted = new CountDownLatch(1);
+            AtomicInteger completed = new AtomicInteger();
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLParallel.map(ELEMENTS.subList(0, 2), s -> {
+                if ("a".equals(s)) {
+                    slowStarted.countDown();
+                    sleep(100);
+                    completed.incrementAndGet();
+                    return s;
+                }
+                await(slowStarted);
+                throw e;
+            }, executor, 2));
+
+            assertSame(e, exception);
+            assertEquals(1, completed.get());
+        }
+
+        @Test
+        @DisplayName("executor rejects")
+        void testExecutorRejects() throws SQLException {
+            Executor rejecting = command -> {
+                throw new RejectedExecutionException();
+            };
+
+            List<String> result = SQLParallel.map(ELEMENTS, String::toUpperCase, rejecting, 4);
+
+            assertEquals(8, result.size());
+            assertEquals("HHHHHHHH", result.get(7));
+        }
+
+        @Test
+        @DisplayName("executor does not start workers")
+        void testExecutorDoesNotStartWorkers() throws SQLException {
+            List<Runnable> queued = new ArrayList<>();
+            AtomicInteger calls = new AtomicInteger();
+
+            List<String> result = SQLParallel.map(ELEMENTS, s -> {
+                calls.incrementAndGet();
+                return s.toUpperCase();
+            }, queued::add, 4);
+
+            assertEquals(8, result.size());
+            assertEquals(3, queued.size());
+
+            // workers that start late stop immediately
+            queued.forEach(Runnable::run);
+            assertEquals(8, calls.get());
+        }
+
+        @Test
+        @DisplayName("called from saturated executor")
+        void testCalledFromSaturatedExecutor() throws InterruptedException, ExecutionException, TimeoutException {
+            ExecutorService singleThread = Executors.newSingleThreadExecutor();
+            try {
+                Future<List<String>> future = singleThread.submit(() -> SQLParallel.map(ELEMENTS, String::toUpperCase, singleThread, 2));
+
+                List<String> result = future.get(5, TimeUnit.SECONDS);
+                assertEquals(8, result.size());
+                assertEquals("HHHHHHHH", result.get(7));
+            } finally {
+                singleThread.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("unchecked exception")
+        void testUncheckedException() {
+            IllegalStateException e = new IllegalStateException("failure");
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> SQLParallel.map(ELEMENTS, s -> {
+                throw e;
+            }, executor, 1));
+            assertSame(e, exception);
+        }
+
+        @Test
+        @DisplayName("interrupted")
+        void testInterrupted() {
+            Thread caller = Thread.currentThread();
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLParallel.map(ELEMENTS, s -> {
+                if (Thread.currentThread() != caller) {
+                    // keep the other worker busy until the caller waits for it
+                    sleep(200);
+                } else {
+                    caller.interrupt();
+                    // sleeping would fail now that the caller is interrupted
+                    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+                    while (System.nanoTime() < end) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return s;
+            }, executor, 2));
+
+            assertTrue(Thread.interrupted());
+            assertInstanceOf(InterruptedException.class, exception.getCause());
+        }
+    }
+
+    @Nested
+    @DisplayName("map(List<? extends T>, SQLFunction<? super T, ? extends R>, ForkJoinPool)")
+    class MapWithForkJoinPool {
+
+        @Test
+        @DisplayName("maps")
+        void testMaps() throws SQLException {
+            ForkJoinPool pool = new ForkJoinPool(3);
+            try {
+                List<Integer> result = SQLParallel.map(ELEMENTS, String::length, pool);
+
+                assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), result);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("nested in pool")
+        void testNestedInPool() {
+            ForkJoinPool pool = new ForkJoinPool(1);
+            try {
+                List<Integer> result = pool.submit(() -> {
+                    try {
+                        return SQLParallel.map(ELEMENTS, String::length, pool);
+                    } catch (SQLException e) {
+                        throw new UncheckedSQLException(e);
+                    }
+                }).join();
+
+                assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), result);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("mapToInt(List<? extends T>, ToIntSQLFunction<? super T>, Executor, int)")
+    class MapToInt {
+
+        @Test
+        @DisplayName("maps")
+        void testMaps() throws SQLException {
+            assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8 }, SQLParallel.mapToInt(ELEMENTS, String::length, executor, 3));
+            assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8 }, SQLParallel.mapToInt(ELEMENTS, String::length, ForkJoinPool.commonPool()));
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("failure");
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLParallel.mapToInt(ELEMENTS, s -> {
+                throw e;
+            }, executor, 3));
+            assertSame(e, exception);
+        }
+    }
+
+    @Nested
+    @DisplayName("mapToLong(List<? extends T>, ToLongSQLFunction<? super T>, Executor, int)")
+    class MapToLong {
+
+        @Test
+        @DisplayName("maps")
+        void testMaps() throws SQLException {
+            assertArrayEquals(new long[] { 1, 2, 3, 4, 5, 6, 7, 8 }, SQLParallel.mapToLong(ELEMENTS, String::length, executor, 3));
+            assertArrayEquals(new long[] { 1, 2, 3, 4, 5, 6, 7, 8 }, SQLParallel.mapToLong(ELEMENTS, String::length, ForkJoinPool.commonPool()));
+        }
+    }
+
+    @Nested
+    @DisplayName("mapToDouble(List<? extends T>, ToDoubleSQLFunction<? super T>, Executor, int)")
+    class MapToDouble {
+
+        @Test
+        @DisplayName("maps")
+        void testMaps() throws SQLException {
+            double[] expected = { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+            assertArrayEquals(expected, SQLParallel.mapToDouble(ELEMENTS, String::length, executor, 3));
+            assertArrayEquals(expected, SQLParallel.mapToDouble(ELEMENTS, String::length, ForkJoinPool.commonPool()));
+        }
+    }
+
+    @Nested
+    @DisplayName("array input")
+    class ArrayInput {
+
+        private final String[] elements = ELEMENTS.toArray(new String[0]);
+
+        @Test
+        @DisplayName("map")
+        void testMap() throws SQLException {
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), SQLParallel.map(elements, String::length, executor, 3));
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), SQLParallel.map(elements, String::length, ForkJoinPool.commonPool()));
+        }
+
+        @Test
+        @DisplayName("mapToInt")
+        void testMapToInt() throws SQLException {
+            assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8 }, SQLParallel.mapToInt(elements, String::length, executor, 3));
+            assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8 }, SQLParallel.mapToInt(elements, String::length, ForkJoinPool.commonPool()));
+        }
+
+        @Test
+        @DisplayName("mapToLong")
+        void testMapToLong() throws SQLException {
+            long[] expected = { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+            assertArrayEquals(expected, SQLParallel.mapToLong(elements, String::length, executor, 3));
+            assertArrayEquals(expected, SQLParallel.mapToLong(elements, String::length, ForkJoinPool.commonPool()));
+        }
+
+        @Test
+        @DisplayName("mapToDouble")
+        void testMapToDouble() throws SQLException {
+            double[] expected = { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+            assertArrayEquals(expected, SQLParallel.mapToDouble(elements, String::length, executor, 3));
+            assertArrayEquals(expected, SQLParallel.mapToDouble(elements, String::length, ForkJoinPool.commonPool()));
+        }
+
+        @Test
+        @DisplayName("null array")
+        void testNullArray() {
+            assertThrows(NullPointerException.class, () -> SQLParallel.map((String[]) null, String::length, executor, 3));
+        }
+    }
+
+    @Nested
+    @DisplayName("mapOrdered(Iterator<? extends T>, SQLFunction<? super T, ? extends R>, Executor, int)")
+    class MapOrderedIterator {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            Iterator<String> iterator = ELEMENTS.iterator();
+            SQLFunction<String, String> function = String::toUpperCase;
+
+            assertThrows(NullPointerException.class, () -> SQLParallel.mapOrdered((Iterator<String>) null, function, executor, 2));
+            assertThrows(NullPointerException.class, () -> SQLParallel.mapOrdered(iterator, null, executor, 2));
+            assertThrows(NullPointerException.class, () -> SQLParallel.mapOrdered(iterator, function, null, 2));
+            assertThrows(IllegalArgumentException.class, () -> SQLParallel.mapOrdered(iterator, function, executor, 0));
+        }
+
+        @Test
+        @DisplayName("preserves order")
+        void testPreservesOrder() {
+            Iterator<String> iterator = SQLParallel.mapOrdered(ELEMENTS.iterator(), s -> {
+                // let later elements complete earlier
+                sleep(10L * (ELEMENTS.size() - s.length()));
+                return s.toUpperCase();
+            }, executor, 4);
+
+            List<String> result = new ArrayList<>();
+            iterator.forEachRemaining(result::add);
+
+            assertEquals(Arrays.asList("A", "BB", "CCC", "DDDD", "EEEEE", "FFFFFF", "GGGGGGG", "HHHHHHHH"), result);
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::next);
+        }
+
+        @Test
+        @DisplayName("limits calls in flight")
+        void testLimitsCallsInFlight() {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            Iterator<String> iterator = SQLParallel.mapOrdered(ELEMENTS.iterator(), s -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(10);
+                running.decrementAndGet();
+                return s;
+            }, executor, 3);
+
+            List<String> result = new ArrayList<>();
+            iterator.forEachRemaining(result::add);
+
+            assertEquals(ELEMENTS, result);
+            assertTrue(maxRunning.get() <= 3);
+        }
+
+        @Test
+        @DisplayName("consumes input lazily")
+        void testConsumesInputLazily() {
+            AtomicInteger consumed = new AtomicInteger();
+            Iterator<Integer> input = IntStream.iterate(0, i -> i + 1).peek(i -> consumed.incrementAndGet()).iterator();
+
+            Iterator<Integer> iterator = SQLParallel.mapOrdered(input, i -> i * 2, executor, 4);
+
+            assertEquals(0, consumed.get());
+            assertEquals(0, iterator.next());
+            assertEquals(2, iterator.next());
+            assertTrue(consumed.get() <= 2 + 4);
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("failure");
+            Iterator<String> iterator = SQLParallel.mapOrdered(ELEMENTS.iterator(), s -> {
+                if ("ccc".equals(s)) {
+                    throw e;
+                }
+                return s;
+            }, executor, 2);
+
+            assertEquals("a", iterator.next());
+            assertEquals("bb", iterator.next());
+            UncheckedSQLException exception = assertThrows(UncheckedSQLException.class, iterator::next);
+            assertSame(e, exception.getCause());
+            assertFalse(iterator.hasNext());
+        }
+
+        @Test
+        @DisplayName("executor rejects")
+        void testExecutorRejects() {
+            Executor rejecting = command -> {
+                throw new RejectedExecutionException();
+            };
+            Iterator<String> iterator = SQLParallel.mapOrdered(ELEMENTS.iterator(), String::toUpperCase, rejecting, 2);
+
+            assertThrows(RejectedExecutionException.class, iterator::hasNext);
+        }
+    }
+
+    @Nested
+    @DisplayName("mapOrdered(Stream<? extends T>, SQLFunction<? super T, ? extends R>, Executor, int)")
+    class MapOrderedStream {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            Stream<String> stream = ELEMENTS.stream();
+            SQLFunction<String, String> function = String::toUpperCase;
+
+            assertThrows(NullPointerException.class, () -> SQLParallel.mapOrdered((Stream<String>) null, function, executor, 2));
+            assertThrows(NullPointerException.class, () -> SQLParallel.mapOrdered(stream, null, executor, 2));
+            assertThrows(NullPointerException.class, () -> SQLParallel.mapOrdered(stream, function, null, 2));
+            assertThrows(IllegalArgumentException.class, () -> SQLParallel.mapOrdered(stream, function, executor, 0));
+        }
+
+        @Test
+        @DisplayName("preserves order")
+        void testPreservesOrder() {
+            try (Stream<String> stream = SQLParallel.mapOrdered(ELEMENTS.stream(), s -> {
+                sleep(10L * (ELEMENTS.size() - s.length()));
+                return s.toUpperCase();
+            }, executor, 4)) {
+
+                assertEquals(Arrays.asList("A", "BB", "CCC", "DDDD", "EEEEE", "FFFFFF", "GGGGGGG", "HHHHHHHH"), stream.collect(Collectors.toList()));
+            }
+        }
+
+        @Test
+        @DisplayName("close cancels calls in flight")
+        void testCloseCancelsCallsInFlight() {
+            CountDownLatch blocker = new CountDownLatch(1);
+            AtomicBoolean sourceClosed = new AtomicBoolean();
+            Stream<String> source = ELEMENTS.stream().onClose(() -> sourceClosed.set(true));
+
+            Stream<String> stream = SQLParallel.mapOrdered(source, s -> {
+                if (!"a".equals(s)) {
+                    await(blocker);
+                }
+                return s;
+            }, executor, 4);
+            try {
+                assertEquals("a", stream.findFirst().orElse(null));
+            } finally {
+                stream.close();
+                blocker.countDown();
+            }
+
+            assertTrue(sourceClosed.get());
+        }
+
+        @Test
+        @DisplayName("close prevents queued calls")
+        void testClosePreventsQueuedCalls() throws InterruptedException {
+            ExecutorService singleThread = Executors.newSingleThreadExecutor();
+            CountDownLatch secondStarted = new CountDownLatch(1);
+            CountDownLatch blocker = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+
+            try (Stream<String> stream = SQLParallel.mapOrdered(ELEMENTS.stream(), s -> {
+                calls.incrementAndGet();
+                if (!"a".equals(s)) {
+                    secondStarted.countDown();
+                    await(blocker);
+                }
+                return s;
+            }, singleThread, 4)) {
+
+                // starts the calls for the first 4 elements; the second call blocks the single thread, so the last 2 calls remain queued
+                assertEquals("a", stream.findFirst().orElse(null));
+                assertTrue(secondStarted.await(5, TimeUnit.SECONDS));
+            } finally {
+                blocker.countDown();
+                singleThread.shutdown();
+                assertTrue(singleThread.awaitTermination(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(2, calls.get());
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new SQLException("latch not released");
+            }
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+
+    private static void sleep(long millis) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * SQLParameterBindersTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLParameterBindersTest {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    @Nested
+    @DisplayName("of(Class<T>, String...)")
+    class OfPublic {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            assertThrows(NullPointerException.class, () -> SQLParameterBinders.of(null, "id"));
+            assertThrows(NullPointerException.class, () -> SQLParameterBinders.of(Person.class, (String[]) null));
+            // not public
+            assertThrows(IllegalArgumentException.class, () -> SQLParameterBinders.of(Person.class, "id"));
+        }
+    }
+
+    @Nested
+    @DisplayName("of(Class<T>, Lookup, String...)")
+    class OfWithLookup {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            assertThrows(NullPointerException.class, () -> SQLParameterBinders.of(null, LOOKUP, "id"));
+            assertThrows(NullPointerException.class, () -> SQLParameterBinders.of(Person.class, (MethodHandles.Lookup) null, "id"));
+            assertThrows(NullPointerException.class, () -> SQLParameterBinders.of(Person.class, LOOKUP, (String[]) null));
+            assertThrows(NullPointerException.class, () -> SQLParameterBinders.of(Person.class, LOOKUP, "id", null));
+            // beans need names
+            assertThrows(IllegalArgumentException.class, () -> SQLParameterBinders.of(Person.class, LOOKUP));
+            assertThrows(IllegalArgumentException.class, () -> SQLParameterBinders.of(Person.class, LOOKUP, "unknown"));
+            assertThrows(IllegalArgumentException.class, () -> SQLParameterBinders.of(AmbiguousGetters.class, LOOKUP, "value"));
+            assertThrows(IllegalArgumentException.class, () -> SQLParameterBinders.of(int.class, LOOKUP, "value"));
+        }
+
+        @Test
+        @DisplayName("binds bean properties in order")
+        void testBindsBeanProperties() throws SQLException {
+            Person person = new Person(1, "John", 2.5D, new BigDecimal("10.25"), LocalDate.of(2000, 1, 2), true, 7L);
+            FakeStatement statement = new FakeStatement();
+
+            SQLBiConsumer<PreparedStatement, Person> binder = SQLParameterBinders.of(Person.class, LOOKUP,
+                    "FIRST_NAME", "id", "score", "balance", "birth_date", "active", "visits");
+            binder.accept(statement.proxy(), person);
+
+            assertEquals(List.of(
+                    List.of("setString", 1, "John"),
+                    List.of("setInt", 2, 1),
+                    List.of("setDouble", 3, 2.5D),
+                    List.of("setBigDecimal", 4, new BigDecimal("10.25")),
+                    List.of("setObject", 5, LocalDate.of(2000, 1, 2)),
+                    List.of("setBoolean", 6, true),
+                    List.of("setLong", 7, 7L)), statement.calls);
+        }
+
+        @Test
+        @DisplayName("binds nulls with SQL types")
+        void testBindsNulls() throws SQLException {
+            Person person = new Person(2, null, 0, null, null, false, null);
+            FakeStatement statement = new FakeStatement();
+
+            SQLBiConsumer<PreparedStatement, Person> binder = SQLParameterBinders.of(Person.class, LOOKUP,
+                    "firstName", "balance", "birthDate", "visits");
+            binder.accept(statement.proxy(), person);
+
+            assertEquals(List.of(
+                    List.of("setNull", 1, Types.VARCHAR),
+                    List.of("setNull", 2, Types.DECIMAL),
+                    List.of("setNull", 3, Types.DATE),
+                    List.of("setNull", 4, Types.BIGINT)), statement.calls);
+        }
+
+        @Test
+        @DisplayName("binds char properties")
+        void testBindsCharProperties() throws SQLException {
+            FakeStatement statement = new FakeStatement();
+            SQLBiConsumer<PreparedStatement, Grade> binder = SQLParameterBinders.of(Grade.class, LOOKUP, "grade", "initial");
+
+            binder.accept(statement.proxy(), new Grade('A', 'J'));
+            binder.accept(statement.proxy(), new Grade('B', null));
+
+            assertEquals(List.of(
+                    List.of("setString", 1, "A"),
+                    List.of("setString", 2, "J"),
+                    List.of("setString", 1, "B"),
+                    List.of("setNull", 2, Types.CHAR)), statement.calls);
+        }
+
+        @Test
+        @DisplayName("binds same property more than once")
+        void testBindsSamePropertyTwice() throws SQLException {
+            Person person = new Person(3, "Jane", 0, null, null, false, null);
+            FakeStatement statement = new FakeStatement();
+
+            SQLParameterBinders.of(Person.class, LOOKUP, "id", "firstName", "id").accept(statement.proxy(), person);
+
+            assertEquals(List.of(
+                    List.of("setInt", 1, 3),
+                    List.of("setString", 2, "Jane"),
+                    List.of("setInt", 3, 3)), statement.calls);
+        }
+
+        @Test
+        @DisplayName("names that only differ in case and underscores are bound the same way")
+        void testNormalizedNames() throws SQLException {
+            Person person = new Person(4, "Jack", 0, null, null, false, null);
+            FakeStatement first = new FakeStatement();
+            FakeStatement second = new FakeStatement();
+
+            SQLParameterBinders.of(Person.class, LOOKUP, "FIRST_NAME", "id").accept(first.proxy(), person);
+            SQLParameterBinders.of(Person.class, LOOKUP, "firstName", "ID").accept(second.proxy(), person);
+
+            assertEquals(List.of(
+                    List.of("setString", 1, "Jack"),
+                    List.of("setInt", 2, 4)), first.calls);
+            assertEquals(first.calls, second.calls);
+        }
+
+        @Test
+        @DisplayName("binds more name combinations than are cached")
+        void testMoreNameCombinationsThanCached() throws SQLException {
+            Person person = new Person(5, "Jill", 0, null, null, false, null);
+
+            for (int i = 1; i <= 100; i++) {
+                String[] names = Collections.nCopies(i, "id").toArray(String[]::new);
+                FakeStatement statement = new FakeStatement();
+
+                SQLParameterBinders.of(Person.class, LOOKUP, names).accept(statement.proxy(), person);
+
+                assertEquals(i, statement.calls.size());
+                assertEquals(List.of("setInt", i, 5), statement.calls.get(i - 1));
+            }
+        }
+
+        @Test
+        @DisplayName("setter throws")
+        void testSetterThrows() {
+            SQLException exception = new SQLException("setInt");
+            FakeStatement statement = new FakeStatement();
+            statement.failOn("setInt", exception);
+
+            SQLBiConsumer<PreparedStatement, Person> binder = SQLParameterBinders.of(Person.class, LOOKUP, "id");
+            Person person = new Person(1, "John", 0, null, null, false, null);
+
+            SQLException thrown = assertThrows(SQLException.class, () -> binder.accept(statement.proxy(), person));
+            assertSame(exception, thrown);
+        }
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLBiConsumer<PreparedStatement, Person> binder = SQLParameterBinders.of(Person.class, LOOKUP, "id");
+            Person person = new Person(1, "John", 0, null, null, false, null);
+            PreparedStatement statement = new FakeStatement().proxy();
+
+            assertThrows(NullPointerException.class, () -> binder.accept(null, person));
+            assertThrows(NullPointerException.class, () -> binder.accept(statement, null));
+        }
+
+        @Test
+        @DisplayName("toString()")
+        void testToString() {
+            assertEquals("SQLParameterBinders[type=" + Person.class.getName() + "]",
+                    SQLParameterBinders.of(Person.class, LOOKUP, "id").toString());
+        }
+    }
+
+    static class Person {
+
+        private final int id;
+        private final String firstName;
+        private final double score;
+        private final BigDecimal balance;
+        private final LocalDate birthDate;
+        private final boolean active;
+        private final Long visits;
+
+        Person(int id, String firstName, double score, BigDecimal balance, LocalDate birthDate, boolean active, Long visits) {
+            this.id = id;
+            this.firstName = firstName;
+            this.score = score;
+            this.balance = balance;
+            this.birthDate = birthDate;
+            this.active = active;
+            this.visits = visits;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public LocalDate getBirthDate() {
+            return birthDate;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public Long getVisits() {
+            return visits;
+        }
+    }
+
+    static class Grade {
+
+        private final char grade;
+        private final Character initial;
+
+        Grade(char grade, Character initial) {
+            this.grade = grade;
+            this.initial = initial;
+        }
+
+        public char getGrade() {
+            return grade;
+        }
+
+        public Character getInitial() {
+            return initial;
+        }
+    }
+
+    static class AmbiguousGetters {
+
+        public boolean getValue() {
+            return true;
+        }
+
+        public boolean isValue() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * SQLPipelineTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLPipelineTest {
+
+    private static final List<Integer> ELEMENTS = IntStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+
+    @Nested
+    @DisplayName("assembly")
+    class Assembly {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLPipeline<Integer, Integer> pipeline = SQLPipeline.create();
+
+            assertThrows(NullPointerException.class, () -> pipeline.map(null));
+            assertThrows(NullPointerException.class, () -> pipeline.map(null, 2));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.map(i -> i, 0));
+            assertThrows(NullPointerException.class, () -> pipeline.filter(null));
+            assertThrows(NullPointerException.class, () -> pipeline.filter(null, 2));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.filter(i -> true, 0));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.withBatchSize(0));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.withQueueCapacity(0));
+            assertThrows(NullPointerException.class, () -> pipeline.mapCpu(null, 2));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.mapCpu(i -> i, 0));
+            assertThrows(NullPointerException.class, () -> pipeline.filterCpu(null, 2));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.filterCpu(i -> true, 0));
+            assertThrows(NullPointerException.class, () -> pipeline.withLanes(null));
+        }
+
+        @Test
+        @DisplayName("immutable")
+        void testImmutable() {
+            SQLPipeline<Integer, Integer> pipeline = SQLPipeline.create();
+            SQLPipeline<Integer, Integer> mapped = pipeline.map(i -> i, 2);
+            SQLPipeline<Integer, Integer> configured = mapped.withBatchSize(10).withQueueCapacity(4);
+
+            assertEquals("SQLPipeline[stages=[],batchSize=64,queueCapacity=16]", pipeline.toString());
+            assertEquals("SQLPipeline[stages=[map(2)],batchSize=64,queueCapacity=16]", mapped.toString());
+            assertEquals("SQLPipeline[stages=[map(2)],batchSize=10,queueCapacity=4]", configured.toString());
+            assertEquals(10, configured.batchSize());
+            assertEquals(4, configured.queueCapacity());
+            assertSame(SQLExecutionLanes.shared(), configured.lanes());
+        }
+
+        @Test
+        @DisplayName("CPU-bound stages")
+        void testCpuBoundStages() throws SQLException {
+            try (SQLExecutionLanes lanes = SQLExecutionLanes.create(1)) {
+                SQLPipeline<Integer, Integer> pipeline = SQLPipeline.<Integer>create()
+                        .mapCpu(i -> i, 2)
+                        .filterCpu(i -> true, 1)
+                        .withLanes(lanes);
+
+                assertEquals("SQLPipeline[stages=[mapCpu(2), filterCpu(1)],batchSize=64,queueCapacity=16]", pipeline.toString());
+                assertSame(lanes, pipeline.lanes());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("run(Iterator<? extends T>, SQLConsumer<? super R>, int)")
+    class RunIterator {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLPipeline<Integer, Integer> pipeline = SQLPipeline.create();
+            Iterator<Integer> source = ELEMENTS.iterator();
+            SQLConsumer<Integer> sink = i -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> pipeline.run((Iterator<Integer>) null, sink, 1));
+            assertThrows(NullPointerException.class, () -> pipeline.run(source, null, 1));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.run(source, sink, 0));
+        }
+
+        @Test
+        @DisplayName("without stages")
+        void testWithoutStages() throws SQLException {
+            List<Integer> result = new ArrayList<>();
+
+            long count = SQLPipeline.<Integer>create().run(ELEMENTS.iterator(), result::add, 1);
+
+            assertEquals(ELEMENTS.size(), count);
+            assertEquals(ELEMENTS, result);
+        }
+
+        @Test
+        @DisplayName("sequential stages keep order")
+        void testSequentialStagesKeepOrder() throws SQLException {
+            List<String> result = new ArrayList<>();
+
+            long count = SQLPipeline.<Integer>create()
+                    .filter(i -> i % 2 == 0)
+                    .map(i -> "#" + i)
+                    .withBatchSize(7)
+                    .withQueueCapacity(2)
+                    .run(ELEMENTS.iterator(), result::add, 1);
+
+            List<String> expected = ELEMENTS.stream()
+                    .filter(i -> i % 2 == 0)
+                    .map(i -> "#" + i)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected.size(), count);
+            assertEquals(expected, result);
+        }
+
+        @Test
+        @DisplayName("parallel stages")
+        void testParallelStages() throws SQLException {
+            Set<Thread> mapThreads = ConcurrentHashMap.newKeySet();
+            Set<Thread> sinkThreads = ConcurrentHashMap.newKeySet();
+            Set<Integer> result = ConcurrentHashMap.newKeySet();
+
+            long count = SQLPipeline.<Integer>create()
+                    .map(i -> {
+                        mapThreads.add(Thread.currentThread());
+                        sleep(1);
+                        return i * 10;
+                    }, 4)
+                    .filter(i -> i % 3 != 0, 2)
+                    .withBatchSize(5)
+                    .run(ELEMENTS.subList(0, 200).iterator(), i -> {
+                        sinkThreads.add(Thread.currentThread());
+                        result.add(i);
+                    }, 3);
+
+            Set<Integer> expected = ELEMENTS.subList(0, 200).stream()
+                    .map(i -> i * 10)
+                    .filter(i -> i % 3 != 0)
+                    .collect(Collectors.toSet());
+
+            assertEquals(expected.size(), count);
+            assertEquals(expected, result);
+            assertTrue(mapThreads.size() > 1);
+            assertTrue(sinkThreads.size() <= 3);
+            assertTrue(Collections.disjoint(mapThreads, sinkThreads));
+        }
+
+        @Test
+        @DisplayName("bounded queues")
+        void testBoundedQueues() throws SQLException {
+            AtomicInteger produced = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            AtomicInteger consumed = new AtomicInteger();
+
+            Iterator<Integer> source = new Iterator<>() {
+                private final Iterator<Integer> delegate = ELEMENTS.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return delegate.hasNext();
+                }
+
+                @Override
+                public Integer next() {
+                    int inFlight = produced.incrementAndGet() - consumed.get();
+                    maxInFlight.accumulateAndGet(inFlight, Math::max);
+                    return delegate.next();
+                }
+            };
+
+            SQLPipeline.<Integer>create()
+                    .withBatchSize(4)
+                    .withQueueCapacity(2)
+                    .run(source, i -> {
+                        sleep(1);
+                        consumed.incrementAndGet();
+                    }, 1);
+
+            // 2 queued batches, 1 batch being consumed, 1 batch being produced
+            assertTrue(maxInFlight.get() <= 4 * 4, "max in flight: " + maxInFlight.get());
+        }
+
+        @Test
+        @DisplayName("stage throws")
+        void testStageThrows() {
+            SQLException e = new SQLException("failure");
+            AtomicInteger sinkCount = new AtomicInteger();
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLPipeline.<Integer>create()
+                    .map(i -> {
+                        if (i == 100) {
+                            throw e;
+                        }
+                        return i;
+                    })
+                    .withBatchSize(1)
+                    .withQueueCapacity(1)
+                    .run(ELEMENTS.iterator(), i -> sinkCount.incrementAndGet(), 1));
+
+            assertSame(e, exception);
+            assertTrue(sinkCount.get() < 100);
+        }
+
+        @Test
+        @DisplayName("sink throws")
+        void testSinkThrows() {
+            IllegalStateException e = new IllegalStateException("failure");
+            AtomicInteger sourceCount = new AtomicInteger();
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> SQLPipeline.<Integer>create()
+                    .map(i -> i, 2)
+                    .withBatchSize(1)
+                    .withQueueCapacity(1)
+                    .run(ELEMENTS.stream().peek(i -> sourceCount.incrementAndGet()).iterator(), i -> {
+                        throw e;
+                    }, 2));
+
+            assertSame(e, exception);
+            // only a bounded number of elements is taken from the source after the failure
+            assertTrue(sourceCount.get() < 100, "source count: " + sourceCount.get());
+        }
+
+        @Test
+        @DisplayName("source throws")
+        void testSourceThrows() {
+            IllegalStateException e = new IllegalStateException("failure");
+
+            Iterator<Integer> source = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public Integer next() {
+                    throw e;
+                }
+            };
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> SQLPipeline.<Integer>create()
+                    .map(i -> i, 2)
+                    .run(source, i -> {
+                        // does nothing
+                    }, 1));
+            assertSame(e, exception);
+        }
+
+        @Test
+        @DisplayName("interrupted")
+        void testInterrupted() {
+            Thread.currentThread().interrupt();
+            SQLException exception = assertThrows(SQLException.class, () -> SQLPipeline.<Integer>create()
+                    .run(ELEMENTS.iterator(), i -> sleep(1), 1));
+
+            assertInstanceOf(InterruptedException.class, exception.getCause());
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Nested
+    @DisplayName("CPU-bound stages")
+    class CpuBoundStages {
+
+        @Test
+        @DisplayName("run in CPU lane")
+        void testRunInCpuLane() throws SQLException {
+            Set<Thread> cpuThreads = ConcurrentHashMap.newKeySet();
+            Set<Thread> ioThreads = ConcurrentHashMap.newKeySet();
+            Set<String> result = ConcurrentHashMap.newKeySet();
+
+            try (SQLExecutionLanes lanes = SQLExecutionLanes.create(1)) {
+                long count = SQLPipeline.<Integer>create()
+                        .map(i -> {
+                            ioThreads.add(Thread.currentThread());
+                            return i;
+                        }, 4)
+                        .filterCpu(i -> {
+                            cpuThreads.add(Thread.currentThread());
+                            return i % 2 == 0;
+                        }, 3)
+                        .mapCpu(i -> {
+                            cpuThreads.add(Thread.currentThread());
+                            return "#" + i;
+                        }, 3)
+                        .withBatchSize(5)
+                        .withLanes(lanes)
+                        .run(ELEMENTS.iterator(), result::add, 1);
+
+                List<String> expected = ELEMENTS.stream()
+                        .filter(i -> i % 2 == 0)
+                        .map(i -> "#" + i)
+                        .collect(Collectors.toList());
+
+                assertEquals(expected.size(), count);
+                assertEquals(Set.copyOf(expected), result);
+                // the CPU pool has a parallelism of 1, and none of its threads block
+                assertEquals(1, cpuThreads.size());
+                assertTrue(cpuThreads.stream().noneMatch(ioThreads::contains));
+            }
+        }
+
+        @Test
+        @DisplayName("sequential stages keep order")
+        void testSequentialStagesKeepOrder() throws SQLException {
+            List<Integer> result = new ArrayList<>();
+
+            long count = SQLPipeline.<Integer>create()
+                    .mapCpu(i -> i * 2, 1)
+                    .withBatchSize(7)
+                    .run(ELEMENTS.iterator(), result::add, 1);
+
+            List<Integer> expected = ELEMENTS.stream()
+                    .map(i -> i * 2)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected.size(), count);
+            assertEquals(expected, result);
+        }
+
+        @Test
+        @DisplayName("stage throws")
+        void testStageThrows() {
+            SQLException exception = new SQLException("map");
+
+            SQLPipeline<Integer, Integer> pipeline = SQLPipeline.<Integer>create()
+                    .mapCpu(i -> {
+                        if (i == 500) {
+                            throw exception;
+                        }
+                        return i;
+                    }, 2);
+            List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+
+            SQLException thrown = assertThrows(SQLException.class, () -> pipeline.run(ELEMENTS.iterator(), result::add, 1));
+            assertSame(exception, thrown);
+        }
+    }
+
+    @Nested
+    @DisplayName("run(SQLSupplier<? extends T>, SQLConsumer<? super R>, int)")
+    class RunSupplier {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLPipeline<Integer, Integer> pipeline = SQLPipeline.create();
+            SQLSupplier<Integer> source = () -> null;
+            SQLConsumer<Integer> sink = i -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> pipeline.run((SQLSupplier<Integer>) null, sink, 1));
+            assertThrows(NullPointerException.class, () -> pipeline.run(source, null, 1));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.run(source, sink, 0));
+        }
+
+        @Test
+        @DisplayName("until null")
+        void testUntilNull() throws SQLException {
+            Iterator<Integer> iterator = ELEMENTS.iterator();
+            Set<Integer> result = ConcurrentHashMap.newKeySet();
+
+            long count = SQLPipeline.<Integer>create()
+                    .map(i -> i + 1, 2)
+                    .run(() -> iterator.hasNext() ? iterator.next() : null, result::add, 2);
+
+            assertEquals(ELEMENTS.size(), count);
+            assertEquals(ELEMENTS.stream().map(i -> i + 1).collect(Collectors.toSet()), result);
+        }
+    }
+
+    @Nested
+    @DisplayName("run(ResultSet, SQLFunction<? super ResultSet, ? extends T>, SQLConsumer<? super R>, int)")
+    class RunResultSet {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLPipeline<Integer, Integer> pipeline = SQLPipeline.create();
+            ResultSet resultSet = FakeResultSet.ofInts(ELEMENTS).proxy();
+            SQLFunction<ResultSet, Integer> mapper = rs -> rs.getInt(1);
+            SQLConsumer<Integer> sink = i -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> pipeline.run(null, mapper, sink, 1));
+            assertThrows(NullPointerException.class, () -> pipeline.run(resultSet, null, sink, 1));
+            assertThrows(NullPointerException.class, () -> pipeline.run(resultSet, mapper, null, 1));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.run(resultSet, mapper, sink, 0));
+        }
+
+        @Test
+        @DisplayName("all rows")
+        void testAllRows() throws SQLException {
+            List<Integer> result = new ArrayList<>();
+
+            long count = SQLPipeline.<Integer>create()
+                    .map(i -> -i)
+                    .run(FakeResultSet.ofInts(ELEMENTS).proxy(), rs -> rs.getInt(1), result::add, 1);
+
+            assertEquals(ELEMENTS.size(), count);
+            assertEquals(ELEMENTS.stream().map(i -> -i).collect(Collectors.toList()), result);
+        }
+    }
+
+    private static void sleep(long millis) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * SQLRangeScannerTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLRangeScannerTest {
+
+    private static final SQLRangeScanner.RangeReader<Long> READ_ALL = SQLRangeScannerTest::readAll;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdownPool() throws InterruptedException {
+        pool.shutdownNow();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Nested
+    @DisplayName("create(long, ForkJoinPool)")
+    class Create {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            assertThrows(IllegalArgumentException.class, () -> SQLRangeScanner.create(0));
+            assertThrows(IllegalArgumentException.class, () -> SQLRangeScanner.create(-1, pool));
+            assertThrows(NullPointerException.class, () -> SQLRangeScanner.create(10, null));
+            assertThrows(NullPointerException.class, () -> SQLRangeScanner.create(null));
+            assertThrows(NullPointerException.class, () -> SQLRangeScanner.create(null, pool));
+            assertThrows(NullPointerException.class, () -> SQLRangeScanner.create(SQLChunkSizer.create(Duration.ofMillis(10), 10, 1, 100), null));
+        }
+
+        @Test
+        @DisplayName("toString()")
+        void testToString() {
+            assertEquals("SQLRangeScanner[chunkSize=10,parallelism=4]", SQLRangeScanner.create(10, pool).toString());
+        }
+    }
+
+    @Nested
+    @DisplayName("scan(long, long, RangeReader<T>, SQLConsumer<? super T>)")
+    class Scan {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLRangeScanner scanner = SQLRangeScanner.create(10, pool);
+            SQLRangeScanner.RangeReader<Long> reader = READ_ALL;
+            SQLConsumer<Long> action = row -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> scanner.scan(0, 10, null, action));
+            assertThrows(NullPointerException.class, () -> scanner.scan(0, 10, reader, null));
+            assertThrows(IllegalArgumentException.class, () -> scanner.scan(10, 0, reader, action));
+        }
+
+        @Test
+        @DisplayName("covers range exactly once")
+        void testCoversRangeExactlyOnce() throws SQLException {
+            SQLRangeScanner scanner = SQLRangeScanner.create(7, pool);
+            List<long[]> chunks = Collections.synchronizedList(new ArrayList<>());
+            Set<Long> rows = ConcurrentHashMap.newKeySet();
+
+            long count = scanner.scan(1, 1000, (fromKey, toKey, action) -> {
+                chunks.add(new long[] { fromKey, toKey });
+                readAll(fromKey, toKey, action);
+            }, rows::add);
+
+            assertEquals(1000, count);
+            assertEquals(LongStream.rangeClosed(1, 1000).boxed().collect(Collectors.toSet()), rows);
+            assertTrue(chunks.stream().allMatch(chunk -> chunk[1] - chunk[0] + 1 <= 7));
+            assertEquals(1000, chunks.stream().mapToLong(chunk -> chunk[1] - chunk[0] + 1).sum());
+        }
+
+        @Test
+        @DisplayName("adaptive chunk size")
+        void testAdaptiveChunkSize() throws SQLException {
+            SQLChunkSizer chunkSizer = SQLChunkSizer.create(Duration.ofHours(1), 4, 4, 1000);
+            SQLRangeScanner scanner = SQLRangeScanner.create(chunkSizer, pool);
+            List<long[]> chunks = Collections.synchronizedList(new ArrayList<>());
+            Set<Long> rows = ConcurrentHashMap.newKeySet();
+
+            long count = scanner.scan(1, 10_000, (fromKey, toKey, action) -> {
+                chunks.add(new long[] { fromKey, toKey });
+                readAll(fromKey, toKey, action);
+            }, rows::add);
+
+            assertEquals(10_000, count);
+            assertEquals(LongStream.rangeClosed(1, 10_000).boxed().collect(Collectors.toSet()), rows);
+            assertEquals(10_000, chunks.stream().mapToLong(chunk -> chunk[1] - chunk[0] + 1).sum());
+            // reading is fast compared to the target latency, so the chunk size grows, and fewer chunks are needed than with a fixed size
+            assertTrue(chunkSizer.chunkSize() > 4);
+            assertTrue(chunks.size() < 10_000 / 4);
+            assertEquals(chunkSizer.chunkSize(), scanner.chunkSize());
+        }
+
+        @Test
+        @DisplayName("single key")
+        void testSingleKey() throws SQLException {
+            SQLRangeScanner scanner = SQLRangeScanner.create(10, pool);
+            List<Long> rows = new ArrayList<>();
+
+            assertEquals(1, scanner.scan(5, 5, READ_ALL, rows::add));
+            assertEquals(Collections.singletonList(5L), rows);
+        }
+
+        @Test
+        @DisplayName("full range of keys")
+        void testFullRangeOfKeys() throws SQLException {
+            // 2^61 keys per chunk, so 2^64 keys are split into 8 chunks
+            SQLRangeScanner scanner = SQLRangeScanner.create(1L << 61, pool);
+            AtomicInteger chunkCount = new AtomicInteger();
+
+            long count = scanner.scan(Long.MIN_VALUE, Long.MAX_VALUE, (fromKey, toKey, action) -> {
+                assertTrue(fromKey <= toKey);
+                chunkCount.incrementAndGet();
+                action.accept(fromKey);
+            }, row -> {
+                // does nothing
+            });
+
+            assertEquals(chunkCount.get(), count);
+            assertEquals(8, chunkCount.get());
+        }
+
+        @Test
+        @DisplayName("uses multiple workers")
+        void testUsesMultipleWorkers() throws SQLException {
+            SQLRangeScanner scanner = SQLRangeScanner.create(10, pool);
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+            scanner.scan(1, 1000, (fromKey, toKey, action) -> {
+                threads.add(Thread.currentThread());
+                sleep(5);
+                readAll(fromKey, toKey, action);
+            }, row -> {
+                // does nothing
+            });
+
+            assertTrue(threads.size() > 1);
+        }
+
+        @Test
+        @DisplayName("stops after failure")
+        void testStopsAfterFailure() {
+            SQLRangeScanner scanner = SQLRangeScanner.create(10, pool);
+            SQLException e = new SQLException("failure");
+            AtomicInteger chunkCount = new AtomicInteger();
+
+            SQLException exception = assertThrows(SQLException.class, () -> scanner.scan(1, 10_000, (fromKey, toKey, action) -> {
+                chunkCount.incrementAndGet();
+                if (fromKey == 1) {
+                    throw e;
+                }
+                sleep(5);
+            }, row -> {
+                // does nothing
+            }));
+
+            assertSame(e, exception);
+            assertTrue(chunkCount.get() < 1000);
+        }
+
+        @Test
+        @DisplayName("action throws")
+        void testActionThrows() {
+            SQLRangeScanner scanner = SQLRangeScanner.create(10, pool);
+            IllegalStateException e = new IllegalStateException("failure");
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> scanner.scan(1, 100, READ_ALL, row -> {
+                throw e;
+            }));
+            assertSame(e, exception);
+        }
+    }
+
+    @Nested
+    @DisplayName("scanKeys(long, long, KeyRangeReader, LongSQLConsumer)")
+    class ScanKeys {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLRangeScanner scanner = SQLRangeScanner.create(10, pool);
+            SQLRangeScanner.KeyRangeReader reader = SQLRangeScannerTest::readKeys;
+            LongSQLConsumer action = key -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> scanner.scanKeys(0, 10, null, action));
+            assertThrows(NullPointerException.class, () -> scanner.scanKeys(0, 10, reader, null));
+            assertThrows(IllegalArgumentException.class, () -> scanner.scanKeys(10, 0, reader, action));
+        }
+
+        @Test
+        @DisplayName("sparse keys")
+        void testSparseKeys() throws SQLException {
+            SQLRangeScanner scanner = SQLRangeScanner.create(100, pool);
+            Set<Long> keys = ConcurrentHashMap.newKeySet();
+
+            // only multiples of 10 exist
+            long count = scanner.scanKeys(0, 9999, (fromKey, toKey, action) -> {
+                for (long key = (fromKey + 9) / 10 * 10; key <= toKey; key += 10) {
+                    action.accept(key);
+                }
+            }, keys::add);
+
+            assertEquals(1000, count);
+            assertEquals(LongStream.range(0, 1000).map(i -> i * 10).boxed().collect(Collectors.toSet()), keys);
+        }
+    }
+
+    private static void readAll(long fromKey, long toKey, SQLConsumer<? super Long> action) throws SQLException {
+        for (long key = fromKey; key <= toKey; key++) {
+            action.accept(key);
+        }
+    }
+
+    private static void readKeys(long fromKey, long toKey, LongSQLConsumer action) throws SQLException {
+        for (long key = fromKey; key <= toKey; key++) {
+            action.accept(key);
+        }
+    }
+
+    private static void sleep(long millis) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
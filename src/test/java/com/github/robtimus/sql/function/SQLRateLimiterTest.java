@@ -0,0 +1,404 @@
+/*
+ * SQLRateLimiterTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLRateLimiterTest {
+
+    private static final String TEST_VALUE = "foo";
+
+    // A rate that is so slow that no new permits will become available during a test
+    private static final double SLOW_RATE = 0.001;
+
+    @Nested
+    @DisplayName("create(double)")
+    class CreateWithRate {
+
+        @Test
+        @DisplayName("invalid rate")
+        void testInvalidRate() {
+            assertThrows(IllegalArgumentException.class, () -> SQLRateLimiter.create(0));
+            assertThrows(IllegalArgumentException.class, () -> SQLRateLimiter.create(-1));
+            assertThrows(IllegalArgumentException.class, () -> SQLRateLimiter.create(Double.NaN));
+            assertThrows(IllegalArgumentException.class, () -> SQLRateLimiter.create(Double.POSITIVE_INFINITY));
+        }
+
+        @Test
+        @DisplayName("burst of one second")
+        void testBurst() {
+            assertEquals(10, SQLRateLimiter.create(10).burst());
+            assertEquals(1, SQLRateLimiter.create(0.5).burst());
+        }
+    }
+
+    @Nested
+    @DisplayName("create(double, int)")
+    class CreateWithRateAndBurst {
+
+        @Test
+        @DisplayName("invalid burst")
+        void testInvalidBurst() {
+            assertThrows(IllegalArgumentException.class, () -> SQLRateLimiter.create(1, 0));
+            assertThrows(IllegalArgumentException.class, () -> SQLRateLimiter.create(1, -1));
+        }
+
+        @Test
+        @DisplayName("valid arguments")
+        void testValidArguments() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(5, 3);
+
+            assertEquals(5, rateLimiter.permitsPerSecond());
+            assertEquals(3, rateLimiter.burst());
+        }
+    }
+
+    @Nested
+    @DisplayName("acquire(int)")
+    class Acquire {
+
+        @Test
+        @DisplayName("invalid permits")
+        void testInvalidPermits() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+
+            assertThrows(IllegalArgumentException.class, () -> rateLimiter.acquire(0));
+        }
+
+        @Test
+        @DisplayName("waits for permits")
+        void testWaits() throws InterruptedException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(50, 1);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 6; i++) {
+                rateLimiter.acquire();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            // the first permit is available immediately, the next 5 each take 20ms
+            assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(90), "elapsed: " + elapsed);
+        }
+
+        @Test
+        @DisplayName("interrupted")
+        void testInterrupted() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 1);
+            assertTrue(rateLimiter.tryAcquire());
+
+            Thread.currentThread().interrupt();
+            assertThrows(InterruptedException.class, rateLimiter::acquire);
+            assertFalse(Thread.interrupted());
+        }
+    }
+
+    @Nested
+    @DisplayName("tryAcquire(int)")
+    class TryAcquire {
+
+        @Test
+        @DisplayName("invalid permits")
+        void testInvalidPermits() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+
+            assertThrows(IllegalArgumentException.class, () -> rateLimiter.tryAcquire(0));
+        }
+
+        @Test
+        @DisplayName("up to burst")
+        void testUpToBurst() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 3);
+
+            assertTrue(rateLimiter.tryAcquire());
+            assertTrue(rateLimiter.tryAcquire(2));
+            assertFalse(rateLimiter.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("failure does not consume permits")
+        void testFailureDoesNotConsumePermits() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 3);
+
+            assertFalse(rateLimiter.tryAcquire(4));
+            assertTrue(rateLimiter.tryAcquire(3));
+        }
+
+        @Test
+        @DisplayName("very low rate")
+        void testVeryLowRate() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(Double.MIN_VALUE, 1);
+
+            assertTrue(rateLimiter.tryAcquire());
+            assertFalse(rateLimiter.tryAcquire());
+            assertFalse(rateLimiter.tryAcquire(2));
+            assertFalse(rateLimiter.tryAcquire(Integer.MAX_VALUE));
+        }
+    }
+
+    @Nested
+    @DisplayName("tryAcquire(int, Duration)")
+    class TryAcquireWithTimeout {
+
+        @Test
+        @DisplayName("null timeout")
+        void testNullTimeout() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+
+            assertThrows(NullPointerException.class, () -> rateLimiter.tryAcquire(1, null));
+        }
+
+        @Test
+        @DisplayName("waits within timeout")
+        void testWaitsWithinTimeout() throws InterruptedException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(20, 1);
+            assertTrue(rateLimiter.tryAcquire());
+
+            long start = System.nanoTime();
+            assertTrue(rateLimiter.tryAcquire(Duration.ofSeconds(1)));
+            long elapsed = System.nanoTime() - start;
+
+            assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(40), "elapsed: " + elapsed);
+        }
+
+        @Test
+        @DisplayName("does not wait beyond timeout")
+        void testDoesNotWaitBeyondTimeout() throws InterruptedException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 1);
+            assertTrue(rateLimiter.tryAcquire());
+
+            long start = System.nanoTime();
+            assertFalse(rateLimiter.tryAcquire(Duration.ofSeconds(10)));
+            long elapsed = System.nanoTime() - start;
+
+            assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1), "elapsed: " + elapsed);
+        }
+
+        @Test
+        @DisplayName("negative timeout")
+        void testNegativeTimeout() throws InterruptedException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 1);
+
+            assertTrue(rateLimiter.tryAcquire(Duration.ofSeconds(-1)));
+            assertFalse(rateLimiter.tryAcquire(Duration.ofSeconds(-1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("limitConsumer(SQLConsumer<? super T>)")
+    class LimitConsumer {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitConsumer(null));
+        }
+
+        @Test
+        @DisplayName("accepts")
+        void testAccepts() throws SQLException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1000);
+            List<String> list = new ArrayList<>();
+            SQLConsumer<String> consumer = rateLimiter.limitConsumer(list::add);
+
+            consumer.accept(TEST_VALUE);
+            assertEquals(Collections.singletonList(TEST_VALUE), list);
+        }
+
+        @Test
+        @DisplayName("interrupted")
+        void testInterrupted() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 1);
+            assertTrue(rateLimiter.tryAcquire());
+            List<String> list = new ArrayList<>();
+            SQLConsumer<String> consumer = rateLimiter.limitConsumer(list::add);
+
+            Thread.currentThread().interrupt();
+            SQLException exception = assertThrows(SQLException.class, () -> consumer.accept(TEST_VALUE));
+            assertInstanceOf(InterruptedException.class, exception.getCause());
+            assertTrue(Thread.interrupted());
+            assertEquals(Collections.emptyList(), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("limitConsumer(SQLConsumer<? super T>, Duration)")
+    class LimitConsumerWithMaxWait {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+            SQLConsumer<String> consumer = t -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitConsumer(null, Duration.ZERO));
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitConsumer(consumer, null));
+        }
+
+        @Test
+        @DisplayName("rate limit exceeded")
+        void testRateLimitExceeded() throws SQLException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 2);
+            List<String> list = new ArrayList<>();
+            SQLConsumer<String> consumer = rateLimiter.limitConsumer(list::add, Duration.ZERO);
+
+            consumer.accept("foo");
+            consumer.accept("bar");
+            assertThrows(SQLTransientException.class, () -> consumer.accept("baz"));
+            assertEquals(Arrays.asList("foo", "bar"), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("limitBiConsumer(SQLBiConsumer<? super T, ? super U>)")
+    class LimitBiConsumer {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitBiConsumer(null));
+        }
+
+        @Test
+        @DisplayName("accepts")
+        void testAccepts() throws SQLException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1000);
+            List<String> list = new ArrayList<>();
+            SQLBiConsumer<String, Integer> consumer = rateLimiter.limitBiConsumer((t, u) -> list.add(t + u));
+
+            consumer.accept(TEST_VALUE, 1);
+            assertEquals(Collections.singletonList(TEST_VALUE + 1), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("limitBiConsumer(SQLBiConsumer<? super T, ? super U>, Duration)")
+    class LimitBiConsumerWithMaxWait {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+            SQLBiConsumer<String, String> consumer = (t, u) -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitBiConsumer(null, Duration.ZERO));
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitBiConsumer(consumer, null));
+        }
+
+        @Test
+        @DisplayName("rate limit exceeded")
+        void testRateLimitExceeded() throws SQLException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 1);
+            List<String> list = new ArrayList<>();
+            SQLBiConsumer<String, Integer> consumer = rateLimiter.limitBiConsumer((t, u) -> list.add(t + u), Duration.ofMillis(10));
+
+            consumer.accept(TEST_VALUE, 1);
+            assertThrows(SQLTransientException.class, () -> consumer.accept(TEST_VALUE, 2));
+            assertEquals(Collections.singletonList(TEST_VALUE + 1), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("limitRunnable(SQLRunnable)")
+    class LimitRunnable {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitRunnable(null));
+        }
+
+        @Test
+        @DisplayName("runs")
+        void testRuns() throws SQLException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1000);
+            List<String> list = new ArrayList<>();
+            SQLRunnable action = rateLimiter.limitRunnable(() -> list.add(TEST_VALUE));
+
+            action.run();
+            assertEquals(Collections.singletonList(TEST_VALUE), list);
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1000);
+            SQLException e = new SQLException("action");
+            SQLRunnable action = rateLimiter.limitRunnable(() -> {
+                throw e;
+            });
+
+            SQLException exception = assertThrows(SQLException.class, action::run);
+            assertEquals(e, exception);
+        }
+    }
+
+    @Nested
+    @DisplayName("limitRunnable(SQLRunnable, Duration)")
+    class LimitRunnableWithMaxWait {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(1);
+            SQLRunnable action = () -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitRunnable(null, Duration.ZERO));
+            assertThrows(NullPointerException.class, () -> rateLimiter.limitRunnable(action, null));
+        }
+
+        @Test
+        @DisplayName("rate limit exceeded")
+        void testRateLimitExceeded() throws SQLException {
+            SQLRateLimiter rateLimiter = SQLRateLimiter.create(SLOW_RATE, 1);
+            List<String> list = new ArrayList<>();
+            SQLRunnable action = rateLimiter.limitRunnable(() -> list.add(TEST_VALUE), Duration.ZERO);
+
+            action.run();
+            assertThrows(SQLTransientException.class, action::run);
+            assertEquals(Collections.singletonList(TEST_VALUE), list);
+        }
+    }
+}
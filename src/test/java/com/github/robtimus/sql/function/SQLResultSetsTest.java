@@ -0,0 +1,777 @@
+/*
+ * SQLResultSetsTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLResultSetsTest {
+
+    private static final List<Integer> ROWS = IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList());
+
+    private static final SQLFunction<ResultSet, Integer> GET_INT = rs -> rs.getInt(1);
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Nested
+    @DisplayName("stream(ResultSet, SQLFunction<? super ResultSet, ? extends T>)")
+    class StreamTest {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+
+            assertThrows(NullPointerException.class, () -> SQLResultSets.stream(null, GET_INT));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.stream(resultSet, null));
+        }
+
+        @Test
+        @DisplayName("all rows")
+        void testAllRows() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+
+            Stream<Integer> stream = SQLResultSets.stream(resultSet.proxy(), GET_INT);
+
+            assertEquals(0, resultSet.rowsRead.get());
+            assertEquals(ROWS, stream.collect(Collectors.toList()));
+        }
+
+        @Test
+        @DisplayName("lazy")
+        void testLazy() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+
+            assertEquals(List.of(1, 2, 3), SQLResultSets.stream(resultSet.proxy(), GET_INT).limit(3).collect(Collectors.toList()));
+            assertEquals(3, resultSet.rowsRead.get());
+        }
+
+        @Test
+        @DisplayName("mapper throws")
+        void testMapperThrows() {
+            SQLException e = new SQLException("failure");
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+
+            Iterator<Integer> iterator = SQLResultSets.stream(resultSet, rs -> {
+                int value = rs.getInt(1);
+                if (value == 3) {
+                    throw e;
+                }
+                return value;
+            }).iterator();
+
+            assertEquals(1, iterator.next());
+            assertEquals(2, iterator.next());
+            UncheckedSQLException exception = assertThrows(UncheckedSQLException.class, iterator::next);
+            assertSame(e, exception.getCause());
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Nested
+    @DisplayName("prefetchingStream(ResultSet, SQLFunction<? super ResultSet, ? extends T>, int, int)")
+    class PrefetchingStream {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+
+            assertThrows(NullPointerException.class, () -> SQLResultSets.prefetchingStream(null, GET_INT, 10, 1));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.prefetchingStream(resultSet, null, 10, 1));
+            assertThrows(IllegalArgumentException.class, () -> SQLResultSets.prefetchingStream(resultSet, GET_INT, 0, 1));
+            assertThrows(IllegalArgumentException.class, () -> SQLResultSets.prefetchingStream(resultSet, GET_INT, 10, 0));
+        }
+
+        @Test
+        @DisplayName("all rows")
+        void testAllRows() {
+            int[][] configurations = { { 1, 1 }, { 3, 1 }, { 3, 4 }, { 5, 2 }, { 100, 1 } };
+            for (int[] configuration : configurations) {
+                FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+
+                try (Stream<Integer> stream = SQLResultSets.prefetchingStream(resultSet.proxy(), GET_INT, configuration[0], configuration[1])) {
+                    assertEquals(ROWS, stream.collect(Collectors.toList()));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("no rows")
+        void testNoRows() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(List.of());
+
+            try (Stream<Integer> stream = SQLResultSets.prefetchingStream(resultSet.proxy(), GET_INT, 10, 1)) {
+                assertEquals(0, stream.count());
+            }
+        }
+
+        @Test
+        @DisplayName("reads on separate thread")
+        void testReadsOnSeparateThread() {
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+            try (Stream<Integer> stream = SQLResultSets.prefetchingStream(FakeResultSet.ofInts(ROWS).proxy(), rs -> {
+                threads.add(Thread.currentThread());
+                return rs.getInt(1);
+            }, 10, 1)) {
+                assertEquals(ROWS, stream.collect(Collectors.toList()));
+            }
+
+            assertEquals(1, threads.size());
+            assertNotSame(Thread.currentThread(), threads.iterator().next());
+        }
+
+        @Test
+        @DisplayName("reads ahead up to buffer size")
+        void testReadsAheadUpToBufferSize() throws SQLException {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+
+            try (Stream<Integer> stream = SQLResultSets.prefetchingStream(resultSet.proxy(), GET_INT, 2, 1)) {
+                Iterator<Integer> iterator = stream.iterator();
+                assertEquals(1, iterator.next());
+
+                // one block is being consumed, one block is buffered, and one block waits to be buffered
+                while (resultSet.rowsRead.get() < 6) {
+                    Thread.yield();
+                }
+                sleep(50);
+                assertEquals(6, resultSet.rowsRead.get());
+
+                assertEquals(2, iterator.next());
+                assertEquals(3, iterator.next());
+                while (resultSet.rowsRead.get() < 8) {
+                    Thread.yield();
+                }
+                sleep(50);
+                assertEquals(8, resultSet.rowsRead.get());
+            }
+        }
+
+        @Test
+        @DisplayName("mapper throws")
+        void testMapperThrows() {
+            SQLException e = new SQLException("failure");
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+
+            List<Integer> rows = new ArrayList<>();
+            try (Stream<Integer> stream = SQLResultSets.prefetchingStream(resultSet, rs -> {
+                int value = rs.getInt(1);
+                if (value == 8) {
+                    throw e;
+                }
+                return value;
+            }, 5, 1)) {
+                Iterator<Integer> iterator = stream.iterator();
+
+                UncheckedSQLException exception = assertThrows(UncheckedSQLException.class, () -> iterator.forEachRemaining(rows::add));
+                assertSame(e, exception.getCause());
+                assertFalse(iterator.hasNext());
+            }
+
+            // rows that were read before the failure are still returned
+            assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), rows);
+        }
+
+        @Test
+        @DisplayName("mapper throws unchecked")
+        void testMapperThrowsUnchecked() {
+            IllegalStateException e = new IllegalStateException("failure");
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+
+            try (Stream<Integer> stream = SQLResultSets.prefetchingStream(resultSet, rs -> {
+                throw e;
+            }, 5, 1)) {
+                IllegalStateException exception = assertThrows(IllegalStateException.class, stream::count);
+                assertSame(e, exception);
+            }
+        }
+
+        @Test
+        @DisplayName("close stops reading")
+        void testCloseStopsReading() throws SQLException {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+
+            Stream<Integer> stream = SQLResultSets.prefetchingStream(resultSet.proxy(), GET_INT, 2, 1);
+            Iterator<Integer> iterator = stream.iterator();
+            assertEquals(1, iterator.next());
+
+            stream.close();
+            int rowsRead = resultSet.rowsRead.get();
+            sleep(50);
+
+            assertEquals(rowsRead, resultSet.rowsRead.get());
+            assertTrue(rowsRead < ROWS.size());
+            assertFalse(iterator.hasNext());
+        }
+
+        @Test
+        @DisplayName("close does not wait for block")
+        void testCloseDoesNotWaitForBlock() throws SQLException {
+            List<Integer> rows = IntStream.rangeClosed(1, 2000).boxed().collect(Collectors.toList());
+            FakeResultSet resultSet = FakeResultSet.ofInts(rows);
+
+            Stream<Integer> stream = SQLResultSets.prefetchingStream(resultSet.proxy(), rs -> {
+                int value = rs.getInt(1);
+                if (value > 1000) {
+                    // reading the second block takes at least a second
+                    sleep(1);
+                }
+                return value;
+            }, 1000, 1);
+            Iterator<Integer> iterator = stream.iterator();
+            assertEquals(1, iterator.next());
+
+            stream.close();
+
+            assertTrue(resultSet.rowsRead.get() < rows.size(), "rows read: " + resultSet.rowsRead.get());
+        }
+
+        @Test
+        @Tag(GarbageCollection.TAG)
+        @DisplayName("abandoned stream stops reading")
+        void testAbandonedStreamStopsReading() throws InterruptedException {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            AtomicReference<Thread> reader = new AtomicReference<>();
+
+            consumeFirst(SQLResultSets.prefetchingStream(resultSet.proxy(), rs -> {
+                reader.set(Thread.currentThread());
+                return rs.getInt(1);
+            }, 2, 1));
+
+            assertTrue(GarbageCollection.await(() -> !reader.get().isAlive()));
+            assertTrue(resultSet.rowsRead.get() < ROWS.size());
+        }
+
+        // Consumes the stream in a separate method, so no references to it remain once this method returns
+        private void consumeFirst(Stream<Integer> stream) {
+            assertEquals(1, stream.iterator().next());
+        }
+    }
+
+    @Nested
+    @DisplayName("publisher(ResultSet, SQLFunction<? super ResultSet, ? extends T>, Executor, int)")
+    class Publisher {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+
+            assertThrows(NullPointerException.class, () -> SQLResultSets.publisher(null, GET_INT, DIRECT));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.publisher(resultSet, null, DIRECT));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.publisher(resultSet, GET_INT, null));
+            assertThrows(IllegalArgumentException.class, () -> SQLResultSets.publisher(resultSet, GET_INT, DIRECT, 0));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.publisher(resultSet, GET_INT, DIRECT).subscribe(null));
+        }
+
+        @Test
+        @DisplayName("unbounded demand")
+        void testUnboundedDemand() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            TestSubscriber subscriber = new TestSubscriber();
+
+            SQLResultSets.publisher(resultSet.proxy(), GET_INT, DIRECT, 10).subscribe(subscriber);
+            subscriber.subscription.request(Long.MAX_VALUE);
+
+            assertEquals(ROWS, subscriber.items);
+            assertTrue(subscriber.completed);
+            assertNull(subscriber.error);
+            assertTrue(resultSet.closed);
+            assertEquals(List.of(10), resultSet.fetchSizes);
+        }
+
+        @Test
+        @DisplayName("demand-driven reading")
+        void testDemandDrivenReading() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            TestSubscriber subscriber = new TestSubscriber();
+
+            SQLResultSets.publisher(resultSet.proxy(), GET_INT, DIRECT, 10).subscribe(subscriber);
+            assertEquals(0, resultSet.rowsRead.get());
+
+            subscriber.subscription.request(3);
+            assertEquals(List.of(1, 2, 3), subscriber.items);
+            assertEquals(3, resultSet.rowsRead.get());
+            assertEquals(List.of(3), resultSet.fetchSizes);
+            assertFalse(subscriber.completed);
+
+            subscriber.subscription.request(5);
+            assertEquals(8, subscriber.items.size());
+            assertEquals(8, resultSet.rowsRead.get());
+            assertEquals(List.of(3, 5), resultSet.fetchSizes);
+            assertFalse(subscriber.completed);
+
+            subscriber.subscription.request(100);
+            assertEquals(ROWS, subscriber.items);
+            assertEquals(List.of(3, 5, 10), resultSet.fetchSizes);
+            assertTrue(subscriber.completed);
+            assertTrue(resultSet.closed);
+        }
+
+        @Test
+        @DisplayName("request from onNext")
+        void testRequestFromOnNext() throws SQLException {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                TestSubscriber subscriber = new TestSubscriber() {
+                    @Override
+                    public void onNext(Integer item) {
+                        super.onNext(item);
+                        subscription.request(1);
+                    }
+                };
+
+                SQLResultSets.publisher(resultSet.proxy(), GET_INT, executor).subscribe(subscriber);
+                subscriber.subscription.request(1);
+                await(subscriber.terminated);
+
+                assertEquals(ROWS, subscriber.items);
+                assertTrue(subscriber.completed);
+                assertTrue(resultSet.closed);
+                assertEquals(List.of(1), resultSet.fetchSizes);
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("cancel")
+        void testCancel() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            TestSubscriber subscriber = new TestSubscriber();
+
+            SQLResultSets.publisher(resultSet.proxy(), GET_INT, DIRECT).subscribe(subscriber);
+            subscriber.subscription.request(3);
+            subscriber.subscription.cancel();
+            subscriber.subscription.request(3);
+
+            assertEquals(List.of(1, 2, 3), subscriber.items);
+            assertFalse(subscriber.completed);
+            assertNull(subscriber.error);
+            assertTrue(resultSet.closed);
+        }
+
+        @Test
+        @DisplayName("mapper throws")
+        void testMapperThrows() {
+            SQLException e = new SQLException("failure");
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            TestSubscriber subscriber = new TestSubscriber();
+
+            SQLResultSets.publisher(resultSet.proxy(), rs -> {
+                int value = rs.getInt(1);
+                if (value == 3) {
+                    throw e;
+                }
+                return value;
+            }, DIRECT).subscribe(subscriber);
+            subscriber.subscription.request(10);
+
+            assertEquals(List.of(1, 2), subscriber.items);
+            assertSame(e, subscriber.error);
+            assertTrue(resultSet.closed);
+        }
+
+        @Test
+        @DisplayName("non-positive request")
+        void testNonPositiveRequest() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            TestSubscriber subscriber = new TestSubscriber();
+
+            SQLResultSets.publisher(resultSet.proxy(), GET_INT, DIRECT).subscribe(subscriber);
+            subscriber.subscription.request(0);
+
+            assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+            assertTrue(resultSet.closed);
+            assertEquals(0, resultSet.rowsRead.get());
+        }
+
+        @Test
+        @DisplayName("second subscriber")
+        void testSecondSubscriber() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            Flow.Publisher<Integer> publisher = SQLResultSets.publisher(resultSet.proxy(), GET_INT, DIRECT);
+
+            publisher.subscribe(new TestSubscriber());
+            TestSubscriber subscriber = new TestSubscriber();
+            publisher.subscribe(subscriber);
+
+            assertInstanceOf(IllegalStateException.class, subscriber.error);
+            assertFalse(resultSet.closed);
+        }
+    }
+
+    @Nested
+    @DisplayName("forEach(ResultSet, T, SQLBiConsumer<? super ResultSet, ? super T>, SQLConsumer<? super T>)")
+    class ForEach {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+            Holder holder = new Holder();
+            SQLBiConsumer<ResultSet, Holder> filler = Holder::fill;
+            SQLConsumer<Holder> action = h -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> SQLResultSets.forEach(null, holder, filler, action));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.forEach(resultSet, null, filler, action));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.forEach(resultSet, holder, null, action));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.forEach(resultSet, holder, filler, null));
+        }
+
+        @Test
+        @DisplayName("reuses holder")
+        void testReusesHolder() throws SQLException {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            Holder holder = new Holder();
+            Set<Holder> holders = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Integer> values = new ArrayList<>();
+
+            long count = SQLResultSets.forEach(resultSet.proxy(), holder, Holder::fill, h -> {
+                holders.add(h);
+                values.add(h.value);
+            });
+
+            assertEquals(ROWS.size(), count);
+            assertEquals(ROWS, values);
+            assertEquals(Set.of(holder), holders);
+            assertEquals(ROWS.size(), holder.fillCount);
+            assertFalse(resultSet.closed);
+        }
+
+        @Test
+        @DisplayName("action throws")
+        void testActionThrows() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            SQLException exception = new SQLException("action");
+
+            SQLException thrown = assertThrows(SQLException.class, () -> SQLResultSets.forEach(resultSet.proxy(), new Holder(), Holder::fill, h -> {
+                if (h.value == 10) {
+                    throw exception;
+                }
+            }));
+            assertSame(exception, thrown);
+            assertEquals(10, resultSet.rowsRead.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("multicast(ResultSet, SQLFunction<? super ResultSet, ? extends T>, List<? extends SQLConsumer<? super T>>)")
+    class Multicast {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+            SQLConsumer<Integer> sink = i -> {
+                // does nothing
+            };
+            List<SQLConsumer<Integer>> sinks = List.of(sink);
+
+            assertThrows(NullPointerException.class, () -> SQLResultSets.multicast(null, GET_INT, sinks));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.multicast(resultSet, null, sinks));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.multicast(resultSet, GET_INT, null));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.multicast(resultSet, GET_INT, Collections.singletonList(null)));
+        }
+
+        @Test
+        @DisplayName("all sinks receive all rows")
+        void testAllSinksReceiveAllRows() throws SQLException {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            AtomicInteger mapped = new AtomicInteger();
+            List<Integer> first = new ArrayList<>();
+            List<Integer> second = new ArrayList<>();
+
+            long count = SQLResultSets.multicast(resultSet.proxy(), rs -> {
+                mapped.incrementAndGet();
+                return rs.getInt(1);
+            }, List.of(first::add, second::add));
+
+            assertEquals(ROWS.size(), count);
+            assertEquals(ROWS, first);
+            assertEquals(ROWS, second);
+            assertEquals(ROWS.size(), resultSet.rowsRead.get());
+            assertEquals(ROWS.size(), mapped.get());
+            assertFalse(resultSet.closed);
+        }
+
+        @Test
+        @DisplayName("sink throws")
+        void testSinkThrows() {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            SQLException exception = new SQLException("sink");
+            List<Integer> first = new ArrayList<>();
+            SQLConsumer<Integer> failing = i -> {
+                if (i == 10) {
+                    throw exception;
+                }
+            };
+
+            SQLException thrown = assertThrows(SQLException.class,
+                    () -> SQLResultSets.multicast(resultSet.proxy(), GET_INT, List.of(first::add, failing)));
+            assertSame(exception, thrown);
+            assertEquals(ROWS.subList(0, 10), first);
+            assertEquals(10, resultSet.rowsRead.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("multicast(ResultSet, SQLFunction<? super ResultSet, ? extends T>, List<? extends SQLConsumer<? super T>>, int, int)")
+    class ParallelMulticast {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            ResultSet resultSet = FakeResultSet.ofInts(ROWS).proxy();
+            SQLConsumer<Integer> sink = i -> {
+                // does nothing
+            };
+            List<SQLConsumer<Integer>> sinks = List.of(sink);
+
+            assertThrows(NullPointerException.class, () -> SQLResultSets.multicast(null, GET_INT, sinks, 4, 2));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.multicast(resultSet, null, sinks, 4, 2));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.multicast(resultSet, GET_INT, null, 4, 2));
+            assertThrows(NullPointerException.class, () -> SQLResultSets.multicast(resultSet, GET_INT, Collections.singletonList(null), 4, 2));
+            assertThrows(IllegalArgumentException.class, () -> SQLResultSets.multicast(resultSet, GET_INT, sinks, 0, 2));
+            assertThrows(IllegalArgumentException.class, () -> SQLResultSets.multicast(resultSet, GET_INT, sinks, 4, 0));
+        }
+
+        @Test
+        @DisplayName("all sinks receive all rows in order")
+        void testAllSinksReceiveAllRows() throws SQLException {
+            for (int blockSize : new int[] { 1, 4, 25, 100 }) {
+                FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+                List<Integer> first = new ArrayList<>();
+                List<Integer> second = new ArrayList<>();
+                List<Integer> third = new ArrayList<>();
+
+                long count = SQLResultSets.multicast(resultSet.proxy(), GET_INT, List.of(first::add, second::add, third::add), blockSize, 2);
+
+                assertEquals(ROWS.size(), count);
+                assertEquals(ROWS, first);
+                assertEquals(ROWS, second);
+                assertEquals(ROWS, third);
+                assertEquals(ROWS.size(), resultSet.rowsRead.get());
+                assertFalse(resultSet.closed);
+            }
+        }
+
+        @Test
+        @DisplayName("sinks run on separate threads")
+        void testSinksRunOnSeparateThreads() throws SQLException {
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            SQLConsumer<Integer> sink = i -> threads.add(Thread.currentThread());
+
+            SQLResultSets.multicast(FakeResultSet.ofInts(ROWS).proxy(), GET_INT, List.of(sink, sink, sink), 4, 2);
+
+            assertEquals(3, threads.size());
+            assertFalse(threads.contains(Thread.currentThread()));
+        }
+
+        @Test
+        @DisplayName("slowest sink paces reading")
+        void testSlowestSinkPacesReading() throws SQLException {
+            FakeResultSet resultSet = FakeResultSet.ofInts(ROWS);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger maxReadAhead = new AtomicInteger();
+            AtomicInteger slowConsumed = new AtomicInteger();
+
+            SQLConsumer<Integer> fast = i -> {
+                if (i == 1) {
+                    // give the reader time to fill the buffer of the slow sink
+                    sleep(100);
+                    maxReadAhead.set(resultSet.rowsRead.get());
+                    release.countDown();
+                }
+            };
+            SQLConsumer<Integer> slow = i -> {
+                if (i == 1) {
+                    await(release);
+                }
+                slowConsumed.incrementAndGet();
+            };
+
+            SQLResultSets.multicast(resultSet.proxy(), GET_INT, List.of(fast, slow), 2, 3);
+
+            assertEquals(ROWS.size(), slowConsumed.get());
+            // 3 buffered blocks, 1 block being consumed, 1 block being read
+            assertTrue(maxReadAhead.get() <= 5 * 2, "read ahead: " + maxReadAhead.get());
+        }
+
+        @Test
+        @DisplayName("sink throws")
+        void testSinkThrows() {
+            SQLException exception = new SQLException("sink");
+            RuntimeException other = new IllegalStateException("other");
+            CountDownLatch failed = new CountDownLatch(1);
+
+            SQLException thrown = assertThrows(SQLException.class, () -> SQLResultSets.multicast(FakeResultSet.ofInts(ROWS).proxy(), GET_INT, List.of(
+                    i -> {
+                        if (i == 10) {
+                            failed.countDown();
+                            throw exception;
+                        }
+                    },
+                    i -> {
+                        if (i == 20) {
+                            await(failed);
+                            throw other;
+                        }
+                    }), 1, 1));
+            assertSame(exception, thrown);
+        }
+
+        @Test
+        @DisplayName("mapper throws")
+        void testMapperThrows() {
+            SQLException exception = new SQLException("mapper");
+            List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+
+            SQLException thrown = assertThrows(SQLException.class, () -> SQLResultSets.multicast(FakeResultSet.ofInts(ROWS).proxy(), rs -> {
+                int value = rs.getInt(1);
+                if (value == 10) {
+                    throw exception;
+                }
+                return value;
+            }, List.of(result::add), 4, 2));
+            assertSame(exception, thrown);
+            assertTrue(result.size() <= 8, "result: " + result);
+        }
+
+        @Test
+        @DisplayName("interrupted")
+        void testInterrupted() {
+            CountDownLatch release = new CountDownLatch(1);
+            SQLConsumer<Integer> blocked = i -> await(release);
+
+            Thread.currentThread().interrupt();
+            try {
+                // the reader blocks on the full buffer of the blocked sink, and gets interrupted
+                Thread releaser = new Thread(() -> {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    release.countDown();
+                });
+                releaser.start();
+
+                SQLException thrown = assertThrows(SQLException.class,
+                        () -> SQLResultSets.multicast(FakeResultSet.ofInts(ROWS).proxy(), GET_INT, List.of(blocked), 1, 1));
+                assertInstanceOf(InterruptedException.class, thrown.getCause());
+                assertTrue(Thread.interrupted());
+            } finally {
+                release.countDown();
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+
+    private static void sleep(long millis) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Integer> {
+
+        private final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        Flow.Subscription subscription;
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            this.subscription = s;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+    }
+
+    private static final class Holder {
+
+        private int value;
+        private int fillCount;
+
+        private static void fill(ResultSet resultSet, Holder holder) throws SQLException {
+            holder.value = resultSet.getInt(1);
+            holder.fillCount++;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * SQLRingBufferTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.sql.function.SQLRingBuffer.WaitStrategy;
+
+@SuppressWarnings("nls")
+class SQLRingBufferTest {
+
+    private static final int COUNT = 10_000;
+
+    @Nested
+    @DisplayName("create(int, SQLConsumer<? super T>, int, int, WaitStrategy)")
+    class Create {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLConsumer<Integer> consumer = i -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> SQLRingBuffer.create(16, null, 1, 1, WaitStrategy.BLOCKING));
+            assertThrows(NullPointerException.class, () -> SQLRingBuffer.create(16, consumer, 1, 1, null));
+            assertThrows(IllegalArgumentException.class, () -> SQLRingBuffer.create(0, consumer, 1, 1, WaitStrategy.BLOCKING));
+            assertThrows(IllegalArgumentException.class, () -> SQLRingBuffer.create(12, consumer, 1, 1, WaitStrategy.BLOCKING));
+            assertThrows(IllegalArgumentException.class, () -> SQLRingBuffer.create(16, consumer, 0, 1, WaitStrategy.BLOCKING));
+            assertThrows(IllegalArgumentException.class, () -> SQLRingBuffer.create(16, consumer, 1, 0, WaitStrategy.BLOCKING));
+        }
+
+        @Test
+        @DisplayName("toString()")
+        void testToString() throws SQLException {
+            try (SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.create(16, i -> {
+                // does nothing
+            }, 2, 4, WaitStrategy.BLOCKING)) {
+                assertEquals("SQLRingBuffer[capacity=16,workers=2,maxBatchSize=4,waitStrategy=BLOCKING]", ringBuffer.toString());
+                assertEquals(16, ringBuffer.capacity());
+            }
+        }
+
+        @Test
+        @DisplayName("single worker keeps order")
+        void testSingleWorkerKeepsOrder() throws SQLException {
+            for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+                List<Integer> result = new ArrayList<>();
+
+                try (SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.create(8, result::add, 1, 3, waitStrategy)) {
+                    for (int i = 0; i < 1000; i++) {
+                        ringBuffer.publish(i);
+                    }
+                }
+
+                assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), result, waitStrategy.name());
+            }
+        }
+
+        @Test
+        @DisplayName("multiple workers process each element once")
+        void testMultipleWorkersProcessEachElementOnce() throws SQLException {
+            for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+                Set<Integer> result = ConcurrentHashMap.newKeySet();
+                AtomicInteger count = new AtomicInteger();
+
+                try (SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.create(64, i -> {
+                    result.add(i);
+                    count.incrementAndGet();
+                }, 4, 8, waitStrategy)) {
+                    for (int i = 0; i < COUNT; i++) {
+                        ringBuffer.publish(i);
+                    }
+                }
+
+                assertEquals(COUNT, count.get(), waitStrategy.name());
+                assertEquals(COUNT, result.size(), waitStrategy.name());
+            }
+        }
+
+        @Test
+        @DisplayName("more spinning workers than processors")
+        void testMoreSpinningWorkersThanProcessors() throws SQLException {
+            int workerCount = Runtime.getRuntime().availableProcessors() + 1;
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            AtomicInteger count = new AtomicInteger();
+
+            // workers must not share carrier threads, or a spinning worker could prevent others from ever running
+            try (SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.create(64, i -> {
+                threads.add(Thread.currentThread());
+                count.incrementAndGet();
+            }, workerCount, 8, WaitStrategy.BUSY_SPIN)) {
+                for (int i = 0; i < COUNT; i++) {
+                    ringBuffer.publish(i);
+                }
+            }
+
+            assertEquals(COUNT, count.get());
+            assertTrue(threads.stream().allMatch(Thread::isDaemon));
+        }
+
+        @Test
+        @DisplayName("close without elements")
+        void testCloseWithoutElements() throws SQLException {
+            SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.create(16, i -> {
+                // does nothing
+            }, 2, 4, WaitStrategy.BLOCKING);
+
+            ringBuffer.close();
+            ringBuffer.close();
+
+            assertThrows(IllegalStateException.class, () -> ringBuffer.publish(1));
+        }
+
+        @Test
+        @DisplayName("consumer throws")
+        void testConsumerThrows() throws InterruptedException {
+            SQLException e = new SQLException("failure");
+            CountDownLatch failed = new CountDownLatch(1);
+
+            SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.create(4, i -> {
+                if (i == 10) {
+                    failed.countDown();
+                    throw e;
+                }
+            }, 2, 1, WaitStrategy.SLEEPING);
+
+            SQLException exception = assertThrows(SQLException.class, () -> {
+                for (int i = 0; i < COUNT; i++) {
+                    ringBuffer.publish(i);
+                }
+            });
+            assertSame(e, exception);
+            assertTrue(failed.await(0, TimeUnit.SECONDS));
+
+            exception = assertThrows(SQLException.class, ringBuffer::close);
+            assertSame(e, exception);
+        }
+
+        @Test
+        @DisplayName("interrupted while full")
+        void testInterruptedWhileFull() throws SQLException {
+            CountDownLatch release = new CountDownLatch(1);
+
+            SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.create(2, i -> await(release), 1, 1, WaitStrategy.SLEEPING);
+            try {
+                ringBuffer.publish(1);
+                ringBuffer.publish(2);
+
+                Thread.currentThread().interrupt();
+                SQLException exception = assertThrows(SQLException.class, () -> ringBuffer.publish(3));
+                assertInstanceOf(InterruptedException.class, exception.getCause());
+                assertTrue(Thread.interrupted());
+            } finally {
+                release.countDown();
+                ringBuffer.close();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("createBatching(int, SQLConsumer<? super List<T>>, int, int, WaitStrategy)")
+    class CreateBatching {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            SQLConsumer<List<Integer>> consumer = batch -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> SQLRingBuffer.<Integer>createBatching(16, null, 1, 1, WaitStrategy.BLOCKING));
+            assertThrows(NullPointerException.class, () -> SQLRingBuffer.createBatching(16, consumer, 1, 1, null));
+            assertThrows(IllegalArgumentException.class, () -> SQLRingBuffer.createBatching(7, consumer, 1, 1, WaitStrategy.BLOCKING));
+        }
+
+        @Test
+        @DisplayName("batches")
+        void testBatches() throws SQLException {
+            for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+                List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+
+                try (SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.createBatching(32, batch -> batches.add(new ArrayList<>(batch)), 3, 10,
+                        waitStrategy)) {
+
+                    for (int i = 0; i < COUNT; i++) {
+                        ringBuffer.publish(i);
+                    }
+                }
+
+                assertTrue(batches.stream().allMatch(batch -> !batch.isEmpty() && batch.size() <= 10), waitStrategy.name());
+                // each batch is a contiguous range of elements
+                assertTrue(batches.stream().allMatch(batch -> batch.get(batch.size() - 1) - batch.get(0) == batch.size() - 1),
+                        waitStrategy.name());
+                assertEquals(IntStream.range(0, COUNT).boxed().collect(Collectors.toSet()),
+                        batches.stream().flatMap(List::stream).collect(Collectors.toSet()), waitStrategy.name());
+                assertEquals(COUNT, batches.stream().mapToInt(List::size).sum(), waitStrategy.name());
+            }
+        }
+
+        @Test
+        @DisplayName("batch consumer throws")
+        void testBatchConsumerThrows() {
+            IllegalStateException e = new IllegalStateException("failure");
+
+            SQLRingBuffer<Integer> ringBuffer = SQLRingBuffer.createBatching(16, batch -> {
+                throw e;
+            }, 1, 4, WaitStrategy.BLOCKING);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+                for (int i = 0; i < COUNT; i++) {
+                    ringBuffer.publish(i);
+                }
+            });
+            assertSame(e, exception);
+
+            exception = assertThrows(IllegalStateException.class, ringBuffer::close);
+            assertSame(e, exception);
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * SQLRowMappersTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLRowMappersTest {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    @Nested
+    @DisplayName("of(Class<T>)")
+    class OfPublic {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            assertThrows(NullPointerException.class, () -> SQLRowMappers.of(null));
+            // not public
+            assertThrows(IllegalArgumentException.class, () -> SQLRowMappers.of(Person.class));
+            assertThrows(IllegalArgumentException.class, () -> SQLRowMappers.of(Runnable.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("of(Class<T>, Lookup)")
+    class OfWithLookup {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            assertThrows(NullPointerException.class, () -> SQLRowMappers.of(null, LOOKUP));
+            assertThrows(NullPointerException.class, () -> SQLRowMappers.of(Person.class, null));
+            assertThrows(IllegalArgumentException.class, () -> SQLRowMappers.of(AbstractBean.class, LOOKUP));
+            assertThrows(IllegalArgumentException.class, () -> SQLRowMappers.of(NoDefaultConstructor.class, LOOKUP));
+            assertThrows(IllegalArgumentException.class, () -> SQLRowMappers.of(AmbiguousSetters.class, LOOKUP));
+            assertThrows(IllegalArgumentException.class, () -> SQLRowMappers.of(int.class, LOOKUP));
+        }
+
+        @Test
+        @DisplayName("maps bean properties")
+        void testMapsBeanProperties() throws SQLException {
+            FakeResultSet resultSet = new FakeResultSet(
+                    List.of("ID", "FIRST_NAME", "score", "Balance", "birth_date", "unmapped", "active", "visits"),
+                    Arrays.asList(1, "John", 2.5D, new BigDecimal("10.25"), LocalDate.of(2000, 1, 2), "x", true, 7L),
+                    Arrays.asList(2, "Jane", null, null, null, "y", false, null));
+
+            SQLFunction<ResultSet, Person> mapper = SQLRowMappers.of(Person.class, LOOKUP);
+
+            List<Person> persons = resultSet.mapAll(mapper);
+
+            assertEquals(2, persons.size());
+            Person first = persons.get(0);
+            assertEquals(1, first.id);
+            assertEquals("John", first.firstName);
+            assertEquals(2.5D, first.score, 0);
+            assertEquals(new BigDecimal("10.25"), first.balance);
+            assertEquals(LocalDate.of(2000, 1, 2), first.birthDate);
+            assertEquals(true, first.active);
+            assertEquals(7L, first.visits);
+
+            Person second = persons.get(1);
+            assertEquals(2, second.id);
+            assertEquals("Jane", second.firstName);
+            assertEquals(0, second.score, 0);
+            assertNull(second.balance);
+            assertNull(second.birthDate);
+            assertEquals(false, second.active);
+            assertNull(second.visits);
+        }
+
+        @Test
+        @DisplayName("maps char properties")
+        void testMapsCharProperties() throws SQLException {
+            FakeResultSet resultSet = new FakeResultSet(List.of("grade", "initial"), List.of("A", "J"), Arrays.asList(null, null));
+
+            List<Grade> grades = resultSet.mapAll(SQLRowMappers.of(Grade.class, LOOKUP));
+
+            assertEquals('A', grades.get(0).grade);
+            assertEquals(Character.valueOf('J'), grades.get(0).initial);
+            assertEquals('\0', grades.get(1).grade);
+            assertNull(grades.get(1).initial);
+        }
+
+        @Test
+        @DisplayName("char property with multiple characters")
+        void testCharPropertyWithMultipleCharacters() {
+            FakeResultSet resultSet = new FakeResultSet(List.of("grade"), List.of("AB"));
+            SQLFunction<ResultSet, Grade> mapper = SQLRowMappers.of(Grade.class, LOOKUP);
+
+            SQLException exception = assertThrows(SQLException.class, () -> resultSet.mapAll(mapper));
+            assertEquals("Value of column 1 is not a single character: AB", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("first matching column is used")
+        void testFirstMatchingColumn() throws SQLException {
+            FakeResultSet resultSet = new FakeResultSet(List.of("id", "ID"), List.of(1, 2));
+
+            List<Person> persons = resultSet.mapAll(SQLRowMappers.of(Person.class, LOOKUP));
+
+            assertEquals(1, persons.get(0).id);
+        }
+
+        @Test
+        @DisplayName("resolves columns once per result set")
+        void testResolvesOncePerResultSet() throws SQLException {
+            FakeResultSet resultSet = new FakeResultSet(List.of("id"), List.of(1), List.of(2), List.of(3));
+            SQLFunction<ResultSet, Person> mapper = SQLRowMappers.of(Person.class, LOOKUP);
+
+            resultSet.mapAll(mapper);
+
+            assertEquals(1, resultSet.metaDataCalls.get());
+            assertEquals(1, resultSet.metaData.labelLookups.get());
+        }
+
+        @Test
+        @DisplayName("reuses plan for result sets with the same column labels")
+        void testReusesPlanForSameColumnLabels() throws SQLException {
+            SQLFunction<ResultSet, Person> mapper = SQLRowMappers.of(Person.class, LOOKUP);
+
+            assertEquals(1, new FakeResultSet(List.of("ID", "first_name"), List.of(1, "John")).mapAll(mapper).get(0).id);
+            assertEquals(2, new FakeResultSet(List.of("id", "FIRST_NAME"), List.of(2, "Jane")).mapAll(mapper).get(0).id);
+            assertEquals("Jack", new FakeResultSet(List.of("first_name", "id"), List.of("Jack", 3)).mapAll(mapper).get(0).firstName);
+        }
+
+        @Test
+        @DisplayName("maps result sets with more column label combinations than are cached")
+        void testMoreColumnLabelCombinationsThanCached() throws SQLException {
+            SQLFunction<ResultSet, Person> mapper = SQLRowMappers.of(Person.class, LOOKUP);
+
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, new FakeResultSet(List.of("id", "extra" + i), List.of(i, "x")).mapAll(mapper).get(0).id);
+            }
+        }
+
+        @Test
+        @DisplayName("setter throws")
+        void testSetterThrows() {
+            FakeResultSet resultSet = new FakeResultSet(List.of("value"), List.of(-1));
+            SQLFunction<ResultSet, Validating> mapper = SQLRowMappers.of(Validating.class, LOOKUP);
+
+            assertThrows(IllegalArgumentException.class, () -> resultSet.mapAll(mapper));
+        }
+
+        @Test
+        @DisplayName("toString()")
+        void testToString() {
+            assertEquals("SQLRowMappers[type=" + Person.class.getName() + "]", SQLRowMappers.of(Person.class, LOOKUP).toString());
+        }
+    }
+
+    static class Person {
+
+        private int id;
+        private String firstName;
+        private double score;
+        private BigDecimal balance;
+        private LocalDate birthDate;
+        private boolean active;
+        private Long visits;
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public void setScore(double score) {
+            this.score = score;
+        }
+
+        public void setBalance(BigDecimal balance) {
+            this.balance = balance;
+        }
+
+        public void setBirthDate(LocalDate birthDate) {
+            this.birthDate = birthDate;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public void setVisits(Long visits) {
+            this.visits = visits;
+        }
+    }
+
+    static class Grade {
+
+        private char grade;
+        private Character initial;
+
+        public void setGrade(char grade) {
+            this.grade = grade;
+        }
+
+        public void setInitial(Character initial) {
+            this.initial = initial;
+        }
+    }
+
+    abstract static class AbstractBean {
+        // no content
+    }
+
+    static class NoDefaultConstructor {
+
+        NoDefaultConstructor(int value) {
+            // ignore value
+        }
+    }
+
+    static class AmbiguousSetters {
+
+        public void setValue(int value) {
+            // ignore value
+        }
+
+        public void setValue(String value) {
+            // ignore value
+        }
+    }
+
+    static class Validating {
+
+        public void setValue(int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException(value + " < 0");
+            }
+        }
+    }
+}
@@ -21,12 +21,15 @@ import static com.github.robtimus.sql.function.SQLRunnable.checked;
 import static com.github.robtimus.sql.function.SQLRunnable.unchecked;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -36,6 +39,45 @@ class SQLRunnableTest {
 
     private static final String TEST_VALUE = "foo";
 
+    @Nested
+    @DisplayName("async(Executor)")
+    class Async {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLRunnable action = () -> {
+                // does nothing
+            };
+
+            assertThrows(NullPointerException.class, () -> action.async(null));
+        }
+
+        @Test
+        @DisplayName("runs")
+        void testRuns() throws InterruptedException, ExecutionException {
+            List<String> list = new ArrayList<>();
+            SQLRunnable action = () -> list.add(TEST_VALUE);
+            CompletableFuture<Void> future = action.async(Runnable::run);
+
+            assertNull(future.get());
+            assertEquals(Collections.singletonList(TEST_VALUE), list);
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("sqlRunnable");
+            SQLRunnable action = () -> {
+                throw e;
+            };
+            CompletableFuture<Void> future = action.async(Runnable::run);
+
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertSame(e, exception.getCause());
+        }
+    }
+
     @Nested
     @DisplayName("unchecked(SQLRunnable)")
     class Unchecked {
@@ -24,6 +24,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -34,6 +36,41 @@ class SQLSupplierTest {
 
     private static final String TEST_VALUE = "foo";
 
+    @Nested
+    @DisplayName("async(Executor)")
+    class Async {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLSupplier<String> supplier = () -> TEST_VALUE;
+
+            assertThrows(NullPointerException.class, () -> supplier.async(null));
+        }
+
+        @Test
+        @DisplayName("supplies")
+        void testSupplies() throws InterruptedException, ExecutionException {
+            SQLSupplier<String> supplier = () -> TEST_VALUE;
+            CompletableFuture<String> future = supplier.async(Runnable::run);
+
+            assertEquals(TEST_VALUE, future.get());
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("sqlSupplier");
+            SQLSupplier<String> supplier = () -> {
+                throw e;
+            };
+            CompletableFuture<String> future = supplier.async(Runnable::run);
+
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertSame(e, exception.getCause());
+        }
+    }
+
     @Nested
     @DisplayName("unchecked(SQLSupplier<? extends T>)")
     class Unchecked {
@@ -0,0 +1,371 @@
+/*
+ * SQLTaskScopeTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLTaskScopeTest {
+
+    @Nested
+    @DisplayName("open(String)")
+    class Open {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            assertThrows(NullPointerException.class, () -> SQLTaskScope.open(null));
+        }
+
+        @Test
+        @DisplayName("default name")
+        void testDefaultName() {
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                assertEquals("sql-task-scope", scope.name());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("forkSupplier(SQLSupplier<? extends T>)")
+    class ForkSupplier {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                assertThrows(NullPointerException.class, () -> scope.forkSupplier(null));
+            }
+        }
+
+        @Test
+        @DisplayName("supplies")
+        void testSupplies() throws SQLException {
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                SQLTaskScope.Subtask<String> subtask1 = scope.forkSupplier(() -> "foo");
+                SQLTaskScope.Subtask<String> subtask2 = scope.forkSupplier(() -> "bar");
+
+                assertSame(scope, scope.join());
+
+                assertEquals(SQLTaskScope.Subtask.State.SUCCESS, subtask1.state());
+                assertEquals("foo", subtask1.get());
+                assertEquals("bar", subtask2.get());
+                assertThrows(IllegalStateException.class, subtask1::exception);
+            }
+        }
+
+        @Test
+        @DisplayName("hierarchical thread names")
+        void testHierarchicalThreadNames() throws SQLException {
+            try (SQLTaskScope scope = SQLTaskScope.open("outer")) {
+                scope.forkSupplier(() -> "ignored");
+                SQLTaskScope.Subtask<String> subtask = scope.forkSupplier(() -> {
+                    try (SQLTaskScope inner = SQLTaskScope.open("inner")) {
+                        SQLTaskScope.Subtask<String> innerSubtask = inner.forkSupplier(() -> Thread.currentThread().getName());
+                        inner.join();
+                        return innerSubtask.get();
+                    }
+                });
+
+                scope.join();
+
+                assertEquals(Thread.currentThread().getName() + "/outer-1/inner-0", subtask.get());
+            }
+        }
+
+        @Test
+        @DisplayName("not owner")
+        void testNotOwner() throws InterruptedException, ExecutionException {
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                CompletableFuture<Void> future = CompletableFuture.runAsync(() -> scope.forkSupplier(() -> "foo"));
+
+                ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+                assertInstanceOf(IllegalStateException.class, exception.getCause());
+            }
+        }
+
+        @Test
+        @DisplayName("after shutdown")
+        void testAfterShutdown() throws SQLException {
+            AtomicBoolean called = new AtomicBoolean();
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                scope.shutdown();
+
+                SQLTaskScope.Subtask<String> subtask = scope.forkSupplier(() -> {
+                    called.set(true);
+                    return "foo";
+                });
+                scope.join();
+
+                assertTrue(scope.isShutdown());
+                assertEquals(SQLTaskScope.Subtask.State.UNAVAILABLE, subtask.state());
+                assertThrows(IllegalStateException.class, subtask::get);
+            }
+            assertFalse(called.get());
+        }
+
+        @Test
+        @DisplayName("after close")
+        void testAfterClose() {
+            SQLTaskScope scope = SQLTaskScope.open();
+            scope.close();
+
+            assertThrows(IllegalStateException.class, () -> scope.forkSupplier(() -> "foo"));
+        }
+    }
+
+    @Nested
+    @DisplayName("forkRunnable(SQLRunnable)")
+    class ForkRunnable {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                assertThrows(NullPointerException.class, () -> scope.forkRunnable(null));
+            }
+        }
+
+        @Test
+        @DisplayName("runs")
+        void testRuns() throws SQLException {
+            List<String> list = Collections.synchronizedList(new ArrayList<>());
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                SQLTaskScope.Subtask<Void> subtask = scope.forkRunnable(() -> list.add("foo"));
+
+                scope.join();
+
+                assertEquals(SQLTaskScope.Subtask.State.SUCCESS, subtask.state());
+                assertNull(subtask.get());
+            }
+            assertEquals(Collections.singletonList("foo"), list);
+        }
+    }
+
+    @Nested
+    @DisplayName("join()")
+    class Join {
+
+        @Test
+        @DisplayName("shuts down on failure")
+        void testShutsDownOnFailure() {
+            SQLException e = new SQLException("failure");
+            AtomicBoolean cancelled = new AtomicBoolean();
+            AtomicReference<SQLTaskScope.Subtask<String>> slow = new AtomicReference<>();
+            AtomicReference<SQLTaskScope.Subtask<String>> failing = new AtomicReference<>();
+
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                slow.set(scope.forkSupplier(() -> {
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                        return "slow";
+                    } catch (InterruptedException ex) {
+                        cancelled.set(true);
+                        throw SQLExceptions.interrupted(ex);
+                    }
+                }));
+                failing.set(scope.forkSupplier(() -> {
+                    throw e;
+                }));
+
+                SQLException exception = assertThrows(SQLException.class, scope::join);
+                assertSame(e, exception);
+                assertTrue(scope.isShutdown());
+            }
+
+            assertTrue(cancelled.get());
+            assertEquals(SQLTaskScope.Subtask.State.FAILED, failing.get().state());
+            assertSame(e, failing.get().exception());
+            // The slow subtask failed after the scope was shut down
+            assertEquals(SQLTaskScope.Subtask.State.FAILED, slow.get().state());
+        }
+
+        @Test
+        @DisplayName("unchecked exception")
+        void testUncheckedException() {
+            IllegalStateException e = new IllegalStateException("failure");
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                scope.forkSupplier(() -> {
+                    throw e;
+                });
+
+                IllegalStateException exception = assertThrows(IllegalStateException.class, scope::join);
+                assertSame(e, exception);
+            }
+        }
+
+        @Test
+        @DisplayName("interrupted")
+        void testInterrupted() {
+            CountDownLatch blocker = new CountDownLatch(1);
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                scope.forkRunnable(() -> await(blocker));
+
+                Thread.currentThread().interrupt();
+                SQLException exception = assertThrows(SQLException.class, scope::join);
+
+                assertInstanceOf(InterruptedException.class, exception.getCause());
+                assertTrue(Thread.interrupted());
+                assertTrue(scope.isShutdown());
+            }
+        }
+
+        @Test
+        @DisplayName("shut down from subtask")
+        void testShutDownFromSubtask() throws SQLException {
+            SQLTaskScope.Subtask<String> found;
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                scope.forkRunnable(() -> {
+                    // does nothing
+                });
+                found = scope.forkSupplier(() -> {
+                    scope.shutdown();
+                    return "found";
+                });
+
+                scope.join();
+
+                assertTrue(scope.isShutdown());
+            }
+            // closing the scope waits for the subtask to complete
+            assertEquals("found", found.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("join(Duration)")
+    class JoinWithTimeout {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                assertThrows(NullPointerException.class, () -> scope.join(null));
+            }
+        }
+
+        @Test
+        @DisplayName("completes in time")
+        void testCompletesInTime() throws SQLException {
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                SQLTaskScope.Subtask<String> subtask = scope.forkSupplier(() -> "foo");
+
+                scope.join(Duration.ofSeconds(5));
+
+                assertEquals("foo", subtask.get());
+            }
+        }
+
+        @Test
+        @DisplayName("times out")
+        void testTimesOut() {
+            CountDownLatch blocker = new CountDownLatch(1);
+            SQLTaskScope.Subtask<Void> subtask;
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                subtask = scope.forkRunnable(() -> await(blocker));
+
+                assertThrows(SQLTimeoutException.class, () -> scope.join(Duration.ofMillis(50)));
+                assertTrue(scope.isShutdown());
+            }
+            assertEquals(SQLTaskScope.Subtask.State.FAILED, subtask.state());
+            assertInstanceOf(InterruptedException.class, subtask.exception().getCause());
+        }
+    }
+
+    @Nested
+    @DisplayName("close()")
+    class Close {
+
+        @Test
+        @DisplayName("waits for subtasks")
+        void testWaitsForSubtasks() {
+            AtomicBoolean completed = new AtomicBoolean();
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                scope.forkRunnable(() -> {
+                    // simulate a JDBC driver that does not respond to interrupts
+                    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+                    while (System.nanoTime() < end) {
+                        Thread.onSpinWait();
+                    }
+                    completed.set(true);
+                });
+            }
+            assertTrue(completed.get());
+        }
+
+        @Test
+        @DisplayName("not owner")
+        void testNotOwner() throws InterruptedException, ExecutionException {
+            try (SQLTaskScope scope = SQLTaskScope.open()) {
+                CompletableFuture<Void> future = CompletableFuture.runAsync(scope::close);
+
+                ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+                assertInstanceOf(IllegalStateException.class, exception.getCause());
+            }
+        }
+
+        @Test
+        @DisplayName("join after close")
+        void testJoinAfterClose() {
+            SQLTaskScope scope = SQLTaskScope.open();
+            scope.close();
+            scope.close();
+
+            assertThrows(IllegalStateException.class, scope::join);
+        }
+    }
+
+    @Test
+    @DisplayName("toString()")
+    void testToString() {
+        try (SQLTaskScope scope = SQLTaskScope.open("test")) {
+            assertEquals("SQLTaskScope[name=test,owner=" + Thread.currentThread().getName() + "]", scope.toString());
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new SQLException("latch not released");
+            }
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * SQLTasksTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLTasksTest {
+
+    @Nested
+    @DisplayName("invokeAll(Collection<? extends SQLSupplier<? extends T>>, int)")
+    class InvokeAll {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            List<SQLSupplier<String>> suppliers = Collections.singletonList(() -> "foo");
+
+            assertThrows(NullPointerException.class, () -> SQLTasks.invokeAll(null));
+            assertThrows(NullPointerException.class, () -> SQLTasks.invokeAll(Collections.singletonList(null)));
+            assertThrows(IllegalArgumentException.class, () -> SQLTasks.invokeAll(suppliers, 0));
+        }
+
+        @Test
+        @DisplayName("empty collection")
+        void testEmptyCollection() throws SQLException {
+            assertEquals(Collections.emptyList(), SQLTasks.invokeAll(Collections.<SQLSupplier<String>>emptyList()));
+        }
+
+        @Test
+        @DisplayName("runs concurrently")
+        void testRunsConcurrently() throws SQLException {
+            int count = 5;
+            CountDownLatch allStarted = new CountDownLatch(count);
+            List<SQLSupplier<Integer>> suppliers = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int value = i;
+                suppliers.add(() -> {
+                    allStarted.countDown();
+                    await(allStarted);
+                    return value;
+                });
+            }
+
+            List<Integer> results = SQLTasks.invokeAll(suppliers);
+
+            assertEquals(Arrays.asList(0, 1, 2, 3, 4), results);
+        }
+
+        @Test
+        @DisplayName("limits concurrency")
+        void testLimitsConcurrency() throws SQLException {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            List<SQLSupplier<String>> suppliers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                suppliers.add(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(10);
+                    running.decrementAndGet();
+                    return "foo";
+                });
+            }
+
+            List<String> results = SQLTasks.invokeAll(suppliers, 2);
+
+            assertEquals(Collections.nCopies(10, "foo"), results);
+            assertTrue(maxRunning.get() <= 2);
+        }
+
+        @Test
+        @DisplayName("fails fast")
+        void testFailsFast() {
+            SQLException e = new SQLException("failure");
+            AtomicBoolean cancelled = new AtomicBoolean();
+            List<SQLSupplier<String>> suppliers = Arrays.asList(
+                    () -> {
+                        try {
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                            return "slow";
+                        } catch (InterruptedException ex) {
+                            cancelled.set(true);
+                            throw SQLExceptions.interrupted(ex);
+                        }
+                    },
+                    () -> {
+                        throw e;
+                    });
+
+            long start = System.nanoTime();
+            SQLException exception = assertThrows(SQLException.class, () -> SQLTasks.invokeAll(suppliers));
+            long duration = System.nanoTime() - start;
+
+            assertSame(e, exception);
+            assertTrue(cancelled.get());
+            assertEquals(1, exception.getSuppressed().length);
+            assertTrue(duration < TimeUnit.SECONDS.toNanos(5));
+        }
+
+        @Test
+        @DisplayName("does not start remaining tasks after failure")
+        void testDoesNotStartRemainingTasksAfterFailure() {
+            SQLException e = new SQLException("failure");
+            AtomicInteger started = new AtomicInteger();
+            List<SQLSupplier<String>> suppliers = new ArrayList<>();
+            suppliers.add(() -> {
+                started.incrementAndGet();
+                throw e;
+            });
+            for (int i = 0; i < 5; i++) {
+                suppliers.add(() -> {
+                    started.incrementAndGet();
+                    return "foo";
+                });
+            }
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLTasks.invokeAll(suppliers, 1));
+
+            assertSame(e, exception);
+            assertEquals(1, started.get());
+        }
+
+        @Test
+        @DisplayName("unchecked exception")
+        void testUncheckedException() {
+            IllegalStateException e = new IllegalStateException("failure");
+            List<SQLSupplier<String>> suppliers = Collections.singletonList(() -> {
+                throw e;
+            });
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> SQLTasks.invokeAll(suppliers));
+            assertSame(e, exception);
+        }
+
+        @Test
+        @DisplayName("interrupted")
+        void testInterrupted() {
+            AtomicBoolean cancelled = new AtomicBoolean();
+            List<SQLSupplier<String>> suppliers = Collections.singletonList(() -> {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    return "slow";
+                } catch (InterruptedException ex) {
+                    cancelled.set(true);
+                    throw SQLExceptions.interrupted(ex);
+                }
+            });
+
+            Thread caller = Thread.currentThread();
+            Thread interrupter = new Thread(() -> {
+                sleepUninterruptibly(50);
+                caller.interrupt();
+            });
+            interrupter.start();
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLTasks.invokeAll(suppliers));
+
+            assertTrue(Thread.interrupted());
+            assertInstanceOf(InterruptedException.class, exception.getCause());
+            assertTrue(cancelled.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("runAll(Collection<? extends SQLRunnable>, int)")
+    class RunAll {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            List<SQLRunnable> actions = Collections.singletonList(() -> {
+                // does nothing
+            });
+
+            assertThrows(NullPointerException.class, () -> SQLTasks.runAll(null));
+            assertThrows(NullPointerException.class, () -> SQLTasks.runAll(Collections.singletonList(null)));
+            assertThrows(IllegalArgumentException.class, () -> SQLTasks.runAll(actions, -1));
+        }
+
+        @Test
+        @DisplayName("runs all")
+        void testRunsAll() throws SQLException {
+            boolean[] ran = new boolean[5];
+            List<SQLRunnable> actions = new ArrayList<>();
+            for (int i = 0; i < ran.length; i++) {
+                int index = i;
+                actions.add(() -> ran[index] = true);
+            }
+
+            SQLTasks.runAll(actions, 2);
+
+            assertArrayEquals(new boolean[] { true, true, true, true, true }, ran);
+        }
+
+        @Test
+        @DisplayName("throws")
+        void testThrows() {
+            SQLException e = new SQLException("failure");
+            List<SQLRunnable> actions = Arrays.asList(
+                    () -> {
+                        throw e;
+                    },
+                    () -> {
+                        // does nothing
+                    });
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLTasks.runAll(actions));
+            assertSame(e, exception);
+        }
+    }
+
+    @Nested
+    @DisplayName("invokeAny(Collection<? extends SQLSupplier<? extends T>>, int)")
+    class InvokeAny {
+
+        @Test
+        @DisplayName("invalid arguments")
+        void testInvalidArguments() {
+            List<SQLSupplier<String>> suppliers = Collections.singletonList(() -> "foo");
+
+            assertThrows(NullPointerException.class, () -> SQLTasks.invokeAny(null));
+            assertThrows(NullPointerException.class, () -> SQLTasks.invokeAny(Collections.singletonList(null)));
+            assertThrows(IllegalArgumentException.class, () -> SQLTasks.invokeAny(Collections.<SQLSupplier<String>>emptyList()));
+            assertThrows(IllegalArgumentException.class, () -> SQLTasks.invokeAny(suppliers, 0));
+        }
+
+        @Test
+        @DisplayName("returns first success")
+        void testReturnsFirstSuccess() throws SQLException {
+            AtomicBoolean cancelled = new AtomicBoolean();
+            List<SQLSupplier<String>> suppliers = Arrays.asList(
+                    () -> {
+                        throw new SQLException("failure");
+                    },
+                    () -> {
+                        try {
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                            return "slow";
+                        } catch (InterruptedException ex) {
+                            cancelled.set(true);
+                            throw SQLExceptions.interrupted(ex);
+                        }
+                    },
+                    () -> {
+                        sleep(20);
+                        return "fast";
+                    });
+
+            assertEquals("fast", SQLTasks.invokeAny(suppliers));
+            assertTrue(cancelled.get());
+        }
+
+        @Test
+        @DisplayName("does not start remaining tasks after success")
+        void testDoesNotStartRemainingTasksAfterSuccess() throws SQLException {
+            AtomicInteger started = new AtomicInteger();
+            List<SQLSupplier<String>> suppliers = Collections.nCopies(5, () -> {
+                started.incrementAndGet();
+                return "foo";
+            });
+
+            assertEquals("foo", SQLTasks.invokeAny(suppliers, 1));
+            assertEquals(1, started.get());
+        }
+
+        @Test
+        @DisplayName("all fail")
+        void testAllFail() {
+            SQLException e1 = new SQLException("failure1");
+            SQLException e2 = new SQLException("failure2");
+            List<SQLSupplier<String>> suppliers = Arrays.asList(
+                    () -> {
+                        throw e1;
+                    },
+                    () -> {
+                        throw e2;
+                    });
+
+            SQLException exception = assertThrows(SQLException.class, () -> SQLTasks.invokeAny(suppliers, 1));
+
+            assertSame(e1, exception);
+            assertArrayEquals(new Throwable[] { e2 }, exception.getSuppressed());
+            assertFalse(Thread.currentThread().isInterrupted());
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws SQLException {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new SQLException("latch not released");
+            }
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+
+    private static void sleep(long millis) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw SQLExceptions.interrupted(e);
+        }
+    }
+
+    private static void sleepUninterruptibly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (@SuppressWarnings("unused") InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * SQLTimeoutTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.sql.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class SQLTimeoutTest {
+
+    private static final Duration SHORT_TIMEOUT = Duration.ofMillis(50);
+
+    @Nested
+    @DisplayName("of(Duration)")
+    class OfDuration {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            assertThrows(NullPointerException.class, () -> SQLTimeout.of(null));
+        }
+
+        @Test
+        @DisplayName("non-positive timeout")
+        void testNonPositiveTimeout() {
+            assertThrows(IllegalArgumentException.class, () -> SQLTimeout.of(Duration.ZERO));
+            assertThrows(IllegalArgumentException.class, () -> SQLTimeout.of(Duration.ofMillis(-1)));
+        }
+
+        @Test
+        @DisplayName("valid timeout")
+        void testValidTimeout() {
+            assertEquals(SHORT_TIMEOUT, SQLTimeout.of(SHORT_TIMEOUT).timeout());
+        }
+    }
+
+    @Nested
+    @DisplayName("of(Duration, ScheduledExecutorService)")
+    class OfDurationAndScheduler {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            try {
+                assertThrows(NullPointerException.class, () -> SQLTimeout.of(null, scheduler));
+                assertThrows(NullPointerException.class, () -> SQLTimeout.of(SHORT_TIMEOUT, null));
+            } finally {
+                scheduler.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("uses scheduler")
+        void testUsesScheduler() throws SQLException {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            try {
+                CancellableStatement statement = new CancellableStatement();
+                SQLFunction<Statement, String> function = SQLTimeout.of(SHORT_TIMEOUT, scheduler).cancelling(s -> statement.awaitCancel());
+
+                assertThrows(SQLTimeoutException.class, () -> function.apply(statement.proxy));
+                assertTrue(statement.isCancelled());
+            } finally {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("cancelling(SQLFunction<? super S, ? extends R>)")
+    class CancellingFunction {
+
+        @Test
+        @DisplayName("null argument")
+        void testNullArgument() {
+            SQLTimeout timeout = SQLTimeout.of(SHORT_TIMEOUT);
+
+            assertThrows(NullPointerException.class, () -> timeout.cancelling(null));
+        }
+
+        @Test
+        @DisplayName("completes within timeout")
+        void testCompletesWithinTimeout() throws SQLException {
+            CancellableStatement statement = new CancellableStatement();
+            SQLFunction<Statement, String> function = SQLTimeout.of(Duration.ofSeconds(10)).cancelling(s -> "foo");
+
+            assertEquals("foo", function.apply(statement.proxy));
+            assertFalse(statement.isCancelled());
+        }
+
+        @Test
+        @DisplayName("throws within timeout")
+        void testThrowsWithinTimeout() {
+            CancellableStatement statement = new CancellableStatement();
+            SQLException e = new SQLException("function");
+            SQLFunction<Statement, String> function = SQLTimeout.of(Duration.ofSeconds(10)).cancelling(s -> {
+                throw e;
+            });
+
+            SQLException exception = assertThrows(SQLException.class, () -> function.apply(statement.proxy));
+            assertSame(e, exception);
+            assertFalse(statement.isCancelled());
+        }
+
+        @Test
+        @DisplayName("times out")
+        void testTimesOut() {
+            CancellableStatement statement = new CancellableStatement();
+            SQLFunction<Statement, String> function = SQLTimeout.of(SHORT_TIMEOUT).cancelling(s -> statement.awaitCancel());
+
+            SQLTimeoutException exception = assertThrows(SQLTimeoutException.class, () -> function.apply(statement.proxy));
+            assertEquals("cancelled", exception.getCause().getMessage());
+            assertTrue(statement.isCancelled());
+        }
+
+        @Test
+        @DisplayName("completes after timeout")
+        void testCompletesAfterTimeout() {
+            CancellableStatement statement = new CancellableStatement();
+            SQLFunction<Statement, String> function = SQLTimeout.of(SHORT_TIMEOUT).cancelling(s -> {
+                // ignores the cancellation
+                statement.awaitCancelSilently();
+                return "foo";
+            });
+
+            SQLTimeoutException exception = assertThrows(SQLTimeoutException.class, () -> function.apply(statement.proxy));
+            assertNull(exception.getCause());
+        }
+    }
+
+    @Nested
+    @DisplayName("cancelling(Statement, SQLSupplier<? extends R>)")
+    class CancellingSupplier {
+
+        @Test
+        @DisplayName("null arguments")
+        void testNullArguments() {
+            SQLTimeout timeout = SQLTimeout.of(SHORT_TIMEOUT);
+            CancellableStatement statement = new CancellableStatement();
+
+            assertThrows(NullPointerException.class, () -> timeout.cancelling(null, () -> "foo"));
+            assertThrows(NullPointerException.class, () -> timeout.cancelling(statement.proxy, null));
+        }
+
+        @Test
+        @DisplayName("completes within timeout")
+        void testCompletesWithinTimeout() throws SQLException {
+            CancellableStatement statement = new CancellableStatement();
+            SQLSupplier<String> supplier = SQLTimeout.of(Duration.ofSeconds(10)).cancelling(statement.proxy, () -> "foo");
+
+            assertEquals("foo", supplier.get());
+            assertFalse(statement.isCancelled());
+        }
+
+        @Test
+        @DisplayName("times out")
+        void testTimesOut() {
+            CancellableStatement statement = new CancellableStatement();
+            SQLSupplier<String> supplier = SQLTimeout.of(SHORT_TIMEOUT).cancelling(statement.proxy, statement::awaitCancel);
+
+            assertThrows(SQLTimeoutException.class, supplier::get);
+            assertTrue(statement.isCancelled());
+        }
+    }
+
+    private static final class CancellableStatement {
+
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+        private final Statement proxy;
+
+        private CancellableStatement() {
+            proxy = (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { Statement.class }, (p, method, args) -> {
+                if ("cancel".equals(method.getName())) {
+                    cancelled.countDown();
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        }
+
+        private boolean isCancelled() {
+            return cancelled.getCount() == 0;
+        }
+
+        private String awaitCancel() throws SQLException {
+            awaitCancelSilently();
+            throw new SQLException("cancelled");
+        }
+
+        private void awaitCancelSilently() throws SQLException {
+            try {
+                if (!cancelled.await(10, TimeUnit.SECONDS)) {
+                    throw new SQLException("not cancelled");
+                }
+            } catch (InterruptedException e) {
+                throw SQLExceptions.interrupted(e);
+            }
+        }
+    }
+}